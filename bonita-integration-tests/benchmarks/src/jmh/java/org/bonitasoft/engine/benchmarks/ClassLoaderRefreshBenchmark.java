@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
+import static org.bonitasoft.engine.home.BonitaResource.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.bonitasoft.engine.classloader.BonitaClassLoader;
+import org.bonitasoft.engine.classloader.BonitaClassLoaderFactory;
+import org.bonitasoft.engine.classloader.ClassLoaderIdentifier;
+import org.bonitasoft.engine.classloader.JarStore;
+import org.bonitasoft.engine.dependency.model.ScopeType;
+import org.bonitasoft.engine.home.BonitaResource;
+import org.bonitasoft.engine.io.IOUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Refreshing the class loader of a tenant having 200 dependency jars of about 100KB each.
+ * <p>
+ * refreshWithJarStore reuses the jars already in the jar store, as when refreshing or restarting;
+ * refreshWritingAllJars uses a new jar store each time, i.e. writes all jars as when they were written per class loader.
+ * loadClassOfParent loads a class that is in none of the jars; with indexed=false one of the jars can not be read so
+ * the packages are not indexed and all jars are scanned.
+ */
+@State(Scope.Benchmark)
+public class ClassLoaderRefreshBenchmark {
+
+    private static final int NUMBER_OF_JARS = 200;
+    private static final int CLASSES_PER_JAR = 50;
+    private static final ClassLoaderIdentifier TENANT = identifier(ScopeType.TENANT, 1L);
+
+    @Param({ "true", "false" })
+    public boolean indexed;
+
+    private final List<BonitaResource> jars = new ArrayList<>();
+    private File workFolder;
+    private JarStore jarStore;
+    private BonitaClassLoader classLoader;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < NUMBER_OF_JARS; i++) {
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int j = 0; j < CLASSES_PER_JAR; j++) {
+                byte[] content = new byte[2048];
+                random.nextBytes(content);
+                classes.put("com/acme/lib" + i + "/Class" + j + ".class", content);
+            }
+            jars.add(resource("lib" + i + ".jar", IOUtil.generateJar(classes)));
+        }
+        if (!indexed) {
+            jars.add(resource("broken.jar", "not a jar".getBytes()));
+        }
+        workFolder = Files.createTempDirectory("classloader-benchmark").toFile();
+        jarStore = new JarStore(new File(workFolder, "store").toPath());
+        classLoader = createClassLoader(jarStore);
+    }
+
+    @TearDown
+    public void tearDown() {
+        classLoader.destroy();
+        FileUtils.deleteQuietly(workFolder);
+    }
+
+    @Benchmark
+    public Object refreshWithJarStore() throws IOException {
+        BonitaClassLoader refreshed = createClassLoader(jarStore);
+        refreshed.destroy();
+        return refreshed;
+    }
+
+    @Benchmark
+    public Object refreshWritingAllJars() throws IOException {
+        File storeFolder = Files.createTempDirectory(workFolder.toPath(), "store").toFile();
+        BonitaClassLoader refreshed = createClassLoader(new JarStore(storeFolder.toPath()));
+        refreshed.destroy();
+        FileUtils.deleteQuietly(storeFolder);
+        return refreshed;
+    }
+
+    @Benchmark
+    public Object loadClassOfParent() throws ClassNotFoundException {
+        return classLoader.loadClass("org.bonitasoft.engine.benchmarks.ClassLoaderRefreshBenchmark");
+    }
+
+    private BonitaClassLoader createClassLoader(JarStore store) throws IOException {
+        return BonitaClassLoaderFactory.createClassLoader(jars.stream(), TENANT,
+                new File(workFolder, "classloaders").toURI(), ClassLoaderRefreshBenchmark.class.getClassLoader(),
+                store);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import org.bonitasoft.engine.data.instance.model.SXMLObjectDataInstance;
+import org.bonitasoft.engine.data.instance.model.impl.DataValueCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Writing then reading the value of an XML object data with each data value codec ('bonita.runtime.data.codec'), on
+ * a map of simple values as produced by forms, and on a list of POJOs.
+ * <p>
+ * readTwice reads the value of the same data instance twice, the second read using the memoized value.
+ */
+@State(Scope.Benchmark)
+public class DataValueCodecBenchmark {
+
+    @Param({ "xstream", "binary", "binary-deflate", "compact", "compact-deflate" })
+    public String codec;
+
+    @Param({ "map", "pojos" })
+    public String payload;
+
+    private Serializable value;
+    private String storedValue;
+
+    @Setup
+    public void setup() {
+        DataValueCodecs.setCurrentCodec(codec);
+        value = "map".equals(payload) ? aMap() : somePojos();
+        storedValue = DataValueCodecs.toText(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DataValueCodecs.setCurrentCodec("xstream");
+    }
+
+    @Benchmark
+    public Object write() {
+        return DataValueCodecs.toText(value);
+    }
+
+    @Benchmark
+    public Object read() {
+        return DataValueCodecs.fromText(storedValue);
+    }
+
+    @Benchmark
+    public Object readTwice() {
+        SXMLObjectDataInstance dataInstance = new SXMLObjectDataInstance();
+        dataInstance.setValue(value);
+        dataInstance.getValue();
+        return dataInstance.getValue();
+    }
+
+    private static HashMap<String, Serializable> aMap() {
+        HashMap<String, Serializable> map = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            map.put("field" + i, "value of field " + i);
+        }
+        map.put("amount", 1250.5d);
+        map.put("quantity", 12);
+        map.put("validated", true);
+        map.put("dueDate", new Date());
+        return map;
+    }
+
+    private static ArrayList<Pojo> somePojos() {
+        ArrayList<Pojo> pojos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pojos.add(new Pojo("Walter " + i, "Bates", i, new Date(), List.of("tag" + i, "customer")));
+        }
+        return pojos;
+    }
+
+    public static class Pojo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String firstName;
+        private final String lastName;
+        private final int age;
+        private final Date creationDate;
+        private final ArrayList<String> tags;
+
+        public Pojo(String firstName, String lastName, int age, Date creationDate, List<String> tags) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.age = age;
+            this.creationDate = creationDate;
+            this.tags = new ArrayList<>(tags);
+        }
+    }
+}
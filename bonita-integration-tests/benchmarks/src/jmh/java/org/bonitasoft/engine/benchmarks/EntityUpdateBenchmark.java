@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.commons.ClassReflector;
+import org.bonitasoft.engine.core.process.instance.model.SFlowNodeInstance;
+import org.bonitasoft.engine.core.process.instance.model.SUserTaskInstance;
+import org.bonitasoft.engine.persistence.EntityAccessorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Setting the 5 fields updated when a flow node changes of state, as done when an update descriptor is applied.
+ * <ul>
+ * <li>setFieldsByReflection: using {@link ClassReflector#setField(Object, String, Object)} for each field</li>
+ * <li>setFieldsWithRegistry: using the setters generated by the {@link EntityAccessorRegistry}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class EntityUpdateBenchmark {
+
+    private final SUserTaskInstance flowNode = new SUserTaskInstance();
+    private final Map<String, Object> fields = new HashMap<>();
+    private EntityAccessorRegistry registry;
+
+    @Setup
+    public void setup() {
+        registry = new EntityAccessorRegistry(List.of(SUserTaskInstance.class));
+        fields.put("stateId", 4);
+        fields.put("stateName", "executing");
+        fields.put("stable", false);
+        fields.put("terminal", false);
+        fields.put("reachedStateDate", System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public SFlowNodeInstance setFieldsByReflection() throws Exception {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            ClassReflector.setField(flowNode, field.getKey(), field.getValue());
+        }
+        return flowNode;
+    }
+
+    @Benchmark
+    public SFlowNodeInstance setFieldsWithRegistry() throws Exception {
+        registry.setFields(flowNode, fields);
+        return flowNode;
+    }
+}
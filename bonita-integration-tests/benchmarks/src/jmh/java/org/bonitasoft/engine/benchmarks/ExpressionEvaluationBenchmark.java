@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bonitasoft.engine.classloader.ClassLoaderService;
+import org.bonitasoft.engine.core.expression.control.api.ExpressionResolverService;
+import org.bonitasoft.engine.core.expression.control.api.impl.ExpressionResolverServiceImpl;
+import org.bonitasoft.engine.core.expression.control.model.SExpressionContext;
+import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
+import org.bonitasoft.engine.expression.impl.ConstantExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.impl.ExpressionServiceImpl;
+import org.bonitasoft.engine.expression.impl.ListExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.bonitasoft.engine.tracking.TimeTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluation of expression trees by the {@link ExpressionResolverService}, using list and constant expressions only so
+ * that the cost of resolving the tree is not hidden by the cost of the expressions themselves.
+ * <ul>
+ * <li>deep: a chain of nested lists, each one containing the next list and a constant</li>
+ * <li>wide: a single list containing many constants, some of them being equal</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ExpressionEvaluationBenchmark {
+
+    @Param({ "10", "50" })
+    public int depth;
+
+    @Param({ "10", "200" })
+    public int width;
+
+    private ExpressionResolverService expressionResolverService;
+    private SExpression deepExpression;
+    private SExpression wideExpression;
+
+    @Setup
+    public void setup() {
+        ExpressionServiceImpl expressionService = new ExpressionServiceImpl(false, mock(TimeTracker.class));
+        expressionService.setExpressionExecutorStrategy(
+                List.of(new ConstantExpressionExecutorStrategy(), new ListExpressionExecutorStrategy()));
+        expressionResolverService = new ExpressionResolverServiceImpl(expressionService,
+                mock(ProcessDefinitionService.class), mock(ClassLoaderService.class), mock(TimeTracker.class));
+
+        SExpression deep = constant(0);
+        for (int i = 1; i <= depth; i++) {
+            deep = list("level" + i, List.of(deep, constant(i)));
+        }
+        deepExpression = deep;
+
+        List<SExpression> elements = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            elements.add(constant(i % (width / 2 + 1)));
+        }
+        wideExpression = list("wide", elements);
+    }
+
+    @Benchmark
+    public Object evaluateDeepExpression() throws Exception {
+        return expressionResolverService.evaluate(deepExpression, new SExpressionContext());
+    }
+
+    @Benchmark
+    public Object evaluateWideExpression() throws Exception {
+        return expressionResolverService.evaluate(wideExpression, new SExpressionContext());
+    }
+
+    private static SExpression constant(int value) {
+        return new SExpressionImpl("constant" + value, String.valueOf(value), SExpression.TYPE_CONSTANT,
+                String.class.getName(), null, null);
+    }
+
+    private static SExpression list(String name, List<SExpression> elements) {
+        return new SExpressionImpl(name, name, SExpression.TYPE_LIST, List.class.getName(), null, elements);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.bonitasoft.engine.lock.BonitaLock;
+import org.bonitasoft.engine.lock.LockService;
+import org.bonitasoft.engine.lock.MemoryLockService;
+import org.bonitasoft.engine.lock.StripedMemoryLockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Lock/unlock throughput of the in memory lock services, with a growing number of threads locking process instances
+ * picked among {@link #NUMBER_OF_PROCESS_INSTANCES}.
+ */
+@State(Scope.Benchmark)
+public class LockServiceBenchmark {
+
+    private static final int NUMBER_OF_PROCESS_INSTANCES = 10_000;
+    private static final String OBJECT_TYPE = "SProcessInstance";
+    private static final long TENANT_ID = 1L;
+
+    @Param({ "memory", "striped" })
+    public String implementation;
+
+    private LockService lockService;
+
+    @Setup
+    public void setup() {
+        lockService = "striped".equals(implementation) ? new StripedMemoryLockService(60)
+                : new MemoryLockService(60);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockUnlock1Thread() throws Exception {
+        lockAndUnlock();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void lockUnlock4Threads() throws Exception {
+        lockAndUnlock();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void lockUnlock16Threads() throws Exception {
+        lockAndUnlock();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void lockUnlock64Threads() throws Exception {
+        lockAndUnlock();
+    }
+
+    private void lockAndUnlock() throws Exception {
+        long processInstanceId = ThreadLocalRandom.current().nextInt(NUMBER_OF_PROCESS_INSTANCES);
+        BonitaLock lock = lockService.lock(processInstanceId, OBJECT_TYPE, TENANT_ID);
+        lockService.unlock(lock, TENANT_ID);
+    }
+}
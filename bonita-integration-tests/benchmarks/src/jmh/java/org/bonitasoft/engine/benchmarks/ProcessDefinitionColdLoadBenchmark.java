@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
+import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
+import org.bonitasoft.engine.bpm.process.impl.ProcessDefinitionBuilder;
+import org.bonitasoft.engine.builder.BuilderFactory;
+import org.bonitasoft.engine.core.process.definition.ProcessDefinitionSnapshot;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionBuilderFactory;
+import org.bonitasoft.engine.expression.ExpressionBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Loading of a process definition that is not in the cache (after a restart or an eviction):
+ * <ul>
+ * <li>fromDesignContent: parse the XML design content and convert it to the runtime model</li>
+ * <li>fromSnapshot: read the binary snapshot of the runtime model</li>
+ * </ul>
+ * The process is a chain of automatic tasks having a display name and a data, each one followed by a gateway.
+ */
+@State(Scope.Benchmark)
+public class ProcessDefinitionColdLoadBenchmark {
+
+    @Param({ "100", "2000" })
+    public int elements;
+
+    private ProcessDefinitionBARContribution processDefinitionBARContribution;
+    private String designContent;
+    private byte[] snapshot;
+
+    @Setup
+    public void setup() throws Exception {
+        ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder().createNewInstance("coldLoad", "1.0");
+        builder.addStartEvent("start");
+        String previous = "start";
+        for (int i = 0; i < elements / 2; i++) {
+            String task = "task" + i;
+            String gateway = "gateway" + i;
+            builder.addAutomaticTask(task)
+                    .addDisplayName(new ExpressionBuilder().createGroovyScriptExpression("displayName" + i,
+                            "'Task ' + " + i, String.class.getName()))
+                    .addShortTextData("data" + i, new ExpressionBuilder().createConstantStringExpression("value"));
+            builder.addExclusiveGateway(gateway);
+            builder.addTransition(previous, task);
+            builder.addTransition(task, gateway);
+            previous = gateway;
+        }
+        DesignProcessDefinition designProcessDefinition = builder.done();
+        processDefinitionBARContribution = new ProcessDefinitionBARContribution();
+        designContent = processDefinitionBARContribution.convertProcessToXml(designProcessDefinition);
+        snapshot = ProcessDefinitionSnapshot.write(BuilderFactory.get(SProcessDefinitionBuilderFactory.class)
+                .createNewInstance(designProcessDefinition).done());
+    }
+
+    @Benchmark
+    public SProcessDefinition fromDesignContent() throws Exception {
+        DesignProcessDefinition designProcessDefinition = processDefinitionBARContribution
+                .convertXmlToProcess(designContent);
+        return BuilderFactory.get(SProcessDefinitionBuilderFactory.class).createNewInstance(designProcessDefinition)
+                .done();
+    }
+
+    @Benchmark
+    public SProcessDefinition fromSnapshot() throws Exception {
+        return ProcessDefinitionSnapshot.read(snapshot);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bonitasoft.engine.identity.IdentityService;
+import org.bonitasoft.engine.identity.model.SUser;
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.OrderByType;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SearchFields;
+import org.bonitasoft.engine.service.ServiceAccessor;
+import org.bonitasoft.engine.service.ServiceAccessorSingleton;
+import org.bonitasoft.engine.test.TestEngine;
+import org.bonitasoft.engine.test.TestEngineImpl;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Search of users using a search term, i.e. a LIKE '%term%' on the user name, first name, last name and job title:
+ * <ul>
+ * <li>like: search term index disabled, all rows of the user table are scanned</li>
+ * <li>index: search term index enabled, only users having all the trigrams of the term are checked</li>
+ * </ul>
+ * Creating the users takes a while, the 'users' parameter can be lowered to get a quicker run.
+ */
+@State(Scope.Benchmark)
+public class SearchTermIndexBenchmark {
+
+    private static final int CREATION_BATCH_SIZE = 1000;
+
+    private static final String[] JOB_TITLES = { "Accountant", "Developer", "Sales manager", "Support engineer",
+            "Human resources", "Product owner" };
+
+    @Param({ "like", "index" })
+    public String mode;
+
+    @Param({ "1000000" })
+    public int users;
+
+    private TestEngine engine;
+    private UserTransactionService userTransactionService;
+    private IdentityService identityService;
+
+    @Setup
+    public void setup() throws Exception {
+        System.setProperty("bonita.tenant.search.index.enabled", String.valueOf("index".equals(mode)));
+        engine = TestEngineImpl.getInstance();
+        engine.start();
+        final ServiceAccessor serviceAccessor = ServiceAccessorSingleton.getInstance();
+        serviceAccessor.getSessionAccessor().setTenantId(serviceAccessor.getTenantId());
+        userTransactionService = serviceAccessor.getUserTransactionService();
+        identityService = serviceAccessor.getIdentityService();
+        for (int from = 0; from < users; from += CREATION_BATCH_SIZE) {
+            final int batchStart = from;
+            userTransactionService.executeInTransaction(() -> {
+                for (int i = batchStart; i < Math.min(batchStart + CREATION_BATCH_SIZE, users); i++) {
+                    identityService.createUserWithoutEncryptingPassword(SUser.builder()
+                            .userName("user" + i)
+                            .password("bpm")
+                            .firstName("Firstname" + i % 5000)
+                            .lastName("Lastname" + i)
+                            .jobTitle(JOB_TITLES[i % JOB_TITLES.length])
+                            .enabled(true)
+                            .build());
+                }
+                return null;
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.clearProperty("bonita.tenant.search.index.enabled");
+        engine.stop();
+    }
+
+    /**
+     * Matches about a hundred users, e.g. user4242 and user424200
+     */
+    @Benchmark
+    public List<SUser> searchSelectiveTerm() throws Exception {
+        return search("user4242");
+    }
+
+    /**
+     * Matches 1/6th of the users
+     */
+    @Benchmark
+    public List<SUser> searchFrequentTerm() throws Exception {
+        return search("Developer");
+    }
+
+    private List<SUser> search(String term) throws Exception {
+        final QueryOptions queryOptions = new QueryOptions(0, 20,
+                singletonList(new OrderByOption(SUser.class, "userName", OrderByType.ASC)), emptyList(),
+                new SearchFields(singletonList(term), Map.of(SUser.class,
+                        Set.of("userName", "firstName", "lastName", "jobTitle"))));
+        return userTransactionService.executeInTransaction(() -> identityService.searchUsers(queryOptions));
+    }
+}
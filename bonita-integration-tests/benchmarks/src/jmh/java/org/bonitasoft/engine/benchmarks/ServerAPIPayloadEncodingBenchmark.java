@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bonitasoft.engine.api.impl.XmlConverter;
+import org.bonitasoft.engine.api.internal.ServerAPISerializer;
+import org.bonitasoft.engine.bpm.process.ProcessInstance;
+import org.bonitasoft.engine.bpm.process.impl.internal.ProcessInstanceImpl;
+import org.bonitasoft.engine.search.SearchResult;
+import org.bonitasoft.engine.search.impl.SearchResultImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Encoding then decoding of the result of a search on process instances, as done by the HTTP API:
+ * <ul>
+ * <li>xml: XStream XML encoding, the default</li>
+ * <li>binary: Java serialization, 'payload.encoding=binary'</li>
+ * <li>binaryCompressed: Java serialization compressed using gzip, 'payload.compression=true'</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ServerAPIPayloadEncodingBenchmark {
+
+    @Param({ "10", "1000" })
+    public int results;
+
+    private final XmlConverter xmlConverter = new XmlConverter();
+    private final ServerAPISerializer serializer = new ServerAPISerializer();
+    private SearchResult<ProcessInstance> searchResult;
+
+    @Setup
+    public void setup() {
+        List<ProcessInstance> processInstances = new ArrayList<>();
+        for (int i = 0; i < results; i++) {
+            ProcessInstanceImpl processInstance = new ProcessInstanceImpl("Process " + i);
+            processInstance.setId(i);
+            processInstance.setState("started");
+            processInstance.setStartDate(new Date());
+            processInstance.setLastUpdate(new Date());
+            processInstance.setProcessDefinitionId(12345L);
+            processInstance.setRootProcessInstanceId(i);
+            processInstance.setDescription("Description of process instance " + i);
+            processInstance.setStringIndex1("customer-" + i);
+            processInstance.setStringIndexLabel1("Customer");
+            processInstances.add(processInstance);
+        }
+        searchResult = new SearchResultImpl<>(results, processInstances);
+    }
+
+    @Benchmark
+    public Object xml() {
+        return xmlConverter.fromXML(xmlConverter.toXML(searchResult));
+    }
+
+    @Benchmark
+    public Object binary() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serializer.write(searchResult, outputStream);
+        return serializer.read(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    @Benchmark
+    public Object binaryCompressed() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressedStream = new GZIPOutputStream(outputStream)) {
+            serializer.write(searchResult, compressedStream);
+        }
+        return serializer.read(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+    }
+}
@@ -16,14 +16,18 @@ package org.bonitasoft.engine.benchmarks;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import javax.transaction.Status;
+
 import org.bonitasoft.engine.execution.work.BPMWorkFactory;
 import org.bonitasoft.engine.service.ServiceAccessor;
 import org.bonitasoft.engine.service.ServiceAccessorSingleton;
 import org.bonitasoft.engine.test.TestEngine;
 import org.bonitasoft.engine.test.TestEngineImpl;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.bonitasoft.engine.work.BonitaWork;
 import org.bonitasoft.engine.work.WorkDescriptor;
+import org.bonitasoft.engine.work.WorkExecutorService;
 import org.bonitasoft.engine.work.WorkService;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
@@ -37,6 +41,7 @@ public class TransactionSynchronizationBenchmark {
     private TestEngine engine;
     private UserTransactionService userTransactionService;
     private WorkService workService;
+    private WorkExecutorService workExecutorService;
 
     @Setup
     public void setup() throws Exception {
@@ -45,6 +50,7 @@ public class TransactionSynchronizationBenchmark {
         final ServiceAccessor serviceAccessor = ServiceAccessorSingleton.getInstance();
         userTransactionService = serviceAccessor.getUserTransactionService();
         workService = serviceAccessor.getWorkService();
+        workExecutorService = serviceAccessor.getWorkExecutorService();
         BPMWorkFactory bpmWorkFactory = serviceAccessor.getBPMWorkFactory();
         bpmWorkFactory.addExtension("BENCHMARK_WORK", workDescriptor -> new BonitaWork() {
 
@@ -80,6 +86,36 @@ public class TransactionSynchronizationBenchmark {
         });
     }
 
+    /**
+     * Previous behavior of the work service: one synchronization registered and triggered for each work.
+     * To be compared with {@link #register1000Works()} where all works of the transaction share one synchronization.
+     */
+    @Benchmark
+    public void register1000WorksWithOneSynchronizationPerWork() throws Exception {
+        userTransactionService.executeInTransaction(() -> {
+            for (int i = 0; i < 1000; i++) {
+                WorkDescriptor work = WorkDescriptor.create("BENCHMARK_WORK");
+                userTransactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) status -> {
+                    if (status == Status.STATUS_COMMITTED) {
+                        userTransactionService.hasMultipleResources();
+                        workExecutorService.execute(work);
+                    }
+                });
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void register100Works() throws Exception {
+        userTransactionService.executeInTransaction(() -> {
+            for (int i = 0; i < 100; i++) {
+                workService.registerWork(WorkDescriptor.create("BENCHMARK_WORK"));
+            }
+            return null;
+        });
+    }
+
     @Benchmark
     public void register1Works() throws Exception {
         userTransactionService.executeInTransaction(() -> {
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.expression.ContainerState;
+import org.bonitasoft.engine.expression.impl.XPathReadExpressionExecutorStrategy;
+import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.SExpressionType;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluation of 10 XPath read expressions on the same xml variable of about 50KB.
+ * <ul>
+ * <li>evaluateOneByOne: each expression is evaluated alone, parsing the xml each time</li>
+ * <li>evaluateAll: all expressions are evaluated in a single call, parsing the xml once</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class XPathReadBenchmark {
+
+    private static final int NUMBER_OF_BOOKS = 400;
+    private static final int NUMBER_OF_EXPRESSIONS = 10;
+
+    private final XPathReadExpressionExecutorStrategy strategy = new XPathReadExpressionExecutorStrategy();
+    private final List<SExpression> expressions = new ArrayList<>();
+    private final Map<Integer, Object> resolvedExpressions = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        StringBuilder xml = new StringBuilder("<catalog>");
+        for (int i = 0; i < NUMBER_OF_BOOKS; i++) {
+            xml.append("<book id=\"bk").append(i).append("\"><author>Author ").append(i)
+                    .append("</author><title>Title of the book number ").append(i)
+                    .append("</title><price>").append(i % 50).append(".95</price><quantity>").append(i)
+                    .append("</quantity></book>");
+        }
+        xml.append("</catalog>");
+        SExpression variable = new SExpressionImpl("books", "books", SExpression.TYPE_VARIABLE,
+                String.class.getName(), null, null);
+        resolvedExpressions.put(variable.getDiscriminant(), xml.toString());
+        for (int i = 0; i < NUMBER_OF_EXPRESSIONS; i++) {
+            int book = i * NUMBER_OF_BOOKS / NUMBER_OF_EXPRESSIONS;
+            expressions.add(new SExpressionImpl("title" + i, "//book[@id='bk" + book + "']/title",
+                    SExpressionType.TYPE_XPATH_READ.name(), String.class.getName(), null, List.of(variable)));
+        }
+    }
+
+    @Benchmark
+    public List<Object> evaluateOneByOne() throws Exception {
+        List<Object> results = new ArrayList<>(expressions.size());
+        for (SExpression expression : expressions) {
+            results.add(strategy.evaluate(expression, new HashMap<>(), resolvedExpressions, ContainerState.ACTIVE));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<Object> evaluateAll() throws Exception {
+        return strategy.evaluate(expressions, new HashMap<>(), resolvedExpressions, ContainerState.ACTIVE);
+    }
+}
@@ -138,7 +138,14 @@ public class GatewayInstanceServiceIT extends CommonBPMServicesTest {
 
         final SGatewayInstance gatewayInstanceRes2 = getGatewayInstanceFromDB(gatewayInstance.getId());
         assertNotNull(gatewayInstanceRes2);
-        assertEquals("1,2,3,4", gatewayInstanceRes2.getHitBys());
+        assertEquals(0b1111, gatewayInstanceRes2.getHitTransitions());
+        assertEquals("", gatewayInstanceRes2.getHitBys());
+
+        updateGatewayHitbys(gatewayInstanceRes2, 2);
+
+        final SGatewayInstance gatewayInstanceRes3 = getGatewayInstanceFromDB(gatewayInstance.getId());
+        assertEquals(0b1111, gatewayInstanceRes3.getHitTransitions());
+        assertEquals("2", gatewayInstanceRes3.getHitBys());
 
         deleteGatewayInstance(gatewayInstanceRes);
     }
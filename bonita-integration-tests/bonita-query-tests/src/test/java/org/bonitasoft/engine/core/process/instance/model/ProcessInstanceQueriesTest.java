@@ -1003,4 +1003,46 @@ public class ProcessInstanceQueriesTest {
 
         assertThat(processInstanceIdsToRestart).containsOnly(1L, 2L, 3L, 4L, 5L);
     }
+
+    @Test
+    public void should_return_process_instance_ids_to_restart_after_the_given_id_ordered_by_id() {
+        for (long id = 1; id <= 7; id++) {
+            repository.add(SProcessInstance.builder().id(id).name("process" + id).stateId(INITIALIZING.getId())
+                    .build());
+        }
+
+        long now = System.currentTimeMillis();
+        List<Long> firstPage = repository.getProcessInstanceIdsToRecover(now, 0L, 3);
+        List<Long> secondPage = repository.getProcessInstanceIdsToRecover(now, firstPage.get(2), 3);
+        List<Long> lastPage = repository.getProcessInstanceIdsToRecover(now, secondPage.get(2), 3);
+
+        assertThat(firstPage).containsExactly(1L, 2L, 3L);
+        assertThat(secondPage).containsExactly(4L, 5L, 6L);
+        assertThat(lastPage).containsExactly(7L);
+    }
+
+    @Test
+    public void open_process_instance_queries_should_exclude_process_instances_queued_for_archiving() {
+        final long userId = 2L;
+        repository.add(aSupervisor().withProcessDefinitionId(15L).withUserId(userId).build());
+        repository.add(SProcessInstance.builder().id(1).name("process1").processDefinitionId(15L)
+                .stateId(STARTED.getId()).startedBy(userId).build());
+        repository.add(SProcessInstance.builder().id(2).name("process2").processDefinitionId(15L)
+                .stateId(ABORTED.getId()).startedBy(userId).build());
+        repository.add(SProcessInstanceToArchive.builder().id(2).processDefinitionId(15L)
+                .queuedDate(System.currentTimeMillis()).build());
+        repository.flush();
+
+        assertThat(repository.selectCount("getNumberOfSProcessInstanceOpen")).isEqualTo(1);
+        assertThat(repository.<SProcessInstance> selectList("searchSProcessInstanceOpen"))
+                .extracting(SProcessInstance::getId).containsExactly(1L);
+        assertThat(repository.selectCount("getNumberOfSProcessInstanceSupervisedBy", pair("userId", userId)))
+                .isEqualTo(1);
+        assertThat(repository.<SProcessInstance> selectList("searchSProcessInstanceSupervisedBy",
+                pair("userId", userId))).extracting(SProcessInstance::getId).containsExactly(1L);
+        assertThat(repository.selectCount("getNumberOfSProcessInstanceInvolvingUser", pair("userId", userId)))
+                .isEqualTo(1);
+        assertThat(repository.<SProcessInstance> selectList("searchSProcessInstanceInvolvingUser",
+                pair("userId", userId))).extracting(SProcessInstance::getId).containsExactly(1L);
+    }
 }
@@ -159,8 +159,15 @@ public class ProcessInstanceRepository extends TestRepository {
     }
 
     public List<Long> getProcessInstanceIdsToRecover(final long maxLastUpdate) {
+        return getProcessInstanceIdsToRecover(maxLastUpdate, 0L, Integer.MAX_VALUE);
+    }
+
+    public List<Long> getProcessInstanceIdsToRecover(final long maxLastUpdate, final long afterId,
+            final int maxResults) {
         final Query<Long> namedQuery = getNamedQuery("getProcessInstanceIdsToRecover");
         namedQuery.setParameter("maxLastUpdate", maxLastUpdate);
+        namedQuery.setParameter("afterId", afterId);
+        namedQuery.setMaxResults(maxResults);
         return namedQuery.list();
     }
 
@@ -16,12 +16,18 @@ package org.bonitasoft.engine.api.internal.servlet;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -29,8 +35,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.fileupload.FileUploadException;
 import org.bonitasoft.engine.api.impl.ServerAPIFactory;
 import org.bonitasoft.engine.api.internal.ServerAPI;
+import org.bonitasoft.engine.api.internal.ServerAPIBatch;
+import org.bonitasoft.engine.api.internal.ServerAPIBatchResult;
+import org.bonitasoft.engine.api.internal.ServerAPICall;
+import org.bonitasoft.engine.api.internal.ServerAPISerializer;
 import org.bonitasoft.engine.api.internal.ServerWrappedException;
 import org.bonitasoft.engine.api.internal.servlet.impl.XmlConverter;
+import org.bonitasoft.engine.exception.BonitaRuntimeException;
 import org.bonitasoft.engine.exception.StackTraceTransformer;
 
 /**
@@ -53,8 +64,14 @@ public class HttpAPIServletCall extends ServletCall {
 
     private static final String OPTIONS = "options";
 
+    private static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
     private XmlConverter xmlConverter;
 
+    private final ServerAPISerializer serializer = ServerAPISerializer.forRequests();
+
     public HttpAPIServletCall(final HttpServletRequest request, final HttpServletResponse response)
             throws FileUploadException, IOException {
         super(request, response);
@@ -73,6 +90,10 @@ public class HttpAPIServletCall extends ServletCall {
 
     @Override
     public void doPost() {
+        if (ServerAPISerializer.isBinary(getRequest().getContentType())) {
+            doBinaryPost();
+            return;
+        }
         try {
             String apiInterfaceName = null;
             String methodName = null;
@@ -128,6 +149,118 @@ public class HttpAPIServletCall extends ServletCall {
         }
     }
 
+    /**
+     * Execute a {@link ServerAPICall} or a {@link ServerAPIBatch} read from the request body, and write its result, or
+     * the exception it threw, to the response body, both using the binary encoding. Bodies are compressed using gzip
+     * when the request body is compressed and the client accepts gzip.
+     * The request body is read before any session is checked, so only allowed classes are read and its size is
+     * limited, see {@link ServerAPISerializer#forRequests()}.
+     */
+    private void doBinaryPost() {
+        if (getRequest().getContentLengthLong() > serializer.getMaxBytes()) {
+            outputBinary(new BonitaRuntimeException("The request body exceeds the maximum size allowed of "
+                    + serializer.getMaxBytes() + " bytes"), HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        Object result;
+        int status = HttpServletResponse.SC_OK;
+        try {
+            final Object call;
+            try (InputStream requestBody = getRequestBody()) {
+                call = serializer.read(requestBody);
+            }
+            if (call instanceof ServerAPIBatch) {
+                result = invokeBatch((ServerAPIBatch) call);
+            } else if (call instanceof ServerAPICall) {
+                result = invoke((ServerAPICall) call);
+            } else {
+                throw new IllegalArgumentException("Unexpected request body: " + call);
+            }
+        } catch (final Exception e) {
+            result = toThrowable(e);
+            status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        }
+        outputBinary(result, status);
+    }
+
+    private InputStream getRequestBody() throws IOException {
+        final InputStream requestBody = getRequest().getInputStream();
+        return isCompressedRequest() ? new GZIPInputStream(requestBody, BUFFER_SIZE) : requestBody;
+    }
+
+    private boolean isCompressedRequest() {
+        return GZIP.equalsIgnoreCase(getRequest().getHeader("Content-Encoding"));
+    }
+
+    private Object invoke(final ServerAPICall call) throws ServerWrappedException {
+        try {
+            return getServerAPI().invokeMethod(call.getOptions(), call.getApiInterfaceName(), call.getMethodName(),
+                    call.getClassNameParameters(), call.getParametersValues());
+        } catch (ServerWrappedException e) {
+            // merge stack trace of the server exception
+            throw StackTraceTransformer.mergeStackTraces(e);
+        }
+    }
+
+    private ServerAPIBatchResult invokeBatch(final ServerAPIBatch batch) {
+        final List<ServerAPICall> calls = batch.getCalls();
+        final Object[] results = new Object[calls.size()];
+        final Throwable[] failures = new Throwable[calls.size()];
+        int numberOfExecutedCalls = 0;
+        for (final ServerAPICall call : calls) {
+            try {
+                results[numberOfExecutedCalls] = invoke(call);
+            } catch (final Exception e) {
+                failures[numberOfExecutedCalls] = toThrowable(e);
+            }
+            numberOfExecutedCalls++;
+            if (batch.isStopOnFailure() && failures[numberOfExecutedCalls - 1] != null) {
+                break;
+            }
+        }
+        return new ServerAPIBatchResult(results, failures, numberOfExecutedCalls);
+    }
+
+    private void outputBinary(final Object result, final int status) {
+        final HttpServletResponse response = getResponse();
+        try {
+            writeBinary(result, status);
+        } catch (final IOException e) {
+            if (response.isCommitted()) {
+                throw new UncheckedIOException("Unable to write the response", e);
+            }
+            // e.g. the result is not serializable, nothing was sent yet
+            response.resetBuffer();
+            try {
+                writeBinary(new BonitaRuntimeException("Unable to serialize the result " + result, e),
+                        HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            } catch (final IOException ioException) {
+                throw new UncheckedIOException("Unable to write the response", ioException);
+            }
+        }
+    }
+
+    private void writeBinary(final Object result, final int status) throws IOException {
+        final HttpServletResponse response = getResponse();
+        response.setStatus(status);
+        response.setContentType(ServerAPISerializer.CONTENT_TYPE);
+        final OutputStream responseBody = response.getOutputStream();
+        if (isCompressedRequest() && acceptsGzip()) {
+            response.setHeader("Content-Encoding", GZIP);
+            final GZIPOutputStream compressedBody = new GZIPOutputStream(responseBody, BUFFER_SIZE);
+            serializer.write(result, compressedBody);
+            compressedBody.finish();
+        } else {
+            serializer.write(result, responseBody);
+        }
+        responseBody.flush();
+    }
+
+    private boolean acceptsGzip() {
+        final String acceptEncoding = getRequest().getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+    }
+
     // Visible for testing
     ServerAPI getServerAPI() {
         return ServerAPIFactory.getServerAPI();
@@ -144,11 +277,14 @@ public class HttpAPIServletCall extends ServletCall {
     }
 
     private String toResponse(final Exception exception) {
-        Throwable result = exception;
+        return xmlConverter.toXML(toThrowable(exception));
+    }
+
+    private static Throwable toThrowable(final Exception exception) {
         if (exception instanceof ServerWrappedException) {
-            result = exception.getCause();
+            return exception.getCause();
         }
-        return xmlConverter.toXML(result);
+        return exception;
     }
 
 }
@@ -115,6 +115,20 @@ public abstract class ServletCall {
         }
     }
 
+    /**
+     * @return the request made to access this servletCall
+     */
+    protected final HttpServletRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the response to return
+     */
+    protected final HttpServletResponse getResponse() {
+        return response;
+    }
+
     /**
      * @return the binaryParameters
      */
@@ -14,14 +14,25 @@
 package org.bonitasoft.engine.api.internal.servlet;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 
 import org.bonitasoft.engine.api.internal.ServerAPI;
+import org.bonitasoft.engine.api.internal.ServerAPIBatch;
+import org.bonitasoft.engine.api.internal.ServerAPIBatchResult;
+import org.bonitasoft.engine.api.internal.ServerAPICall;
+import org.bonitasoft.engine.api.internal.ServerAPISerializer;
+import org.bonitasoft.engine.api.internal.ServerWrappedException;
+import org.bonitasoft.engine.exception.BonitaException;
 import org.bonitasoft.engine.session.impl.APISessionImpl;
 import org.junit.Rule;
 import org.junit.Test;
@@ -94,10 +105,117 @@ public class HttpAPIServletCallTest {
                 "</object-stream>");
     }
 
+    @Test
+    public void should_execute_binary_call_and_return_binary_result() throws Exception {
+        //given:
+        ServerAPICall call = new ServerAPICall(new HashMap<>(), "com.bonitasoft.engine.api.LoginAPI", "login",
+                asList(String.class.getName(), String.class.getName()), new Object[] { "install", "install" });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpAPIServletCall httpAPIServletCall = spy(new HttpAPIServletCall(binaryRequest(call), response));
+        ServerAPI serverAPI = mock(ServerAPI.class);
+        doReturn(serverAPI).when(httpAPIServletCall).getServerAPI();
+        APISessionImpl apiSession = new APISessionImpl(12L, date("2018-06-07T15:10:09.132Z"), 3600000, "install", -1,
+                "default", 1L);
+        when(serverAPI.invokeMethod(new HashMap<>(), "com.bonitasoft.engine.api.LoginAPI", "login",
+                asList(String.class.getName(), String.class.getName()), new Object[] { "install", "install" }))
+                .thenReturn(apiSession);
+
+        //when:
+        httpAPIServletCall.doPost();
+
+        //then:
+        assertThat(response.getStatus()).as("Response status").isEqualTo(200);
+        assertThat(response.getContentType()).as("Response content type").isEqualTo(ServerAPISerializer.CONTENT_TYPE);
+        APISessionImpl result = new ServerAPISerializer()
+                .read(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertThat(result.getId()).isEqualTo(12L);
+        assertThat(result.getUserName()).isEqualTo("install");
+    }
+
+    @Test
+    public void should_stop_executing_batch_calls_after_a_failure() throws Exception {
+        //given:
+        ServerAPICall call1 = new ServerAPICall(new HashMap<>(), "api", "method1", emptyList(), new Object[0]);
+        ServerAPICall call2 = new ServerAPICall(new HashMap<>(), "api", "method2", emptyList(), new Object[0]);
+        ServerAPICall call3 = new ServerAPICall(new HashMap<>(), "api", "method3", emptyList(), new Object[0]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpAPIServletCall httpAPIServletCall = spy(new HttpAPIServletCall(
+                binaryRequest(new ServerAPIBatch(asList(call1, call2, call3), true)), response));
+        ServerAPI serverAPI = mock(ServerAPI.class);
+        doReturn(serverAPI).when(httpAPIServletCall).getServerAPI();
+        when(serverAPI.invokeMethod(new HashMap<>(), "api", "method1", emptyList(), new Object[0]))
+                .thenReturn("result1");
+        when(serverAPI.invokeMethod(new HashMap<>(), "api", "method2", emptyList(), new Object[0]))
+                .thenThrow(new ServerWrappedException(new BonitaException("failure")));
+
+        //when:
+        httpAPIServletCall.doPost();
+
+        //then:
+        ServerAPIBatchResult result = new ServerAPISerializer()
+                .read(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertThat(result.getResult(0)).isEqualTo("result1");
+        assertThat(result.isFailed(1)).isTrue();
+        assertThat(catchThrowable(() -> result.getResult(1))).hasRootCauseInstanceOf(BonitaException.class);
+        assertThat(result.isExecuted(2)).isFalse();
+        verify(serverAPI, never()).invokeMethod(new HashMap<>(), "api", "method3", emptyList(), new Object[0]);
+    }
+
+    @Test
+    public void should_not_execute_binary_call_having_a_class_that_is_not_allowed() throws Exception {
+        //given:
+        ServerAPICall call = new ServerAPICall(new HashMap<>(), "api", "method", asList(File.class.getName()),
+                new Object[] { new File("file") });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpAPIServletCall httpAPIServletCall = spy(new HttpAPIServletCall(binaryRequest(call), response));
+        ServerAPI serverAPI = mock(ServerAPI.class);
+        doReturn(serverAPI).when(httpAPIServletCall).getServerAPI();
+
+        //when:
+        httpAPIServletCall.doPost();
+
+        //then:
+        assertThat(response.getStatus()).as("Response status").isEqualTo(500);
+        assertThat((Object) new ServerAPISerializer().read(new ByteArrayInputStream(response.getContentAsByteArray())))
+                .isInstanceOf(Throwable.class);
+        verifyNoInteractions(serverAPI);
+    }
+
+    @Test
+    public void should_reject_binary_request_body_exceeding_the_maximum_size() throws Exception {
+        //given:
+        ServerAPICall call = new ServerAPICall(new HashMap<>(), "api", "method", asList(byte[].class.getName()),
+                new Object[] { new byte[2048] });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        System.setProperty(ServerAPISerializer.MAX_BYTES_PROPERTY, "1024");
+        HttpAPIServletCall httpAPIServletCall;
+        try {
+            httpAPIServletCall = spy(new HttpAPIServletCall(binaryRequest(call), response));
+        } finally {
+            System.clearProperty(ServerAPISerializer.MAX_BYTES_PROPERTY);
+        }
+
+        //when:
+        httpAPIServletCall.doPost();
+
+        //then:
+        assertThat(response.getStatus()).as("Response status").isEqualTo(413);
+        verify(httpAPIServletCall, never()).getServerAPI();
+    }
+
     // =================================================================================================================
     // UTILS
     // =================================================================================================================
 
+    private static MockHttpServletRequest binaryRequest(Object call) throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        new ServerAPISerializer().write(call, content);
+        return MockMvcRequestBuilders.post("http://localhost/serverAPI/api/method")
+                .contentType(ServerAPISerializer.CONTENT_TYPE)
+                .content(content.toByteArray())
+                .buildRequest(new MockServletContext());
+    }
+
     private static Date date(String date) {
         return Date.from(Instant.parse(date));
     }
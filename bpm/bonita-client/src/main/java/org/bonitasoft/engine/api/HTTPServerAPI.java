@@ -18,14 +18,18 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
@@ -34,14 +38,20 @@ import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.EntityTemplate;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.impl.client.BasicResponseHandler;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 import org.bonitasoft.engine.api.impl.XmlConverter;
 import org.bonitasoft.engine.api.internal.ServerAPI;
+import org.bonitasoft.engine.api.internal.ServerAPIBatch;
+import org.bonitasoft.engine.api.internal.ServerAPIBatchResult;
+import org.bonitasoft.engine.api.internal.ServerAPICall;
+import org.bonitasoft.engine.api.internal.ServerAPISerializer;
 import org.bonitasoft.engine.api.internal.ServerWrappedException;
 import org.bonitasoft.engine.bpm.bar.BusinessArchive;
 import org.bonitasoft.engine.digest.DigestUtils;
@@ -51,6 +61,11 @@ import org.bonitasoft.engine.exception.StackTraceTransformer;
  * Call the remote engine using HTTP post
  * That class serialize api call parameters in a XML body and post it to the serverAPI servlet like this
  * /serverAPI/[api interface name]/[method name]
+ * <p>
+ * When the 'payload.encoding' parameter is set to 'binary', calls and results are instead serialized using Java
+ * serialization, streamed directly to and from the HTTP bodies, and compressed using gzip when 'payload.compression'
+ * is true. The binary encoding also allows to execute several calls in one request, see
+ * {@link #invokeMethods(List, boolean)}.
  */
 public class HTTPServerAPI implements ServerAPI {
 
@@ -70,6 +85,10 @@ public class HTTPServerAPI implements ServerAPI {
 
     private static final char SLASH = '/';
 
+    private static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
     private static final String SERVER_API = "/serverAPI/";
 
     // package-private for testing purpose
@@ -84,6 +103,14 @@ public class HTTPServerAPI implements ServerAPI {
     // package-private for testing purpose
     static final String APPLICATION_NAME = "application.name";
     static final String CONNECTIONS_MAX = "connections.max";
+    static final String PAYLOAD_ENCODING = "payload.encoding";
+    static final String PAYLOAD_COMPRESSION = "payload.compression";
+
+    private static final String BINARY_ENCODING = "binary";
+
+    private static final String XML_ENCODING = "xml";
+
+    private static final String BATCH = "batch";
 
     private final String serverUrl;
 
@@ -95,10 +122,30 @@ public class HTTPServerAPI implements ServerAPI {
 
     private final String basicAuthenticationPassword;
 
+    private final boolean binaryEncoding;
+
+    private final boolean compression;
+
     private static HttpClient httpclient;
 
     private static final ResponseHandler<String> RESPONSE_HANDLER = new BasicResponseHandler();
 
+    private static final ServerAPISerializer SERIALIZER = new ServerAPISerializer();
+
+    private static final ResponseHandler<Object> BINARY_RESPONSE_HANDLER = response -> {
+        final HttpEntity entity = response.getEntity();
+        final Header contentType = entity != null ? entity.getContentType() : null;
+        if (contentType == null || !ServerAPISerializer.isBinary(contentType.getValue())) {
+            EntityUtils.consume(entity);
+            throw new HttpResponseException(response.getStatusLine().getStatusCode(),
+                    "Response is not using the binary encoding, check that the server supports it: "
+                            + response.getStatusLine().getReasonPhrase());
+        }
+        try (InputStream content = entity.getContent()) {
+            return SERIALIZER.read(content);
+        }
+    };
+
     private final XmlConverter xmlConverter;
 
     public HTTPServerAPI(final Map<String, String> parameters) {
@@ -113,6 +160,13 @@ public class HTTPServerAPI implements ServerAPI {
         basicAuthenticationActive = "true".equalsIgnoreCase(parameters.get(BASIC_AUTHENTICATION_ACTIVE));
         basicAuthenticationUserName = parameters.get(BASIC_AUTHENTICATION_USERNAME);
         basicAuthenticationPassword = parameters.get(BASIC_AUTHENTICATION_PASSWORD);
+        final String payloadEncoding = parameters.getOrDefault(PAYLOAD_ENCODING, XML_ENCODING);
+        if (!XML_ENCODING.equalsIgnoreCase(payloadEncoding) && !BINARY_ENCODING.equalsIgnoreCase(payloadEncoding)) {
+            throw new IllegalArgumentException(
+                    "Client payload encoding '" + PAYLOAD_ENCODING + "' must be set to 'xml' or 'binary'");
+        }
+        binaryEncoding = BINARY_ENCODING.equalsIgnoreCase(payloadEncoding);
+        compression = "true".equalsIgnoreCase(parameters.get(PAYLOAD_COMPRESSION));
     }
 
     private HttpClient createHttpClient(final Map<String, String> parameters) {
@@ -135,6 +189,11 @@ public class HTTPServerAPI implements ServerAPI {
             final List<String> classNameParameters, final Object[] parametersValues) throws ServerWrappedException {
         String response = null;
         try {
+            if (binaryEncoding) {
+                return throwIfFailure(executeBinaryHttpPost(apiInterfaceName + SLASH + methodName,
+                        new ServerAPICall(options, apiInterfaceName, methodName, classNameParameters,
+                                parametersValues)));
+            }
             response = executeHttpPost(options, apiInterfaceName, methodName, classNameParameters, parametersValues);
             return checkInvokeMethodReturn(response);
         } catch (final UndeclaredThrowableException e) {
@@ -146,18 +205,78 @@ public class HTTPServerAPI implements ServerAPI {
         }
     }
 
+    /**
+     * Execute several calls in a single HTTP request, using the binary encoding whatever the configured encoding.
+     * Calls are executed one after the other, each one in its own transaction.
+     *
+     * @param calls the calls to execute, in order
+     * @param stopOnFailure true to not execute the calls following a failed call
+     * @return the result of each call
+     * @throws ServerWrappedException when the request itself failed
+     */
+    public ServerAPIBatchResult invokeMethods(final List<ServerAPICall> calls, final boolean stopOnFailure)
+            throws ServerWrappedException {
+        try {
+            return (ServerAPIBatchResult) throwIfFailure(
+                    executeBinaryHttpPost(BATCH, new ServerAPIBatch(calls, stopOnFailure)));
+        } catch (final Throwable e) {
+            final StackTraceElement[] stackTrace = new Exception().getStackTrace();
+            StackTraceTransformer.addStackTo(e, stackTrace);
+            throw new ServerWrappedException(e.getMessage() + " / calls: " + calls, e);
+        }
+    }
+
     // package-private for testing purpose
     Object checkInvokeMethodReturn(final String response) throws Throwable {
         Object invokeMethodReturn = null;
         if (response != null && !response.isEmpty() && !"null".equals(response)) {
-            invokeMethodReturn = xmlConverter.fromXML(response);
-            if (invokeMethodReturn instanceof Throwable) {
-                throw (Throwable) invokeMethodReturn;
-            }
+            invokeMethodReturn = throwIfFailure(xmlConverter.fromXML(response));
+        }
+        return invokeMethodReturn;
+    }
+
+    private static Object throwIfFailure(final Object invokeMethodReturn) throws Throwable {
+        if (invokeMethodReturn instanceof Throwable) {
+            throw (Throwable) invokeMethodReturn;
         }
         return invokeMethodReturn;
     }
 
+    // package-private for testing purpose
+    Object executeBinaryHttpPost(final String path, final Serializable call) throws IOException {
+        final HttpPost httpPost = createHttpPost(path);
+        httpPost.setEntity(buildBinaryEntity(call));
+        httpPost.setHeader(HttpHeaders.ACCEPT, ServerAPISerializer.CONTENT_TYPE);
+        try {
+            return httpclient.execute(httpPost, BINARY_RESPONSE_HANDLER);
+        } catch (final ClientProtocolException e) {
+            String httpCodeMessage = "";
+            if (e instanceof HttpResponseException) {
+                final int statusCode = ((HttpResponseException) e).getStatusCode();
+                httpCodeMessage = format(" (http code: %s)", statusCode);
+            }
+            throw new IOException("Error while executing POST request" + httpCodeMessage + " <" + httpPost + ">", e);
+        }
+    }
+
+    // package-private for testing purpose
+    HttpEntity buildBinaryEntity(final Serializable call) {
+        final EntityTemplate entity = new EntityTemplate(outputStream -> {
+            if (compression) {
+                final GZIPOutputStream compressedStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+                SERIALIZER.write(call, compressedStream);
+                compressedStream.finish();
+            } else {
+                SERIALIZER.write(call, outputStream);
+            }
+        });
+        entity.setContentType(ServerAPISerializer.CONTENT_TYPE);
+        if (compression) {
+            entity.setContentEncoding(GZIP);
+        }
+        return entity;
+    }
+
     // package-private for testing purpose
     String executeHttpPost(final Map<String, Serializable> options, final String apiInterfaceName,
             final String methodName,
@@ -181,11 +300,15 @@ public class HTTPServerAPI implements ServerAPI {
             final String methodName,
             final List<String> classNameParameters, final Object[] parametersValues) throws IOException {
         final HttpEntity httpEntity = buildEntity(options, classNameParameters, parametersValues);
+        final HttpPost httpPost = createHttpPost(apiInterfaceName + SLASH + methodName);
+        httpPost.setEntity(httpEntity);
+        return httpPost;
+    }
+
+    private HttpPost createHttpPost(final String path) {
         final StringBuilder sBuilder = new StringBuilder(serverUrl);
-        sBuilder.append(SLASH).append(applicationName).append(SERVER_API).append(apiInterfaceName).append(SLASH)
-                .append(methodName);
+        sBuilder.append(SLASH).append(applicationName).append(SERVER_API).append(path);
         final HttpPost httpPost = new HttpPost(sBuilder.toString());
-        httpPost.setEntity(httpEntity);
 
         // Basic authentication
         if (basicAuthenticationActive) {
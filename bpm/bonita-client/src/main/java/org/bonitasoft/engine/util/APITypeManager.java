@@ -57,6 +57,11 @@ import org.bonitasoft.engine.io.PropertiesManager;
  * Optionally you can specify the maximum number of connections (JVM-wide) using
  * <code>-Dorg.bonitasoft.engine.api-type.connections.max=CONNECTIONS_MAX</code>
  * </p>
+ * <p>
+ * Optionally you can exchange calls and results using Java serialization instead of XML with
+ * <code>-Dorg.bonitasoft.engine.api-type.payload.encoding=binary</code>, and compress them using
+ * <code>-Dorg.bonitasoft.engine.api-type.payload.compression=true</code>
+ * </p>
  * </li>
  * <li>TCP
  * <p>
@@ -177,6 +182,8 @@ public class APITypeManager {
         addParameter(properties, "org.bonitasoft.engine.api-type.", "server.url");
         addParameter(properties, "org.bonitasoft.engine.api-type.", "application.name");
         addParameter(properties, "org.bonitasoft.engine.api-type.", "connections.max");
+        addParameter(properties, "org.bonitasoft.engine.api-type.", "payload.encoding");
+        addParameter(properties, "org.bonitasoft.engine.api-type.", "payload.compression");
         addParameter(properties, "org.bonitasoft.engine.api-type.", "basicAuthentication.active");
         addParameter(properties, "org.bonitasoft.engine.api-type.", "basicAuthentication.username");
         addParameter(properties, "org.bonitasoft.engine.api-type.", "basicAuthentication.password");
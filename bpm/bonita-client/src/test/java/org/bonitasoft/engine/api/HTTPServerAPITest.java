@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Field;
@@ -31,10 +32,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.bonitasoft.engine.api.internal.ServerAPICall;
+import org.bonitasoft.engine.api.internal.ServerAPISerializer;
 import org.bonitasoft.engine.api.internal.ServerWrappedException;
 import org.bonitasoft.engine.exception.BonitaException;
 import org.junit.Before;
@@ -131,4 +135,35 @@ public class HTTPServerAPITest {
         assertThat(contentAsString).as("Content").contains("välue", "Välue36");
     }
 
+    @Test
+    public void should_build_binary_entity_streaming_compressed_serialized_call() throws Exception {
+        HashMap<String, String> parameters = new HashMap<>();
+        parameters.put(HTTPServerAPI.SERVER_URL, "localhost:8080");
+        parameters.put(HTTPServerAPI.APPLICATION_NAME, "bonita");
+        parameters.put(HTTPServerAPI.PAYLOAD_ENCODING, "binary");
+        parameters.put(HTTPServerAPI.PAYLOAD_COMPRESSION, "true");
+        HTTPServerAPI binaryServerAPI = new HTTPServerAPI(parameters);
+
+        HttpEntity entity = binaryServerAPI.buildBinaryEntity(new ServerAPICall(emptyMap(), "apiInterfaceName",
+                "methodName", asList(String.class.getName()), new Object[] { "Välue1" }));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+
+        assertThat(entity.getContentType().getValue()).isEqualTo(ServerAPISerializer.CONTENT_TYPE);
+        assertThat(entity.getContentEncoding().getValue()).isEqualTo("gzip");
+        assertThat(entity.getContentLength()).isEqualTo(-1);
+        ServerAPICall call = new ServerAPISerializer()
+                .read(new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+        assertThat(call.getMethodName()).isEqualTo("methodName");
+        assertThat(call.getParametersValues()).containsExactly("Välue1");
+    }
+
+    @Test
+    public void should_reject_unknown_payload_encoding() {
+        Throwable thrown = catchThrowable(() -> new HTTPServerAPI(
+                singletonMap(HTTPServerAPI.PAYLOAD_ENCODING, "json")));
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(HTTPServerAPI.PAYLOAD_ENCODING);
+    }
 }
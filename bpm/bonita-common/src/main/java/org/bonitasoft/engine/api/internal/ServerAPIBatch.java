@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.internal;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Calls sent to the server in a single request, and executed one after the other, each one in its own transaction.
+ */
+public class ServerAPIBatch implements Serializable {
+
+    private static final long serialVersionUID = -2496738870145712503L;
+
+    private final List<ServerAPICall> calls;
+
+    private final boolean stopOnFailure;
+
+    /**
+     * @param calls the calls to execute, in order
+     * @param stopOnFailure true to not execute the calls following a failed call
+     */
+    public ServerAPIBatch(final List<ServerAPICall> calls, final boolean stopOnFailure) {
+        this.calls = calls;
+        this.stopOnFailure = stopOnFailure;
+    }
+
+    public List<ServerAPICall> getCalls() {
+        return calls;
+    }
+
+    public boolean isStopOnFailure() {
+        return stopOnFailure;
+    }
+}
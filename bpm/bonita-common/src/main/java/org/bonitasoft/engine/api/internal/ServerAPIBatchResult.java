@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.internal;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of each call of a {@link ServerAPIBatch}, in the order of the calls.
+ */
+public class ServerAPIBatchResult implements Serializable {
+
+    private static final long serialVersionUID = 4367721590412906843L;
+
+    private final Object[] results;
+
+    private final Throwable[] failures;
+
+    private final int numberOfExecutedCalls;
+
+    public ServerAPIBatchResult(final Object[] results, final Throwable[] failures, final int numberOfExecutedCalls) {
+        this.results = results;
+        this.failures = failures;
+        this.numberOfExecutedCalls = numberOfExecutedCalls;
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * @return false when the call was not executed because a previous call failed
+     */
+    public boolean isExecuted(final int index) {
+        return index < numberOfExecutedCalls;
+    }
+
+    public boolean isFailed(final int index) {
+        return failures[index] != null;
+    }
+
+    /**
+     * @return the value returned by the call at the given index
+     * @throws ServerWrappedException wrapping the exception thrown by the call
+     * @throws IllegalStateException if the call was not executed
+     */
+    public Object getResult(final int index) throws ServerWrappedException {
+        if (!isExecuted(index)) {
+            throw new IllegalStateException("Call " + index + " was not executed because a previous call failed");
+        }
+        if (failures[index] != null) {
+            throw new ServerWrappedException(failures[index]);
+        }
+        return results[index];
+    }
+}
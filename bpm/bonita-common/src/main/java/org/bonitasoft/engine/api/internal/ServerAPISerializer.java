@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+/**
+ * Binary encoding of the calls to the {@link ServerAPI} and of their results, alternative to the XML encoding used by
+ * default by the HTTP API: objects are written using Java serialization, directly to or from the HTTP bodies.
+ */
+public class ServerAPISerializer {
+
+    public static final String CONTENT_TYPE = "application/x-java-serialized-object";
+
+    /**
+     * System property listing the classes allowed in request bodies in addition to {@link #ALLOWED_CLASSES}, using the
+     * pattern syntax of {@link ObjectInputFilter.Config#createFilter(String)}, e.g. {@code com.company.model.*}
+     */
+    public static final String ALLOWED_CLASSES_PROPERTY = "org.bonitasoft.engine.api.binary.allowedClasses";
+
+    /**
+     * System property giving the maximum size in bytes of a request body, once decompressed
+     */
+    public static final String MAX_BYTES_PROPERTY = "org.bonitasoft.engine.api.binary.maxBytes";
+
+    static final String ALLOWED_CLASSES = "org.bonitasoft.**;java.lang.*;java.util.**;java.math.*;java.time.**;"
+            + "java.sql.*";
+    static final long DEFAULT_MAX_BYTES = 100L * 1024 * 1024;
+    static final int MAX_DEPTH = 100;
+    static final int MAX_REFERENCES = 100_000;
+
+    private final ObjectInputFilter filter;
+
+    private final long maxBytes;
+
+    /**
+     * Serializer reading any class, to be used only for streams coming from a trusted peer, e.g. responses of the
+     * server
+     */
+    public ServerAPISerializer() {
+        this.filter = null;
+        this.maxBytes = Long.MAX_VALUE;
+    }
+
+    /**
+     * @param maxBytes maximum number of bytes read for an object
+     * @param additionalAllowedClasses patterns of the classes allowed in addition to {@link #ALLOWED_CLASSES}, may be
+     *        empty
+     */
+    ServerAPISerializer(final long maxBytes, final String additionalAllowedClasses) {
+        final StringBuilder pattern = new StringBuilder()
+                .append("maxdepth=").append(MAX_DEPTH)
+                .append(";maxrefs=").append(MAX_REFERENCES)
+                .append(";maxbytes=").append(maxBytes)
+                .append(';').append(ALLOWED_CLASSES);
+        if (!additionalAllowedClasses.isBlank()) {
+            pattern.append(';').append(additionalAllowedClasses.trim());
+        }
+        this.filter = ObjectInputFilter.Config.createFilter(pattern.append(";!*").toString());
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return a serializer for the request bodies received by the server: only classes of the engine and of the JDK
+     *         collections, dates and numbers can be read, see {@link #ALLOWED_CLASSES_PROPERTY}, and the depth, number
+     *         of references and size of the objects are limited, see {@link #MAX_BYTES_PROPERTY}
+     */
+    public static ServerAPISerializer forRequests() {
+        return new ServerAPISerializer(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES),
+                System.getProperty(ALLOWED_CLASSES_PROPERTY, ""));
+    }
+
+    /**
+     * @return the maximum number of bytes read for an object
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return true when the given content type is the one of the binary encoding
+     */
+    public static boolean isBinary(final String contentType) {
+        return contentType != null && contentType.startsWith(CONTENT_TYPE);
+    }
+
+    /**
+     * Write the object to the stream, without closing it
+     */
+    public void write(final Object object, final OutputStream outputStream) throws IOException {
+        final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(object);
+        objectOutputStream.flush();
+    }
+
+    /**
+     * Read an object from the stream, resolving its classes using the context classloader of the current thread
+     *
+     * @throws java.io.InvalidClassException if the object is rejected by the filter of this serializer
+     * @throws IOException if more than {@link #getMaxBytes()} bytes are read
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(final InputStream inputStream) throws IOException {
+        try {
+            final ObjectInputStream objectInputStream;
+            if (filter != null) {
+                // maxbytes of the filter is only checked before each object, not while reading the content of arrays
+                objectInputStream = new ContextClassLoaderObjectInputStream(new LimitedInputStream(inputStream,
+                        maxBytes));
+                objectInputStream.setObjectInputFilter(filter);
+            } else {
+                objectInputStream = new ContextClassLoaderObjectInputStream(inputStream);
+            }
+            return (T) objectInputStream.readObject();
+        } catch (final ClassNotFoundException e) {
+            throw new IOException("Unable to deserialize object", e);
+        }
+    }
+
+    private static class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+        ContextClassLoaderObjectInputStream(final InputStream inputStream) throws IOException {
+            super(inputStream);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            if (contextClassLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, contextClassLoader);
+                } catch (final ClassNotFoundException e) {
+                    // e.g. primitive types, resolved below
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(final InputStream inputStream, final long maxBytes) {
+            super(inputStream);
+            this.remaining = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                count(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(final long read) throws IOException {
+            remaining -= read;
+            if (remaining < 0) {
+                throw new IOException("The object exceeds the maximum size allowed");
+            }
+        }
+    }
+}
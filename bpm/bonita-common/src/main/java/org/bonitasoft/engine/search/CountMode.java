@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.search;
+
+/**
+ * How the total number of results returned by {@link SearchResult#getCount()} is computed.
+ *
+ * @see SearchOptionsBuilder#countMode(CountMode)
+ * @since 10.3.0
+ */
+public enum CountMode {
+
+    /**
+     * The count is the exact number of results matching the search, computed using an additional query.
+     */
+    EXACT,
+
+    /**
+     * The count is computed without an additional query: it is the number of results of the previous pages and of
+     * this page, plus one if there are more results. It is exact on the last page.
+     */
+    ESTIMATE,
+
+    /**
+     * The count is not computed, {@link SearchResult#getCount()} returns -1.
+     */
+    NONE
+}
@@ -77,4 +77,34 @@ public interface SearchOptions extends Serializable {
      */
     List<Sort> getSorts();
 
+    /**
+     * Whether pages are retrieved using continuation tokens instead of a start index. Each page then starts right
+     * after the last result of the previous page, which does not get slower as pages go deeper.
+     *
+     * @return true if the results are paginated using continuation tokens
+     * @see SearchResult#getContinuationToken()
+     * @since 10.3.0
+     */
+    default boolean isContinuationPaginated() {
+        return false;
+    }
+
+    /**
+     * The continuation token returned by the previous page. When set, the start index is ignored.
+     *
+     * @return the token of the page to retrieve, or null to retrieve the first page
+     * @since 10.3.0
+     */
+    default String getContinuationToken() {
+        return null;
+    }
+
+    /**
+     * @return how the number of results is computed
+     * @since 10.3.0
+     */
+    default CountMode getCountMode() {
+        return CountMode.EXACT;
+    }
+
 }
@@ -64,6 +64,9 @@ public class SearchOptionsBuilder {
         options.setFilters(searchOptions.getFilters());
         options.setSorts(searchOptions.getSorts());
         options.setSearchTerm(searchOptions.getSearchTerm());
+        options.setContinuationPaginated(searchOptions.isContinuationPaginated());
+        options.setContinuationToken(searchOptions.getContinuationToken());
+        options.setCountMode(searchOptions.getCountMode());
     }
 
     /**
@@ -228,6 +231,55 @@ public class SearchOptionsBuilder {
         return this;
     }
 
+    /**
+     * Paginates the results using continuation tokens instead of the start index: the search returns the first page,
+     * and {@link SearchResult#getContinuationToken()} gives the token to retrieve the next one using
+     * {@link #continueAfter(String)}.
+     * Unlike start indexes, retrieving a page does not get slower as pages go deeper.
+     * Results are always sorted by id after the given sorts. With {@link Order#ASC} and {@link Order#DESC}, null values
+     * are considered lower than other values whatever the database: they come first in ascending order and last in
+     * descending order. Searches paginated using start indexes use the default null ordering of the database instead,
+     * e.g. nulls are considered higher than other values on PostgreSQL, so results having null sort values can be
+     * ordered differently in the two modes. Sorts with an explicit null ordering, such as
+     * {@link Order#ASC_NULLS_FIRST}, give the same order in both modes.
+     *
+     * @return this builder itself
+     * @since 10.3.0
+     */
+    public SearchOptionsBuilder continuationPaginated() {
+        options.setContinuationPaginated(true);
+        return this;
+    }
+
+    /**
+     * Retrieves the page following the one that returned the given token. The other options (filters, sorts, search
+     * term, max results) must be the same as the ones of the first page.
+     *
+     * @param continuationToken the token returned by {@link SearchResult#getContinuationToken()}, null to retrieve the
+     *        first page
+     * @return this builder itself
+     * @see #continuationPaginated()
+     * @since 10.3.0
+     */
+    public SearchOptionsBuilder continueAfter(final String continuationToken) {
+        options.setContinuationPaginated(true);
+        options.setContinuationToken(continuationToken);
+        return this;
+    }
+
+    /**
+     * Defines how {@link SearchResult#getCount()} is computed. Skipping or estimating the count avoids an additional
+     * query counting all results matching the search. Default is {@link CountMode#EXACT}.
+     *
+     * @param countMode how the number of results is computed
+     * @return this builder itself
+     * @since 10.3.0
+     */
+    public SearchOptionsBuilder countMode(final CountMode countMode) {
+        options.setCountMode(countMode);
+        return this;
+    }
+
     /**
      * @return the <code>SearchOptions</code> finally built using this builder.
      */
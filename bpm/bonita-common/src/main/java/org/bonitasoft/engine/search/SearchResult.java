@@ -21,7 +21,8 @@ import java.util.List;
  * {@link SearchOptions}.
  * A <code>SearchResult</code> is composed of a result list {@link #getResult()} that is the paginated list of results
  * matching the provided criteria, and a
- * result count {@link #getCount()} that is the total number of results matching the provided criteria.
+ * result count {@link #getCount()} that is the total number of results matching the provided criteria, depending on the
+ * {@link CountMode} of the search.
  *
  * @param <T>
  *        the type of the objects being returned by the search.
@@ -51,4 +52,16 @@ public interface SearchResult<T extends Serializable> extends Serializable {
      */
     List<T> getResult();
 
+    /**
+     * Get the token to give to {@link SearchOptionsBuilder#continueAfter(String)} to retrieve the next page, when the
+     * search is paginated using continuation tokens.
+     *
+     * @return the token of the next page, or null if there are no more results or if the search is not paginated
+     *         using continuation tokens
+     * @since 10.3.0
+     */
+    default String getContinuationToken() {
+        return null;
+    }
+
 }
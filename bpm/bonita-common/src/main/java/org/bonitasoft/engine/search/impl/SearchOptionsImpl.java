@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.bonitasoft.engine.exception.IncorrectParameterException;
+import org.bonitasoft.engine.search.CountMode;
 import org.bonitasoft.engine.search.Order;
 import org.bonitasoft.engine.search.SearchFilterOperation;
 import org.bonitasoft.engine.search.SearchOptions;
@@ -42,6 +43,12 @@ public class SearchOptionsImpl implements SearchOptions {
 
     private List<Sort> sorts;
 
+    private boolean continuationPaginated;
+
+    private String continuationToken;
+
+    private CountMode countMode = CountMode.EXACT;
+
     public SearchOptionsImpl(final int startIndex, final int numberOfResults) {
         filters = new ArrayList<SearchFilter>(5);
         sorts = new ArrayList<Sort>(2);
@@ -82,6 +89,33 @@ public class SearchOptionsImpl implements SearchOptions {
         searchTerm = value;
     }
 
+    @Override
+    public boolean isContinuationPaginated() {
+        return continuationPaginated;
+    }
+
+    public void setContinuationPaginated(final boolean continuationPaginated) {
+        this.continuationPaginated = continuationPaginated;
+    }
+
+    @Override
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(final String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    @Override
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(final CountMode countMode) {
+        this.countMode = countMode;
+    }
+
     public void addGreaterThanFilter(final String field, final Serializable value) {
         filters.add(new SearchFilter(field, SearchFilterOperation.GREATER_THAN, value));
     }
@@ -159,6 +193,9 @@ public class SearchOptionsImpl implements SearchOptions {
         result = prime * result + (searchTerm == null ? 0 : searchTerm.hashCode());
         result = prime * result + (sorts == null ? 0 : sorts.hashCode());
         result = prime * result + startIndex;
+        result = prime * result + (continuationPaginated ? 1231 : 1237);
+        result = prime * result + (continuationToken == null ? 0 : continuationToken.hashCode());
+        result = prime * result + (countMode == null ? 0 : countMode.hashCode());
         return result;
     }
 
@@ -201,7 +238,17 @@ public class SearchOptionsImpl implements SearchOptions {
         if (startIndex != other.startIndex) {
             return false;
         }
-        return true;
+        if (continuationPaginated != other.continuationPaginated) {
+            return false;
+        }
+        if (continuationToken == null) {
+            if (other.continuationToken != null) {
+                return false;
+            }
+        } else if (!continuationToken.equals(other.continuationToken)) {
+            return false;
+        }
+        return countMode == other.countMode;
     }
 
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ServerAPISerializerTest {
+
+    @Test
+    public void should_read_call_having_allowed_classes() throws Exception {
+        Map<String, Serializable> options = new HashMap<>();
+        options.put("session", 12L);
+        ServerAPICall call = new ServerAPICall(options, "api", "method", List.of(String.class.getName()),
+                new Object[] { "value", new byte[1024] });
+
+        ServerAPICall read = new ServerAPISerializer(10_000, "").read(serialize(call));
+
+        assertThat(read.getMethodName()).isEqualTo("method");
+        assertThat(read.getParametersValues()).hasSize(2);
+    }
+
+    @Test
+    public void should_reject_class_that_is_not_allowed() throws Exception {
+        ServerAPICall call = new ServerAPICall(new HashMap<>(), "api", "method", List.of(File.class.getName()),
+                new Object[] { new File("file") });
+
+        assertThatThrownBy(() -> new ServerAPISerializer(10_000, "").read(serialize(call)))
+                .isInstanceOf(InvalidClassException.class);
+    }
+
+    @Test
+    public void should_read_class_allowed_in_addition() throws Exception {
+        File read = new ServerAPISerializer(10_000, "java.io.File").read(serialize(new File("file")));
+
+        assertThat(read.getName()).isEqualTo("file");
+    }
+
+    @Test
+    public void should_reject_object_exceeding_the_maximum_size() throws Exception {
+        ServerAPICall call = new ServerAPICall(new HashMap<>(), "api", "method", List.of(byte[].class.getName()),
+                new Object[] { new byte[20_000] });
+
+        assertThatThrownBy(() -> new ServerAPISerializer(10_000, "").read(serialize(call)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void should_read_any_class_when_not_filtering() throws Exception {
+        File read = new ServerAPISerializer().read(serialize(new File("file")));
+
+        assertThat(read.getName()).isEqualTo("file");
+    }
+
+    private static ByteArrayInputStream serialize(Object object) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        new ServerAPISerializer().write(object, content);
+        return new ByteArrayInputStream(content.toByteArray());
+    }
+}
@@ -208,6 +208,10 @@ public class BonitaHomeServer {
         return FolderMgr.getPlatformLocalClassLoaderFolder(artifactType, artifactId).toURI();
     }
 
+    public File getJarStoreFolder() throws IOException {
+        return FolderMgr.getJarStoreFolder().getFile();
+    }
+
     public void deleteTenant(final long tenantId) throws BonitaHomeNotSetException, IOException {
         getConfigurationService().deleteTenantConfiguration(tenantId);
         //allow re-import of profiles, need to be deleted when we remove the ability to delete tenant
@@ -16,12 +16,13 @@ package org.bonitasoft.engine.core.expression.control.api.impl;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.classloader.SClassLoaderException;
@@ -40,6 +41,7 @@ import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingEx
 import org.bonitasoft.engine.expression.exception.SExpressionEvaluationException;
 import org.bonitasoft.engine.expression.exception.SExpressionTypeUnknownException;
 import org.bonitasoft.engine.expression.exception.SInvalidExpressionException;
+import org.bonitasoft.engine.expression.model.ExpressionEvaluationPlan;
 import org.bonitasoft.engine.expression.model.ExpressionKind;
 import org.bonitasoft.engine.expression.model.SExpression;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
@@ -56,6 +58,8 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
 
     private static final SExpressionContext EMPTY_CONTEXT = new SExpressionContext();
 
+    private static final ExpressionKind VARIABLE_KIND = new ExpressionKind(ExpressionType.TYPE_VARIABLE.name());
+
     private final ExpressionService expressionService;
 
     private final ProcessDefinitionService processDefinitionService;
@@ -90,13 +94,12 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EVALUATE_EXPRESSION_INCLUDING_CONTEXT)) {
                 final long endTime = System.currentTimeMillis();
-                final StringBuilder desc = new StringBuilder();
-                desc.append("Expression: ");
-                desc.append(expression);
-                desc.append(" - ");
-                desc.append("evaluationContext: ");
-                desc.append(evaluationContext);
-                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSION_INCLUDING_CONTEXT, desc.toString(),
+                final Long processDefinitionId = evaluationContext != null
+                        ? evaluationContext.getProcessDefinitionId()
+                        : null;
+                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSION_INCLUDING_CONTEXT,
+                        processDefinitionId != null ? String.valueOf(processDefinitionId) : null,
+                        () -> "Expression: " + expression + " - " + "evaluationContext: " + evaluationContext,
                         endTime - startTime);
             }
         }
@@ -117,27 +120,35 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
 
             loadProcessClassLoader(newEvaluationContext);
 
-            final Map<SExpression, SExpression> dataReplacement = new HashMap<>();
-            // We incrementally build the Map of already resolved expressions:
-            final Map<Integer, Object> resolvedExpressions = new HashMap<>();
-            // Let's evaluate all expressions with no dependencies first:
-            resolvedExpressions.putAll(evaluateAllExpressionsWithNoDependencies(dependencyValues, dataReplacement,
-                    expressions, newEvaluationContext));
-
+            final List<ExpressionEvaluationPlan> plans = new ArrayList<>(expressions.size());
+            int numberOfExpressions = 0;
             for (final SExpression sExpression : expressions) {
-                if (sExpression != null) {
-                    // Then evaluate recursively all remaining expressions:
-                    resolvedExpressions.putAll(evaluateExpressionWithResolvedDependencies(sExpression, dependencyValues,
-                            dataReplacement, resolvedExpressions,
-                            newEvaluationContext.getContainerState()));
+                final ExpressionEvaluationPlan plan = sExpression != null ? ExpressionEvaluationPlan.of(sExpression)
+                        : null;
+                plans.add(plan);
+                numberOfExpressions += plan != null ? plan.size() : 0;
+            }
+            // All results are stored in this single map, keyed by the discriminant of the expressions, as expected by
+            // the expression executors:
+            final Map<Integer, Object> resolvedExpressions = new HashMap<>(numberOfExpressions * 4 / 3 + 1);
+            // Let's evaluate all expressions with no dependencies first:
+            evaluateAllExpressionsWithNoDependencies(dependencyValues, plans, resolvedExpressions,
+                    newEvaluationContext);
+            // Then evaluate the remaining ones, each plan giving an order where dependencies come first:
+            final ContainerState containerState = newEvaluationContext.getContainerState();
+            for (final ExpressionEvaluationPlan plan : plans) {
+                if (plan != null) {
+                    evaluateExpressionsInOrder(plan, dependencyValues, resolvedExpressions, containerState);
                 }
             }
             final List<Object> results = new ArrayList<>(expressions.size());
-            for (final SExpression sExpression : expressions) {
-                if (sExpression != null) {
-                    final int key = sExpression.getDiscriminant();
+            for (int i = 0; i < expressions.size(); i++) {
+                final ExpressionEvaluationPlan plan = plans.get(i);
+                if (plan != null) {
+                    final int key = plan.getRootDiscriminant();
                     final Object res = resolvedExpressions.get(key);
                     if (res == null && !resolvedExpressions.containsKey(key)) {
+                        final SExpression sExpression = expressions.get(i);
                         throw new SExpressionEvaluationException("No result found for the expression " + sExpression,
                                 sExpression.getName());
                     }
@@ -178,15 +189,13 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
         return exception;
     }
 
-    private Map<Integer, Object> evaluateAllExpressionsWithNoDependencies(final Map<String, Object> dependencyValues,
-            final Map<SExpression, SExpression> dataReplacement, final List<SExpression> expressions,
+    private void evaluateAllExpressionsWithNoDependencies(final Map<String, Object> dependencyValues,
+            final List<ExpressionEvaluationPlan> plans, final Map<Integer, Object> resolvedExpressions,
             final SExpressionContext evaluationContext)
             throws SExpressionTypeUnknownException, SExpressionEvaluationException,
             SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>();
-        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = flattenDependencies(expressions);
-        final List<SExpression> variableExpressions = expressionMapByKind
-                .get(new ExpressionKind(ExpressionType.TYPE_VARIABLE.name()));
+        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = getNoDependencyExpressions(plans);
+        final List<SExpression> variableExpressions = expressionMapByKind.get(VARIABLE_KIND);
 
         if (evaluationContext.isEvaluateInDefinition() && variableExpressions != null
                 && !variableExpressions.isEmpty()) {
@@ -199,12 +208,36 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
             }
         }
         for (final ExpressionKind kind : ExpressionExecutorStrategy.NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER) {
-            resolvedExpressions.putAll(evaluateExpressionsOfKind(dependencyValues, expressionMapByKind.get(kind), kind,
-                    dataReplacement, resolvedExpressions,
-                    evaluationContext.getContainerState()));
-            expressionMapByKind.remove(kind);
+            evaluateExpressionsOfKind(dependencyValues, expressionMapByKind.get(kind), kind, resolvedExpressions,
+                    evaluationContext.getContainerState());
+        }
+    }
+
+    /**
+     * Merges the expressions without dependency of all plans. A single plan is used as is since it is already
+     * deduplicated.
+     */
+    private Map<ExpressionKind, List<SExpression>> getNoDependencyExpressions(
+            final List<ExpressionEvaluationPlan> plans) {
+        if (plans.size() == 1 && plans.get(0) != null) {
+            return plans.get(0).getNoDependencyExpressions();
         }
-        return resolvedExpressions;
+        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = new HashMap<>();
+        final Set<Integer> discriminants = new HashSet<>();
+        for (final ExpressionEvaluationPlan plan : plans) {
+            if (plan == null) {
+                continue;
+            }
+            for (final Map.Entry<ExpressionKind, List<SExpression>> entry : plan.getNoDependencyExpressions()
+                    .entrySet()) {
+                for (final SExpression expression : entry.getValue()) {
+                    if (discriminants.add(expression.getDiscriminant())) {
+                        expressionMapByKind.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(expression);
+                    }
+                }
+            }
+        }
+        return expressionMapByKind;
     }
 
     private SExpression variablesAreAllProvided(final List<SExpression> variableExpressions,
@@ -220,87 +253,46 @@ public class ExpressionResolverServiceImpl implements ExpressionResolverService
         return null;
     }
 
-    private Map<? extends Integer, ? extends Object> evaluateExpressionWithResolvedDependencies(
-            final SExpression sExpression,
-            final Map<String, Object> dependencyValues, final Map<SExpression, SExpression> dataReplacement,
-            final Map<Integer, Object> alreadyResolvedExpressions, final ContainerState containerState)
-            throws SExpressionTypeUnknownException,
+    private void evaluateExpressionsInOrder(final ExpressionEvaluationPlan plan,
+            final Map<String, Object> dependencyValues, final Map<Integer, Object> resolvedExpressions,
+            final ContainerState containerState) throws SExpressionTypeUnknownException,
             SExpressionEvaluationException, SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>(alreadyResolvedExpressions);
-        // Evaluate the dependencies first:
-        for (final SExpression dep : sExpression.getDependencies()) {
-            resolvedExpressions.putAll(evaluateExpressionWithResolvedDependencies(dep, dependencyValues,
-                    dataReplacement, resolvedExpressions, containerState));
-        }
-        // Then evaluate the expression itself:
-        if (!resolvedExpressions.containsKey(sExpression.getDiscriminant())) {
+        final List<SExpression> orderedExpressions = plan.getOrderedExpressions();
+        for (int i = 0; i < orderedExpressions.size(); i++) {
+            final int discriminant = plan.getOrderedDiscriminant(i);
             // Let's evaluate the expression only if it is not already in the list of resolved dependencies:
-            final Object exprResult = expressionService.evaluate(sExpression, dependencyValues, resolvedExpressions,
-                    containerState);
-            addResultToMap(resolvedExpressions, dataReplacement, sExpression, exprResult, dependencyValues);
+            if (!resolvedExpressions.containsKey(discriminant)) {
+                final SExpression sExpression = orderedExpressions.get(i);
+                final Object exprResult = expressionService.evaluate(sExpression, dependencyValues,
+                        resolvedExpressions, containerState);
+                addResultToMap(resolvedExpressions, discriminant, sExpression, exprResult, dependencyValues);
+            }
         }
-        return resolvedExpressions;
     }
 
-    private Map<Integer, Object> evaluateExpressionsOfKind(final Map<String, Object> dependencyValues,
-            final List<SExpression> expressionsOfKind,
-            final ExpressionKind kind, final Map<SExpression, SExpression> dataReplacement,
-            final Map<Integer, Object> alreadyResolvedExpressions,
-            final ContainerState containerState) throws SExpressionTypeUnknownException, SExpressionEvaluationException,
+    private void evaluateExpressionsOfKind(final Map<String, Object> dependencyValues,
+            final List<SExpression> expressionsOfKind, final ExpressionKind kind,
+            final Map<Integer, Object> resolvedExpressions, final ContainerState containerState)
+            throws SExpressionTypeUnknownException, SExpressionEvaluationException,
             SExpressionDependencyMissingException, SInvalidExpressionException {
-        final Map<Integer, Object> resolvedExpressions = new HashMap<>();
         if (expressionsOfKind != null) {
             final List<Object> evaluationResults = expressionService.evaluate(kind, expressionsOfKind, dependencyValues,
-                    alreadyResolvedExpressions,
-                    containerState);
+                    resolvedExpressions, containerState);
             final Iterator<SExpression> variableIterator = expressionsOfKind.iterator();
             for (final Object evaluationResult : evaluationResults) {
                 final SExpression expression = variableIterator.next();
-                addResultToMap(resolvedExpressions, dataReplacement, expression, evaluationResult, dependencyValues);
+                addResultToMap(resolvedExpressions, expression.getDiscriminant(), expression, evaluationResult,
+                        dependencyValues);
             }
         }
-        return resolvedExpressions;
     }
 
-    private void addResultToMap(final Map<Integer, Object> resolvedExpressions,
-            final Map<SExpression, SExpression> dataReplacement,
+    private void addResultToMap(final Map<Integer, Object> resolvedExpressions, final int discriminant,
             final SExpression expression, final Object expressionResult, final Map<String, Object> dependencyValues) {
-        resolvedExpressions.put(expression.getDiscriminant(), expressionResult);
+        resolvedExpressions.put(discriminant, expressionResult);
         if (expressionService.mustPutEvaluatedExpressionInContext(expression.getExpressionKind())) {
             dependencyValues.put(expression.getContent(), expressionResult);
         }
-        final SExpression replacement = dataReplacement.get(expression);
-        if (replacement != null) {
-            resolvedExpressions.put(replacement.getDiscriminant(), expressionResult);
-            if (expressionService.mustPutEvaluatedExpressionInContext(expression.getExpressionKind())) {
-                dependencyValues.put(replacement.getContent(), expressionResult);
-            }
-        }
-    }
-
-    private Map<ExpressionKind, List<SExpression>> flattenDependencies(final Collection<SExpression> collection) {
-        final Map<ExpressionKind, List<SExpression>> expressionMapByKind = new HashMap<>();
-        for (final SExpression sExpression : collection) {
-            if (sExpression == null) {
-                continue;
-            }
-            final ExpressionKind expressionKind = sExpression.getExpressionKind();
-            // Get from the map the list of expressions of given ExpressionKind
-            List<SExpression> exprList = expressionMapByKind.get(expressionKind);
-
-            // If no present, put it in the map
-            if (exprList == null) {
-                exprList = new ArrayList<>();
-                expressionMapByKind.put(expressionKind, exprList);
-            }
-            if (!exprList.contains(sExpression)) {
-                exprList.add(sExpression);
-            }
-            if (sExpression.getDependencies() != null) {
-                expressionMapByKind.putAll(flattenDependencies(sExpression.getDependencies()));
-            }
-        }
-        return expressionMapByKind;
     }
 
     private void fillContext(final SExpressionContext evaluationContext, final Map<String, Object> dependencyValues)
@@ -14,31 +14,24 @@
 package org.bonitasoft.engine.core.operation.impl;
 
 import java.io.IOException;
-import java.io.StringReader;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
+import org.bonitasoft.engine.commons.xml.XmlProcessors;
 import org.bonitasoft.engine.core.expression.control.model.SExpressionContext;
 import org.bonitasoft.engine.core.operation.OperationExecutorStrategy;
 import org.bonitasoft.engine.core.operation.exception.SOperationExecutionException;
 import org.bonitasoft.engine.core.operation.model.SOperation;
-import org.bonitasoft.engine.xml.DocumentManager;
 import org.springframework.stereotype.Component;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.Text;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -83,23 +76,15 @@ public class XpathUpdateQueryOperationExecutorStrategy implements OperationExecu
             // should be a String because the data is an xml expression
             final String dataValue = (String) expressionContext.getInputValues().get(dataInstanceName);
 
-            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            try {
-                factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, ""); // security-compliant
-                factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, ""); // security-compliant
-            } catch (IllegalArgumentException e) {
-                //ignored, if not supported by the implementation
-            }
-            final DocumentBuilder builder = factory.newDocumentBuilder();
-            final Document document = builder.parse(new InputSource(new StringReader(dataValue)));
-            final XPath xpath = XPathFactory.newInstance().newXPath();
+            final Document document = XmlProcessors.parse(dataValue);
             final String xpathExpression = operation.getOperator();
-            final Node node = (Node) xpath.compile(xpathExpression).evaluate(document, XPathConstants.NODE);
+            final Node node = (Node) XmlProcessors.compile(xpathExpression).evaluate(document, XPathConstants.NODE);
             if (isSetAttribute(xpathExpression, value)) {
                 if (node == null) { // Create the attribute
                     final String parentPath = xpathExpression.substring(0, xpathExpression.lastIndexOf('/'));
                     final String attributeName = xpathExpression.substring(xpathExpression.lastIndexOf('/') + 2); // +1 for @
-                    final Node parentNode = (Node) xpath.compile(parentPath).evaluate(document, XPathConstants.NODE);
+                    final Node parentNode = (Node) XmlProcessors.compile(parentPath).evaluate(document,
+                            XPathConstants.NODE);
                     if (parentNode instanceof Element element) {
                         if (value instanceof String) {
                             element.setAttribute(attributeName, getStringValue(value));
@@ -126,7 +111,7 @@ public class XpathUpdateQueryOperationExecutorStrategy implements OperationExecu
                     newNode = document.importNode((Node) value, true);
                 } else if (value instanceof String) {
                     newNode = document.importNode(
-                            DocumentManager.generateDocument(getStringValue(value)).getDocumentElement(), true);
+                            XmlProcessors.parse(getStringValue(value)).getDocumentElement(), true);
                 }
 
                 // if (isAppend) {
@@ -138,10 +123,11 @@ public class XpathUpdateQueryOperationExecutorStrategy implements OperationExecu
                 // }
             } else if (node == null && xpathExpression.endsWith("/text()") && value instanceof String) {
                 final String parentPath = xpathExpression.substring(0, xpathExpression.lastIndexOf('/'));
-                final Node parentNode = (Node) xpath.compile(parentPath).evaluate(document, XPathConstants.NODE);
+                final Node parentNode = (Node) XmlProcessors.compile(parentPath).evaluate(document,
+                        XPathConstants.NODE);
                 parentNode.appendChild(document.createTextNode(getStringValue(value)));
             }
-            return DocumentManager.getDocumentContent(document);
+            return XmlProcessors.toString(document);
         } catch (final ParserConfigurationException | SAXException | IOException | XPathExpressionException
                 | TransformerFactoryConfigurationError | TransformerException pce) {
             throw new SOperationExecutionException(pce);
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+
+import org.bonitasoft.engine.service.InjectedService;
+
+/**
+ * Broadcast to the other nodes of the cluster when a process definition is modified or deleted, so that they stop
+ * serving their cached version of it.
+ */
+public class EvictProcessDefinitionVersionTask implements Callable<Void>, Serializable {
+
+    private final long processDefinitionId;
+    private transient ProcessDefinitionService processDefinitionService;
+
+    public EvictProcessDefinitionVersionTask(long processDefinitionId) {
+        this.processDefinitionId = processDefinitionId;
+    }
+
+    @Override
+    public Void call() {
+        processDefinitionService.evictProcessDefinitionVersion(processDefinitionId);
+        return null;
+    }
+
+    public long getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
+    @InjectedService
+    public void setProcessDefinitionService(ProcessDefinitionService processDefinitionService) {
+        this.processDefinitionService = processDefinitionService;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.bonitasoft.engine.core.operation.model.SOperation;
+import org.bonitasoft.engine.core.process.definition.model.SActivityDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SBusinessDataDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SCallActivityDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SConnectorDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SContextEntry;
+import org.bonitasoft.engine.core.process.definition.model.SDocumentDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SDocumentListDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SFlowNodeDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SHumanTaskDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SLoopCharacteristics;
+import org.bonitasoft.engine.core.process.definition.model.SMultiInstanceLoopCharacteristics;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SStandardLoopCharacteristics;
+import org.bonitasoft.engine.core.process.definition.model.SSubProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.STransitionDefinition;
+import org.bonitasoft.engine.data.definition.model.SDataDefinition;
+import org.bonitasoft.engine.expression.model.SExpression;
+
+/**
+ * Collects the expressions of a process definition, with their dependencies: display names and descriptions, data
+ * and documents initial values, connector inputs and outputs, operations, transition conditions, loops and call
+ * activities of the process and of its event sub-processes.
+ * Expressions of event triggers are not collected.
+ */
+public final class ProcessDefinitionExpressions {
+
+    private final List<SExpression> expressions = new ArrayList<>();
+
+    private ProcessDefinitionExpressions() {
+    }
+
+    public static List<SExpression> getAll(SProcessDefinition processDefinition) {
+        ProcessDefinitionExpressions collector = new ProcessDefinitionExpressions();
+        collector.addContainer(processDefinition.getProcessContainer());
+        if (processDefinition.getContext() != null) {
+            for (SContextEntry contextEntry : processDefinition.getContext()) {
+                collector.add(contextEntry.getExpression());
+            }
+        }
+        return collector.expressions;
+    }
+
+    private void addContainer(SFlowElementContainerDefinition container) {
+        if (container == null) {
+            return;
+        }
+        addDataDefinitions(container.getDataDefinitions());
+        for (SBusinessDataDefinition businessDataDefinition : container.getBusinessDataDefinitions()) {
+            add(businessDataDefinition.getDefaultValueExpression());
+        }
+        for (SDocumentDefinition documentDefinition : container.getDocumentDefinitions()) {
+            add(documentDefinition.getInitialValue());
+        }
+        for (SDocumentListDefinition documentListDefinition : container.getDocumentListDefinitions()) {
+            add(documentListDefinition.getExpression());
+        }
+        addConnectors(container.getConnectors());
+        for (STransitionDefinition transition : container.getTransitions()) {
+            add(transition.getCondition());
+        }
+        for (SFlowNodeDefinition flowNode : container.getFlowNodes()) {
+            addFlowNode(flowNode);
+        }
+        for (SFlowNodeDefinition boundaryEvent : container.getBoundaryEvents()) {
+            addFlowNode(boundaryEvent);
+        }
+    }
+
+    private void addFlowNode(SFlowNodeDefinition flowNode) {
+        add(flowNode.getDisplayName());
+        add(flowNode.getDisplayDescription());
+        add(flowNode.getDisplayDescriptionAfterCompletion());
+        addConnectors(flowNode.getConnectors());
+        if (flowNode.getDefaultTransition() != null) {
+            add(flowNode.getDefaultTransition().getCondition());
+        }
+        if (flowNode instanceof SActivityDefinition activity) {
+            addLoop(activity.getLoopCharacteristics());
+            addDataDefinitions(activity.getSDataDefinitions());
+            for (SBusinessDataDefinition businessDataDefinition : activity.getBusinessDataDefinitions()) {
+                add(businessDataDefinition.getDefaultValueExpression());
+            }
+            addOperations(activity.getSOperations());
+        }
+        if (flowNode instanceof SHumanTaskDefinition humanTask) {
+            add(humanTask.getExpectedDuration());
+            if (humanTask.getSUserFilterDefinition() != null) {
+                addAll(humanTask.getSUserFilterDefinition().getInputs());
+            }
+        }
+        if (flowNode instanceof SCallActivityDefinition callActivity) {
+            add(callActivity.getCallableElement());
+            add(callActivity.getCallableElementVersion());
+            addOperations(callActivity.getDataInputOperations());
+            addOperations(callActivity.getDataOutputOperations());
+            addAll(callActivity.getProcessStartContractInputs());
+        }
+        if (flowNode instanceof SSubProcessDefinition subProcess) {
+            addContainer(subProcess.getSubProcessContainer());
+        }
+    }
+
+    private void addLoop(SLoopCharacteristics loopCharacteristics) {
+        if (loopCharacteristics instanceof SStandardLoopCharacteristics standardLoop) {
+            add(standardLoop.getLoopCondition());
+            add(standardLoop.getLoopMax());
+        } else if (loopCharacteristics instanceof SMultiInstanceLoopCharacteristics multiInstance) {
+            add(multiInstance.getLoopCardinality());
+            add(multiInstance.getCompletionCondition());
+        }
+    }
+
+    private void addDataDefinitions(Collection<SDataDefinition> dataDefinitions) {
+        if (dataDefinitions != null) {
+            for (SDataDefinition dataDefinition : dataDefinitions) {
+                add(dataDefinition.getDefaultValueExpression());
+            }
+        }
+    }
+
+    private void addConnectors(Collection<SConnectorDefinition> connectors) {
+        if (connectors != null) {
+            for (SConnectorDefinition connector : connectors) {
+                addAll(connector.getInputs());
+                addOperations(connector.getOutputs());
+            }
+        }
+    }
+
+    private void addOperations(Collection<SOperation> operations) {
+        if (operations != null) {
+            for (SOperation operation : operations) {
+                add(operation.getRightOperand());
+            }
+        }
+    }
+
+    private void addAll(Map<String, SExpression> expressionsByName) {
+        if (expressionsByName != null) {
+            expressionsByName.values().forEach(this::add);
+        }
+    }
+
+    private void add(SExpression expression) {
+        if (expression == null) {
+            return;
+        }
+        expressions.add(expression);
+        for (SExpression dependency : expression.getDependencies()) {
+            add(dependency);
+        }
+    }
+}
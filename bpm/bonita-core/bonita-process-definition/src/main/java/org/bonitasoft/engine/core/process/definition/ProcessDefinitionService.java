@@ -48,6 +48,8 @@ public interface ProcessDefinitionService {
     String PROCESSDEFINITION = "PROCESSDEFINITION";
     String PROCESSDEFINITION_CONTENT = "PROCESSDEFINITION_CONTENT";
 
+    String PROCESSDEFINITION_RUNTIME_CONTENT = "PROCESSDEFINITION_RUNTIME_CONTENT";
+
     String PROCESSDEFINITION_IS_ENABLED = "PROCESSDEFINITION_IS_ENABLED";
 
     String PROCESSDEFINITION_IS_DISABLED = "PROCESSDEFINITION_IS_DISABLED";
@@ -141,6 +143,16 @@ public interface ProcessDefinitionService {
     void delete(long processId)
             throws SProcessDefinitionNotFoundException, SProcessDeletionException, SDeletingEnabledProcessException;
 
+    /**
+     * Forget the version of the process definition known by this node: the next call to
+     * {@link #getProcessDefinition(long)} checks again the deploy info of the process in database.
+     * Called on all nodes when the design of the process is updated or when the process is deleted.
+     *
+     * @param processDefinitionId
+     *        identifier of processDefinition
+     */
+    void evictProcessDefinitionVersion(long processDefinitionId);
+
     /**
      * Get process definition deploy info in a specific interval with order, this can be used for pagination
      *
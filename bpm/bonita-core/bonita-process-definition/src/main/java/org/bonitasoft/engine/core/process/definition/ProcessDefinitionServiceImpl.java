@@ -21,6 +21,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
 
 import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
 import org.bonitasoft.engine.bpm.process.ActivationState;
@@ -48,6 +60,7 @@ import org.bonitasoft.engine.core.process.definition.model.SFlowNodeDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDeployInfo;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDesignContent;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionRuntimeContent;
 import org.bonitasoft.engine.core.process.definition.model.STransitionDefinition;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionBuilderFactory;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionDeployInfoUpdateBuilderFactory;
@@ -62,6 +75,7 @@ import org.bonitasoft.engine.persistence.OrderByType;
 import org.bonitasoft.engine.persistence.QueryOptions;
 import org.bonitasoft.engine.persistence.ReadPersistenceService;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SelectByIdDescriptor;
 import org.bonitasoft.engine.persistence.SelectListDescriptor;
 import org.bonitasoft.engine.persistence.SelectOneDescriptor;
 import org.bonitasoft.engine.queriablelogger.model.SQueriableLog;
@@ -76,9 +90,14 @@ import org.bonitasoft.engine.recorder.model.DeleteRecord;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
 import org.bonitasoft.engine.recorder.model.InsertRecord;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
+import org.bonitasoft.engine.service.BroadcastService;
+import org.bonitasoft.engine.service.TaskResult;
 import org.bonitasoft.engine.services.QueriableLoggerService;
 import org.bonitasoft.engine.session.SessionService;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 
 /**
  * @author Baptiste Mesta
@@ -89,27 +108,69 @@ import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
  * @author Celine Souchet
  * @author Arthur Freycon
  */
+@Slf4j
 public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
+    public static final String PROCESS_DEFINITION_CACHE_HITS = "bonita.bpmengine.process.definition.cache.hit";
+    public static final String PROCESS_DEFINITION_CACHE_MISSES = "bonita.bpmengine.process.definition.cache.miss";
+    public static final String PROCESS_DEFINITION_CACHE_RELOADS = "bonita.bpmengine.process.definition.cache.reload";
+
     private final Recorder recorder;
     private final ReadPersistenceService persistenceService;
     private final SessionService sessionService;
     private final ReadSessionAccessor sessionAccessor;
     private final QueriableLoggerService queriableLoggerService;
     private final CacheService cacheService;
+    private final UserTransactionService userTransactionService;
+    private final BroadcastService broadcastService;
+    private final long tenantId;
     protected ProcessDefinitionBARContribution processDefinitionBARContribution;
 
+    /**
+     * last update date of the process definitions that were checked against their deploy info and found up to date in
+     * the cache. A process definition found in the cache with the same last update date is returned without reading
+     * its deploy info.
+     */
+    private final ConcurrentMap<Long, Long> upToDateVersions = new ConcurrentHashMap<>();
+    /**
+     * incremented on each eviction, so that a version read from the database concurrently with an eviction is not
+     * recorded as up to date
+     */
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final Counter cacheHitsCounter;
+    private final Counter cacheMissesCounter;
+    private final Counter cacheReloadsCounter;
+
     public ProcessDefinitionServiceImpl(final Recorder recorder, final ReadPersistenceService persistenceService,
             final SessionService sessionService,
             final ReadSessionAccessor sessionAccessor, final QueriableLoggerService queriableLoggerService,
-            CacheService cacheService) {
+            CacheService cacheService, UserTransactionService userTransactionService,
+            BroadcastService broadcastService, MeterRegistry meterRegistry, long tenantId) {
         this.recorder = recorder;
         this.persistenceService = persistenceService;
         this.sessionService = sessionService;
         this.sessionAccessor = sessionAccessor;
         this.queriableLoggerService = queriableLoggerService;
         this.cacheService = cacheService;
+        this.userTransactionService = userTransactionService;
+        this.broadcastService = broadcastService;
+        this.tenantId = tenantId;
         processDefinitionBARContribution = new ProcessDefinitionBARContribution();
+        cacheHitsCounter = Counter.builder(PROCESS_DEFINITION_CACHE_HITS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("process definitions")
+                .description("Process definitions returned from the cache without reading their deploy info")
+                .register(meterRegistry);
+        cacheMissesCounter = Counter.builder(PROCESS_DEFINITION_CACHE_MISSES)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("process definitions")
+                .description("Process definitions returned from the cache after reading their deploy info")
+                .register(meterRegistry);
+        cacheReloadsCounter = Counter.builder(PROCESS_DEFINITION_CACHE_RELOADS)
+                .tags(Tags.of("tenant", String.valueOf(tenantId)))
+                .baseUnit("process definitions")
+                .description("Process definitions parsed again from their design content")
+                .register(meterRegistry);
     }
 
     @Override
@@ -130,13 +191,56 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
         try {
             recorder.recordDelete(new DeleteRecord(processDefinitionDeployInfo), PROCESSDEFINITION);
+            final SProcessDefinitionRuntimeContent runtimeContent = getRuntimeContent(processId);
+            if (runtimeContent != null) {
+                recorder.recordDelete(new DeleteRecord(runtimeContent), PROCESSDEFINITION_RUNTIME_CONTENT);
+            }
+            evictProcessDefinitionVersionOnAllNodes(processId);
             log(processId, SQueriableLog.STATUS_OK, logBuilder, "delete");
-        } catch (final SRecorderException e) {
+        } catch (final SRecorderException | SBonitaReadException | STransactionNotFoundException e) {
             log(processId, SQueriableLog.STATUS_FAIL, logBuilder, "delete");
             throw new SProcessDeletionException(e, processDefinitionDeployInfo);
         }
     }
 
+    @Override
+    public void evictProcessDefinitionVersion(long processDefinitionId) {
+        evictionCount.incrementAndGet();
+        upToDateVersions.remove(processDefinitionId);
+    }
+
+    /**
+     * Evict the version of the process definition on this node now, and once the transaction is completed on this node
+     * (the version may have been read again by the current transaction) and, if it was committed, on all other nodes.
+     */
+    void evictProcessDefinitionVersionOnAllNodes(long processId) throws STransactionNotFoundException {
+        evictProcessDefinitionVersion(processId);
+        userTransactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) transactionState -> {
+            evictProcessDefinitionVersion(processId);
+            if (transactionState == Status.STATUS_COMMITTED) {
+                evictProcessDefinitionVersionOnOtherNodes(processId);
+            }
+        });
+    }
+
+    private void evictProcessDefinitionVersionOnOtherNodes(long processId) {
+        try {
+            Map<String, TaskResult<Void>> results = broadcastService
+                    .executeOnOthersAndWait(new EvictProcessDefinitionVersionTask(processId), tenantId);
+            for (Map.Entry<String, TaskResult<Void>> result : results.entrySet()) {
+                if (result.getValue().isError()) {
+                    log.warn("Unable to evict the version of process definition {} on node {}", processId,
+                            result.getKey(), result.getValue().getThrowable());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while evicting the version of process definition {} on other nodes", processId);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Unable to evict the version of process definition {} on other nodes", processId, e);
+        }
+    }
+
     @Override
     public void disableProcessDeploymentInfo(final long processId)
             throws SProcessDefinitionNotFoundException, SProcessDisablementException {
@@ -177,6 +281,8 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         final Pair<Long, SProcessDefinition> fromCache = getSProcessDefinitionFromCache(processId);
         if (fromCache != null) {
             storeProcessDefinitionInCache(fromCache.getValue(), processDefinitionDeployInfo.getLastUpdateDate());
+            // the design did not change: the cached definition stays valid, even if the transaction is rolled back
+            upToDateVersions.replace(processId, processDefinitionDeployInfo.getLastUpdateDate());
         }
     }
 
@@ -250,32 +356,112 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
     public SProcessDefinition getProcessDefinition(final long processId)
             throws SProcessDefinitionNotFoundException, SBonitaReadException {
         try {
+            //get from cache
+            Pair<Long, SProcessDefinition> processWithTimestamp = getSProcessDefinitionFromCache(processId);
+            if (processWithTimestamp != null
+                    && processWithTimestamp.getKey().equals(upToDateVersions.get(processId))) {
+                cacheHitsCounter.increment();
+                return processWithTimestamp.getValue();
+            }
+            final long evictionCountBeforeRead = evictionCount.get();
             //get from database
             final SProcessDefinitionDeployInfo processDeploymentInfo = getProcessDeploymentInfo(processId);
-            //get from cache
-            final Pair<Long, SProcessDefinition> processWithTimestamp = getSProcessDefinitionFromCache(processId);
             //read SProcessDefinition if needed
+            final SProcessDefinition processDefinition;
             if (isSProcessDefinitionUpToDate(processDeploymentInfo, processWithTimestamp)) {
-                return readSProcessDefinitionFromDatabase(processId, processDeploymentInfo);
+                cacheReloadsCounter.increment();
+                processDefinition = readSProcessDefinitionFromDatabase(processId, processDeploymentInfo);
             } else {
-                return processWithTimestamp.getValue();
+                cacheMissesCounter.increment();
+                processDefinition = processWithTimestamp.getValue();
             }
+            if (evictionCount.get() == evictionCountBeforeRead) {
+                upToDateVersions.put(processId, processDeploymentInfo.getLastUpdateDate());
+            }
+            return processDefinition;
         } catch (IOException | SReflectException | SCacheException e) {
             throw new SBonitaReadException(e);
         }
     }
 
     SProcessDefinition readSProcessDefinitionFromDatabase(long processId,
-            SProcessDefinitionDeployInfo processDeploymentInfo) throws IOException, SReflectException, SCacheException {
+            SProcessDefinitionDeployInfo processDeploymentInfo)
+            throws IOException, SReflectException, SCacheException, SBonitaReadException {
+        SProcessDefinition sProcessDefinition = readSProcessDefinitionFromSnapshot(processId);
+        if (sProcessDefinition == null) {
+            sProcessDefinition = readSProcessDefinitionFromDesignContent(processId,
+                    processDeploymentInfo.getDesignContent().getContent());
+        }
+        storeProcessDefinitionInCache(sProcessDefinition, processDeploymentInfo.getLastUpdateDate());
+        return sProcessDefinition;
+    }
+
+    SProcessDefinition readSProcessDefinitionFromDesignContent(long processId, String designContent)
+            throws IOException, SReflectException {
         final DesignProcessDefinition objectFromXML = processDefinitionBARContribution
-                .convertXmlToProcess(processDeploymentInfo.getDesignContent()
-                        .getContent());
+                .convertXmlToProcess(designContent);
         SProcessDefinition sProcessDefinition = convertDesignProcessDefinition(objectFromXML);
         setIdOnProcessDefinition(sProcessDefinition, processId);
-        storeProcessDefinitionInCache(sProcessDefinition, processDeploymentInfo.getLastUpdateDate());
         return sProcessDefinition;
     }
 
+    /**
+     * @return the process definition read from its binary snapshot, or null if there is no usable snapshot (processes
+     *         deployed before snapshots existed, or snapshots written by a different version of the engine)
+     */
+    SProcessDefinition readSProcessDefinitionFromSnapshot(long processId) throws SBonitaReadException {
+        final SProcessDefinitionRuntimeContent runtimeContent = getRuntimeContent(processId);
+        if (runtimeContent == null || runtimeContent.getContent() == null) {
+            return null;
+        }
+        try {
+            final SProcessDefinition sProcessDefinition = ProcessDefinitionSnapshot.read(runtimeContent.getContent());
+            if (sProcessDefinition == null) {
+                log.debug("Snapshot of process definition {} was written by another version of the engine, "
+                        + "reading its design content instead", processId);
+            }
+            return sProcessDefinition;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read the snapshot of process definition {}, reading its design content instead",
+                    processId, e);
+            return null;
+        }
+    }
+
+    SProcessDefinitionRuntimeContent getRuntimeContent(long processId) throws SBonitaReadException {
+        return persistenceService
+                .selectById(new SelectByIdDescriptor<>(SProcessDefinitionRuntimeContent.class, processId, true));
+    }
+
+    /**
+     * Write the snapshot of the given process definition, replacing the existing one if any.
+     * The snapshot is only an optimization: when it cannot be written, the existing one is removed and the definition
+     * will be read from its design content.
+     */
+    void storeRuntimeContent(SProcessDefinition sProcessDefinition) throws SRecorderException, SBonitaReadException {
+        byte[] snapshot;
+        try {
+            snapshot = ProcessDefinitionSnapshot.write(sProcessDefinition);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to write the snapshot of process definition {}", sProcessDefinition.getId(), e);
+            snapshot = null;
+        }
+        final SProcessDefinitionRuntimeContent existing = getRuntimeContent(sProcessDefinition.getId());
+        if (existing != null) {
+            if (snapshot == null) {
+                recorder.recordDelete(new DeleteRecord(existing), PROCESSDEFINITION_RUNTIME_CONTENT);
+            } else {
+                final EntityUpdateDescriptor descriptor = new EntityUpdateDescriptor();
+                descriptor.addField(SProcessDefinitionRuntimeContent.CONTENT, snapshot);
+                recorder.recordUpdate(UpdateRecord.buildSetFields(existing, descriptor),
+                        PROCESSDEFINITION_RUNTIME_CONTENT);
+            }
+        } else if (snapshot != null) {
+            recorder.recordInsert(new InsertRecord(SProcessDefinitionRuntimeContent.builder()
+                    .id(sProcessDefinition.getId()).content(snapshot).build()), PROCESSDEFINITION_RUNTIME_CONTENT);
+        }
+    }
+
     boolean isSProcessDefinitionUpToDate(SProcessDefinitionDeployInfo processDeploymentInfo,
             Pair<Long, SProcessDefinition> processWithTimestamp) {
         return processWithTimestamp == null
@@ -352,6 +538,7 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
                     sProcessDefinitionDesignContent, processId);
 
             recorder.recordInsert(new InsertRecord(sProcessDefinitionDeployInfo), PROCESSDEFINITION);
+            storeRuntimeContent(definition);
             //storeProcessDefinitionInCache(definition, sProcessDefinitionDeployInfo.getLastUpdateDate());
             log(definition.getId(), SQueriableLog.STATUS_OK, logBuilder, "store");
         } catch (final Exception e) {
@@ -586,6 +773,34 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         recorder.recordUpdate(updateRecord, eventType);
         if (!updateRecord.getFields().containsKey(SProcessDefinitionDeployInfo.DESIGN_CONTENT)) {
             updateSProcessDefinitionTimestampInCache(processId, processDefinitionDeployInfo);
+        } else {
+            try {
+                refreshRuntimeContent(processId,
+                        (String) updateRecord.getFields().get(SProcessDefinitionDeployInfo.DESIGN_CONTENT));
+                evictProcessDefinitionVersionOnAllNodes(processId);
+            } catch (STransactionNotFoundException | SBonitaReadException e) {
+                throw new SRecorderException(e);
+            }
+        }
+    }
+
+    void refreshRuntimeContent(long processId, String designContent)
+            throws SRecorderException, SBonitaReadException {
+        SProcessDefinition sProcessDefinition;
+        try {
+            sProcessDefinition = readSProcessDefinitionFromDesignContent(processId, designContent);
+        } catch (IOException | SReflectException e) {
+            // the snapshot is removed by storeRuntimeContent, the error is reported when reading the design content
+            log.warn("Unable to read the updated design content of process definition {}", processId, e);
+            sProcessDefinition = null;
+        }
+        if (sProcessDefinition != null) {
+            storeRuntimeContent(sProcessDefinition);
+        } else {
+            final SProcessDefinitionRuntimeContent existing = getRuntimeContent(processId);
+            if (existing != null) {
+                recorder.recordDelete(new DeleteRecord(existing), PROCESSDEFINITION_RUNTIME_CONTENT);
+            }
         }
     }
 
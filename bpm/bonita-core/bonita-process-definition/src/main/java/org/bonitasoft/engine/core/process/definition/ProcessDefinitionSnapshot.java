@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+
+/**
+ * Binary snapshot of a converted {@link SProcessDefinition}, read instead of parsing and converting the design
+ * content of the process again.
+ * <p>
+ * A snapshot starts with a header (magic number and format version) followed by the compressed Java serialization of
+ * the definition. When reading it, the serializable fields of each class of the snapshot are compared to the ones of
+ * the classes of the running engine: a snapshot written by an engine having a different model (e.g. before an
+ * update of the platform) is rejected, and the definition must then be read from its design content.
+ */
+public final class ProcessDefinitionSnapshot {
+
+    static final int MAGIC = 0x42504453;
+    static final int FORMAT_VERSION = 1;
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config
+            .createFilter("org.bonitasoft.engine.**;java.**;!*");
+
+    private ProcessDefinitionSnapshot() {
+    }
+
+    public static byte[] write(SProcessDefinition processDefinition) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.flush();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeObject(processDefinition);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the process definition, or null when the snapshot was written using another format or another model
+     */
+    public static SProcessDefinition read(byte[] snapshot) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(snapshot);
+        DataInputStream header = new DataInputStream(bytes);
+        if (snapshot.length < 8 || header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+        try (ObjectInputStream in = new SnapshotInputStream(new InflaterInputStream(bytes))) {
+            return (SProcessDefinition) in.readObject();
+        } catch (InvalidClassException | ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static final class SnapshotInputStream extends ObjectInputStream {
+
+        SnapshotInputStream(InputStream in) throws IOException {
+            super(in);
+            setObjectInputFilter(FILTER);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass snapshotDescriptor = super.readClassDescriptor();
+            ObjectStreamClass localDescriptor = ObjectStreamClass.lookup(resolveClass(snapshotDescriptor));
+            if (localDescriptor != null && !haveSameFields(snapshotDescriptor, localDescriptor)) {
+                throw new InvalidClassException(snapshotDescriptor.getName(),
+                        "serializable fields differ from the ones of the snapshot");
+            }
+            return snapshotDescriptor;
+        }
+
+        private static boolean haveSameFields(ObjectStreamClass snapshotDescriptor,
+                ObjectStreamClass localDescriptor) {
+            ObjectStreamField[] snapshotFields = snapshotDescriptor.getFields();
+            ObjectStreamField[] localFields = localDescriptor.getFields();
+            if (snapshotFields.length != localFields.length) {
+                return false;
+            }
+            for (int i = 0; i < snapshotFields.length; i++) {
+                if (!snapshotFields[i].getName().equals(localFields[i].getName())
+                        || snapshotFields[i].getTypeCode() != localFields[i].getTypeCode()
+                        || !String.valueOf(snapshotFields[i].getTypeString())
+                                .equals(String.valueOf(localFields[i].getTypeString()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
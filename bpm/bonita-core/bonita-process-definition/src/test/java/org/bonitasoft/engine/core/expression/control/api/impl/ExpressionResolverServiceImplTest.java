@@ -13,17 +13,26 @@
  **/
 package org.bonitasoft.engine.core.expression.control.api.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
+import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.KIND_CONSTANT;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.List;
+
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.core.expression.control.model.SExpressionContext;
 import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
 import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.expression.ExpressionService;
 import org.bonitasoft.engine.expression.model.SExpression;
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
 import org.bonitasoft.engine.tracking.TimeTracker;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -84,4 +93,29 @@ public class ExpressionResolverServiceImplTest {
         verify(classLoaderService, never()).getClassLoader(any());
     }
 
+    @Test
+    public void evaluate_should_evaluate_shared_dependencies_only_once() throws Exception {
+        final SExpressionImpl constant = new SExpressionImpl("1", "1", SExpression.TYPE_CONSTANT,
+                String.class.getName(), null, null);
+        final SExpressionImpl shared = list("shared", constant);
+        final SExpressionImpl first = list("first", shared);
+        final SExpressionImpl second = list("second", list("shared", constant));
+        doReturn(List.of("1")).when(expressionService).evaluate(eq(KIND_CONSTANT), eq(List.of(constant)), anyMap(),
+                anyMap(), any());
+        doReturn(List.of("1")).when(expressionService).evaluate(eq(shared), anyMap(), anyMap(), any());
+        doReturn(List.of(List.of("1"))).when(expressionService).evaluate(eq(first), anyMap(), anyMap(), any());
+        doReturn(List.of(List.of("1"), "2")).when(expressionService).evaluate(eq(second), anyMap(), anyMap(), any());
+
+        final List<Object> results = resolverService.evaluate(List.of(first, second), new SExpressionContext());
+
+        assertThat(results).containsExactly(List.of(List.of("1")), List.of(List.of("1"), "2"));
+        verify(expressionService, times(1)).evaluate(eq(KIND_CONSTANT), eq(List.of(constant)), anyMap(), anyMap(),
+                any());
+        verify(expressionService, times(1)).evaluate(eq(shared), anyMap(), anyMap(), any());
+    }
+
+    private static SExpressionImpl list(final String name, final SExpression... elements) {
+        return new SExpressionImpl(name, name, SExpression.TYPE_LIST, List.class.getName(), null, List.of(elements));
+    }
+
 }
@@ -14,6 +14,9 @@
 package org.bonitasoft.engine.core.process.definition;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.core.process.definition.ProcessDefinitionServiceImpl.PROCESS_DEFINITION_CACHE_HITS;
+import static org.bonitasoft.engine.core.process.definition.ProcessDefinitionServiceImpl.PROCESS_DEFINITION_CACHE_MISSES;
+import static org.bonitasoft.engine.core.process.definition.ProcessDefinitionServiceImpl.PROCESS_DEFINITION_CACHE_RELOADS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.*;
@@ -27,6 +30,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.transaction.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.bpm.bar.ProcessDefinitionBARContribution;
 import org.bonitasoft.engine.bpm.process.ActivationState;
 import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
@@ -41,6 +47,7 @@ import org.bonitasoft.engine.core.process.definition.exception.SProcessDeploymen
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDeployInfo;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionDesignContent;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinitionRuntimeContent;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionDeployInfoUpdateBuilder;
 import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionDeployInfoUpdateBuilderFactory;
 import org.bonitasoft.engine.core.process.definition.model.impl.SProcessDefinitionImpl;
@@ -60,17 +67,18 @@ import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.SRecorderException;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
+import org.bonitasoft.engine.service.BroadcastService;
 import org.bonitasoft.engine.services.QueriableLoggerService;
 import org.bonitasoft.engine.session.SessionService;
 import org.bonitasoft.engine.sessionaccessor.ReadSessionAccessor;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 /**
@@ -82,6 +90,7 @@ public class ProcessDefinitionServiceImplTest {
 
     private static final long PROCESS_DEFINITION_DEPLOY_ID = 3L;
     private static final long PROCESS_ID = 42L;
+    private static final long TENANT_ID = 12L;
     private static final String THE_PROCESS_XML_CONTENT = "THE PROCESS XML CONTENT";
     @Mock
     private CacheService cacheService;
@@ -97,14 +106,21 @@ public class ProcessDefinitionServiceImplTest {
     private SessionService sessionService;
     @Mock
     private ProcessDefinitionBARContribution processDefinitionBARContribution;
-    @InjectMocks
-    @Spy
+    @Mock
+    private UserTransactionService userTransactionService;
+    @Mock
+    private BroadcastService broadcastService;
+    private SimpleMeterRegistry meterRegistry;
     private ProcessDefinitionServiceImpl processDefinitionServiceImpl;
     private SProcessDefinitionDeployInfo sProcessDefinitionDeployInfo;
     private DesignProcessDefinition designProcessDefinition;
 
     @Before
     public void before() throws SProcessDefinitionNotFoundException, SBonitaReadException, IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        processDefinitionServiceImpl = spy(new ProcessDefinitionServiceImpl(recorder, persistenceService,
+                sessionService, sessionAccessor, queriableLoggerService, cacheService, userTransactionService,
+                broadcastService, meterRegistry, TENANT_ID));
         sProcessDefinitionDeployInfo = new SProcessDefinitionDeployInfo();
         sProcessDefinitionDeployInfo.setId(PROCESS_DEFINITION_DEPLOY_ID);
         final SProcessDefinitionDesignContent designContent = new SProcessDefinitionDesignContent();
@@ -418,6 +434,127 @@ public class ProcessDefinitionServiceImplTest {
 
         assertThat(processDefinition).as("returned process definition from cache").isEqualTo(processDefinitionC);
         verify(cacheService, times(1)).store(anyString(), any(Serializable.class), any());
+        assertThat(meterRegistry.get(PROCESS_DEFINITION_CACHE_RELOADS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void getProcessDefinition_should_read_snapshot_instead_of_design_content() throws Exception {
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        sProcessDefinition.setId(PROCESS_ID);
+        final byte[] snapshot = ProcessDefinitionSnapshot.write(sProcessDefinition);
+        doReturn(new SProcessDefinitionRuntimeContent(1L, PROCESS_ID, snapshot)).when(persistenceService)
+                .selectById(any());
+
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition.getName()).isEqualTo("a");
+        assertThat(processDefinition.getId()).isEqualTo(PROCESS_ID);
+        verify(processDefinitionBARContribution, never()).convertXmlToProcess(anyString());
+        verify(cacheService).store(eq(ProcessDefinitionService.PROCESS_CACHE_NAME), eq(PROCESS_ID), any());
+    }
+
+    @Test
+    public void getProcessDefinition_should_read_design_content_when_snapshot_is_not_readable() throws Exception {
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(new SProcessDefinitionRuntimeContent(1L, PROCESS_ID, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 }))
+                .when(persistenceService).selectById(any());
+        doReturn(sProcessDefinition).when(processDefinitionServiceImpl)
+                .convertDesignProcessDefinition(designProcessDefinition);
+
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition).isEqualTo(sProcessDefinition);
+    }
+
+    @Test
+    public void storeRuntimeContent_should_update_existing_snapshot() throws Exception {
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        sProcessDefinition.setId(PROCESS_ID);
+        doReturn(new SProcessDefinitionRuntimeContent(1L, PROCESS_ID, new byte[] { 1 })).when(persistenceService)
+                .selectById(any());
+
+        processDefinitionServiceImpl.storeRuntimeContent(sProcessDefinition);
+
+        verify(recorder).recordUpdate(any(UpdateRecord.class),
+                eq(ProcessDefinitionService.PROCESSDEFINITION_RUNTIME_CONTENT));
+        verify(recorder, never()).recordInsert(any(), anyString());
+    }
+
+    @Test
+    public void getProcessDefinition_should_not_read_deploy_info_when_cached_version_is_up_to_date()
+            throws Exception {
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        final SProcessDefinitionImpl sProcessDefinition = new SProcessDefinitionImpl("a", "b");
+        doReturn(new Pair<Long, SProcessDefinition>(5478L, sProcessDefinition)).when(processDefinitionServiceImpl)
+                .getSProcessDefinitionFromCache(PROCESS_ID);
+
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+        final SProcessDefinition processDefinition = processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        assertThat(processDefinition).isEqualTo(sProcessDefinition);
+        verify(processDefinitionServiceImpl, times(1)).getProcessDeploymentInfo(PROCESS_ID);
+        assertThat(meterRegistry.get(PROCESS_DEFINITION_CACHE_MISSES).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PROCESS_DEFINITION_CACHE_HITS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void getProcessDefinition_should_read_deploy_info_again_when_version_was_evicted() throws Exception {
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        doReturn(new Pair<Long, SProcessDefinition>(5478L, new SProcessDefinitionImpl("a", "b")))
+                .when(processDefinitionServiceImpl).getSProcessDefinitionFromCache(PROCESS_ID);
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        processDefinitionServiceImpl.evictProcessDefinitionVersion(PROCESS_ID);
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+
+        verify(processDefinitionServiceImpl, times(2)).getProcessDeploymentInfo(PROCESS_ID);
+        assertThat(meterRegistry.get(PROCESS_DEFINITION_CACHE_HITS).counter().count()).isZero();
+    }
+
+    @Test
+    public void update_of_design_content_should_evict_version_on_other_nodes_once_committed() throws Exception {
+        sProcessDefinitionDeployInfo.setLastUpdateDate(5478L);
+        doReturn(new Pair<Long, SProcessDefinition>(5478L, new SProcessDefinitionImpl("a", "b")))
+                .when(processDefinitionServiceImpl).getSProcessDefinitionFromCache(PROCESS_ID);
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+        final EntityUpdateDescriptor descriptor = new EntityUpdateDescriptor();
+        descriptor.addField(SProcessDefinitionDeployInfo.DESIGN_CONTENT, "new content");
+        doNothing().when(processDefinitionServiceImpl).refreshRuntimeContent(PROCESS_ID, "new content");
+
+        processDefinitionServiceImpl.update(PROCESS_ID, sProcessDefinitionDeployInfo,
+                UpdateRecord.buildSetFields(sProcessDefinitionDeployInfo, descriptor),
+                ProcessDefinitionService.PROCESSDEFINITION_DEPLOY_INFO);
+        final ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(userTransactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        verify(broadcastService).executeOnOthersAndWait(
+                ArgumentMatchers.<EvictProcessDefinitionVersionTask> argThat(
+                        task -> task.getProcessDefinitionId() == PROCESS_ID),
+                eq(TENANT_ID));
+        processDefinitionServiceImpl.getProcessDefinition(PROCESS_ID);
+        verify(processDefinitionServiceImpl, times(2)).getProcessDeploymentInfo(PROCESS_ID);
+    }
+
+    @Test
+    public void update_of_design_content_should_not_evict_version_on_other_nodes_when_rolled_back()
+            throws Exception {
+        final EntityUpdateDescriptor descriptor = new EntityUpdateDescriptor();
+        descriptor.addField(SProcessDefinitionDeployInfo.DESIGN_CONTENT, "new content");
+        doNothing().when(processDefinitionServiceImpl).refreshRuntimeContent(PROCESS_ID, "new content");
+
+        processDefinitionServiceImpl.update(PROCESS_ID, sProcessDefinitionDeployInfo,
+                UpdateRecord.buildSetFields(sProcessDefinitionDeployInfo, descriptor),
+                ProcessDefinitionService.PROCESSDEFINITION_DEPLOY_INFO);
+        final ArgumentCaptor<BonitaTransactionSynchronization> synchronization = ArgumentCaptor
+                .forClass(BonitaTransactionSynchronization.class);
+        verify(userTransactionService).registerBonitaSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        verifyNoInteractions(broadcastService);
     }
 
     /**
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.definition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.bonitasoft.engine.bpm.process.DesignProcessDefinition;
+import org.bonitasoft.engine.bpm.process.impl.ProcessDefinitionBuilder;
+import org.bonitasoft.engine.builder.BuilderFactory;
+import org.bonitasoft.engine.core.process.definition.model.SFlowNodeDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
+import org.bonitasoft.engine.core.process.definition.model.builder.SProcessDefinitionBuilderFactory;
+import org.bonitasoft.engine.core.process.definition.model.impl.SProcessDefinitionImpl;
+import org.bonitasoft.engine.expression.ExpressionBuilder;
+import org.junit.Test;
+
+public class ProcessDefinitionSnapshotTest {
+
+    @Test
+    public void should_read_the_process_definition_that_was_written() throws Exception {
+        SProcessDefinition processDefinition = processDefinition();
+
+        SProcessDefinition read = ProcessDefinitionSnapshot.read(ProcessDefinitionSnapshot.write(processDefinition));
+
+        assertThat(read.getId()).isEqualTo(12L);
+        assertThat(read.getName()).isEqualTo("snapshot");
+        assertThat(read.getProcessContainer().getFlowNodes()).extracting(SFlowNodeDefinition::getName)
+                .containsExactlyInAnyOrderElementsOf(processDefinition.getProcessContainer().getFlowNodes().stream()
+                        .map(SFlowNodeDefinition::getName).toList());
+        assertThat(read.getProcessContainer().getTransitions()).hasSameSizeAs(
+                processDefinition.getProcessContainer().getTransitions());
+        assertThat(read.getProcessContainer().getFlowNode("step2").getDisplayName().getContent())
+                .isEqualTo("'Step ' + 2");
+    }
+
+    @Test
+    public void should_not_read_snapshot_written_using_another_format() throws Exception {
+        byte[] snapshot = ProcessDefinitionSnapshot.write(processDefinition());
+        ByteBuffer.wrap(snapshot).putInt(4, ProcessDefinitionSnapshot.FORMAT_VERSION + 1);
+
+        assertThat(ProcessDefinitionSnapshot.read(snapshot)).isNull();
+    }
+
+    @Test
+    public void should_not_read_content_that_is_not_a_snapshot() throws Exception {
+        assertThat(ProcessDefinitionSnapshot.read("<process/>".getBytes())).isNull();
+    }
+
+    private static SProcessDefinition processDefinition() throws Exception {
+        ProcessDefinitionBuilder builder = new ProcessDefinitionBuilder().createNewInstance("snapshot", "1.0");
+        builder.addStartEvent("start");
+        for (int i = 1; i <= 3; i++) {
+            builder.addAutomaticTask("step" + i).addDisplayName(
+                    new ExpressionBuilder().createGroovyScriptExpression("name" + i, "'Step ' + " + i,
+                            String.class.getName()));
+        }
+        builder.addTransition("start", "step1").addTransition("step1", "step2").addTransition("step2", "step3");
+        DesignProcessDefinition designProcessDefinition = builder.done();
+        SProcessDefinitionImpl processDefinition = (SProcessDefinitionImpl) BuilderFactory
+                .get(SProcessDefinitionBuilderFactory.class).createNewInstance(designProcessDefinition).done();
+        processDefinition.setId(12L);
+        return processDefinition;
+    }
+}
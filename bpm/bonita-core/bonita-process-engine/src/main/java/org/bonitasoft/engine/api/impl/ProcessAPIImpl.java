@@ -306,6 +306,7 @@ public class ProcessAPIImpl implements ProcessAPI {
         builder.filter(ProcessInstanceSearchDescriptor.PROCESS_DEFINITION_ID, processDefinitionId);
         final SearchOptions searchOptions = builder.done();
         try {
+            // instances queued for archiving are counted: they need their definition to be archived
             final boolean hasOpenProcessInstances = searchProcessInstances(getServiceAccessor(), searchOptions)
                     .getCount() > 0;
             checkIfItIsPossibleToDeleteProcessInstance(processDefinitionId, hasOpenProcessInstances);
@@ -553,6 +554,10 @@ public class ProcessAPIImpl implements ProcessAPI {
         final ProcessDefinitionService processDefinitionService = serviceAccessor.getProcessDefinitionService();
         try {
             final SProcessInstance sProcessInstance = getSProcessInstance(processInstanceId);
+            if (serviceAccessor.getBPMArchiverService().isQueuedForArchiving(processInstanceId)) {
+                // finished and already visible in archived process instances, it is only waiting to be deleted
+                throw new ProcessInstanceNotFoundException(processInstanceId);
+            }
             return ModelConvertor
                     .toProcessInstances(Collections.singletonList(sProcessInstance), processDefinitionService).get(0);
         } catch (final SProcessInstanceNotFoundException notFound) {
@@ -1252,6 +1257,19 @@ public class ProcessAPIImpl implements ProcessAPI {
         return searchProcessInstances.getResult();
     }
 
+    /**
+     * Search process instances, except the ones that finished and are waiting to be archived
+     */
+    private SearchResult<ProcessInstance> searchOpenProcessInstances(final ServiceAccessor serviceAccessor,
+            final SearchOptions searchOptions) throws SBonitaException {
+        final SearchOpenProcessInstances searchOpenProcessInstances = new SearchOpenProcessInstances(
+                serviceAccessor.getProcessInstanceService(),
+                serviceAccessor.getSearchEntitiesDescriptor().getSearchProcessInstanceDescriptor(), searchOptions,
+                serviceAccessor.getProcessDefinitionService());
+        searchOpenProcessInstances.execute();
+        return searchOpenProcessInstances.getResult();
+    }
+
     @Override
     public List<ArchivedProcessInstance> getArchivedProcessInstances(final int startIndex, final int maxResults,
             final ProcessInstanceCriterion criterion) {
@@ -3646,7 +3664,7 @@ public class ProcessAPIImpl implements ProcessAPI {
                 ProcessInstanceState.COMPLETED.getId());
         searchOptionsBuilder.filter(ProcessInstanceSearchDescriptor.CALLER_ID, -1);
         try {
-            return searchProcessInstances(getServiceAccessor(), searchOptionsBuilder.done());
+            return searchOpenProcessInstances(getServiceAccessor(), searchOptionsBuilder.done());
         } catch (final SBonitaException e) {
             throw new SearchException(e);
         }
@@ -16,11 +16,13 @@ package org.bonitasoft.engine.api.impl.transaction.process;
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.commons.transaction.TransactionContent;
+import org.bonitasoft.engine.core.process.definition.ProcessDefinitionExpressions;
 import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
 import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.definition.model.event.SStartEventDefinition;
 import org.bonitasoft.engine.execution.event.EventsHandler;
+import org.bonitasoft.engine.expression.ExpressionService;
 
 /**
  * @author Baptiste Mesta
@@ -36,14 +38,16 @@ public final class EnableProcess implements TransactionContent {
     private final long processId;
 
     private final EventsHandler eventsHandler;
+    private final ExpressionService expressionService;
     private final String userName;
 
     public EnableProcess(final ProcessDefinitionService processDefinitionService,
             final long processId,
-            final EventsHandler eventsHandler, final String userName) {
+            final EventsHandler eventsHandler, final ExpressionService expressionService, final String userName) {
         this.processDefinitionService = processDefinitionService;
         this.processId = processId;
         this.eventsHandler = eventsHandler;
+        this.expressionService = expressionService;
         this.userName = userName;
     }
 
@@ -52,6 +56,8 @@ public final class EnableProcess implements TransactionContent {
         final SProcessDefinition sProcessDefinition = processDefinitionService.getProcessDefinition(processId);
         handleStartEvents(sProcessDefinition);
         processDefinitionService.enableProcessDeploymentInfo(processId);
+        // compile scripts now, so that the first instances do not pay for it:
+        expressionService.precompile(processId, ProcessDefinitionExpressions.getAll(sProcessDefinition));
 
         log.info("The user <" + userName + "> has enabled process <" + sProcessDefinition.getName()
                 + "> in version <" + sProcessDefinition.getVersion() + "> with id <"
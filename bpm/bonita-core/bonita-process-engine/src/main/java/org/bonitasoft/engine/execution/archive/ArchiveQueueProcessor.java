@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.execution.archive;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.instance.api.ArchiveQueueService;
+import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SProcessInstanceNotFoundException;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstanceToArchive;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.tenant.TenantElementsRestartSupervisor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.bonitasoft.engine.work.WorkService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically archives the process instances queued by the {@link BPMArchiverService} when deferred archiving is
+ * activated using 'bonita.tenant.archive.deferred'.
+ * <p>
+ * Process instances are archived by batches of 'bonita.tenant.archive.deferred.batchSize', one transaction per
+ * batch: archived elements of the whole batch are inserted when the transaction commits, and the batch is removed
+ * from the queue using a single statement. When a batch fails, its process instances are archived one by one so that
+ * a single faulty process instance does not prevent the others from being archived.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bonita.tenant.archive.deferred", havingValue = "true")
+public class ArchiveQueueProcessor {
+
+    public static final String NUMBER_OF_QUEUED_PROCESS_INSTANCES = "bonita.bpmengine.archive.queue.size";
+    public static final String ARCHIVING_LAG = "bonita.bpmengine.archive.queue.lag";
+    public static final String NUMBER_OF_ARCHIVED_PROCESS_INSTANCES = "bonita.bpmengine.archive.queue.archived";
+
+    private final ArchiveQueueService archiveQueueService;
+    private final ProcessInstanceService processInstanceService;
+    private final BPMArchiverService bpmArchiverService;
+    private final UserTransactionService userTransactionService;
+    private final SessionAccessor sessionAccessor;
+    private final WorkService workService;
+    private final TenantElementsRestartSupervisor tenantElementsRestartSupervisor;
+    private final long tenantId;
+    private final int batchSize;
+    private final AtomicLong numberOfQueuedProcessInstances = new AtomicLong();
+    private final AtomicLong oldestQueuedDate = new AtomicLong();
+    private final Counter numberOfArchivedProcessInstances;
+
+    public ArchiveQueueProcessor(ArchiveQueueService archiveQueueService,
+            ProcessInstanceService processInstanceService,
+            BPMArchiverService bpmArchiverService,
+            UserTransactionService userTransactionService,
+            SessionAccessor sessionAccessor,
+            WorkService workService,
+            TenantElementsRestartSupervisor tenantElementsRestartSupervisor,
+            MeterRegistry meterRegistry,
+            @Value("${tenantId}") long tenantId,
+            @Value("${bonita.tenant.archive.deferred.batchSize:100}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size of the deferred archiving must be at least 1");
+        }
+        this.archiveQueueService = archiveQueueService;
+        this.processInstanceService = processInstanceService;
+        this.bpmArchiverService = bpmArchiverService;
+        this.userTransactionService = userTransactionService;
+        this.sessionAccessor = sessionAccessor;
+        this.workService = workService;
+        this.tenantElementsRestartSupervisor = tenantElementsRestartSupervisor;
+        this.tenantId = tenantId;
+        this.batchSize = batchSize;
+        Tags tags = Tags.of("tenant", String.valueOf(tenantId));
+        Gauge.builder(NUMBER_OF_QUEUED_PROCESS_INSTANCES, numberOfQueuedProcessInstances, AtomicLong::doubleValue)
+                .description("Process instances waiting to be archived").baseUnit("process instances").tags(tags)
+                .register(meterRegistry);
+        Gauge.builder(ARCHIVING_LAG, oldestQueuedDate, ArchiveQueueProcessor::getLag)
+                .description("Time the oldest process instance waiting to be archived has been queued for")
+                .baseUnit("milliseconds").tags(tags)
+                .register(meterRegistry);
+        numberOfArchivedProcessInstances = Counter.builder(NUMBER_OF_ARCHIVED_PROCESS_INSTANCES)
+                .description("Process instances archived from the archive queue").baseUnit("process instances")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static double getLag(AtomicLong oldestQueuedDate) {
+        long queuedDate = oldestQueuedDate.get();
+        return queuedDate == 0 ? 0 : Math.max(0, System.currentTimeMillis() - queuedDate);
+    }
+
+    @Scheduled(fixedDelayString = "${bonita.tenant.archive.deferred.delay:PT10S}", initialDelayString = "${bonita.tenant.archive.deferred.delay:PT10S}")
+    public void archiveQueuedProcessInstances() {
+        if (workService.isStopped() || !tenantElementsRestartSupervisor.isResponsibleForRecovery()) {
+            log.debug("Archiving of queued process instances not executed, the tenant is paused or an other node is "
+                    + "responsible for it.");
+            return;
+        }
+        try {
+            sessionAccessor.setTenantId(tenantId);
+            long afterId = 0;
+            List<Long> processInstanceIds;
+            do {
+                processInstanceIds = getQueuedProcessInstanceIds(afterId);
+                if (!processInstanceIds.isEmpty()) {
+                    archiveBatch(processInstanceIds);
+                    afterId = processInstanceIds.get(processInstanceIds.size() - 1);
+                }
+            } while (processInstanceIds.size() == batchSize);
+            updateQueueMetrics();
+        } catch (Exception e) {
+            log.warn("Archiving of queued process instances failed because of {} - {}, it will be re-executed soon",
+                    e.getClass().getName(), e.getMessage());
+            log.debug("Cause by ", e);
+        }
+    }
+
+    private List<Long> getQueuedProcessInstanceIds(long afterId) throws Exception {
+        return userTransactionService.executeInTransaction(() -> archiveQueueService
+                .getQueuedProcessInstances(afterId, batchSize).stream()
+                .map(SProcessInstanceToArchive::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private void archiveBatch(List<Long> processInstanceIds) {
+        try {
+            archiveInTransaction(processInstanceIds);
+        } catch (Exception batchException) {
+            log.debug("Unable to archive the batch of queued process instances {}, archiving them one by one",
+                    processInstanceIds, batchException);
+            for (Long processInstanceId : processInstanceIds) {
+                try {
+                    archiveInTransaction(List.of(processInstanceId));
+                } catch (Exception e) {
+                    log.warn("Unable to archive the queued process instance {}, it will be retried later. Cause: {}",
+                            processInstanceId, e.getMessage());
+                    log.debug("Cause", e);
+                }
+            }
+        }
+    }
+
+    private void archiveInTransaction(List<Long> processInstanceIds) throws Exception {
+        userTransactionService.executeInTransaction(() -> {
+            for (Long processInstanceId : processInstanceIds) {
+                archive(processInstanceId);
+            }
+            archiveQueueService.remove(processInstanceIds);
+            return null;
+        });
+        numberOfArchivedProcessInstances.increment(processInstanceIds.size());
+    }
+
+    private void archive(long processInstanceId) throws SBonitaException {
+        try {
+            bpmArchiverService.archiveAndDeleteQueuedProcessInstance(
+                    processInstanceService.getProcessInstance(processInstanceId));
+        } catch (SProcessInstanceNotFoundException e) {
+            log.debug("Queued process instance {} was deleted before being archived", processInstanceId);
+        }
+    }
+
+    private void updateQueueMetrics() throws Exception {
+        userTransactionService.executeInTransaction(() -> {
+            numberOfQueuedProcessInstances.set(archiveQueueService.getNumberOfQueuedProcessInstances());
+            oldestQueuedDate.set(archiveQueueService.getOldestQueuedDate());
+            return null;
+        });
+    }
+
+}
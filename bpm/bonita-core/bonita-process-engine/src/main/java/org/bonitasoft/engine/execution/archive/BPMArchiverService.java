@@ -35,6 +35,7 @@ import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
 import org.bonitasoft.engine.core.process.definition.model.SActivityDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.ArchiveQueueService;
 import org.bonitasoft.engine.core.process.instance.api.BPMFailureService;
 import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.RefBusinessDataService;
@@ -77,7 +78,9 @@ import org.bonitasoft.engine.data.instance.model.SDataInstance;
 import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.persistence.OrderByType;
 import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.recorder.SRecorderException;
+import org.bonitasoft.engine.services.SPersistenceException;
 
 /**
  * @author Elias Ricken de Medeiros
@@ -99,6 +102,8 @@ public class BPMArchiverService {
     private final DataInstanceService dataInstanceService;
     private final ActivityInstanceService activityInstanceService;
     private final BPMFailureService bpmFailureService;
+    private final ArchiveQueueService archiveQueueService;
+    private boolean deferredArchiving;
 
     private static final int BATCH_SIZE = 100;
 
@@ -113,7 +118,8 @@ public class BPMArchiverService {
             ContractDataService contractDataService,
             DataInstanceService dataInstanceService,
             ActivityInstanceService activityInstanceService,
-            BPMFailureService bpmFailureService) {
+            BPMFailureService bpmFailureService,
+            ArchiveQueueService archiveQueueService) {
         this.archiveService = archiveService;
         this.processInstanceService = processInstanceService;
         this.documentService = documentService;
@@ -126,9 +132,59 @@ public class BPMArchiverService {
         this.dataInstanceService = dataInstanceService;
         this.activityInstanceService = activityInstanceService;
         this.bpmFailureService = bpmFailureService;
+        this.archiveQueueService = archiveQueueService;
+    }
+
+    /**
+     * When set, finished process instances are only queued for archiving: the archived process instance is written
+     * right away, but the archiving of its comments, documents, connectors and business data references, and the
+     * deletion of the process instance, are done later by the {@link ArchiveQueueProcessor}.
+     */
+    public void setDeferredArchiving(boolean deferredArchiving) {
+        this.deferredArchiving = deferredArchiving;
+    }
+
+    public boolean isDeferredArchiving() {
+        return deferredArchiving;
+    }
+
+    /**
+     * @return true if the process instance reached a final state and is still waiting to be archived
+     */
+    public boolean isQueuedForArchiving(final long processInstanceId) throws SBonitaReadException {
+        return deferredArchiving && archiveQueueService.isQueued(processInstanceId);
     }
 
     public void archiveAndDeleteProcessInstance(final SProcessInstance processInstance) throws SArchivingException {
+        if (deferredArchiving) {
+            archiveAndQueueProcessInstance(processInstance);
+        } else {
+            archiveAndDeleteProcessInstance(processInstance, true);
+        }
+    }
+
+    /**
+     * Archive the elements of a process instance that was queued for archiving, and delete it.
+     */
+    public void archiveAndDeleteQueuedProcessInstance(final SProcessInstance processInstance)
+            throws SArchivingException {
+        archiveAndDeleteProcessInstance(processInstance, false);
+    }
+
+    private void archiveAndQueueProcessInstance(final SProcessInstance processInstance) throws SArchivingException {
+        final SAProcessInstance saProcessInstance = buildArchiveProcessInstance(processInstance);
+        try {
+            archiveService.recordInsert(saProcessInstance.getEndDate(), new ArchiveInsertRecord(saProcessInstance));
+            archiveQueueService.enqueue(processInstance, System.currentTimeMillis());
+        } catch (final SRecorderException | SPersistenceException e) {
+            throw new SArchivingException("Unable to queue the archiving of the process instance.", e);
+        }
+        log.debug("Process instance with id = <{}> and state {} queued for archiving", processInstance.getId(),
+                processInstance.getStateId());
+    }
+
+    private void archiveAndDeleteProcessInstance(final SProcessInstance processInstance,
+            final boolean archiveProcessInstanceObject) throws SArchivingException {
 
         //set the classloader to this process because we need it e.g. to archive data instance
         ClassLoader processClassLoader;
@@ -167,7 +223,8 @@ public class BPMArchiverService {
             archiveRefBusinessDataInstances(processInstance.getId());
 
             // Archive
-            archiveAndDeleteProcessInstanceObject(processDefinition, processInstance, saProcessInstance, archiveDate);
+            archiveAndDeleteProcessInstanceObject(processDefinition, processInstance,
+                    archiveProcessInstanceObject ? saProcessInstance : null, archiveDate);
         } finally {
             Thread.currentThread().setContextClassLoader(contextClassLoader);
         }
@@ -226,8 +283,11 @@ public class BPMArchiverService {
             final SAProcessInstance saProcessInstance, final long archiveDate)
             throws SArchivingException {
         try {
-            final ArchiveInsertRecord insertRecord = new ArchiveInsertRecord(saProcessInstance);
-            archiveService.recordInsert(archiveDate, insertRecord);
+            // null when the archived process instance was written when the process instance was queued
+            if (saProcessInstance != null) {
+                final ArchiveInsertRecord insertRecord = new ArchiveInsertRecord(saProcessInstance);
+                archiveService.recordInsert(archiveDate, insertRecord);
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("Archiving process instance with id = <{}> and state {}", processInstance.getId(),
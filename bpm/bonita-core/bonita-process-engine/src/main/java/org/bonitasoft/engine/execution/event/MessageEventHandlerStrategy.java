@@ -135,7 +135,7 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
         }
         fillCorrelation(builder, messageTrigger.getCorrelations(), expressionContext);
         getEventInstanceService().createWaitingEvent(builder.done());
-        messagesHandlingService.triggerMatchingOfMessages();
+        messagesHandlingService.triggerMatchingOfNewMessageEvents();
     }
 
     public void handleCatchEvent(final SProcessDefinition processDefinition,
@@ -160,7 +160,7 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
         try {
             fillCorrelation(builder, messageTrigger.getCorrelations(), expressionContext);
             getEventInstanceService().createWaitingEvent(builder.done());
-            messagesHandlingService.triggerMatchingOfMessages();
+            messagesHandlingService.triggerMatchingOfNewMessageEvents();
         } catch (SBonitaException e) {
             e.setMessageInstanceNameOnContext(messageTrigger.getMessageName());
             throw e;
@@ -224,7 +224,7 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
         final SMessageInstance messageInstance = builder.done();
         // evaluate and add correlations
         getEventInstanceService().createMessageInstance(messageInstance);
-        messagesHandlingService.triggerMatchingOfMessages();
+        messagesHandlingService.triggerMatchingOfNewMessageEvents();
 
         // create data
         if (!messageTrigger.getDataDefinitions().isEmpty()) {
@@ -327,6 +327,6 @@ public class MessageEventHandlerStrategy extends CoupleEventHandlerStrategy {
                 processDefinition.getId());
         fillCorrelation(builder, messageEventTriggerDefinition.getCorrelations(), expressionContext);
         getEventInstanceService().createWaitingEvent(builder.done());
-        messagesHandlingService.triggerMatchingOfMessages();
+        messagesHandlingService.triggerMatchingOfNewMessageEvents();
     }
 }
@@ -169,16 +169,10 @@ public abstract class ExecuteConnectorWork extends TenantAwareBonitaWork {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EXECUTE_CONNECTOR_WORK)) {
                 final long endTime = System.currentTimeMillis();
-                final StringBuilder desc = new StringBuilder();
-                desc.append("processDefinitionId: ");
-                desc.append(processDefinitionId);
-                desc.append(" - ");
-                desc.append("connectorDefinitionName: ");
-                desc.append(connectorDefinitionName);
-                desc.append(" - ");
-                desc.append("connectorInstanceId: ");
-                desc.append(connectorInstanceId);
-                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_WORK, desc.toString(), endTime - startTime);
+                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_WORK, connectorDefinitionName,
+                        () -> "processDefinitionId: " + processDefinitionId + " - " + "connectorDefinitionName: "
+                                + connectorDefinitionName + " - " + "connectorInstanceId: " + connectorInstanceId,
+                        endTime - startTime);
             }
             Thread.currentThread().setContextClassLoader(contextClassLoader);
         }
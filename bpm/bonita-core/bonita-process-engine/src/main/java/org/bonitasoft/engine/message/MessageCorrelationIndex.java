@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageEventCouple;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+
+/**
+ * In memory index of the waiting message events and of the message instances, grouped by the criteria used to
+ * correlate them (message name, target process and correlation values).
+ * It gives the potential couples of a correlation key without querying the database. The index only knows ids: the
+ * state of the message and of the waiting event (handled, in progress...) must still be checked in database before
+ * executing a couple.
+ */
+public class MessageCorrelationIndex {
+
+    private final Map<CorrelationKey, Entries> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CorrelationKey> waitingMessageKeys = new ConcurrentHashMap<>();
+    private final Map<Long, CorrelationKey> messageInstanceKeys = new ConcurrentHashMap<>();
+
+    public CorrelationKey addWaitingMessage(SWaitingMessageEvent waitingMessage) {
+        CorrelationKey key = CorrelationKey.of(waitingMessage);
+        CorrelationKey previousKey = waitingMessageKeys.put(waitingMessage.getId(), key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            removeFrom(previousKey, e -> e.waitingMessages.remove(waitingMessage.getId()));
+        }
+        entries.compute(key, (k, e) -> {
+            Entries entry = e == null ? new Entries() : e;
+            entry.waitingMessages.put(waitingMessage.getId(),
+                    new WaitingMessage(waitingMessage.getFlowNodeName(), waitingMessage.getEventType()));
+            return entry;
+        });
+        return key;
+    }
+
+    public CorrelationKey addMessageInstance(SMessageInstance messageInstance) {
+        CorrelationKey key = CorrelationKey.of(messageInstance);
+        CorrelationKey previousKey = messageInstanceKeys.put(messageInstance.getId(), key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            removeFrom(previousKey, e -> e.messageInstances.remove(messageInstance.getId()));
+        }
+        entries.compute(key, (k, e) -> {
+            Entries entry = e == null ? new Entries() : e;
+            entry.messageInstances.put(messageInstance.getId(),
+                    new MessageInstance(messageInstance.getTargetFlowNode()));
+            return entry;
+        });
+        return key;
+    }
+
+    public void removeWaitingMessage(long waitingMessageId) {
+        CorrelationKey key = waitingMessageKeys.remove(waitingMessageId);
+        if (key != null) {
+            removeFrom(key, e -> e.waitingMessages.remove(waitingMessageId));
+        }
+    }
+
+    public void removeMessageInstance(long messageInstanceId) {
+        CorrelationKey key = messageInstanceKeys.remove(messageInstanceId);
+        if (key != null) {
+            removeFrom(key, e -> e.messageInstances.remove(messageInstanceId));
+        }
+    }
+
+    private void removeFrom(CorrelationKey key, Consumer<Entries> removal) {
+        entries.computeIfPresent(key, (k, e) -> {
+            removal.accept(e);
+            return e.isEmpty() ? null : e;
+        });
+    }
+
+    /**
+     * @return the potential couples of the given key, oldest messages first, like the ones returned by the
+     *         getMessageEventCouples query
+     */
+    public List<SMessageEventCouple> getCouples(CorrelationKey key, int maxCouples) {
+        List<SMessageEventCouple> couples = new ArrayList<>();
+        entries.computeIfPresent(key, (k, e) -> {
+            for (Map.Entry<Long, MessageInstance> message : e.messageInstances.entrySet()) {
+                for (Map.Entry<Long, WaitingMessage> waiting : e.waitingMessages.entrySet()) {
+                    if (couples.size() >= maxCouples) {
+                        return e;
+                    }
+                    if (message.getValue().matches(waiting.getValue())) {
+                        couples.add(new SMessageEventCouple(waiting.getKey(), waiting.getValue().eventType(),
+                                message.getKey()));
+                    }
+                }
+            }
+            return e;
+        });
+        return couples;
+    }
+
+    public int getNumberOfWaitingMessages() {
+        return waitingMessageKeys.size();
+    }
+
+    public int getNumberOfMessageInstances() {
+        return messageInstanceKeys.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        waitingMessageKeys.clear();
+        messageInstanceKeys.clear();
+    }
+
+    /**
+     * Criteria that must be equal for a message instance and a waiting message event to be correlated.
+     * The target flow node of the message, when set, is checked separately.
+     */
+    public record CorrelationKey(String messageName, String processName, String correlation1, String correlation2,
+            String correlation3, String correlation4, String correlation5) {
+
+        static CorrelationKey of(SWaitingMessageEvent waitingMessage) {
+            return new CorrelationKey(waitingMessage.getMessageName(), waitingMessage.getProcessName(),
+                    waitingMessage.getCorrelation1(), waitingMessage.getCorrelation2(),
+                    waitingMessage.getCorrelation3(), waitingMessage.getCorrelation4(),
+                    waitingMessage.getCorrelation5());
+        }
+
+        static CorrelationKey of(SMessageInstance messageInstance) {
+            return new CorrelationKey(messageInstance.getMessageName(), messageInstance.getTargetProcess(),
+                    messageInstance.getCorrelation1(), messageInstance.getCorrelation2(),
+                    messageInstance.getCorrelation3(), messageInstance.getCorrelation4(),
+                    messageInstance.getCorrelation5());
+        }
+    }
+
+    private record WaitingMessage(String flowNodeName, SBPMEventType eventType) {
+    }
+
+    private record MessageInstance(String targetFlowNode) {
+
+        boolean matches(WaitingMessage waitingMessage) {
+            return targetFlowNode == null || targetFlowNode.equals(waitingMessage.flowNodeName());
+        }
+    }
+
+    /**
+     * Only accessed inside compute methods of the map, which are atomic for a given key.
+     * Ids are sorted so that the oldest messages are matched first.
+     */
+    private static final class Entries {
+
+        private final Map<Long, WaitingMessage> waitingMessages = new TreeMap<>();
+        private final Map<Long, MessageInstance> messageInstances = new TreeMap<>();
+
+        boolean isEmpty() {
+            return waitingMessages.isEmpty() && messageInstances.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.message;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.transaction.Status;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.events.model.SEvent;
+import org.bonitasoft.engine.events.model.SHandler;
+import org.bonitasoft.engine.events.model.SHandlerExecutionException;
+import org.bonitasoft.engine.message.MessageCorrelationIndex.CorrelationKey;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+
+/**
+ * Keeps the {@link MessageCorrelationIndex} up to date when message instances and waiting message events are created
+ * or deleted.
+ * Changes are applied to the index only once the transaction is committed, using one synchronization per transaction.
+ */
+@Slf4j
+public class MessageCorrelationIndexHandler implements SHandler<SEvent> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String identifier;
+    private final transient MessageCorrelationIndex correlationIndex;
+    private final transient UserTransactionService userTransactionService;
+    private final transient Consumer<Set<CorrelationKey>> onNewEntries;
+    private final transient ThreadLocal<IndexUpdateSynchronization> currentSynchronization = new ThreadLocal<>();
+
+    /**
+     * @param onNewEntries called after commit with the keys of the created message instances and waiting message
+     *        events
+     */
+    public MessageCorrelationIndexHandler(MessageCorrelationIndex correlationIndex,
+            UserTransactionService userTransactionService, Consumer<Set<CorrelationKey>> onNewEntries) {
+        this.identifier = MessageCorrelationIndexHandler.class.getName();
+        this.correlationIndex = correlationIndex;
+        this.userTransactionService = userTransactionService;
+        this.onNewEntries = onNewEntries;
+    }
+
+    @Override
+    public void execute(SEvent event) throws SHandlerExecutionException {
+        IndexUpdateSynchronization synchronization = getOrRegisterSynchronization();
+        boolean created = event.getType().endsWith(SEvent.CREATED);
+        if (event.getObject() instanceof SWaitingMessageEvent waitingMessage) {
+            if (created) {
+                synchronization.createdWaitingMessages.add(waitingMessage);
+            } else {
+                synchronization.deletedWaitingMessages.add(waitingMessage.getId());
+            }
+        } else if (event.getObject() instanceof SMessageInstance messageInstance) {
+            if (created) {
+                synchronization.createdMessageInstances.add(messageInstance);
+            } else {
+                synchronization.deletedMessageInstances.add(messageInstance.getId());
+            }
+        }
+    }
+
+    private IndexUpdateSynchronization getOrRegisterSynchronization() throws SHandlerExecutionException {
+        IndexUpdateSynchronization synchronization = currentSynchronization.get();
+        if (synchronization == null) {
+            synchronization = new IndexUpdateSynchronization();
+            try {
+                userTransactionService.registerBonitaSynchronization(synchronization);
+            } catch (STransactionNotFoundException e) {
+                throw new SHandlerExecutionException(e);
+            }
+            currentSynchronization.set(synchronization);
+        }
+        return synchronization;
+    }
+
+    @Override
+    public boolean isInterested(SEvent event) {
+        return event.getObject() instanceof SWaitingMessageEvent || event.getObject() instanceof SMessageInstance;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    private class IndexUpdateSynchronization implements BonitaTransactionSynchronization {
+
+        private final List<SWaitingMessageEvent> createdWaitingMessages = new ArrayList<>();
+        private final List<SMessageInstance> createdMessageInstances = new ArrayList<>();
+        private final Set<Long> deletedWaitingMessages = new HashSet<>();
+        private final Set<Long> deletedMessageInstances = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int transactionStatus) {
+            currentSynchronization.remove();
+            if (Status.STATUS_COMMITTED != transactionStatus) {
+                return;
+            }
+            deletedWaitingMessages.forEach(correlationIndex::removeWaitingMessage);
+            deletedMessageInstances.forEach(correlationIndex::removeMessageInstance);
+            Set<CorrelationKey> newKeys = new HashSet<>();
+            for (SWaitingMessageEvent waitingMessage : createdWaitingMessages) {
+                if (!deletedWaitingMessages.contains(waitingMessage.getId())) {
+                    newKeys.add(correlationIndex.addWaitingMessage(waitingMessage));
+                }
+            }
+            for (SMessageInstance messageInstance : createdMessageInstances) {
+                if (!deletedMessageInstances.contains(messageInstance.getId())) {
+                    newKeys.add(correlationIndex.addMessageInstance(messageInstance));
+                }
+            }
+            if (!newKeys.isEmpty()) {
+                log.debug("{} correlation keys updated in the message correlation index", newKeys.size());
+                onNewEntries.accept(newKeys);
+            }
+        }
+    }
+}
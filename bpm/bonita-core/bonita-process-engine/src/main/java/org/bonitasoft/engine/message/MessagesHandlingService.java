@@ -14,13 +14,24 @@
 package org.bonitasoft.engine.message;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.transaction.Status;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +39,7 @@ import org.bonitasoft.engine.api.utils.VisibleForTesting;
 import org.bonitasoft.engine.builder.BuilderFactory;
 import org.bonitasoft.engine.commons.TenantLifecycleService;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.core.process.instance.api.event.EventInstanceRepository;
 import org.bonitasoft.engine.core.process.instance.api.event.EventInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.exceptions.event.trigger.SMessageInstanceReadException;
 import org.bonitasoft.engine.core.process.instance.api.exceptions.event.trigger.SMessageModificationException;
@@ -39,9 +51,21 @@ import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEven
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageEventCouple;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.events.EventService;
+import org.bonitasoft.engine.events.model.HandlerRegistrationException;
+import org.bonitasoft.engine.events.model.HandlerUnregistrationException;
+import org.bonitasoft.engine.events.model.SEvent;
 import org.bonitasoft.engine.execution.work.BPMWorkFactory;
 import org.bonitasoft.engine.lock.BonitaLock;
 import org.bonitasoft.engine.lock.LockService;
+import org.bonitasoft.engine.lock.SLockException;
+import org.bonitasoft.engine.lock.SLockTimeoutException;
+import org.bonitasoft.engine.message.MessageCorrelationIndex.CorrelationKey;
+import org.bonitasoft.engine.persistence.FilterOption;
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.OrderByType;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.search.FilterOperationType;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
@@ -58,9 +82,17 @@ public class MessagesHandlingService implements TenantLifecycleService {
 
     private static final int MAX_COUPLES = 100;
     private static final String LOCK_TYPE = "EVENTS";
+    private static final String PARTITION_LOCK_TYPE = "EVENTS_PARTITION";
+    private static final int INDEX_LOADING_PAGE_SIZE = 1000;
+    private static final String[] INDEXED_EVENT_TYPES = {
+            EventInstanceRepository.MESSAGE_INSTANCE + SEvent.CREATED,
+            EventInstanceRepository.MESSAGE_INSTANCE + SEvent.DELETED,
+            EventInstanceRepository.EVENT_TRIGGER_INSTANCE + SEvent.CREATED,
+            EventInstanceRepository.EVENT_TRIGGER_INSTANCE + SEvent.DELETED };
     public static final String NUMBER_OF_MESSAGES_EXECUTED = "bonita.bpmengine.message.executed";
     public static final String NUMBER_OF_MESSAGES_POTENTIAL_MATCHED = "bonita.bpmengine.message.potential";
     public static final String NUMBER_OF_MESSAGES_MATCHING_RETRIGGERED_TASKS = "bonita.bpmengine.message.retriggeredtasks";
+    public static final String CORRELATION_INDEX_SIZE = "bonita.bpmengine.message.index.size";
     private ThreadPoolExecutor threadPoolExecutor;
     private EventInstanceService eventInstanceService;
     private WorkService workService;
@@ -69,14 +101,33 @@ public class MessagesHandlingService implements TenantLifecycleService {
     private UserTransactionService userTransactionService;
     private SessionAccessor sessionAccessor;
     private BPMWorkFactory workFactory;
+    private final EventService eventService;
+
+    /**
+     * null when the correlation index is disabled
+     */
+    private final MessageCorrelationIndex correlationIndex;
+    private final MessageCorrelationIndexHandler correlationIndexHandler;
+    private final int numberOfPartitions;
+    private final List<Set<CorrelationKey>> pendingKeysByPartition;
+    private List<ThreadPoolExecutor> partitionExecutors;
+    private volatile boolean correlationIndexLoaded;
 
     private final Counter executedMessagesCounter;
     private final Counter matchedPotentialMessagesCounter;
     private final Counter retriggeredMatchingTasksCounter;
 
+    /**
+     * @param correlationIndexEnabled when true, message instances and waiting message events are kept in a
+     *        {@link MessageCorrelationIndex} and the couples of newly created elements are found using this index
+     *        instead of querying all couples from the database.
+     * @param matchingPartitions number of threads matching couples found using the correlation index. Couples are
+     *        dispatched to these threads using their correlation key.
+     */
     public MessagesHandlingService(EventInstanceService eventInstanceService, WorkService workService,
             LockService lockService, Long tenantId, UserTransactionService userTransactionService,
-            SessionAccessor sessionAccessor, BPMWorkFactory workFactory, MeterRegistry meterRegistry) {
+            SessionAccessor sessionAccessor, BPMWorkFactory workFactory, MeterRegistry meterRegistry,
+            EventService eventService, boolean correlationIndexEnabled, int matchingPartitions) {
         this.eventInstanceService = eventInstanceService;
         this.workService = workService;
         this.lockService = lockService;
@@ -84,6 +135,30 @@ public class MessagesHandlingService implements TenantLifecycleService {
         this.userTransactionService = userTransactionService;
         this.sessionAccessor = sessionAccessor;
         this.workFactory = workFactory;
+        this.eventService = eventService;
+        this.numberOfPartitions = Math.max(1, matchingPartitions);
+        this.pendingKeysByPartition = new ArrayList<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            pendingKeysByPartition.add(ConcurrentHashMap.newKeySet());
+        }
+        if (correlationIndexEnabled) {
+            correlationIndex = new MessageCorrelationIndex();
+            correlationIndexHandler = new MessageCorrelationIndexHandler(correlationIndex, userTransactionService,
+                    this::triggerMatchingOf);
+            Gauge.builder(CORRELATION_INDEX_SIZE, correlationIndex,
+                    MessageCorrelationIndex::getNumberOfWaitingMessages)
+                    .tags(Tags.of("tenant", String.valueOf(tenantId), "type", "waiting"))
+                    .description("Waiting message events in the message correlation index")
+                    .register(meterRegistry);
+            Gauge.builder(CORRELATION_INDEX_SIZE, correlationIndex,
+                    MessageCorrelationIndex::getNumberOfMessageInstances)
+                    .tags(Tags.of("tenant", String.valueOf(tenantId), "type", "message"))
+                    .description("Message instances in the message correlation index")
+                    .register(meterRegistry);
+        } else {
+            correlationIndex = null;
+            correlationIndexHandler = null;
+        }
         executedMessagesCounter = Counter.builder(NUMBER_OF_MESSAGES_EXECUTED)
                 .tags(Tags.of("tenant", String.valueOf(tenantId)))
                 .baseUnit("messages")
@@ -108,9 +183,48 @@ public class MessagesHandlingService implements TenantLifecycleService {
                 new ArrayBlockingQueue<>(5),
                 r -> new Thread(r, "Bonita-Message-Matching"),
                 (r, executor) -> log.debug("Message matching queue capacity reached"));
+        if (correlationIndex != null) {
+            startCorrelationIndex();
+        }
         log.info("Thread that handle messages matching successfully started");
     }
 
+    private void startCorrelationIndex() {
+        partitionExecutors = new ArrayList<>(numberOfPartitions);
+        for (int i = 0; i < numberOfPartitions; i++) {
+            String threadName = "Bonita-Message-Matching-" + i;
+            partitionExecutors.add(new ThreadPoolExecutor(1, 1, 1L, TimeUnit.HOURS,
+                    new ArrayBlockingQueue<>(5),
+                    r -> new Thread(r, threadName),
+                    (r, executor) -> log.debug("Message matching queue capacity reached")));
+        }
+        correlationIndex.clear();
+        for (String eventType : INDEXED_EVENT_TYPES) {
+            try {
+                eventService.addHandler(eventType, correlationIndexHandler);
+            } catch (HandlerRegistrationException e) {
+                log.warn(e.getMessage());
+                log.debug("", e);
+            }
+        }
+        // handler is registered before loading, so that elements created meanwhile are indexed too
+        threadPoolExecutor.submit(new CorrelationIndexLoadingTask());
+    }
+
+    private void stopCorrelationIndex() {
+        correlationIndexLoaded = false;
+        try {
+            eventService.removeAllHandlers(correlationIndexHandler);
+        } catch (HandlerUnregistrationException e) {
+            log.warn(e.getMessage());
+            log.debug("", e);
+        }
+        partitionExecutors.forEach(ThreadPoolExecutor::shutdown);
+        partitionExecutors = null;
+        pendingKeysByPartition.forEach(Set::clear);
+        correlationIndex.clear();
+    }
+
     @Override
     public void stop() {
         log.info("Stopping BPMN messages matcher thread");
@@ -118,6 +232,9 @@ public class MessagesHandlingService implements TenantLifecycleService {
             log.info("BPMN messages matcher thread is already stopped");
             return;
         }
+        if (correlationIndex != null && partitionExecutors != null) {
+            stopCorrelationIndex();
+        }
         threadPoolExecutor.shutdown();
         try {
             boolean termination = threadPoolExecutor.awaitTermination(5000, TimeUnit.MILLISECONDS);
@@ -149,6 +266,127 @@ public class MessagesHandlingService implements TenantLifecycleService {
         userTransactionService.registerBonitaSynchronization(new RegisterMessagesMatchingSynchronization());
     }
 
+    /**
+     * Trigger the matching of message instances and waiting message events created in the current transaction.
+     * When the correlation index is enabled (and loaded), these elements are matched using the index once the
+     * transaction is committed, otherwise all couples are queried from the database.
+     */
+    public void triggerMatchingOfNewMessageEvents() throws STransactionNotFoundException {
+        if (correlationIndex != null && correlationIndexLoaded) {
+            return;
+        }
+        triggerMatchingOfMessages();
+    }
+
+    private void triggerMatchingOf(Collection<CorrelationKey> keys) {
+        List<ThreadPoolExecutor> executors = partitionExecutors;
+        if (executors == null || !correlationIndexLoaded) {
+            // index is not loaded yet, couples are found using the database once it is
+            return;
+        }
+        Set<Integer> partitions = new HashSet<>();
+        for (CorrelationKey key : keys) {
+            int partition = partitionOf(key);
+            pendingKeysByPartition.get(partition).add(key);
+            partitions.add(partition);
+        }
+        for (Integer partition : partitions) {
+            executors.get(partition).submit(new PartitionMatchingTask(partition));
+        }
+    }
+
+    @VisibleForTesting
+    MessageCorrelationIndex getCorrelationIndex() {
+        return correlationIndex;
+    }
+
+    int partitionOf(CorrelationKey key) {
+        return Math.floorMod(key.hashCode(), numberOfPartitions);
+    }
+
+    private void matchPendingCorrelationKeys(int partition) throws Exception {
+        Set<CorrelationKey> pendingKeys = pendingKeysByPartition.get(partition);
+        List<CorrelationKey> keys = new ArrayList<>(pendingKeys);
+        pendingKeys.removeAll(keys);
+        if (!keys.isEmpty()) {
+            matchCorrelationKeys(keys);
+        }
+    }
+
+    /**
+     * Match the couples of the given correlation keys, using the correlation index.
+     */
+    @VisibleForTesting
+    void matchCorrelationKeys(List<CorrelationKey> keys) throws Exception {
+        List<CorrelationKey> keysToRetrigger = new ArrayList<>();
+        userTransactionService.executeInTransaction(() -> {
+            for (CorrelationKey key : keys) {
+                final List<SMessageEventCouple> potentialMessageCouples = correlationIndex.getCouples(key,
+                        MAX_COUPLES);
+                matchedPotentialMessagesCounter.increment(potentialMessageCouples.size());
+                final List<SMessageEventCouple> uniqueCouples = getMessageUniqueCouples(
+                        getStillMatchableCouples(potentialMessageCouples));
+                executeUniqueMessageCouplesWork(uniqueCouples);
+                // executed couples are removed from the index, only retrigger when it moved forward
+                if (potentialMessageCouples.size() == MAX_COUPLES && !uniqueCouples.isEmpty()) {
+                    keysToRetrigger.add(key);
+                }
+            }
+            return null;
+        });
+        if (!keysToRetrigger.isEmpty()) {
+            retriggeredMatchingTasksCounter.increment();
+            triggerMatchingOf(keysToRetrigger);
+        }
+    }
+
+    /**
+     * The index may contain elements already matched by another thread or deleted by a transaction that did not fire
+     * events (e.g. bulk deletion): check their state in database, and remove from the index the ones that can no
+     * more be matched.
+     */
+    private List<SMessageEventCouple> getStillMatchableCouples(List<SMessageEventCouple> potentialMessageCouples)
+            throws SMessageInstanceReadException, SWaitingEventReadException {
+        final Map<Long, Boolean> matchableMessages = new HashMap<>();
+        final Map<Long, Boolean> matchableWaitings = new HashMap<>();
+        final List<SMessageEventCouple> matchableCouples = new ArrayList<>(potentialMessageCouples.size());
+        for (SMessageEventCouple couple : potentialMessageCouples) {
+            Boolean messageMatchable = matchableMessages.get(couple.getMessageInstanceId());
+            if (messageMatchable == null) {
+                messageMatchable = isMatchable(
+                        eventInstanceService.getMessageInstance(couple.getMessageInstanceId()),
+                        couple.getMessageInstanceId());
+                matchableMessages.put(couple.getMessageInstanceId(), messageMatchable);
+            }
+            Boolean waitingMatchable = matchableWaitings.get(couple.getWaitingMessageId());
+            if (waitingMatchable == null) {
+                waitingMatchable = isMatchable(eventInstanceService.getWaitingMessage(couple.getWaitingMessageId()),
+                        couple.getWaitingMessageId());
+                matchableWaitings.put(couple.getWaitingMessageId(), waitingMatchable);
+            }
+            if (messageMatchable && waitingMatchable) {
+                matchableCouples.add(couple);
+            }
+        }
+        return matchableCouples;
+    }
+
+    private boolean isMatchable(SMessageInstance messageInstance, long messageInstanceId) {
+        if (messageInstance == null || messageInstance.isHandled()) {
+            afterCommit(index -> index.removeMessageInstance(messageInstanceId));
+            return false;
+        }
+        return !messageInstance.isLocked();
+    }
+
+    private boolean isMatchable(SWaitingMessageEvent waitingMessage, long waitingMessageId) {
+        if (waitingMessage == null || waitingMessage.getProgress() != 0) {
+            afterCommit(index -> index.removeWaitingMessage(waitingMessageId));
+            return false;
+        }
+        return waitingMessage.isActive() && !waitingMessage.isLocked();
+    }
+
     @VisibleForTesting
     void matchEventCoupleAndTriggerExecution() throws Exception {
         userTransactionService.executeInTransaction(() -> {
@@ -198,6 +436,16 @@ public class MessagesHandlingService implements TenantLifecycleService {
         if (!SBPMEventType.START_EVENT.equals(waitingMsg.getEventType())) {
             markWaitingMessageAsInProgress(waitingMsg);
         }
+        if (correlationIndex != null) {
+            // will be put back in the index if the couple is reset
+            final boolean removeWaitingMessage = !SBPMEventType.START_EVENT.equals(waitingMsg.getEventType());
+            afterCommit(index -> {
+                index.removeMessageInstance(messageInstanceId);
+                if (removeWaitingMessage) {
+                    index.removeWaitingMessage(waitingMessageId);
+                }
+            });
+        }
         executedMessagesCounter.increment();
         workService.registerWork(workFactory.createExecuteMessageCoupleWorkDescriptor(messageInstance, waitingMsg));
     }
@@ -215,8 +463,8 @@ public class MessagesHandlingService implements TenantLifecycleService {
      *         waiting message.
      */
     List<SMessageEventCouple> getMessageUniqueCouples(List<SMessageEventCouple> potentialMessageCouples) {
-        final List<Long> takenMessages = new ArrayList<>();
-        final List<Long> takenWaitings = new ArrayList<>();
+        final Set<Long> takenMessages = new HashSet<>();
+        final Set<Long> takenWaitings = new HashSet<>();
         final List<SMessageEventCouple> uniqueMessageCouples = new ArrayList<>();
         for (final SMessageEventCouple couple : potentialMessageCouples) {
             final long messageInstanceId = couple.getMessageInstanceId();
@@ -271,6 +519,9 @@ public class MessagesHandlingService implements TenantLifecycleService {
         final EntityUpdateDescriptor descriptor = new EntityUpdateDescriptor();
         descriptor.addField(SMessageInstanceBuilder.HANDLED, false);
         eventInstanceService.updateMessageInstance(messageInstance, descriptor);
+        if (correlationIndex != null) {
+            afterCommit(index -> index.addMessageInstance(messageInstance));
+        }
     }
 
     private void resetWaitingMessage(final long waitingMessageId)
@@ -284,6 +535,46 @@ public class MessagesHandlingService implements TenantLifecycleService {
         descriptor.addField(BuilderFactory.get(SWaitingMessageEventBuilderFactory.class).getProgressKey(),
                 SWaitingMessageEventBuilderFactory.PROGRESS_FREE_KEY);
         eventInstanceService.updateWaitingMessage(waitingMsg, descriptor);
+        if (correlationIndex != null) {
+            afterCommit(index -> index.addWaitingMessage(waitingMsg));
+        }
+    }
+
+    /**
+     * Apply the change to the correlation index only once the current transaction is committed: when it is rolled
+     * back, the database still contains the elements as they were, and so must the index, because the database is not
+     * scanned when the index is used.
+     */
+    private void afterCommit(Consumer<MessageCorrelationIndex> change) {
+        try {
+            userTransactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) status -> {
+                if (Status.STATUS_COMMITTED == status) {
+                    change.accept(correlationIndex);
+                }
+            });
+        } catch (STransactionNotFoundException e) {
+            // not in a transaction: nothing can be rolled back
+            change.accept(correlationIndex);
+        }
+    }
+
+    private List<BonitaLock> lockPartitions() throws SLockException, SLockTimeoutException {
+        List<BonitaLock> partitionLocks = new ArrayList<>(numberOfPartitions);
+        try {
+            for (int partition = 0; partition < numberOfPartitions; partition++) {
+                partitionLocks.add(lockService.lock(partition, PARTITION_LOCK_TYPE, tenantId));
+            }
+        } catch (SLockException | SLockTimeoutException e) {
+            unlock(partitionLocks);
+            throw e;
+        }
+        return partitionLocks;
+    }
+
+    private void unlock(List<BonitaLock> locks) throws SLockException {
+        for (BonitaLock lock : locks) {
+            lockService.unlock(lock, tenantId);
+        }
     }
 
     private class MessagesMatchingTask implements Callable<Void> {
@@ -302,8 +593,14 @@ public class MessagesHandlingService implements TenantLifecycleService {
                     return null;
                 }
                 try {
-                    sessionAccessor.setTenantId(tenantId);
-                    matchEventCoupleAndTriggerExecution();
+                    // couples found using the correlation index must not be matched at the same time
+                    List<BonitaLock> partitionLocks = correlationIndex != null ? lockPartitions() : List.of();
+                    try {
+                        sessionAccessor.setTenantId(tenantId);
+                        matchEventCoupleAndTriggerExecution();
+                    } finally {
+                        unlock(partitionLocks);
+                    }
                 } finally {
                     lockService.unlock(eventLock, tenantId);
                 }
@@ -316,6 +613,88 @@ public class MessagesHandlingService implements TenantLifecycleService {
         }
     }
 
+    private class PartitionMatchingTask implements Callable<Void> {
+
+        private final int partition;
+
+        private PartitionMatchingTask(int partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            try {
+                BonitaLock partitionLock = lockService.lock(partition, PARTITION_LOCK_TYPE, tenantId);
+                try {
+                    sessionAccessor.setTenantId(tenantId);
+                    matchPendingCorrelationKeys(partition);
+                } finally {
+                    lockService.unlock(partitionLock, tenantId);
+                }
+            } catch (Exception e) {
+                log.error("Error while matching messages of partition {}", partition, e);
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Load in the correlation index the elements already in database, then match them using the database once.
+     */
+    private class CorrelationIndexLoadingTask implements Callable<Void> {
+
+        @Override
+        public Void call() throws Exception {
+            try {
+                log.info("Loading message correlation index");
+                sessionAccessor.setTenantId(tenantId);
+                // pages are read after the last loaded id: matching keeps deleting rows while loading, which would
+                // shift offsets and skip rows
+                List<SWaitingMessageEvent> waitingMessages;
+                long lastId = 0;
+                do {
+                    QueryOptions queryOptions = new QueryOptions(0, INDEX_LOADING_PAGE_SIZE,
+                            Collections.singletonList(
+                                    new OrderByOption(SWaitingMessageEvent.class, "id", OrderByType.ASC)),
+                            Collections.singletonList(new FilterOption(SWaitingMessageEvent.class, "id", lastId,
+                                    FilterOperationType.GREATER)),
+                            null);
+                    waitingMessages = userTransactionService.executeInTransaction(
+                            () -> eventInstanceService.searchWaitingEvents(SWaitingMessageEvent.class, queryOptions));
+                    waitingMessages.forEach(correlationIndex::addWaitingMessage);
+                    if (!waitingMessages.isEmpty()) {
+                        lastId = waitingMessages.get(waitingMessages.size() - 1).getId();
+                    }
+                } while (waitingMessages.size() == INDEX_LOADING_PAGE_SIZE);
+                List<SMessageInstance> messageInstances;
+                lastId = 0;
+                do {
+                    long afterId = lastId;
+                    messageInstances = userTransactionService.executeInTransaction(
+                            () -> eventInstanceService.getUnhandledMessageInstances(afterId, INDEX_LOADING_PAGE_SIZE));
+                    messageInstances.forEach(correlationIndex::addMessageInstance);
+                    if (!messageInstances.isEmpty()) {
+                        lastId = messageInstances.get(messageInstances.size() - 1).getId();
+                    }
+                } while (messageInstances.size() == INDEX_LOADING_PAGE_SIZE);
+                correlationIndexLoaded = true;
+                log.info("Message correlation index loaded with {} waiting message events and {} message instances",
+                        correlationIndex.getNumberOfWaitingMessages(), correlationIndex.getNumberOfMessageInstances());
+            } catch (Exception e) {
+                log.error("Unable to load the message correlation index, messages will be matched using the database",
+                        e);
+                throw e;
+            }
+            // couples created while loading were not dispatched to partitions
+            ThreadPoolExecutor matchingExecutor = threadPoolExecutor;
+            if (matchingExecutor != null) {
+                matchingExecutor.submit(new MessagesMatchingTask());
+            }
+            return null;
+        }
+    }
+
     private class RegisterMessagesMatchingSynchronization implements BonitaTransactionSynchronization {
 
         @Override
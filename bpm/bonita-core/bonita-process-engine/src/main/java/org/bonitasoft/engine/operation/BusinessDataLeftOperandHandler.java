@@ -131,8 +131,13 @@ public class BusinessDataLeftOperandHandler implements LeftOperandHandler {
             businessDataRepository.remove(entity);
         } else {
             final SProcessMultiRefBusinessDataInstance multiRef = (SProcessMultiRefBusinessDataInstance) reference;
-            for (final Long dataId : multiRef.getDataIds()) {
-                final Entity entity = businessDataRepository.findById(dataClass, dataId);
+            final List<Long> dataIds = multiRef.getDataIds();
+            final List<Entity> entities = businessDataRepository.findByIdentifiers(dataClass, dataIds);
+            if (entities.size() != dataIds.size()) {
+                throw new SBusinessDataNotFoundException(
+                        "Impossible to get all data of type " + dataClass.getName() + " with ids: " + dataIds);
+            }
+            for (final Entity entity : entities) {
                 businessDataRepository.remove(entity);
             }
         }
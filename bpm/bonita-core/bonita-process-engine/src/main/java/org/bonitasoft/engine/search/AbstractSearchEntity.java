@@ -55,6 +55,8 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
 
     private List<C> clientObjects;
 
+    private String continuationToken;
+
     /**
      * @param searchDescriptor
      *        The search descriptor of the searched entity
@@ -101,20 +103,75 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
             final OrderByOption order = searchDescriptor.getEntityOrder(sort);
             orderOptions.add(order);
         }
-        final QueryOptions countOptions = new QueryOptions(0, QueryOptions.UNLIMITED_NUMBER_OF_RESULTS, null,
-                filterOptions, userSearchTerm);
-        count = executeCount(countOptions);
-        if (count > 0 && numberOfResults != 0) {
-            final QueryOptions searchOptions = new QueryOptions(fromIndex, numberOfResults, orderOptions, filterOptions,
-                    userSearchTerm);
-            serverObjects = executeSearch(searchOptions);
-            detectPotentialTransactionIsolationIssue(serverObjects, numberOfResults, countOptions);
+        final CountMode countMode = options.getCountMode() != null ? options.getCountMode() : CountMode.EXACT;
+        final ContinuationToken token = getContinuationToken(orderOptions);
+        final long position = token != null ? token.getPosition() : fromIndex;
+        // one more result is retrieved to know if there is a next page without counting
+        final boolean retrieveOneMore = (token != null || countMode != CountMode.EXACT)
+                && numberOfResults < QueryOptions.UNLIMITED_NUMBER_OF_RESULTS;
+        final int maxResults = retrieveOneMore ? numberOfResults + 1 : numberOfResults;
+        final QueryOptions searchOptions;
+        if (token != null && token.isKeyset()) {
+            searchOptions = new QueryOptions(maxResults, orderOptions, filterOptions, userSearchTerm,
+                    token.getAfterValues());
+        } else if (token != null) {
+            // retrieved using its offset, but in the same order as the pages retrieved using keyset conditions
+            searchOptions = new QueryOptions((int) position, maxResults, orderOptions, filterOptions, userSearchTerm,
+                    Collections.emptyList());
+        } else {
+            searchOptions = new QueryOptions((int) position, maxResults, orderOptions, filterOptions, userSearchTerm);
+        }
+        if (countMode == CountMode.EXACT) {
+            final QueryOptions countOptions = new QueryOptions(0, QueryOptions.UNLIMITED_NUMBER_OF_RESULTS, null,
+                    filterOptions, userSearchTerm);
+            count = executeCount(countOptions);
+            if (count > 0 && numberOfResults != 0) {
+                serverObjects = executeSearch(searchOptions);
+                if (position == 0 || token == null) {
+                    detectPotentialTransactionIsolationIssue(removeExtraResult(serverObjects, numberOfResults),
+                            numberOfResults, countOptions);
+                }
+            } else {
+                serverObjects = Collections.emptyList();
+            }
         } else {
-            serverObjects = Collections.emptyList();
+            serverObjects = numberOfResults != 0 ? executeSearch(searchOptions) : Collections.emptyList();
+        }
+        final boolean hasMoreResults = retrieveOneMore && serverObjects.size() > numberOfResults;
+        serverObjects = removeExtraResult(serverObjects, numberOfResults);
+        if (countMode == CountMode.NONE) {
+            count = -1;
+        } else if (countMode == CountMode.ESTIMATE) {
+            count = position + serverObjects.size() + (hasMoreResults ? 1 : 0);
+        }
+        if (token != null && hasMoreResults) {
+            continuationToken = ContinuationToken.after(position + numberOfResults, orderOptions,
+                    serverObjects.get(numberOfResults - 1)).encode(orderOptions);
         }
         clientObjects = convertToClientObjects(serverObjects);
     }
 
+    /**
+     * @return the position of the page to retrieve when results are paginated using continuation tokens, null
+     *         otherwise
+     */
+    private ContinuationToken getContinuationToken(List<OrderByOption> orderOptions) throws SBonitaReadException {
+        if (!options.isContinuationPaginated()) {
+            return null;
+        }
+        if (options.getContinuationToken() == null) {
+            return ContinuationToken.first();
+        }
+        return ContinuationToken.decode(options.getContinuationToken(), orderOptions);
+    }
+
+    private List<S> removeExtraResult(List<S> serverObjects, int numberOfResults) {
+        if (serverObjects.size() > numberOfResults) {
+            return serverObjects.subList(0, numberOfResults);
+        }
+        return serverObjects;
+    }
+
     private void detectPotentialTransactionIsolationIssue(List<S> serverObjects, int numberOfResults,
             QueryOptions countOptions) throws SBonitaReadException {
         // If there are at most 1 page of result AND the count does not detect as many objects as the search:
@@ -177,7 +234,7 @@ public abstract class AbstractSearchEntity<C extends Serializable, S extends Per
 
     @Override
     public SearchResult<C> getResult() {
-        return new SearchResultImpl<>(count, clientObjects);
+        return new SearchResultImpl<>(count, clientObjects, continuationToken);
     }
 
     protected SearchFilter getSearchFilter(final SearchOptions searchOptions, final String searchedKey) {
@@ -0,0 +1,256 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import org.bonitasoft.engine.commons.ClassReflector;
+import org.bonitasoft.engine.commons.exceptions.SReflectException;
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+
+/**
+ * Position of a page in search results paginated using continuation tokens.
+ * <p>
+ * The token contains the values of the sort fields and of the id of the last element of the previous page, so that the
+ * next page is retrieved using a keyset condition instead of an offset. When these values cannot be read or encoded,
+ * the token falls back to the offset of the next page.
+ * It is encoded as URL-safe base64 of a small typed binary format, and contains a fingerprint of the sorts so that a
+ * token is not used with other sorts than the ones it was created with. Enum values are encoded by name, and bound
+ * again to the enum type of the sorted field when decoded, so that they are compared with the field using its type.
+ */
+final class ContinuationToken {
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 'N';
+    private static final byte LONG = 'L';
+    private static final byte INTEGER = 'I';
+    private static final byte STRING = 'S';
+    private static final byte BOOLEAN = 'B';
+    private static final byte DOUBLE = 'D';
+    private static final byte ENUM = 'E';
+
+    private static final Object UNREADABLE = new Object();
+
+    private final long position;
+
+    /**
+     * null when the page must be retrieved using its offset
+     */
+    private final List<Serializable> afterValues;
+
+    private ContinuationToken(long position, List<Serializable> afterValues) {
+        this.position = position;
+        this.afterValues = afterValues;
+    }
+
+    /**
+     * @return the token of the first page
+     */
+    static ContinuationToken first() {
+        return new ContinuationToken(0, Collections.emptyList());
+    }
+
+    /**
+     * @param position the number of elements before the next page
+     * @param orderOptions the sorts of the search
+     * @param lastElement the last element of the previous page
+     * @return the token of the page following the given element
+     */
+    static ContinuationToken after(long position, List<OrderByOption> orderOptions, PersistentObject lastElement) {
+        List<Serializable> values = new ArrayList<>(orderOptions.size() + 1);
+        for (OrderByOption orderOption : orderOptions) {
+            if (orderOption.getClazz() != null && !orderOption.getClazz().isInstance(lastElement)) {
+                // sorted on an entity joined in the query, its value is not available
+                return new ContinuationToken(position, null);
+            }
+            Object value = readField(lastElement, orderOption.getFieldName());
+            if (value instanceof Enum<?> enumValue && getEnumType(orderOption) != enumValue.getDeclaringClass()) {
+                // the enum type can not be found again from the sort when decoding the token
+                return new ContinuationToken(position, null);
+            }
+            if (!isEncodable(value)) {
+                return new ContinuationToken(position, null);
+            }
+            values.add((Serializable) value);
+        }
+        if (!QueryOptions.isSortedById(orderOptions)) {
+            values.add(lastElement.getId());
+        }
+        return new ContinuationToken(position, values);
+    }
+
+    static ContinuationToken decode(String token, List<OrderByOption> orderOptions) throws SBonitaReadException {
+        try (DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (input.readByte() != VERSION || input.readInt() != fingerprint(orderOptions)) {
+                throw new SBonitaReadException(
+                        "The continuation token was not created by a search with the same sorts");
+            }
+            long position = input.readLong();
+            int numberOfValues = input.readInt();
+            if (numberOfValues < 0) {
+                return new ContinuationToken(position, null);
+            }
+            List<Serializable> values = new ArrayList<>(numberOfValues);
+            for (int i = 0; i < numberOfValues; i++) {
+                values.add(readValue(input, i < orderOptions.size() ? orderOptions.get(i) : null));
+            }
+            return new ContinuationToken(position, values);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SBonitaReadException("Invalid continuation token: " + token, e);
+        }
+    }
+
+    String encode(List<OrderByOption> orderOptions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeInt(fingerprint(orderOptions));
+            output.writeLong(position);
+            if (afterValues == null) {
+                output.writeInt(-1);
+            } else {
+                output.writeInt(afterValues.size());
+                for (Serializable value : afterValues) {
+                    writeValue(output, value);
+                }
+            }
+        } catch (IOException e) {
+            // not thrown when writing in memory
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the values of the sort fields and of the id of the last element of the previous page, empty for the
+     *         first page, null when the page must be retrieved using its offset
+     */
+    List<Serializable> getAfterValues() {
+        return afterValues;
+    }
+
+    boolean isKeyset() {
+        return afterValues != null;
+    }
+
+    private static Object readField(PersistentObject entity, String fieldName) {
+        try {
+            return ClassReflector.invokeGetter(entity, ClassReflector.getGetterName(fieldName));
+        } catch (SReflectException e) {
+            try {
+                return ClassReflector.invokeGetter(entity, ClassReflector.getGetterName(fieldName, Boolean.class));
+            } catch (SReflectException e1) {
+                return UNREADABLE;
+            }
+        }
+    }
+
+    private static boolean isEncodable(Object value) {
+        return value == null || value instanceof Long || value instanceof Integer || value instanceof String
+                || value instanceof Boolean || value instanceof Double || value instanceof Enum<?>;
+    }
+
+    /**
+     * @return the enum type of the sorted field, declared by the getter of the sorted entity, null if it is not an enum
+     */
+    private static Class<?> getEnumType(OrderByOption orderOption) {
+        if (orderOption == null || orderOption.getClazz() == null) {
+            return null;
+        }
+        try {
+            Class<?> type = orderOption.getClazz()
+                    .getMethod(ClassReflector.getGetterName(orderOption.getFieldName())).getReturnType();
+            return type.isEnum() ? type : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static int fingerprint(List<OrderByOption> orderOptions) {
+        int fingerprint = 1;
+        for (OrderByOption orderOption : orderOptions) {
+            fingerprint = 31 * fingerprint + String.valueOf(orderOption.getFieldName()).hashCode();
+            fingerprint = 31 * fingerprint + String.valueOf(orderOption.getOrderByType()).hashCode();
+        }
+        return fingerprint;
+    }
+
+    private static void writeValue(DataOutputStream output, Serializable value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Long longValue) {
+            output.writeByte(LONG);
+            output.writeLong(longValue);
+        } else if (value instanceof Integer intValue) {
+            output.writeByte(INTEGER);
+            output.writeInt(intValue);
+        } else if (value instanceof String stringValue) {
+            output.writeByte(STRING);
+            output.writeUTF(stringValue);
+        } else if (value instanceof Boolean booleanValue) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean(booleanValue);
+        } else if (value instanceof Enum<?> enumValue) {
+            output.writeByte(ENUM);
+            output.writeUTF(enumValue.name());
+        } else {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        }
+    }
+
+    /**
+     * @param orderOption the sort of the value, null for the id
+     */
+    private static Serializable readValue(DataInputStream input, OrderByOption orderOption) throws IOException {
+        byte type = input.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case LONG -> input.readLong();
+            case INTEGER -> input.readInt();
+            case STRING -> input.readUTF();
+            case BOOLEAN -> input.readBoolean();
+            case DOUBLE -> input.readDouble();
+            case ENUM -> readEnum(input.readUTF(), orderOption);
+            default -> throw new IOException("Unknown value type " + type);
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Serializable readEnum(String name, OrderByOption orderOption) throws IOException {
+        Class enumType = getEnumType(orderOption);
+        if (enumType == null) {
+            throw new IOException("No enum type for the value " + name);
+        }
+        return Enum.valueOf(enumType, name);
+    }
+}
@@ -13,21 +13,19 @@
  **/
 package org.bonitasoft.engine.tenant.restart;
 
-import java.time.Duration;
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 /**
  * The Recovery handler is responsible for recovering all candidate elements
  * at Engine startup.
  * It is called only once in a cluster startup (handled by TenantElementsRestartSupervisor)
+ * Only elements that were not updated since the engine started are recovered.
  */
 @Component
 public class RecoveryHandler implements TenantRestartHandler {
 
     private final RecoveryService recoveryService;
-    private List<ElementToRecover> allElementsToRecover;
+    private long startDate;
 
     public RecoveryHandler(RecoveryService recoveryService) {
         this.recoveryService = recoveryService;
@@ -35,11 +33,11 @@ public class RecoveryHandler implements TenantRestartHandler {
 
     @Override
     public void beforeServicesStart() {
-        allElementsToRecover = recoveryService.getAllElementsToRecover(Duration.ZERO);
+        startDate = System.currentTimeMillis();
     }
 
     @Override
     public void afterServicesStart() {
-        recoveryService.recover(allElementsToRecover);
+        recoveryService.recover(startDate);
     }
 }
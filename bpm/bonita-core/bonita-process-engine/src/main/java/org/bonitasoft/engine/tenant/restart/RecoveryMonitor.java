@@ -16,6 +16,7 @@ package org.bonitasoft.engine.tenant.restart;
 import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_PROTOTYPE;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
@@ -24,82 +25,89 @@ import org.springframework.stereotype.Component;
 /**
  * Responsible for monitoring the recovery mechanism.
  * It measures some recovery metrics and prints them in standard logger when the recovery triggers.
+ * Counters can be incremented by several threads recovering elements in parallel.
  */
 @Slf4j
 @Component
 @Scope(SCOPE_PROTOTYPE)
 class RecoveryMonitor {
 
-    private long finishing;
-    private long executing;
-    private long notExecutable;
-    private long notFound;
-    private long inError;
+    private final LongAdder finishing = new LongAdder();
+    private final LongAdder executing = new LongAdder();
+    private final LongAdder notExecutable = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder inError = new LongAdder();
+    private final LongAdder numberOfElementsToProcess = new LongAdder();
     private long startTime;
-    private int numberOfElementsToProcess;
 
-    public void startNow(int numberOfElementsToProcess) {
+    public void startNow() {
         if (startTime > 0) {
             throw new UnsupportedOperationException("Can't start the Recovery Monitor, it is already started");
         }
-        this.numberOfElementsToProcess = numberOfElementsToProcess;
         startTime = System.currentTimeMillis();
     }
 
+    /**
+     * @param numberOfElements number of elements candidates to be recovered found since the last call
+     */
+    public void addElementsToProcess(int numberOfElements) {
+        numberOfElementsToProcess.add(numberOfElements);
+    }
+
     public long getFinishing() {
-        return finishing;
+        return finishing.sum();
     }
 
     public long getExecuting() {
-        return executing;
+        return executing.sum();
     }
 
     public long getNumberOfElementRecovered() {
-        return executing + finishing;
+        return getExecuting() + getFinishing();
     }
 
     public long getNotExecutable() {
-        return notExecutable;
+        return notExecutable.sum();
     }
 
     public long getNotFound() {
-        return notFound;
+        return notFound.sum();
     }
 
     public long getInError() {
-        return inError;
+        return inError.sum();
     }
 
     public void incrementFinishing() {
-        this.finishing++;
+        this.finishing.increment();
     }
 
     public void incrementExecuting() {
-        this.executing++;
+        this.executing.increment();
     }
 
     public void incrementNotExecutable() {
-        this.notExecutable++;
+        this.notExecutable.increment();
     }
 
     public void incrementInError() {
-        this.inError++;
+        this.inError.increment();
     }
 
     public void incrementNotFound() {
-        this.notFound++;
+        this.notFound.increment();
     }
 
     public void incrementNotFound(int add) {
-        this.notFound += add;
+        this.notFound.add(add);
     }
 
     public void printProgress() {
         //This will be called only when more than one "page" of element to restart are present
         log.info("Restarting elements...Handled "
                 + (getFinishing() + getExecuting() + getNotExecutable() + getNotFound() + getInError()) + " of "
-                + numberOfElementsToProcess +
-                " elements candidates to be recovered in " + Duration.ofMillis(System.currentTimeMillis() - startTime));
+                + numberOfElementsToProcess.sum() +
+                " elements candidates found so far to be recovered in " + Duration.ofMillis(System.currentTimeMillis() - startTime));
     }
 
     public void printSummary() {
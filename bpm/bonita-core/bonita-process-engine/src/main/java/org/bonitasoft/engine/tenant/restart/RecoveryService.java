@@ -13,15 +13,18 @@
  **/
 package org.bonitasoft.engine.tenant.restart;
 
-import static org.bonitasoft.engine.commons.CollectionUtil.split;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.FLOWNODE;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.PROCESS;
+import static org.bonitasoft.engine.work.DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING;
 
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import javax.annotation.PostConstruct;
 
@@ -35,9 +38,9 @@ import org.bonitasoft.engine.api.utils.VisibleForTesting;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.core.process.instance.api.FlowNodeInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
-import org.bonitasoft.engine.persistence.QueryOptions;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.bonitasoft.engine.work.WorkerThreadFactory;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -45,8 +48,10 @@ import org.springframework.stereotype.Component;
 /**
  * Responsible to recover from incidents like database or network outage.
  * It scans the database (on-demand) and reschedules the elements to recover.
- * It will recover these elements using multiple transaction using a batch size configured by the property
- * `bonita.tenant.work.batch_restart_size`
+ * Ids of elements to recover are read page by page, ordered by id, and a batch is dispatched as soon as
+ * `bonita.tenant.work.batch_restart_size` ids are read, so that all ids are never held in memory at once.
+ * Each batch is recovered in its own transaction, by up to `bonita.tenant.recover.parallelism` threads. Batches are
+ * not dispatched while the work queue holds more than `bonita.tenant.recover.max_pending_works` works.
  */
 @Component
 @Slf4j
@@ -68,6 +73,9 @@ public class RecoveryService {
     private long tenantId;
     private int readBatchSize;
     private int batchRestartSize;
+    private int parallelism = 1;
+    private long maxPendingWorks;
+    private Duration backpressureCheckInterval = Duration.ofMillis(200);
     private Duration considerElementsOlderThan;
     private LongTaskTimer longTaskTimer;
     private Counter numberOfElementsRecoveredTotal;
@@ -126,6 +134,16 @@ public class RecoveryService {
         this.batchRestartSize = batchRestartSize;
     }
 
+    @Value("${bonita.tenant.recover.parallelism:1}")
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @Value("${bonita.tenant.recover.max_pending_works:10000}")
+    public void setMaxPendingWorks(long maxPendingWorks) {
+        this.maxPendingWorks = maxPendingWorks;
+    }
+
     @Value("${tenantId}")
     public void setTenantId(long tenantId) {
         this.tenantId = tenantId;
@@ -136,42 +154,43 @@ public class RecoveryService {
         this.considerElementsOlderThan = considerElementsOlderThan;
     }
 
-    /**
-     * Retrieve elements ( ProcessInstance and Flow Nodes ) that needs to be recovered and that are older than the given
-     * duration.
-     *
-     * @param considerElementsOlderThan consider elements older than that duration
-     * @return elements to be recovered
-     */
-    public List<ElementToRecover> getAllElementsToRecover(Duration considerElementsOlderThan) {
-        List<ElementToRecover> elementsToRecover = new ArrayList<>();
-        try {
-            elementsToRecover.addAll(getAllElementsToRecover(PROCESS,
-                    (q) -> processInstanceService.getProcessInstanceIdsToRecover(considerElementsOlderThan, q)));
-            elementsToRecover.addAll(getAllElementsToRecover(FLOWNODE,
-                    (q) -> flowNodeInstanceService.getFlowNodeInstanceIdsToRecover(considerElementsOlderThan, q)));
-            elementsToRecover.addAll(getAllElementsToRecover(FLOWNODE,
-                    (q) -> flowNodeInstanceService.getGatewayInstanceIdsToRecover(considerElementsOlderThan, q)));
-            return elementsToRecover;
-        } catch (SBonitaException e) {
-            throw new RuntimeException(e);
-        }
+    @VisibleForTesting
+    void setBackpressureCheckInterval(Duration backpressureCheckInterval) {
+        this.backpressureCheckInterval = backpressureCheckInterval;
     }
 
     /**
-     * Trigger works to execute elements ( ProcessInstance and Flow Nodes ) that needs to be recovered
+     * Trigger works to execute elements ( ProcessInstance and Flow Nodes ) that needs to be recovered and that were
+     * not updated since the given date.
+     * Flow nodes are recovered before process instances.
      *
-     * @param elementsToRecover elements needs to be recovered
+     * @param maxLastUpdate consider only elements not updated since that date
      */
-    public void recover(List<ElementToRecover> elementsToRecover) {
+    public void recover(long maxLastUpdate) {
         RecoveryMonitor recoveryMonitor = recoveryMonitorProvider.getObject();
-        recoveryMonitor.startNow(elementsToRecover.size());
-        executeInBatch(recoveryMonitor, elementsToRecover.stream()
-                .filter(e1 -> e1.getType() == FLOWNODE)
-                .collect(Collectors.toList()), ids -> flowNodesRecover.execute(recoveryMonitor, ids));
-        executeInBatch(recoveryMonitor, elementsToRecover.stream()
-                .filter(e -> e.getType() == PROCESS)
-                .collect(Collectors.toList()), ids -> processesRecover.execute(recoveryMonitor, ids));
+        recoveryMonitor.startNow();
+        BatchExecution recoverFlowNodes = ids -> flowNodesRecover.execute(recoveryMonitor, ids);
+        try (BatchDispatcher dispatcher = new BatchDispatcher(recoveryMonitor)) {
+            dispatchAll(recoveryMonitor, dispatcher, "flow nodes",
+                    (afterId, maxResults) -> flowNodeInstanceService.getFlowNodeInstanceIdsToRecover(maxLastUpdate,
+                            afterId, maxResults),
+                    recoverFlowNodes);
+            dispatchAll(recoveryMonitor, dispatcher, "gateways",
+                    (afterId, maxResults) -> flowNodeInstanceService.getGatewayInstanceIdsToRecover(maxLastUpdate,
+                            afterId, maxResults),
+                    recoverFlowNodes);
+            dispatcher.awaitCompletion();
+            dispatchAll(recoveryMonitor, dispatcher, "process instances",
+                    (afterId, maxResults) -> processInstanceService.getProcessInstanceIdsToRecover(maxLastUpdate,
+                            afterId, maxResults),
+                    ids -> processesRecover.execute(recoveryMonitor, ids));
+            dispatcher.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Recovery of elements interrupted, remaining elements will be recovered next time");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
 
         recoveryMonitor.printSummary();
         long numberOfElementRecovered = recoveryMonitor.getNumberOfElementRecovered();
@@ -180,25 +199,57 @@ public class RecoveryService {
         numberOfRecoverExecuted.increment();
     }
 
-    protected void executeInBatch(RecoveryMonitor recoveryMonitor, List<ElementToRecover> elements,
-            BatchExecution execution) {
-        for (List<ElementToRecover> batchElementsIds : split(elements, batchRestartSize)) {
-            try {
-                userTransactionService.executeInTransaction(() -> {
-                    execution.execute(
-                            batchElementsIds.stream().map(ElementToRecover::getId).collect(Collectors.toList()));
-                    return null;
-                });
-            } catch (Exception e) {
-                log.warn(
-                        "Error processing batch of elements to recover, they will be recovered next time: {}, Cause: {}: {}",
-                        batchElementsIds, e.getClass().getName(), e.getMessage());
-                log.debug("Cause", e);
+    private void dispatchAll(RecoveryMonitor recoveryMonitor, BatchDispatcher dispatcher, String type,
+            IdsRetriever idsRetriever, BatchExecution execution) throws Exception {
+        log.debug("Start detecting {} to recover...", type);
+        long[] batch = new long[batchRestartSize];
+        int batchLength = 0;
+        long lastId = 0;
+        long numberOfIds = 0;
+        List<Long> ids;
+        do {
+            // As we retrieve only the id we can use a greater page size than the batch size.
+            // Each page is read in its own transaction and starts after the last id read, so that reading the next
+            // pages does not get slower
+            final long afterId = lastId;
+            ids = userTransactionService.executeInTransaction(() -> idsRetriever.getIds(afterId, readBatchSize));
+            recoveryMonitor.addElementsToProcess(ids.size());
+            numberOfIds += ids.size();
+            for (Long id : ids) {
+                batch[batchLength++] = id;
+                if (batchLength == batch.length) {
+                    dispatcher.dispatch(batch, execution);
+                    batch = new long[batchRestartSize];
+                    batchLength = 0;
+                }
             }
-            if (batchElementsIds.size() == batchRestartSize) {
-                // only print progress when there is more than one page
-                recoveryMonitor.printProgress();
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
             }
+        } while (ids.size() == readBatchSize);
+        if (batchLength > 0) {
+            dispatcher.dispatch(Arrays.copyOf(batch, batchLength), execution);
+        }
+        log.debug("Found {} {} to recover", numberOfIds, type);
+    }
+
+    protected void executeInBatch(RecoveryMonitor recoveryMonitor, long[] batchElementsIds,
+            BatchExecution execution) {
+        List<Long> ids = LongStream.of(batchElementsIds).boxed().collect(Collectors.toList());
+        try {
+            userTransactionService.executeInTransaction(() -> {
+                execution.execute(ids);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn(
+                    "Error processing batch of elements to recover, they will be recovered next time: {}, Cause: {}: {}",
+                    ids, e.getClass().getName(), e.getMessage());
+            log.debug("Cause", e);
+        }
+        if (batchElementsIds.length == batchRestartSize) {
+            // only print progress when there is more than one page
+            recoveryMonitor.printProgress();
         }
     }
 
@@ -208,35 +259,82 @@ public class RecoveryService {
      */
     public void recoverAllElements() {
         longTaskTimer.record(() -> {
-            try {
-                sessionAccessor.setTenantId(tenantId);
-                List<ElementToRecover> allElementsToRecover = userTransactionService.executeInTransaction(
-                        () -> RecoveryService.this.getAllElementsToRecover(considerElementsOlderThan));
-                log.debug("Found {} that can potentially be recovered", allElementsToRecover.size());
-                recover(allElementsToRecover);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            sessionAccessor.setTenantId(tenantId);
+            recover(System.currentTimeMillis() - considerElementsOlderThan.toMillis());
         });
     }
 
-    private List<ElementToRecover> getAllElementsToRecover(ElementToRecover.Type type, IdsRetriever idsRetriever)
-            throws SBonitaException {
-        // using a too low page size (100) causes too many access to the database and causes timeout exception if there are lot of elements.
-        // As we retrieve only the id we can use a greater page size
-        QueryOptions queryOptions = new QueryOptions(0, readBatchSize);
-        final List<Long> ids = new ArrayList<>();
-        List<Long> elementsIds;
-        log.debug("Start detecting {} to recover...", type);
+    private void waitForWorkQueue() throws InterruptedException {
+        if (maxPendingWorks <= 0) {
+            return;
+        }
+        Gauge pendingWorks = meterRegistry.find(NUMBER_OF_WORKS_PENDING).tag("tenant", String.valueOf(tenantId))
+                .gauge();
+        if (pendingWorks == null || pendingWorks.value() <= maxPendingWorks) {
+            return;
+        }
+        log.debug("More than {} works are pending, waiting before recovering more elements", maxPendingWorks);
         do {
-            elementsIds = idsRetriever.getIds(queryOptions);
-            queryOptions = QueryOptions.getNextPage(queryOptions);
-            ids.addAll(elementsIds);
-        } while (elementsIds.size() == queryOptions.getNumberOfResults());
-        log.debug("Found {} {} to recover", elementsIds.size(), type);
-        return ids
-                .stream().map(id -> ElementToRecover.builder().id(id).type(type).build())
-                .collect(Collectors.toList());
+            Thread.sleep(backpressureCheckInterval.toMillis());
+        } while (pendingWorks.value() > maxPendingWorks);
+    }
+
+    /**
+     * Executes batches in the calling thread when parallelism is 1, otherwise in a pool of threads created for one
+     * recovery. The number of batches dispatched but not yet executed is bounded, so that reading ids waits for
+     * the pool instead of accumulating them.
+     */
+    private class BatchDispatcher implements AutoCloseable {
+
+        private final RecoveryMonitor recoveryMonitor;
+        private final ExecutorService executor;
+        private final Semaphore dispatchedBatches;
+        private final int maxDispatchedBatches;
+
+        private BatchDispatcher(RecoveryMonitor recoveryMonitor) {
+            this.recoveryMonitor = recoveryMonitor;
+            this.maxDispatchedBatches = parallelism * 2;
+            this.dispatchedBatches = new Semaphore(maxDispatchedBatches);
+            this.executor = parallelism > 1
+                    ? Executors.newFixedThreadPool(parallelism,
+                            new WorkerThreadFactory("Bonita-Recovery", tenantId, parallelism))
+                    : null;
+        }
+
+        private void dispatch(long[] ids, BatchExecution execution) throws InterruptedException {
+            waitForWorkQueue();
+            if (executor == null) {
+                executeInBatch(recoveryMonitor, ids, execution);
+                return;
+            }
+            dispatchedBatches.acquire();
+            try {
+                executor.execute(() -> {
+                    try {
+                        sessionAccessor.setTenantId(tenantId);
+                        executeInBatch(recoveryMonitor, ids, execution);
+                    } finally {
+                        sessionAccessor.deleteTenantId();
+                        dispatchedBatches.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                dispatchedBatches.release();
+                throw e;
+            }
+        }
+
+        private void awaitCompletion() throws InterruptedException {
+            dispatchedBatches.acquire(maxDispatchedBatches);
+            dispatchedBatches.release(maxDispatchedBatches);
+        }
+
+        @Override
+        public void close() {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
     }
 
     private interface BatchExecution {
@@ -246,6 +344,6 @@ public class RecoveryService {
 
     private interface IdsRetriever {
 
-        List<Long> getIds(QueryOptions queryOptions) throws SBonitaException;
+        List<Long> getIds(long afterId, int maxResults) throws SBonitaException;
     }
 }
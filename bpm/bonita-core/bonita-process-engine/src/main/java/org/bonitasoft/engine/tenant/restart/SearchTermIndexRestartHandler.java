@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tenant.restart;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.commons.exceptions.SBonitaException;
+import org.bonitasoft.engine.execution.work.RestartException;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.ReadPersistenceService;
+import org.bonitasoft.engine.persistence.SearchTermIndex;
+import org.bonitasoft.engine.persistence.SearchTermIndexer;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the search term index consistent with the indexed elements when the engine starts:
+ * <ul>
+ * <li>when the index is disabled, it is not maintained anymore, so its content is deleted</li>
+ * <li>when the index is enabled, elements of indexed types whose index was not completely built are indexed, page by
+ * page. The progress is saved with each page, so that a build that was interrupted resumes after the last indexed
+ * element on the next start. Until it is done, searches on the type keep using LIKE clauses instead of the index.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SearchTermIndexRestartHandler implements TenantRestartHandler {
+
+    private final SearchTermIndex searchTermIndex;
+    private final SearchTermIndexer searchTermIndexer;
+    private final ReadPersistenceService persistenceService;
+    private final UserTransactionService userTransactionService;
+    private final int batchSize;
+
+    public SearchTermIndexRestartHandler(SearchTermIndex searchTermIndex, SearchTermIndexer searchTermIndexer,
+            @Qualifier("persistenceService") ReadPersistenceService persistenceService,
+            UserTransactionService userTransactionService,
+            @Value("${bonita.tenant.search.index.rebuild.batchSize:1000}") int batchSize) {
+        this.searchTermIndex = searchTermIndex;
+        this.searchTermIndexer = searchTermIndexer;
+        this.persistenceService = persistenceService;
+        this.userTransactionService = userTransactionService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void beforeServicesStart() throws RestartException {
+        if (searchTermIndex.isEnabled()) {
+            return;
+        }
+        try {
+            searchTermIndexer.clear();
+        } catch (SBonitaException e) {
+            throw new RestartException("Unable to clear the search term index", e);
+        }
+    }
+
+    @Override
+    public void afterServicesStart() {
+        for (String indexedType : searchTermIndex.getIndexedTypes()) {
+            try {
+                if (!userTransactionService.executeInTransaction(() -> searchTermIndexer.isBuilt(indexedType))) {
+                    build(indexedType);
+                    // searches on the type switch from LIKE clauses to the index only now that it is complete
+                    searchTermIndex.setBuilt(indexedType);
+                }
+            } catch (Exception e) {
+                log.error("Unable to build the search term index of {}, elements that are not indexed yet will not"
+                        + " be found by searches on their indexed fields", indexedType, e);
+            }
+        }
+    }
+
+    private void build(String indexedType) throws Exception {
+        @SuppressWarnings("unchecked")
+        final Class<? extends PersistentObject> entityClass = (Class<? extends PersistentObject>) Class
+                .forName(indexedType);
+        Long lastIndexedId = userTransactionService
+                .executeInTransaction(() -> searchTermIndexer.getBuildProgress(indexedType));
+        if (lastIndexedId == null) {
+            log.info("Building the search term index of {}", indexedType);
+        } else {
+            log.info("Resuming the build of the search term index of {} after element {}", indexedType, lastIndexedId);
+        }
+        long numberOfIndexedElements = 0;
+        List<? extends PersistentObject> page;
+        do {
+            final List<Serializable> afterValues = lastIndexedId == null ? emptyList() : singletonList(lastIndexedId);
+            final QueryOptions queryOptions = new QueryOptions(batchSize, emptyList(), emptyList(), null,
+                    afterValues);
+            final long previousIndexedId = lastIndexedId == null ? 0 : lastIndexedId;
+            page = userTransactionService.executeInTransaction(
+                    () -> indexPage(indexedType, entityClass, queryOptions, previousIndexedId));
+            numberOfIndexedElements += page.size();
+            if (!page.isEmpty()) {
+                lastIndexedId = page.get(page.size() - 1).getId();
+                log.debug("{} elements of {} indexed", numberOfIndexedElements, indexedType);
+            }
+        } while (page.size() == batchSize);
+        log.info("Search term index of {} built, {} elements indexed", indexedType, numberOfIndexedElements);
+    }
+
+    private List<? extends PersistentObject> indexPage(String indexedType,
+            Class<? extends PersistentObject> entityClass, QueryOptions queryOptions, long previousIndexedId)
+            throws SBonitaException {
+        final List<? extends PersistentObject> entities = persistenceService.searchEntity(entityClass, queryOptions,
+                emptyMap());
+        for (PersistentObject entity : entities) {
+            // elements created since the index was enabled were already indexed
+            searchTermIndexer.remove(entity);
+            searchTermIndexer.index(entity);
+        }
+        final long lastIndexedId = entities.isEmpty() ? previousIndexedId : entities.get(entities.size() - 1).getId();
+        // saved with the page so that an interrupted build resumes after it
+        searchTermIndexer.saveBuildProgress(indexedType, lastIndexedId, entities.size() < batchSize);
+        return entities;
+    }
+}
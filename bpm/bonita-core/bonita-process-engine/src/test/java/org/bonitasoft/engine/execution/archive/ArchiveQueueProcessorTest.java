@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.execution.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.SArchivingException;
+import org.bonitasoft.engine.core.process.instance.api.ArchiveQueueService;
+import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.exceptions.SProcessInstanceNotFoundException;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstance;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstanceToArchive;
+import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
+import org.bonitasoft.engine.tenant.TenantElementsRestartSupervisor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.bonitasoft.engine.work.WorkService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ArchiveQueueProcessorTest {
+
+    @Mock
+    private ArchiveQueueService archiveQueueService;
+    @Mock
+    private ProcessInstanceService processInstanceService;
+    @Mock
+    private BPMArchiverService bpmArchiverService;
+    @Mock
+    private UserTransactionService userTransactionService;
+    @Mock
+    private SessionAccessor sessionAccessor;
+    @Mock
+    private WorkService workService;
+    @Mock
+    private TenantElementsRestartSupervisor tenantElementsRestartSupervisor;
+    private SimpleMeterRegistry meterRegistry;
+    private ArchiveQueueProcessor archiveQueueProcessor;
+
+    @Before
+    public void before() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        archiveQueueProcessor = new ArchiveQueueProcessor(archiveQueueService, processInstanceService,
+                bpmArchiverService, userTransactionService, sessionAccessor, workService,
+                tenantElementsRestartSupervisor, meterRegistry, 1L, 2);
+        lenient().when(tenantElementsRestartSupervisor.isResponsibleForRecovery()).thenReturn(true);
+        lenient().when(userTransactionService.executeInTransaction(any()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+        lenient().when(processInstanceService.getProcessInstance(anyLong()))
+                .thenAnswer(invocation -> processInstance(invocation.getArgument(0)));
+    }
+
+    @Test
+    public void should_archive_queued_process_instances_by_batches() throws Exception {
+        queue(10L, 11L, 12L);
+
+        archiveQueueProcessor.archiveQueuedProcessInstances();
+
+        verify(bpmArchiverService).archiveAndDeleteQueuedProcessInstance(processInstance(10L));
+        verify(bpmArchiverService).archiveAndDeleteQueuedProcessInstance(processInstance(11L));
+        verify(bpmArchiverService).archiveAndDeleteQueuedProcessInstance(processInstance(12L));
+        verify(archiveQueueService).remove(List.of(10L, 11L));
+        verify(archiveQueueService).remove(List.of(12L));
+        assertThat(meterRegistry.find(ArchiveQueueProcessor.NUMBER_OF_ARCHIVED_PROCESS_INSTANCES).counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void should_remove_from_queue_process_instances_that_were_deleted() throws Exception {
+        queue(10L);
+        doThrow(SProcessInstanceNotFoundException.class).when(processInstanceService).getProcessInstance(10L);
+
+        archiveQueueProcessor.archiveQueuedProcessInstances();
+
+        verify(bpmArchiverService, never()).archiveAndDeleteQueuedProcessInstance(any());
+        verify(archiveQueueService).remove(List.of(10L));
+    }
+
+    @Test
+    public void should_archive_process_instances_one_by_one_when_the_batch_fails() throws Exception {
+        queue(10L, 11L);
+        doThrow(SArchivingException.class).when(bpmArchiverService)
+                .archiveAndDeleteQueuedProcessInstance(processInstance(10L));
+
+        archiveQueueProcessor.archiveQueuedProcessInstances();
+
+        verify(archiveQueueService, never()).remove(List.of(10L, 11L));
+        verify(archiveQueueService, never()).remove(List.of(10L));
+        verify(archiveQueueService).remove(List.of(11L));
+        assertThat(meterRegistry.find(ArchiveQueueProcessor.NUMBER_OF_ARCHIVED_PROCESS_INSTANCES).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_update_queue_size_and_lag() throws Exception {
+        when(archiveQueueService.getNumberOfQueuedProcessInstances()).thenReturn(42L);
+        when(archiveQueueService.getOldestQueuedDate()).thenReturn(System.currentTimeMillis() - 60_000);
+
+        archiveQueueProcessor.archiveQueuedProcessInstances();
+
+        assertThat(meterRegistry.find(ArchiveQueueProcessor.NUMBER_OF_QUEUED_PROCESS_INSTANCES).gauge().value())
+                .isEqualTo(42);
+        assertThat(meterRegistry.find(ArchiveQueueProcessor.ARCHIVING_LAG).gauge().value())
+                .isGreaterThanOrEqualTo(60_000);
+    }
+
+    @Test
+    public void should_not_archive_when_the_tenant_is_paused() throws Exception {
+        when(workService.isStopped()).thenReturn(true);
+
+        archiveQueueProcessor.archiveQueuedProcessInstances();
+
+        verifyNoInteractions(archiveQueueService, bpmArchiverService);
+    }
+
+    private void queue(Long... processInstanceIds) throws Exception {
+        List<SProcessInstanceToArchive> queue = Arrays.stream(processInstanceIds)
+                .map(id -> SProcessInstanceToArchive.builder().id(id).build())
+                .collect(Collectors.toList());
+        when(archiveQueueService.getQueuedProcessInstances(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int maxResults = invocation.getArgument(1);
+            return queue.stream().filter(entry -> entry.getId() > afterId).limit(maxResults)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private static SProcessInstance processInstance(long id) {
+        SProcessInstance processInstance = new SProcessInstance();
+        processInstance.setId(id);
+        return processInstance;
+    }
+
+}
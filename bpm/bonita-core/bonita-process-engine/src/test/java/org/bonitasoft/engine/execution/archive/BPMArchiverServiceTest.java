@@ -13,6 +13,7 @@
  **/
 package org.bonitasoft.engine.execution.archive;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -20,6 +21,7 @@ import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.List;
 
+import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.core.connector.ConnectorInstanceService;
@@ -30,6 +32,7 @@ import org.bonitasoft.engine.core.process.definition.ProcessDefinitionService;
 import org.bonitasoft.engine.core.process.definition.model.SFlowNodeType;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.instance.api.ActivityInstanceService;
+import org.bonitasoft.engine.core.process.instance.api.ArchiveQueueService;
 import org.bonitasoft.engine.core.process.instance.api.BPMFailureService;
 import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.RefBusinessDataService;
@@ -77,6 +80,8 @@ public class BPMArchiverServiceTest {
     private ActivityInstanceService activityInstanceService;
     @Mock
     private BPMFailureService failureService;
+    @Mock
+    private ArchiveQueueService archiveQueueService;
     @Spy
     @InjectMocks
     private BPMArchiverService bpmArchiverService;
@@ -120,4 +125,45 @@ public class BPMArchiverServiceTest {
         verify(failureService).archiveFlowNodeFailures(eq(123L), any(long.class));
     }
 
+    @Test
+    public void archiveAndDeleteProcessInstance_should_only_archive_process_instance_and_queue_it_when_deferred()
+            throws Exception {
+        SProcessInstance processInstance = new SProcessInstance();
+        processInstance.setId(451L);
+        SAProcessInstance saProcessInstance = mock(SAProcessInstance.class);
+        when(saProcessInstance.getEndDate()).thenReturn(1234L);
+        doReturn(saProcessInstance).when(bpmArchiverService).buildArchiveProcessInstance(processInstance);
+        bpmArchiverService.setDeferredArchiving(true);
+
+        bpmArchiverService.archiveAndDeleteProcessInstance(processInstance);
+
+        verify(archiveService).recordInsert(eq(1234L), any(ArchiveInsertRecord.class));
+        verify(archiveQueueService).enqueue(eq(processInstance), anyLong());
+        verifyNoInteractions(commentService, documentService, refBusinessDataService);
+        verify(processInstanceService, never()).deleteProcessInstance(anyLong());
+    }
+
+    @Test
+    public void archiveAndDeleteQueuedProcessInstance_should_archive_elements_and_delete_process_instance()
+            throws Exception {
+        SProcessInstance processInstance = new SProcessInstance();
+        processInstance.setId(451L);
+        doReturn(mock(SAProcessInstance.class)).when(bpmArchiverService).buildArchiveProcessInstance(processInstance);
+        doNothing().when(bpmArchiverService).archiveConnectorInstancesIfAny(eq(processInstance),
+                nullable(SProcessDefinition.class), anyLong());
+
+        bpmArchiverService.archiveAndDeleteQueuedProcessInstance(processInstance);
+
+        verify(refBusinessDataService).getRefBusinessDataInstances(eq(451L), eq(0), anyInt());
+        verify(processInstanceService).deleteProcessInstance(451L);
+        verify(archiveService, never()).recordInsert(anyLong(), any(ArchiveInsertRecord.class));
+    }
+
+    @Test
+    public void isQueuedForArchiving_should_not_read_the_queue_when_archiving_is_not_deferred() throws Exception {
+        assertThat(bpmArchiverService.isQueuedForArchiving(451L)).isFalse();
+
+        verifyNoInteractions(archiveQueueService);
+    }
+
 }
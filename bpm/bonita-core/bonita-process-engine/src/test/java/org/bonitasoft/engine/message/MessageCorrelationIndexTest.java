@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType.INTERMEDIATE_CATCH_EVENT;
+import static org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType.START_EVENT;
+
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEventType;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageEventCouple;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
+import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.message.MessageCorrelationIndex.CorrelationKey;
+import org.junit.Test;
+
+public class MessageCorrelationIndexTest {
+
+    private final MessageCorrelationIndex index = new MessageCorrelationIndex();
+
+    @Test
+    public void should_return_couples_having_the_same_correlation_key() {
+        CorrelationKey key = index.addWaitingMessage(waitingMessage(10L, "step1", "order-$-1"));
+        index.addWaitingMessage(waitingMessage(11L, "step1", "order-$-2"));
+        index.addMessageInstance(messageInstance(1L, null, "order-$-1"));
+        index.addMessageInstance(messageInstance(2L, null, "order-$-2"));
+
+        assertThat(index.getCouples(key, 100))
+                .containsExactly(new SMessageEventCouple(10L, INTERMEDIATE_CATCH_EVENT, 1L));
+    }
+
+    @Test
+    public void should_only_return_couples_of_the_target_flow_node_when_set() {
+        CorrelationKey key = index.addWaitingMessage(waitingMessage(10L, "step1", "order-$-1"));
+        index.addWaitingMessage(waitingMessage(11L, "step2", "order-$-1"));
+        index.addMessageInstance(messageInstance(1L, "step2", "order-$-1"));
+
+        assertThat(index.getCouples(key, 100))
+                .containsExactly(new SMessageEventCouple(11L, INTERMEDIATE_CATCH_EVENT, 1L));
+    }
+
+    @Test
+    public void should_return_oldest_messages_first_up_to_the_maximum() {
+        CorrelationKey key = index.addWaitingMessage(waitingMessage(10L, START_EVENT));
+        index.addMessageInstance(messageInstance(3L, null, "order-$-1"));
+        index.addMessageInstance(messageInstance(1L, null, "order-$-1"));
+        index.addMessageInstance(messageInstance(2L, null, "order-$-1"));
+
+        assertThat(index.getCouples(key, 2)).containsExactly(
+                new SMessageEventCouple(10L, START_EVENT, 1L),
+                new SMessageEventCouple(10L, START_EVENT, 2L));
+    }
+
+    @Test
+    public void should_not_return_couples_of_removed_elements() {
+        CorrelationKey key = index.addWaitingMessage(waitingMessage(10L, "step1", "order-$-1"));
+        index.addMessageInstance(messageInstance(1L, null, "order-$-1"));
+        index.addMessageInstance(messageInstance(2L, null, "order-$-1"));
+
+        index.removeMessageInstance(1L);
+
+        assertThat(index.getCouples(key, 100))
+                .containsExactly(new SMessageEventCouple(10L, INTERMEDIATE_CATCH_EVENT, 2L));
+        index.removeWaitingMessage(10L);
+        assertThat(index.getCouples(key, 100)).isEmpty();
+        assertThat(index.getNumberOfWaitingMessages()).isZero();
+        assertThat(index.getNumberOfMessageInstances()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_ignore_removal_of_unknown_elements() {
+        index.removeMessageInstance(1L);
+        index.removeWaitingMessage(10L);
+
+        assertThat(index.getNumberOfMessageInstances()).isZero();
+        assertThat(index.getNumberOfWaitingMessages()).isZero();
+    }
+
+    private static SWaitingMessageEvent waitingMessage(long id, SBPMEventType eventType) {
+        SWaitingMessageEvent waitingMessage = waitingMessage(id, "start", "order-$-1");
+        waitingMessage.setEventType(eventType);
+        return waitingMessage;
+    }
+
+    private static SWaitingMessageEvent waitingMessage(long id, String flowNodeName, String correlation) {
+        SWaitingMessageEvent waitingMessage = new SWaitingMessageEvent(INTERMEDIATE_CATCH_EVENT, 3L, "process", 4L,
+                flowNodeName, "message");
+        waitingMessage.setId(id);
+        waitingMessage.setCorrelation1(correlation);
+        return waitingMessage;
+    }
+
+    private static SMessageInstance messageInstance(long id, String targetFlowNode, String correlation) {
+        SMessageInstance messageInstance = new SMessageInstance("message", "process", targetFlowNode, 5L, "throw");
+        messageInstance.setId(id);
+        messageInstance.setCorrelation1(correlation);
+        return messageInstance;
+    }
+}
@@ -27,6 +27,9 @@ import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.Callable;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
 import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -36,14 +39,17 @@ import org.bonitasoft.engine.core.process.instance.model.event.handling.SBPMEven
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageEventCouple;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SMessageInstance;
 import org.bonitasoft.engine.core.process.instance.model.event.handling.SWaitingMessageEvent;
+import org.bonitasoft.engine.events.EventService;
 import org.bonitasoft.engine.execution.work.BPMWorkFactory;
 import org.bonitasoft.engine.lock.LockService;
+import org.bonitasoft.engine.message.MessageCorrelationIndex.CorrelationKey;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.bonitasoft.engine.work.WorkService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -67,6 +73,8 @@ public class MessagesHandlingServiceTest {
     private SessionAccessor sessionAccessor;
     @Mock
     private BPMWorkFactory workFactory;
+    @Mock
+    private EventService eventService;
 
     private MessagesHandlingService messagesHandlingService;
     private MeterRegistry meterRegistry;
@@ -80,7 +88,8 @@ public class MessagesHandlingServiceTest {
                 k -> k.equals("simple.step") ? Duration.ofMillis(1).toString() : null,
                 Clock.SYSTEM);
         messagesHandlingService = spy(new MessagesHandlingService(eventInstanceService, workService, lockService,
-                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry));
+                TENANT_ID, userTransactionService, sessionAccessor, workFactory, meterRegistry, eventService, false,
+                1));
     }
 
     @Test
@@ -218,6 +227,83 @@ public class MessagesHandlingServiceTest {
         assertThat(counterValue(NUMBER_OF_MESSAGES_MATCHING_RETRIGGERED_TASKS)).isEqualTo(1);
     }
 
+    @Test
+    public void should_execute_couples_found_in_correlation_index() throws Exception {
+        MessagesHandlingService service = createServiceWithCorrelationIndex();
+        SWaitingMessageEvent waitingMessage = waitingMessage(10L, INTERMEDIATE_CATCH_EVENT);
+        SMessageInstance messageInstance = messageInstance(1L);
+        doReturn(waitingMessage).when(eventInstanceService).getWaitingMessage(10L);
+        doReturn(messageInstance).when(eventInstanceService).getMessageInstance(1L);
+        MessageCorrelationIndex index = service.getCorrelationIndex();
+        CorrelationKey key = index.addWaitingMessage(waitingMessage);
+        index.addMessageInstance(messageInstance);
+
+        service.matchCorrelationKeys(List.of(key));
+        completeTransaction(Status.STATUS_COMMITTED);
+
+        verify(workFactory).createExecuteMessageCoupleWorkDescriptor(messageInstance, waitingMessage);
+        verify(eventInstanceService, never()).getMessageEventCouples(anyInt(), anyInt());
+        assertThat(index.getNumberOfMessageInstances()).isZero();
+        assertThat(index.getNumberOfWaitingMessages()).isZero();
+    }
+
+    @Test
+    public void should_remove_from_correlation_index_elements_that_are_no_more_in_database() throws Exception {
+        MessagesHandlingService service = createServiceWithCorrelationIndex();
+        SWaitingMessageEvent waitingMessage = waitingMessage(10L, START_EVENT);
+        doReturn(waitingMessage).when(eventInstanceService).getWaitingMessage(10L);
+        MessageCorrelationIndex index = service.getCorrelationIndex();
+        CorrelationKey key = index.addWaitingMessage(waitingMessage);
+        index.addMessageInstance(messageInstance(1L));
+
+        service.matchCorrelationKeys(List.of(key));
+        completeTransaction(Status.STATUS_COMMITTED);
+
+        verify(workService, never()).registerWork(any());
+        assertThat(index.getNumberOfMessageInstances()).isZero();
+        assertThat(index.getNumberOfWaitingMessages()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_keep_executed_couple_in_correlation_index_when_transaction_is_rolled_back() throws Exception {
+        MessagesHandlingService service = createServiceWithCorrelationIndex();
+        SWaitingMessageEvent waitingMessage = waitingMessage(10L, INTERMEDIATE_CATCH_EVENT);
+        SMessageInstance messageInstance = messageInstance(1L);
+        doReturn(waitingMessage).when(eventInstanceService).getWaitingMessage(10L);
+        doReturn(messageInstance).when(eventInstanceService).getMessageInstance(1L);
+        MessageCorrelationIndex index = service.getCorrelationIndex();
+        CorrelationKey key = index.addWaitingMessage(waitingMessage);
+        index.addMessageInstance(messageInstance);
+
+        service.matchCorrelationKeys(List.of(key));
+        assertThat(index.getNumberOfMessageInstances()).isEqualTo(1);
+        completeTransaction(Status.STATUS_ROLLEDBACK);
+
+        assertThat(index.getNumberOfMessageInstances()).isEqualTo(1);
+        assertThat(index.getNumberOfWaitingMessages()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_trigger_matching_from_database_for_new_elements_when_correlation_index_is_disabled()
+            throws Exception {
+        messagesHandlingService.start();
+        try {
+            messagesHandlingService.triggerMatchingOfNewMessageEvents();
+        } finally {
+            messagesHandlingService.stop();
+        }
+
+        verify(userTransactionService).registerBonitaSynchronization(any());
+    }
+
+    @Test
+    public void should_register_correlation_index_gauges_when_enabled() {
+        createServiceWithCorrelationIndex();
+
+        assertThat(meterRegistry.find(CORRELATION_INDEX_SIZE).tag("type", "waiting").gauge()).isNotNull();
+        assertThat(meterRegistry.find(CORRELATION_INDEX_SIZE).tag("type", "message").gauge()).isNotNull();
+    }
+
     // =================================================================================================================
     // UTILS
     // =================================================================================================================
@@ -230,6 +316,32 @@ public class MessagesHandlingServiceTest {
         return meterRegistry.find(counterName).counter().count();
     }
 
+    private void completeTransaction(int status) throws Exception {
+        ArgumentCaptor<Synchronization> synchronizations = ArgumentCaptor.forClass(Synchronization.class);
+        verify(userTransactionService, atLeastOnce()).registerBonitaSynchronization(synchronizations.capture());
+        synchronizations.getAllValues().forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private MessagesHandlingService createServiceWithCorrelationIndex() {
+        return new MessagesHandlingService(eventInstanceService, workService, lockService, TENANT_ID,
+                userTransactionService, sessionAccessor, workFactory, meterRegistry, eventService, true, 2);
+    }
+
+    private static SWaitingMessageEvent waitingMessage(long id, SBPMEventType eventType) {
+        SWaitingMessageEvent waitingMessage = new SWaitingMessageEvent(eventType, 3L, "process", 4L, "catch",
+                "message");
+        waitingMessage.setId(id);
+        waitingMessage.setCorrelation1("key-$-value");
+        return waitingMessage;
+    }
+
+    private static SMessageInstance messageInstance(long id) {
+        SMessageInstance messageInstance = new SMessageInstance("message", "process", null, 5L, "throw");
+        messageInstance.setId(id);
+        messageInstance.setCorrelation1("key-$-value");
+        return messageInstance;
+    }
+
     private static SMessageEventCouple msgEventCouple(long msgId, long eventId) {
         return new SMessageEventCouple(eventId, null, msgId);
     }
@@ -177,12 +177,34 @@ public class BusinessDataLeftOperandHandlerTest {
         final SProcessMultiRefBusinessDataInstance ref = mock(SProcessMultiRefBusinessDataInstance.class);
         doReturn(ref).when(refBusinessDataRetriever).getRefBusinessDataInstance(any());
         when(ref.getDataClassName()).thenReturn(Address.class.getName());
-        when(ref.getDataIds()).thenReturn(Arrays.asList(486L));
+        when(ref.getDataIds()).thenReturn(Arrays.asList(486L, 487L));
+        final Address address1 = new Address(486L);
+        final Address address2 = new Address(487L);
+        doReturn(Arrays.asList(address1, address2)).when(repository).findByIdentifiers(Address.class,
+                Arrays.asList(486L, 487L));
 
         leftOperandHandler.delete(leftOperand, 45, PROCESS_INSTANCE);
 
         verify(refBusinessDataService).updateRefBusinessDataInstance(ref, new ArrayList<Long>());
-        verify(repository).remove(nullable(Address.class));
+        verify(repository).remove(address1);
+        verify(repository).remove(address2);
+        verify(repository, never()).findById(any(), any());
+    }
+
+    @Test
+    public void deleteMultiBusinessDataThrowsExceptionWhenABusinessDataDoesNotExist() throws Exception {
+        final SLeftOperandImpl leftOperand = new SLeftOperandImpl();
+        leftOperand.setName("address");
+        final SProcessMultiRefBusinessDataInstance ref = mock(SProcessMultiRefBusinessDataInstance.class);
+        doReturn(ref).when(refBusinessDataRetriever).getRefBusinessDataInstance(any());
+        when(ref.getDataClassName()).thenReturn(Address.class.getName());
+        when(ref.getDataIds()).thenReturn(Arrays.asList(486L, 487L));
+        doReturn(Collections.singletonList(new Address(486L))).when(repository).findByIdentifiers(Address.class,
+                Arrays.asList(486L, 487L));
+
+        expectedException.expect(SOperationExecutionException.class);
+
+        leftOperandHandler.delete(leftOperand, 45, PROCESS_INSTANCE);
     }
 
     @Test
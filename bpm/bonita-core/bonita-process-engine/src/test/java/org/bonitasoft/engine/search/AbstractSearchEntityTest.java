@@ -14,16 +14,24 @@
 package org.bonitasoft.engine.search;
 
 import static com.github.stefanbirkner.systemlambda.SystemLambda.tapSystemOut;
+import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstance;
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.OrderByType;
 import org.bonitasoft.engine.persistence.PersistentObject;
 import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.search.descriptor.SearchEntityDescriptor;
 import org.bonitasoft.engine.search.impl.SearchOptionsImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -80,12 +88,108 @@ class AbstractSearchEntityTest {
         assertThat(log).doesNotContain("Double checking the same query");
     }
 
+    @Test
+    void should_not_count_when_count_mode_is_none() throws Exception {
+        final SearchOptions options = new SearchOptionsBuilder(0, 10).countMode(CountMode.NONE).done();
+        final MySearchEntity searchEntity = spy(new MySearchEntity(options));
+
+        final SearchResult<Serializable> result = searchEntity.search();
+
+        verify(searchEntity, never()).executeCount(any());
+        verify(searchEntity).executeSearch(new QueryOptions(0, 11, emptyList(), emptyList(), null));
+        assertThat(result.getCount()).isEqualTo(-1);
+    }
+
+    @Test
+    void should_estimate_count_from_the_results_of_the_page() throws Exception {
+        final SearchOptions options = new SearchOptionsBuilder(20, 2).countMode(CountMode.ESTIMATE).done();
+        final MySearchEntity searchEntity = spy(new MySearchEntity(options));
+        doReturn(entities(1, 2, 3)).when(searchEntity).executeSearch(any());
+
+        final SearchResult<Serializable> result = searchEntity.search();
+
+        verify(searchEntity, never()).executeCount(any());
+        assertThat(result.getCount()).isEqualTo(23);
+        assertThat(result.getResult()).hasSize(2);
+    }
+
+    @Test
+    void should_retrieve_next_page_after_last_element_using_continuation_token() throws Exception {
+        final MySearchEntity firstPage = spy(
+                new MySearchEntity(new SearchOptionsBuilder(0, 2).continuationPaginated().done()));
+        doReturn(3L).when(firstPage).executeCount(any());
+        doReturn(entities(4, 8, 9)).when(firstPage).executeSearch(any());
+
+        final SearchResult<Serializable> firstResult = firstPage.search();
+
+        verify(firstPage).executeSearch(new QueryOptions(3, emptyList(), emptyList(), null, emptyList()));
+        assertThat(firstResult.getResult()).hasSize(2);
+        assertThat(firstResult.getContinuationToken()).isNotNull();
+
+        final MySearchEntity secondPage = spy(new MySearchEntity(
+                new SearchOptionsBuilder(0, 2).continueAfter(firstResult.getContinuationToken()).done()));
+        doReturn(3L).when(secondPage).executeCount(any());
+        doReturn(entities(9)).when(secondPage).executeSearch(any());
+
+        final SearchResult<Serializable> secondResult = secondPage.search();
+
+        verify(secondPage).executeSearch(new QueryOptions(3, emptyList(), emptyList(), null, List.of(8L)));
+        assertThat(secondResult.getResult()).hasSize(1);
+        assertThat(secondResult.getContinuationToken()).isNull();
+    }
+
+    @Test
+    void should_keep_keyset_order_when_next_page_is_retrieved_using_its_offset() throws Exception {
+        // sorted on an entity joined in the query, the sorted value can not be put in the continuation token
+        final OrderByOption order = new OrderByOption(SProcessInstance.class, "name", OrderByType.ASC);
+        final SearchEntityDescriptor searchDescriptor = mock(SearchEntityDescriptor.class);
+        when(searchDescriptor.getEntityOrder(any())).thenReturn(order);
+        final MySearchEntity firstPage = spy(new MySearchEntity(searchDescriptor,
+                new SearchOptionsBuilder(0, 2).sort("name", Order.ASC).continuationPaginated().done()));
+        doReturn(3L).when(firstPage).executeCount(any());
+        doReturn(entities(4, 8, 9)).when(firstPage).executeSearch(any());
+        final SearchResult<Serializable> firstResult = firstPage.search();
+        final MySearchEntity secondPage = spy(new MySearchEntity(searchDescriptor,
+                new SearchOptionsBuilder(0, 2).sort("name", Order.ASC)
+                        .continueAfter(firstResult.getContinuationToken()).done()));
+        doReturn(3L).when(secondPage).executeCount(any());
+        doReturn(entities(9)).when(secondPage).executeSearch(any());
+
+        secondPage.search();
+
+        verify(firstPage).executeSearch(new QueryOptions(3, List.of(order), emptyList(), null, emptyList()));
+        verify(secondPage).executeSearch(new QueryOptions(2, 3, List.of(order), emptyList(), null, emptyList()));
+    }
+
+    @Test
+    void should_fail_when_continuation_token_is_invalid() {
+        final MySearchEntity searchEntity = new MySearchEntity(
+                new SearchOptionsBuilder(0, 2).continueAfter("not a token").done());
+
+        assertThatThrownBy(searchEntity::execute).isInstanceOf(SBonitaReadException.class)
+                .hasMessageContaining("Invalid continuation token");
+    }
+
+    private static List<PersistentObject> entities(long... ids) {
+        final List<PersistentObject> entities = new ArrayList<>();
+        for (long id : ids) {
+            final MySearchEntity.TestEntity entity = new MySearchEntity.TestEntity();
+            entity.setId(id);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
     static class MySearchEntity extends AbstractSearchEntity<Serializable, PersistentObject> {
 
         public MySearchEntity(SearchOptions searchOptions) {
             super(null, searchOptions);
         }
 
+        public MySearchEntity(SearchEntityDescriptor searchDescriptor, SearchOptions searchOptions) {
+            super(searchDescriptor, searchOptions);
+        }
+
         @Override
         public long executeCount(QueryOptions queryOptions) {
             return 1L; // By default, count & search return one result. In some tests, this method is overwritten by mocking
@@ -100,18 +204,21 @@ class AbstractSearchEntityTest {
 
         @Override
         public List<Serializable> convertToClientObjects(List<PersistentObject> serverObjects) {
-            return null;
+            return serverObjects.stream().map(o -> (Serializable) o.getId()).collect(Collectors.toList());
         }
 
         private static class TestEntity implements PersistentObject {
 
+            private long id;
+
             @Override
             public long getId() {
-                return 0;
+                return id;
             }
 
             @Override
             public void setId(long id) {
+                this.id = id;
             }
 
             @Override
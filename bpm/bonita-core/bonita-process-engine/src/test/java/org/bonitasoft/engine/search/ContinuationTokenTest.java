@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.bonitasoft.engine.persistence.OrderByOption;
+import org.bonitasoft.engine.persistence.OrderByType;
+import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.junit.jupiter.api.Test;
+
+class ContinuationTokenTest {
+
+    private static final List<OrderByOption> ORDER_BY_NAME_AND_STATE = List.of(
+            new OrderByOption(TestEntity.class, "name", OrderByType.ASC),
+            new OrderByOption(TestEntity.class, "state", OrderByType.DESC),
+            new OrderByOption(TestEntity.class, "active", OrderByType.ASC));
+
+    @Test
+    void should_decode_values_of_last_element_and_its_id() throws Exception {
+        final TestEntity entity = new TestEntity();
+        entity.setId(42L);
+        entity.setName(null);
+        entity.setState(OrderByType.ASC);
+        entity.setActive(true);
+
+        final String token = ContinuationToken.after(20, ORDER_BY_NAME_AND_STATE, entity)
+                .encode(ORDER_BY_NAME_AND_STATE);
+        final ContinuationToken decoded = ContinuationToken.decode(token, ORDER_BY_NAME_AND_STATE);
+
+        assertThat(decoded.getPosition()).isEqualTo(20);
+        assertThat(decoded.isKeyset()).isTrue();
+        assertThat(decoded.getAfterValues()).containsExactly(null, OrderByType.ASC, true, 42L);
+    }
+
+    @Test
+    void should_fall_back_to_offset_when_enum_type_is_not_declared_by_sorted_entity() throws Exception {
+        final List<OrderByOption> orderOptions = List.of(
+                new OrderByOption(PersistentObject.class, "state", OrderByType.ASC));
+        final TestEntity entity = new TestEntity();
+        entity.setState(OrderByType.DESC);
+
+        final String token = ContinuationToken.after(10, orderOptions, entity).encode(orderOptions);
+        final ContinuationToken decoded = ContinuationToken.decode(token, orderOptions);
+
+        assertThat(decoded.isKeyset()).isFalse();
+        assertThat(decoded.getPosition()).isEqualTo(10);
+    }
+
+    @Test
+    void should_fall_back_to_offset_when_sorted_on_another_entity() throws Exception {
+        final List<OrderByOption> orderOptions = List.of(
+                new OrderByOption(PersistentObject.class, "name", OrderByType.ASC),
+                new OrderByOption(OtherEntity.class, "name", OrderByType.ASC));
+
+        final String token = ContinuationToken.after(10, orderOptions, new TestEntity()).encode(orderOptions);
+        final ContinuationToken decoded = ContinuationToken.decode(token, orderOptions);
+
+        assertThat(decoded.isKeyset()).isFalse();
+        assertThat(decoded.getPosition()).isEqualTo(10);
+    }
+
+    @Test
+    void should_not_decode_token_created_with_other_sorts() {
+        final String token = ContinuationToken.after(10, ORDER_BY_NAME_AND_STATE, new TestEntity())
+                .encode(ORDER_BY_NAME_AND_STATE);
+
+        assertThatThrownBy(() -> ContinuationToken.decode(token,
+                List.of(new OrderByOption(TestEntity.class, "name", OrderByType.DESC))))
+                .isInstanceOf(SBonitaReadException.class);
+    }
+
+    public static class TestEntity implements PersistentObject {
+
+        private long id;
+        private String name;
+        private OrderByType state;
+        private boolean active;
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void setTenantId(long id) {
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public OrderByType getState() {
+            return state;
+        }
+
+        public void setState(OrderByType state) {
+            this.state = state;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+    public static class OtherEntity extends TestEntity {
+    }
+}
@@ -76,7 +76,7 @@ public class ProcessesRecoverTest {
     @Before
     public void setUp() throws Exception {
         recoveryMonitor = new RecoveryMonitor();
-        recoveryMonitor.startNow(100);
+        recoveryMonitor.startNow();
         processesRecover = new ProcessesRecover(workService, activityInstanceService,
                 processDefinitionService, processInstanceService, processExecutor, new BPMWorkFactory());
         doAnswer(args -> ((Callable) args.getArgument(0)).call()).when(userTransactionService)
@@ -13,16 +13,9 @@
  **/
 package org.bonitasoft.engine.tenant.restart;
 
-import static java.util.Arrays.asList;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.FLOWNODE;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.PROCESS;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.builder;
-import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.verify;
 
-import java.time.Duration;
-import java.util.List;
-
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -43,14 +36,11 @@ class RecoveryHandlerTest {
 
     @Test
     void should_delegate_to_ProcessInstancesRecoveryService() {
-        final List<ElementToRecover> elementToRecovers = asList(
-                builder().id(17L).type(PROCESS).build(),
-                builder().id(44L).type(FLOWNODE).build());
-        doReturn(elementToRecovers).when(recoveryService).getAllElementsToRecover(Duration.ZERO);
-
+        long before = System.currentTimeMillis();
         recoveryHandler.beforeServicesStart();
+        long after = System.currentTimeMillis();
         recoveryHandler.afterServicesStart();
 
-        verify(recoveryService).recover(elementToRecovers);
+        verify(recoveryService).recover(longThat(maxLastUpdate -> maxLastUpdate >= before && maxLastUpdate <= after));
     }
 }
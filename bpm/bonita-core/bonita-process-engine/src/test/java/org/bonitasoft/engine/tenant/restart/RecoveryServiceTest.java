@@ -14,16 +14,19 @@
 package org.bonitasoft.engine.tenant.restart;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.FLOWNODE;
-import static org.bonitasoft.engine.tenant.restart.ElementToRecover.Type.PROCESS;
+import static org.bonitasoft.engine.work.DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.*;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -35,7 +38,6 @@ import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
-import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.core.process.instance.api.FlowNodeInstanceService;
 import org.bonitasoft.engine.core.process.instance.api.ProcessInstanceService;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
@@ -53,6 +55,8 @@ import org.springframework.beans.factory.ObjectFactory;
 @ExtendWith(MockitoExtension.class)
 class RecoveryServiceTest {
 
+    private static final long MAX_LAST_UPDATE = 123456L;
+
     @Mock
     private FlowNodeInstanceService flowNodeInstanceService;
     @Mock
@@ -89,77 +93,65 @@ class RecoveryServiceTest {
     }
 
     @Test
-    void should_return_list_of_elements_to_recover() throws Exception {
-        doReturn(asList(1L, 2L)).doReturn(emptyList()).when(flowNodeInstanceService)
-                .getFlowNodeInstanceIdsToRecover(eq(Duration.ZERO), any());
-        doReturn(asList(3L, 4L)).doReturn(emptyList()).when(flowNodeInstanceService)
-                .getGatewayInstanceIdsToRecover(eq(Duration.ZERO), any());
-        doReturn(asList(1L, 2L)).doReturn(emptyList())
-                .when(processInstanceService).getProcessInstanceIdsToRecover(eq(Duration.ZERO), any());
-
-        List<ElementToRecover> allElementsToRecover = recoveryService
-                .getAllElementsToRecover(Duration.ZERO);
-
-        assertThat(allElementsToRecover).containsExactlyInAnyOrder(
-                elementToRecover(1L, PROCESS), elementToRecover(2L, PROCESS),
-                elementToRecover(1L, FLOWNODE), elementToRecover(2L, FLOWNODE),
-                elementToRecover(3L, FLOWNODE), elementToRecover(4L, FLOWNODE));
+    void should_recover_all_elements_found() throws Exception {
+        doReturn(asList(1L, 2L)).doReturn(singletonList(5L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(eq(MAX_LAST_UPDATE), anyLong(), anyInt());
+        doReturn(asList(3L, 4L)).doReturn(Collections.emptyList()).when(flowNodeInstanceService)
+                .getGatewayInstanceIdsToRecover(eq(MAX_LAST_UPDATE), anyLong(), anyInt());
+        doReturn(asList(1L, 2L)).doReturn(Collections.emptyList())
+                .when(processInstanceService).getProcessInstanceIdsToRecover(eq(MAX_LAST_UPDATE), anyLong(), anyInt());
+
+        recoveryService.recover(MAX_LAST_UPDATE);
+
+        verify(flowNodesRecover).execute(recoveryMonitor, asList(1L, 2L, 5L));
+        verify(flowNodesRecover).execute(recoveryMonitor, asList(3L, 4L));
+        verify(processesRecover).execute(recoveryMonitor, asList(1L, 2L));
+        verify(recoveryMonitor, times(3)).addElementsToProcess(2);
+        verify(recoveryMonitor).addElementsToProcess(1);
     }
 
     @Test
-    void should_return_all_elements_even_if_over_page_size() throws SBonitaException {
-        doReturn(asList(1L, 2L))
-                .doReturn(singletonList(4L))
-                .when(processInstanceService).getProcessInstanceIdsToRecover(eq(Duration.ZERO), any());
-        doReturn(asList(7L, 9L))
-                .doReturn(singletonList(13L))
-                .when(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(eq(Duration.ZERO), any());
+    void should_read_each_page_after_the_last_id_read() throws Exception {
+        doReturn(asList(7L, 9L)).doReturn(asList(10L, 13L)).doReturn(singletonList(21L))
+                .when(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
 
-        List<ElementToRecover> allElementsToRecover = recoveryService
-                .getAllElementsToRecover(Duration.ZERO);
+        recoveryService.recover(MAX_LAST_UPDATE);
 
-        assertThat(allElementsToRecover).containsExactlyInAnyOrder(
-                elementToRecover(1L, PROCESS), elementToRecover(2L, PROCESS), elementToRecover(4L, PROCESS),
-                elementToRecover(7L, FLOWNODE), elementToRecover(9L, FLOWNODE), elementToRecover(13L, FLOWNODE));
-    }
-
-    @Test
-    void should_recover_elements_provided() throws Exception {
-        recoveryService.recover(asList(
-                elementToRecover(1L, PROCESS),
-                elementToRecover(2L, PROCESS),
-                elementToRecover(4L, PROCESS),
-                elementToRecover(7L, FLOWNODE),
-                elementToRecover(9L, FLOWNODE),
-                elementToRecover(13L, FLOWNODE)));
-
-        verify(flowNodesRecover).execute(any(), eq(asList(7L, 9L, 13L)));
-        verify(processesRecover).execute(any(), eq(asList(1L, 2L, 4L)));
+        InOrder inOrder = inOrder(flowNodeInstanceService);
+        inOrder.verify(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(MAX_LAST_UPDATE, 0L, 2);
+        inOrder.verify(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(MAX_LAST_UPDATE, 9L, 2);
+        inOrder.verify(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(MAX_LAST_UPDATE, 13L, 2);
+        verify(flowNodesRecover).execute(recoveryMonitor, asList(7L, 9L, 10L, 13L, 21L));
     }
 
     @Test
     void should_recover_all_elements_older_than() throws Exception {
         Duration considerElementsOlderThan = Duration.ofSeconds(10);
         recoveryService.setConsiderElementsOlderThan(considerElementsOlderThan);
+        long maxLastUpdateMin = System.currentTimeMillis() - considerElementsOlderThan.toMillis();
 
         doReturn(asList(1L, 2L))
                 .doReturn(singletonList(4L))
-                .when(processInstanceService).getProcessInstanceIdsToRecover(eq(considerElementsOlderThan), any());
+                .when(processInstanceService).getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
         doReturn(asList(7L, 9L))
                 .doReturn(singletonList(13L))
-                .when(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(eq(considerElementsOlderThan), any());
+                .when(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
 
         recoveryService.recoverAllElements();
 
+        long maxLastUpdateMax = System.currentTimeMillis() - considerElementsOlderThan.toMillis();
+        verify(flowNodeInstanceService).getFlowNodeInstanceIdsToRecover(
+                longThat(maxLastUpdate -> maxLastUpdate >= maxLastUpdateMin && maxLastUpdate <= maxLastUpdateMax),
+                eq(0L), eq(2));
         verify(flowNodesRecover).execute(any(), eq(asList(7L, 9L, 13L)));
         verify(processesRecover).execute(any(), eq(asList(1L, 2L, 4L)));
+        verify(sessionAccessor).setTenantId(12);
     }
 
     @Test
     void should_measure_duration_of_recovery() throws Exception {
         doReturn(singletonList(1L))
-                .doReturn(singletonList(4L))
-                .when(processInstanceService).getProcessInstanceIdsToRecover(any(), any());
+                .when(processInstanceService).getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
         LongTaskTimer longTaskTimer = meterRegistry.find(RecoveryService.DURATION_OF_RECOVERY_TASK).longTaskTimer();
         AtomicInteger activeTasks = new AtomicInteger();
         AtomicLong durationMillis = new AtomicLong();
@@ -227,95 +219,138 @@ class RecoveryServiceTest {
         assertThat(numberOfExecution).isNotNull();
     }
 
-    private ElementToRecover elementToRecover(long l, ElementToRecover.Type process) {
-        return ElementToRecover.builder().id(l).type(process).build();
-    }
-
     @Test
     void should_restart_flownodes_in_batch() throws Exception {
+        recoveryService.setReadBatchSize(10);
         recoveryService.setBatchRestartSize(2);
+        doReturn(asList(1L, 2L, 3L, 4L, 5L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
 
-        recoveryService.recover(asList(
-                elementToRecover(1L, FLOWNODE),
-                elementToRecover(2L, FLOWNODE),
-                elementToRecover(3L, FLOWNODE),
-                elementToRecover(4L, FLOWNODE),
-                elementToRecover(5L, FLOWNODE)));
+        recoveryService.recover(MAX_LAST_UPDATE);
 
         verify(flowNodesRecover).execute(any(), eq(asList(1L, 2L)));
         verify(flowNodesRecover).execute(any(), eq(asList(3L, 4L)));
         verify(flowNodesRecover).execute(any(), eq(singletonList(5L)));
-        verify(userTransactionService, times(3)).executeInTransaction(any());
+        // one transaction for each of the 3 reads (flow nodes, gateways, processes) and for each of the 3 batches
+        verify(userTransactionService, times(6)).executeInTransaction(any());
     }
 
     @Test
     void should_restart_processes_in_batch() throws Exception {
+        recoveryService.setReadBatchSize(10);
         recoveryService.setBatchRestartSize(2);
+        doReturn(asList(1L, 2L, 3L, 4L, 5L)).when(processInstanceService)
+                .getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
 
-        recoveryService.recover(asList(
-                elementToRecover(1L, PROCESS),
-                elementToRecover(2L, PROCESS),
-                elementToRecover(3L, PROCESS),
-                elementToRecover(4L, PROCESS),
-                elementToRecover(5L, PROCESS)));
+        recoveryService.recover(MAX_LAST_UPDATE);
 
         verify(processesRecover).execute(any(), eq(asList(1L, 2L)));
         verify(processesRecover).execute(any(), eq(asList(3L, 4L)));
         verify(processesRecover).execute(any(), eq(singletonList(5L)));
-        verify(userTransactionService, times(3)).executeInTransaction(any());
+        // one transaction for each of the 3 reads (flow nodes, gateways, processes) and for each of the 3 batches
+        verify(userTransactionService, times(6)).executeInTransaction(any());
+    }
+
+    @Test
+    void should_fill_batches_with_ids_of_several_pages() throws Exception {
+        recoveryService.setBatchRestartSize(3);
+        doReturn(asList(1L, 2L)).doReturn(asList(3L, 4L)).doReturn(singletonList(5L)).when(processInstanceService)
+                .getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+
+        recoveryService.recover(MAX_LAST_UPDATE);
+
+        verify(processesRecover).execute(any(), eq(asList(1L, 2L, 3L)));
+        verify(processesRecover).execute(any(), eq(asList(4L, 5L)));
+        verify(recoveryMonitor).printProgress();
     }
 
     @Test
     void should_continue_to_restart_process_even_if_one_batch_failed() throws Exception {
-        doThrow(new UnsupportedOperationException("current batch failed, sorry ¯\\_(ツ)_/¯"))
-                .doAnswer(invocationOnMock -> ((Callable) invocationOnMock.getArgument(0)).call())
-                .when(userTransactionService).executeInTransaction(any());
+        recoveryService.setReadBatchSize(10);
         recoveryService.setBatchRestartSize(2);
+        doReturn(asList(1L, 2L, 3L, 4L, 5L)).when(processInstanceService)
+                .getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+        doThrow(new UnsupportedOperationException("current batch failed, sorry ¯\\_(ツ)_/¯"))
+                .doNothing()
+                .when(processesRecover).execute(any(), any());
 
-        recoveryService.recover(asList(
-                elementToRecover(1L, PROCESS),
-                elementToRecover(2L, PROCESS),
-                elementToRecover(3L, PROCESS),
-                elementToRecover(4L, PROCESS),
-                elementToRecover(5L, PROCESS)));
+        recoveryService.recover(MAX_LAST_UPDATE);
 
-        verify(processesRecover, never()).execute(any(), eq(asList(1L, 2L)));// transaction fail there
+        verify(processesRecover).execute(any(), eq(asList(1L, 2L)));// transaction fail there
         verify(processesRecover).execute(any(), eq(asList(3L, 4L)));
         verify(processesRecover).execute(any(), eq(singletonList(5L)));
-        verify(userTransactionService, times(3)).executeInTransaction(any());
     }
 
     @Test
     void should_continue_to_restart_flow_node_even_if_one_batch_failed() throws Exception {
-        doThrow(new UnsupportedOperationException("current batch failed, sorry ¯\\_(ツ)_/¯"))
-                .doAnswer(invocationOnMock -> ((Callable) invocationOnMock.getArgument(0)).call())
-                .when(userTransactionService).executeInTransaction(any());
+        recoveryService.setReadBatchSize(10);
         recoveryService.setBatchRestartSize(2);
+        doReturn(asList(1L, 2L, 3L, 4L, 5L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+        doThrow(new UnsupportedOperationException("current batch failed, sorry ¯\\_(ツ)_/¯"))
+                .doNothing()
+                .when(flowNodesRecover).execute(any(), any());
 
-        recoveryService.recover(asList(
-                elementToRecover(1L, FLOWNODE),
-                elementToRecover(2L, FLOWNODE),
-                elementToRecover(3L, FLOWNODE),
-                elementToRecover(4L, FLOWNODE),
-                elementToRecover(5L, FLOWNODE)));
+        recoveryService.recover(MAX_LAST_UPDATE);
 
-        verify(flowNodesRecover, never()).execute(any(), eq(asList(1L, 2L)));// transaction fail there
+        verify(flowNodesRecover).execute(any(), eq(asList(1L, 2L)));// transaction fail there
         verify(flowNodesRecover).execute(any(), eq(asList(3L, 4L)));
         verify(flowNodesRecover).execute(any(), eq(singletonList(5L)));
-        verify(userTransactionService, times(3)).executeInTransaction(any());
     }
 
     @Test
     void should_recover_elements_using_a_new_RecoveryMonitor() throws Exception {
+        doReturn(singletonList(1L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+        doReturn(singletonList(2L)).when(processInstanceService)
+                .getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
         InOrder inOrder = inOrder(recoveryMonitor, flowNodesRecover, processesRecover);
 
-        recoveryService.recover(asList(
-                elementToRecover(1L, FLOWNODE),
-                elementToRecover(2L, PROCESS)));
+        recoveryService.recover(MAX_LAST_UPDATE);
 
-        inOrder.verify(recoveryMonitor).startNow(2);
+        inOrder.verify(recoveryMonitor).startNow();
         inOrder.verify(flowNodesRecover).execute(recoveryMonitor, singletonList(1L));
         inOrder.verify(processesRecover).execute(recoveryMonitor, singletonList(2L));
         inOrder.verify(recoveryMonitor).printSummary();
     }
+
+    @Test
+    void should_recover_batches_in_parallel_and_processes_after_flow_nodes() throws Exception {
+        recoveryService.setParallelism(3);
+        recoveryService.setReadBatchSize(10);
+        recoveryService.setBatchRestartSize(1);
+        doReturn(asList(1L, 2L, 3L, 4L, 5L, 6L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+        doReturn(asList(7L, 8L, 9L)).when(processInstanceService)
+                .getProcessInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+        List<Long> recovered = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> recovered.addAll(invocation.getArgument(1))).when(flowNodesRecover)
+                .execute(any(), any());
+        doAnswer(invocation -> recovered.addAll(invocation.getArgument(1))).when(processesRecover)
+                .execute(any(), any());
+
+        recoveryService.recover(MAX_LAST_UPDATE);
+
+        assertThat(recovered).hasSize(9);
+        assertThat(recovered.subList(0, 6)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(recovered.subList(6, 9)).containsExactlyInAnyOrder(7L, 8L, 9L);
+        verify(sessionAccessor, times(9)).setTenantId(12);
+    }
+
+    @Test
+    void should_wait_for_pending_works_before_dispatching_a_batch() throws Exception {
+        recoveryService.setMaxPendingWorks(10);
+        recoveryService.setBackpressureCheckInterval(Duration.ofMillis(1));
+        AtomicLong pendingWorks = new AtomicLong(12);
+        // each time the queue is checked, one more work has been executed
+        Gauge.builder(NUMBER_OF_WORKS_PENDING, pendingWorks, AtomicLong::getAndDecrement).tag("tenant", "12")
+                .register(meterRegistry);
+        doReturn(singletonList(1L)).when(flowNodeInstanceService)
+                .getFlowNodeInstanceIdsToRecover(anyLong(), anyLong(), anyInt());
+
+        recoveryService.recover(MAX_LAST_UPDATE);
+
+        assertThat(pendingWorks.get()).isEqualTo(9);
+        verify(flowNodesRecover).execute(any(), eq(singletonList(1L)));
+    }
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tenant.restart;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.bonitasoft.engine.identity.model.SUser;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.ReadPersistenceService;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SearchTermIndex;
+import org.bonitasoft.engine.persistence.SearchTermIndexer;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchTermIndexRestartHandlerTest {
+
+    private static final String USER_TYPE = SUser.class.getName();
+
+    @Mock
+    private SearchTermIndexer searchTermIndexer;
+    @Mock
+    private ReadPersistenceService persistenceService;
+    @Mock
+    private UserTransactionService userTransactionService;
+
+    @Before
+    public void before() throws Exception {
+        lenient().when(userTransactionService.executeInTransaction(any()))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call());
+    }
+
+    @Test
+    public void should_clear_index_when_it_is_disabled() throws Exception {
+        handler(SearchTermIndex.DISABLED).beforeServicesStart();
+
+        verify(searchTermIndexer).clear();
+    }
+
+    @Test
+    public void should_not_clear_index_when_it_is_enabled() throws Exception {
+        handler(enabledIndex()).beforeServicesStart();
+
+        verifyNoInteractions(searchTermIndexer);
+    }
+
+    @Test
+    public void should_index_all_elements_page_by_page_when_index_of_type_is_not_built() throws Exception {
+        SUser user1 = user(1L);
+        SUser user2 = user(2L);
+        SUser user3 = user(3L);
+        when(searchTermIndexer.getBuildProgress(USER_TYPE)).thenReturn(null);
+        ArgumentCaptor<QueryOptions> queryOptions = ArgumentCaptor.forClass(QueryOptions.class);
+        when(persistenceService.searchEntity(eq(SUser.class), queryOptions.capture(), anyMap()))
+                .thenReturn(asList(user1, user2), singletonList(user3));
+        SearchTermIndex searchTermIndex = enabledIndex();
+
+        handler(searchTermIndex).afterServicesStart();
+
+        verify(searchTermIndexer).index(user1);
+        verify(searchTermIndexer).index(user2);
+        verify(searchTermIndexer).index(user3);
+        verify(searchTermIndexer).remove(user3);
+        verify(searchTermIndexer).saveBuildProgress(USER_TYPE, 2L, false);
+        verify(searchTermIndexer).saveBuildProgress(USER_TYPE, 3L, true);
+        List<QueryOptions> pages = queryOptions.getAllValues();
+        assertThat(pages).hasSize(2);
+        assertThat(pages.get(0).getAfterValues()).isEmpty();
+        assertThat(pages.get(1).getAfterValues()).containsExactly(2L);
+        assertThat(searchTermIndex.isBuilt(USER_TYPE)).isTrue();
+    }
+
+    @Test
+    public void should_not_record_index_of_type_as_built_when_build_fails() throws Exception {
+        when(persistenceService.searchEntity(eq(SUser.class), any(QueryOptions.class), anyMap()))
+                .thenThrow(new SBonitaReadException("error"));
+        SearchTermIndex searchTermIndex = enabledIndex();
+
+        handler(searchTermIndex).afterServicesStart();
+
+        assertThat(searchTermIndex.isBuilt(USER_TYPE)).isFalse();
+    }
+
+    @Test
+    public void should_resume_build_after_last_indexed_element() throws Exception {
+        SUser user5 = user(5L);
+        when(searchTermIndexer.getBuildProgress(USER_TYPE)).thenReturn(4L);
+        ArgumentCaptor<QueryOptions> queryOptions = ArgumentCaptor.forClass(QueryOptions.class);
+        when(persistenceService.searchEntity(eq(SUser.class), queryOptions.capture(), anyMap()))
+                .thenReturn(singletonList(user5));
+
+        handler(enabledIndex()).afterServicesStart();
+
+        verify(searchTermIndexer).index(user5);
+        verify(searchTermIndexer).saveBuildProgress(USER_TYPE, 5L, true);
+        assertThat(queryOptions.getValue().getAfterValues()).containsExactly(4L);
+    }
+
+    @Test
+    public void should_complete_build_when_last_page_is_empty() throws Exception {
+        when(searchTermIndexer.getBuildProgress(USER_TYPE)).thenReturn(4L);
+        when(persistenceService.searchEntity(eq(SUser.class), any(QueryOptions.class), anyMap()))
+                .thenReturn(emptyList());
+
+        handler(enabledIndex()).afterServicesStart();
+
+        verify(searchTermIndexer).saveBuildProgress(USER_TYPE, 4L, true);
+    }
+
+    @Test
+    public void should_not_index_elements_when_index_of_type_is_built() throws Exception {
+        when(searchTermIndexer.isBuilt(USER_TYPE)).thenReturn(true);
+
+        handler(enabledIndex()).afterServicesStart();
+
+        verifyNoInteractions(persistenceService);
+    }
+
+    private SearchTermIndexRestartHandler handler(SearchTermIndex searchTermIndex) {
+        return new SearchTermIndexRestartHandler(searchTermIndex, searchTermIndexer, persistenceService,
+                userTransactionService, 2);
+    }
+
+    private static SearchTermIndex enabledIndex() {
+        return new SearchTermIndex(true, Map.of(USER_TYPE, Set.of("userName")));
+    }
+
+    private static SUser user(long id) {
+        return SUser.builder().id(id).userName("user" + id).build();
+    }
+}
@@ -156,7 +156,8 @@ public class ConnectorServiceImpl implements ConnectorService {
             log.debug("Executing connector {} {}", buildConnectorContextMessage(sConnectorInstance),
                     buildConnectorInputMessage(inputParameters));
         }
-        return executeConnectorInClassloader(implementationClassName, classLoader, inputParameters)
+        return executeConnectorInClassloader(connectorImplementationDescriptor.getDefinitionId(),
+                implementationClassName, classLoader, inputParameters)
                 .thenApply(result -> {
                     connectorExecutionTimeLogger.log(processDefinitionId, sConnectorInstance, result.getConnector(),
                             inputParameters, result.getExecutionTimeMillis());
@@ -195,8 +196,9 @@ public class ConnectorServiceImpl implements ConnectorService {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EXECUTE_CONNECTOR_OUTPUT_OPERATIONS)) {
                 final long endTime = System.currentTimeMillis();
-                String desc = "ConnectorResult: " + result;
-                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_OUTPUT_OPERATIONS, desc, endTime - startTime);
+                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_OUTPUT_OPERATIONS,
+                        result.getConnector().getClass().getName(), () -> "ConnectorResult: " + result,
+                        endTime - startTime);
             }
             disconnect(result);
         }
@@ -212,10 +214,8 @@ public class ConnectorServiceImpl implements ConnectorService {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EXECUTE_CONNECTOR_DISCONNECT)) {
                 final long endTime = System.currentTimeMillis();
-                final StringBuilder desc = new StringBuilder();
-                desc.append("ConnectorResult: ");
-                desc.append(result);
-                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_DISCONNECT, desc.toString(),
+                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_DISCONNECT,
+                        result.getConnector().getClass().getName(), () -> "ConnectorResult: " + result,
                         endTime - startTime);
             }
         }
@@ -273,8 +273,8 @@ public class ConnectorServiceImpl implements ConnectorService {
         }
         final ConnectorResult connectorResult;
         try {
-            connectorResult = executeConnectorInClassloader(implementationClassName, classLoader, inputParameters)
-                    .get();
+            connectorResult = executeConnectorInClassloader(connectorDefinitionId, implementationClassName,
+                    classLoader, inputParameters).get();
         } catch (InterruptedException | ExecutionException e) {
             throw new SConnectorException(e);
         }
@@ -285,14 +285,14 @@ public class ConnectorServiceImpl implements ConnectorService {
         return connectorResult;
     }
 
-    private CompletableFuture<ConnectorResult> executeConnectorInClassloader(final String implementationClassName,
-            final ClassLoader classLoader,
+    private CompletableFuture<ConnectorResult> executeConnectorInClassloader(final String connectorDefinitionId,
+            final String implementationClassName, final ClassLoader classLoader,
             final Map<String, Object> inputParameters) throws SConnectorException {
         final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(classLoader);
             Connector connector = (Connector) classLoader.loadClass(implementationClassName).newInstance();
-            final SConnectorAdapter sConnectorAdapter = new SConnectorAdapter(connector);
+            final SConnectorAdapter sConnectorAdapter = new SConnectorAdapter(connector, connectorDefinitionId);
             return connectorExecutor.execute(sConnectorAdapter, inputParameters, classLoader)
                     .thenApply(result -> new ConnectorResult(connector, result.getOutputs(),
                             result.getExecutionTimeMillis()));
@@ -337,8 +337,8 @@ public class ConnectorServiceImpl implements ConnectorService {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EXECUTE_CONNECTOR_INPUT_EXPRESSIONS)) {
                 final long endTime = System.currentTimeMillis();
-                String desc = "Connector ID: " + connectorId + " - input parameters: " + inputParameters;
-                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_INPUT_EXPRESSIONS, desc,
+                timeTracker.track(TimeTrackerRecords.EXECUTE_CONNECTOR_INPUT_EXPRESSIONS, connectorId,
+                        () -> "Connector ID: " + connectorId + " - input parameters: " + inputParameters,
                         endTime - startTime);
             }
         }
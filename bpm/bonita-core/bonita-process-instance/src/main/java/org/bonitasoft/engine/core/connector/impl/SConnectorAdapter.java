@@ -36,15 +36,27 @@ public class SConnectorAdapter implements SConnector {
 
     private final Connector connector;
 
+    private final String definitionId;
+
     public SConnectorAdapter(final Connector connector) {
+        this(connector, null);
+    }
+
+    public SConnectorAdapter(final Connector connector, final String definitionId) {
         NullCheckingUtil.checkArgsNotNull(connector);
         this.connector = connector;
+        this.definitionId = definitionId;
     }
 
     public Connector getConnector() {
         return connector;
     }
 
+    @Override
+    public String getDefinitionId() {
+        return definitionId;
+    }
+
     @Override
     public void setInputParameters(final Map<String, Object> parameters) {
         final APIAccessor apiAccessor = (APIAccessor) parameters.remove("connectorApiAccessor");
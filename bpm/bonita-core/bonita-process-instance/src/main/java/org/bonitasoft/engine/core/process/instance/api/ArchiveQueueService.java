@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.api;
+
+import java.util.List;
+
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstance;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstanceToArchive;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.services.SPersistenceException;
+
+/**
+ * Durable queue of process instances that reached a final state and that are archived later, outside of the
+ * transaction that completed them.
+ */
+public interface ArchiveQueueService {
+
+    void enqueue(SProcessInstance processInstance, long queuedDate) throws SPersistenceException;
+
+    boolean isQueued(long processInstanceId) throws SBonitaReadException;
+
+    /**
+     * @return the queued process instances having an id greater than the given one, ordered by id
+     */
+    List<SProcessInstanceToArchive> getQueuedProcessInstances(long afterId, int maxResults)
+            throws SBonitaReadException;
+
+    long getNumberOfQueuedProcessInstances() throws SBonitaReadException;
+
+    /**
+     * @return the date the oldest process instance still in the queue was queued at, 0 if the queue is empty
+     */
+    long getOldestQueuedDate() throws SBonitaReadException;
+
+    void remove(List<Long> processInstanceIds) throws SPersistenceException;
+
+}
@@ -13,7 +13,6 @@
  **/
 package org.bonitasoft.engine.core.process.instance.api;
 
-import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
@@ -359,27 +358,28 @@ public interface FlowNodeInstanceService {
             throws SFlowNodeReadException, SFlowNodeDeletionException;
 
     /**
-     * retrieve ids of elements that need to be recovered
+     * retrieve ids of elements that need to be recovered, ordered by id
      * Called on start node to set the flag to tell the engine to restart these flow nodes
      * Should not be called when the engine is started!
      * This does not retrieve SGatewayInstances
      *
-     * @param considerElementsOlderThan consider elements older than that duration
-     * @param queryOptions used for pagination
+     * @param maxLastUpdate consider only elements not updated since that date
+     * @param afterId consider only elements having an id greater than this one, used for pagination
+     * @param maxResults maximum number of ids to retrieve
      */
-    List<Long> getFlowNodeInstanceIdsToRecover(Duration considerElementsOlderThan, QueryOptions queryOptions)
+    List<Long> getFlowNodeInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
             throws SBonitaReadException;
 
     List<SFlowNodeInstance> getFlowNodeInstancesByIds(List<Long> ids) throws SBonitaReadException;
 
     /**
-     * Retrieve ids of SGatewayInstances that need to be recovered
+     * Retrieve ids of SGatewayInstances that need to be recovered, ordered by id
      *
-     * @param queryOptions
-     * @return
-     * @throws SBonitaReadException
+     * @param maxLastUpdate consider only elements not updated since that date
+     * @param afterId consider only elements having an id greater than this one, used for pagination
+     * @param maxResults maximum number of ids to retrieve
      */
-    List<Long> getGatewayInstanceIdsToRecover(Duration considerElementsOlderThan, QueryOptions queryOptions)
+    List<Long> getGatewayInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
             throws SBonitaReadException;
 
     /**
@@ -81,13 +81,14 @@ public interface GatewayInstanceService {
             throws SBonitaException;
 
     /**
-     * Add transitionDefinitionName to hitBy of specific gatewayInstance
+     * Add a token coming from the given incoming transition to the gateway instance
      *
      * @param gatewayInstance
      *        the gateway instance will be updated
      * @param transitionIndex
-     *        value will be added to hitBy of gatewayInstance
+     *        index of the incoming transition, starting at 1
      * @throws SGatewayModificationException
+     *         if the gateway can not be updated or if the index is greater than the number of supported transitions
      * @throws SGatewayCreationException
      */
     void hitTransition(SGatewayInstance gatewayInstance, long transitionIndex)
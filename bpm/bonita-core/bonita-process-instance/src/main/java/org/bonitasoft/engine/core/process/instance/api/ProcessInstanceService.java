@@ -13,7 +13,6 @@
  **/
 package org.bonitasoft.engine.core.process.instance.api;
 
-import java.time.Duration;
 import java.util.List;
 
 import org.bonitasoft.engine.bpm.process.ProcessInstanceState;
@@ -288,6 +287,26 @@ public interface ProcessInstanceService {
      */
     List<SProcessInstance> searchProcessInstances(QueryOptions queryOptions) throws SBonitaReadException;
 
+    /**
+     * Get total number of process instances that are not waiting to be archived
+     *
+     * @param queryOptions
+     *        a map of specific parameters of a query
+     * @return total number of open process instances
+     * @throws SBonitaReadException
+     */
+    long getNumberOfOpenProcessInstances(QueryOptions queryOptions) throws SBonitaReadException;
+
+    /**
+     * Search process instances that are not waiting to be archived, according to specific criteria
+     *
+     * @param queryOptions
+     *        a map of specific parameters of a query
+     * @return a list of SProcessInstance objects
+     * @throws SBonitaReadException
+     */
+    List<SProcessInstance> searchOpenProcessInstances(QueryOptions queryOptions) throws SBonitaReadException;
+
     /**
      * Get total number of open process instances for the specific supervisor
      *
@@ -572,13 +591,14 @@ public interface ProcessInstanceService {
     long getNumberOfProcessInstances(long processDefinitionId) throws SBonitaReadException;
 
     /**
-     * Retrieve ids of process instances nodes that needs to be recovered.
+     * Retrieve ids of process instances nodes that needs to be recovered, ordered by id.
      * This is used by recover mechanism ProcessInstanceRecoveryService
      *
-     * @param considerElementsOlderThan consider elements older than that duration
-     * @param queryOptions used for pagination
+     * @param maxLastUpdate consider only elements not updated since that date
+     * @param afterId consider only elements having an id greater than this one, used for pagination
+     * @param maxResults maximum number of ids to retrieve
      */
-    List<Long> getProcessInstanceIdsToRecover(Duration considerElementsOlderThan, QueryOptions queryOptions)
+    List<Long> getProcessInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
             throws SBonitaReadException;
 
 }
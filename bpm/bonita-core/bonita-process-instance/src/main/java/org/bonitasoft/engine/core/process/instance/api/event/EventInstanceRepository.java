@@ -131,6 +131,9 @@ public interface EventInstanceRepository {
 
     SMessageInstance getMessageInstance(long messageInstanceId) throws SMessageInstanceReadException;
 
+    List<SMessageInstance> getUnhandledMessageInstances(long afterId, int maxResults)
+            throws SMessageInstanceReadException;
+
     void deleteMessageInstanceByIds(List<Long> ids) throws SMessageModificationException;
 
     List<Long> getMessageInstanceIdOlderThanCreationDate(final long creationDate,
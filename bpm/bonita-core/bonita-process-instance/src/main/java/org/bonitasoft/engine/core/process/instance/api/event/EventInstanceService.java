@@ -128,6 +128,13 @@ public interface EventInstanceService {
 
     SMessageInstance getMessageInstance(long messageInstanceId) throws SMessageInstanceReadException;
 
+    /**
+     * @param afterId only message instances having an id greater than this one are returned
+     * @return message instances not yet handled, ordered by id
+     */
+    List<SMessageInstance> getUnhandledMessageInstances(long afterId, int maxResults)
+            throws SMessageInstanceReadException;
+
     void updateWaitingMessage(SWaitingMessageEvent waitingMessageEvent, EntityUpdateDescriptor descriptor)
             throws SWaitingEventModificationException;
 
@@ -247,6 +247,17 @@ public class EventInstanceRepositoryImpl implements EventInstanceRepository {
         }
     }
 
+    @Override
+    public List<SMessageInstance> getUnhandledMessageInstances(final long afterId, final int maxResults)
+            throws SMessageInstanceReadException {
+        try {
+            return persistenceService
+                    .selectList(SelectDescriptorBuilder.getUnhandledMessageInstances(afterId, maxResults));
+        } catch (final SBonitaReadException e) {
+            throw new SMessageInstanceReadException(e);
+        }
+    }
+
     @Override
     public SMessageInstance getMessageInstance(final long messageInstanceId) throws SMessageInstanceReadException {
         try {
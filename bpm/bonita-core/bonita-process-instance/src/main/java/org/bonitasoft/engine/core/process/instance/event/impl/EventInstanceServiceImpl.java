@@ -191,6 +191,12 @@ public class EventInstanceServiceImpl implements EventInstanceService {
         return this.eventInstanceRepository.getMessageInstance(messageInstanceId);
     }
 
+    @Override
+    public List<SMessageInstance> getUnhandledMessageInstances(long afterId, int maxResults)
+            throws SMessageInstanceReadException {
+        return this.eventInstanceRepository.getUnhandledMessageInstances(afterId, maxResults);
+    }
+
     @Override
     public long getNumberOfWaitingEvents(final Class<? extends SWaitingEvent> sWaitingEventClass,
             QueryOptions searchOptions) throws SBonitaReadException {
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.core.process.instance.api.ArchiveQueueService;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstance;
+import org.bonitasoft.engine.core.process.instance.model.SProcessInstanceToArchive;
+import org.bonitasoft.engine.persistence.QueryOptions;
+import org.bonitasoft.engine.persistence.SBonitaReadException;
+import org.bonitasoft.engine.persistence.SelectByIdDescriptor;
+import org.bonitasoft.engine.persistence.SelectListDescriptor;
+import org.bonitasoft.engine.persistence.SelectOneDescriptor;
+import org.bonitasoft.engine.services.PersistenceService;
+import org.bonitasoft.engine.services.SPersistenceException;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class ArchiveQueueServiceImpl implements ArchiveQueueService {
+
+    private final PersistenceService persistenceService;
+
+    public ArchiveQueueServiceImpl(PersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    @Override
+    public void enqueue(SProcessInstance processInstance, long queuedDate) throws SPersistenceException {
+        log.debug("Queuing archiving of process instance {}", processInstance.getId());
+        persistenceService.insert(SProcessInstanceToArchive.builder()
+                .id(processInstance.getId())
+                .processDefinitionId(processInstance.getProcessDefinitionId())
+                .queuedDate(queuedDate)
+                .build());
+    }
+
+    @Override
+    public boolean isQueued(long processInstanceId) throws SBonitaReadException {
+        return persistenceService.selectById(
+                new SelectByIdDescriptor<>(SProcessInstanceToArchive.class, processInstanceId)) != null;
+    }
+
+    @Override
+    public List<SProcessInstanceToArchive> getQueuedProcessInstances(long afterId, int maxResults)
+            throws SBonitaReadException {
+        return persistenceService.selectList(new SelectListDescriptor<>("getProcessInstancesToArchive",
+                Collections.singletonMap("afterId", afterId), SProcessInstanceToArchive.class,
+                new QueryOptions(0, maxResults)));
+    }
+
+    @Override
+    public long getNumberOfQueuedProcessInstances() throws SBonitaReadException {
+        return persistenceService.selectOne(new SelectOneDescriptor<>("getNumberOfProcessInstancesToArchive",
+                Collections.emptyMap(), SProcessInstanceToArchive.class, Long.class));
+    }
+
+    @Override
+    public long getOldestQueuedDate() throws SBonitaReadException {
+        Long oldestQueuedDate = persistenceService.selectOne(new SelectOneDescriptor<>(
+                "getOldestQueuedDateOfProcessInstancesToArchive", Collections.emptyMap(), SProcessInstanceToArchive.class,
+                Long.class));
+        return oldestQueuedDate == null ? 0 : oldestQueuedDate;
+    }
+
+    @Override
+    public void remove(List<Long> processInstanceIds) throws SPersistenceException {
+        if (!processInstanceIds.isEmpty()) {
+            persistenceService.delete(processInstanceIds, SProcessInstanceToArchive.class);
+        }
+    }
+
+}
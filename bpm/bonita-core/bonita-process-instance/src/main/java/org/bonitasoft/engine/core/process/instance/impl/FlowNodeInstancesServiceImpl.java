@@ -16,7 +16,6 @@ package org.bonitasoft.engine.core.process.instance.impl;
 import static java.util.Collections.singletonMap;
 
 import java.text.MessageFormat;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -504,26 +503,24 @@ public abstract class FlowNodeInstancesServiceImpl implements FlowNodeInstanceSe
     }
 
     @Override
-    public List<Long> getFlowNodeInstanceIdsToRecover(Duration considerElementsOlderThan, QueryOptions queryOptions)
+    public List<Long> getFlowNodeInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
             throws SBonitaReadException {
         final List<Long> selectList = getPersistenceService().selectList(
                 new SelectListDescriptor<>("getFlowNodeInstanceIdsToRecover",
-                        singletonMap("maxLastUpdate",
-                                System.currentTimeMillis() - considerElementsOlderThan.toMillis()),
+                        Map.of("maxLastUpdate", maxLastUpdate, "afterId", afterId),
                         SFlowNodeInstance.class,
-                        queryOptions));
+                        new QueryOptions(0, maxResults)));
         return getUnmodifiableList(selectList);
     }
 
     @Override
-    public List<Long> getGatewayInstanceIdsToRecover(Duration considerElementsOlderThan,
-            final QueryOptions queryOptions) throws SBonitaReadException {
+    public List<Long> getGatewayInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
+            throws SBonitaReadException {
         final List<Long> selectList = getPersistenceService().selectList(
                 new SelectListDescriptor<>("getGatewayInstanceIdsToRecover",
-                        singletonMap("maxLastUpdate",
-                                System.currentTimeMillis() - considerElementsOlderThan.toMillis()),
+                        Map.of("maxLastUpdate", maxLastUpdate, "afterId", afterId),
                         SGatewayInstance.class,
-                        queryOptions));
+                        new QueryOptions(0, maxResults)));
         return getUnmodifiableList(selectList);
     }
 
@@ -15,7 +15,6 @@ package org.bonitasoft.engine.core.process.instance.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -26,6 +25,7 @@ import org.bonitasoft.engine.builder.BuilderFactory;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.core.process.definition.model.SFlowElementContainerDefinition;
 import org.bonitasoft.engine.core.process.definition.model.SFlowNodeDefinition;
+import org.bonitasoft.engine.core.process.definition.model.SGatewayType;
 import org.bonitasoft.engine.core.process.definition.model.SProcessDefinition;
 import org.bonitasoft.engine.core.process.definition.model.STransitionDefinition;
 import org.bonitasoft.engine.core.process.instance.api.FlowNodeInstanceService;
@@ -126,22 +126,22 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
         log.debug("Evaluate if gateway " + gatewayInstance.getName() + " of instance "
                 + gatewayInstance.getRootProcessInstanceId() + " of definition "
                 + sDefinition.getName() + " must be activated ");
-        log.debug("HitBys = " + gatewayInstance.getHitBys());
         if (gatewayInstance.isFinished()) {
             return false;
         }
+        GatewayTokens tokens = GatewayTokens.of(gatewayInstance);
+        log.debug("Tokens = " + tokens);
         SFlowElementContainerDefinition processContainer = sDefinition.getProcessContainer();
         SFlowNodeDefinition gatewayDefinition = processContainer.getFlowNode(gatewayInstance.getFlowNodeDefinitionId());
         long processInstanceId = gatewayInstance.getParentContainerId();
 
-        List<String> hitByTransitionList = getHitByTransitionList(gatewayInstance);
         List<STransitionDefinition> incomingTransitions = gatewayDefinition.getIncomingTransitions();
         List<STransitionDefinition> incomingWithTokens = new ArrayList<>();
         List<STransitionDefinition> incomingWithoutTokens = new ArrayList<>();
 
         for (int i = 0; i < incomingTransitions.size(); i++) {
             STransitionDefinition currentTransition = incomingTransitions.get(i);
-            if (hitByTransitionList.contains(String.valueOf(i + 1))) {
+            if (tokens.isHitBy(i + 1)) {
                 incomingWithTokens.add(currentTransition);
             } else {
                 incomingWithoutTokens.add(currentTransition);
@@ -259,22 +259,8 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
     }
 
     boolean isParallelGatewayActivated(final SProcessDefinition sDefinition, final SGatewayInstance gatewayInstance) {
-        final List<String> hitsBy = getHitByTransitionList(gatewayInstance);
         final List<STransitionDefinition> trans = getTransitionDefinitions(gatewayInstance, sDefinition);
-        boolean go = true;
-        int i = 1;
-        while (go && i <= trans.size()) {
-            go = hitsBy.contains(String.valueOf(i));
-            i++;
-        }
-        return go;
-    }
-
-    /**
-     * @return the list of transition indexes that hit the gateway
-     */
-    private List<String> getHitByTransitionList(final SGatewayInstance gatewayInstance) {
-        return Arrays.asList(gatewayInstance.getHitBys().split(","));
+        return GatewayTokens.of(gatewayInstance).isHitByAll(trans.size());
     }
 
     protected List<STransitionDefinition> getTransitionDefinitions(final SGatewayInstance gatewayInstance,
@@ -298,23 +284,32 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
         log.debug("Hit gateway " + gatewayInstance.getName() + " (" + gatewayInstance.getId() + ")" + " of instance "
                 + gatewayInstance.getRootProcessInstanceId()
                 + " with transition index " + transitionIndex);
-        final String hitBys = gatewayInstance.getHitBys();
-        String columnValue;
-        if (hitBys == null || hitBys.isEmpty()) {
-            columnValue = String.valueOf(transitionIndex);
-        } else {
-            columnValue = hitBys + "," + transitionIndex;
+        if (!GatewayTokens.isValidTransitionIndex(transitionIndex)) {
+            throw new SGatewayModificationException("Gateway " + gatewayInstance.getName()
+                    + " can not be hit by the transition of index " + transitionIndex + ", at most "
+                    + GatewayTokens.MAX_TRANSITIONS + " incoming transitions are supported");
         }
-        updateOneColumnAndMetaData(gatewayInstance, sGatewayInstanceBuilderFactory.getHitBysKey(), columnValue,
-                GATEWAYINSTANCE_HITBYS);
+        final GatewayTokens tokens = GatewayTokens.of(gatewayInstance);
+        tokens.hit((int) transitionIndex);
+        final EntityUpdateDescriptor entityUpdateDescriptor = new EntityUpdateDescriptor();
+        entityUpdateDescriptor.addField(sGatewayInstanceBuilderFactory.getHitTransitionsKey(),
+                tokens.getTransitions());
+        entityUpdateDescriptor.addField(sGatewayInstanceBuilderFactory.getHitBysKey(), tokens.getAdditionalTokens());
+        updateColumnsAndMetaData(gatewayInstance, entityUpdateDescriptor, GATEWAYINSTANCE_HITBYS);
     }
 
     private void updateOneColumnAndMetaData(final SGatewayInstance gatewayInstance, final String columnName,
             final Serializable columnValue, final String event)
             throws SGatewayModificationException {
-        final long now = System.currentTimeMillis();
         final EntityUpdateDescriptor entityUpdateDescriptor = new EntityUpdateDescriptor();
         entityUpdateDescriptor.addField(columnName, columnValue);
+        updateColumnsAndMetaData(gatewayInstance, entityUpdateDescriptor, event);
+    }
+
+    private void updateColumnsAndMetaData(final SGatewayInstance gatewayInstance,
+            final EntityUpdateDescriptor entityUpdateDescriptor, final String event)
+            throws SGatewayModificationException {
+        final long now = System.currentTimeMillis();
         entityUpdateDescriptor.addField("lastUpdateDate", now);
         entityUpdateDescriptor.addField("reachedStateDate", now);
         try {
@@ -347,10 +342,9 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
     @Override
     public List<SGatewayInstance> setFinishAndCreateNewGatewayForRemainingToken(SProcessDefinition processDefinition,
             final SGatewayInstance gatewayInstance) throws SBonitaException {
-        List<String> hitBys = getHitByTransitionList(gatewayInstance);
-        List<String> merged = getMergedTokens(gatewayInstance, hitBys);
-        setFinished(gatewayInstance, merged.size());
-        List<String> remaining = getRemainingTokens(hitBys, merged);
+        GatewayTokens tokens = GatewayTokens.of(gatewayInstance);
+        GatewayTokens remaining = getRemainingTokens(gatewayInstance, tokens);
+        setFinished(gatewayInstance, tokens.getNumberOfTokens() - remaining.getNumberOfTokens());
         log.debug("There is {} remaining token to merge on gateway {} will create a new if there is", remaining,
                 gatewayInstance.getName());
         if (remaining.isEmpty()) {
@@ -366,38 +360,14 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
         return toFire;
     }
 
-    List<String> getMergedTokens(SGatewayInstance gatewayInstance, List<String> hitBys) {
-        List<String> merged = null;
-        switch (gatewayInstance.getGatewayType()) {
-            case PARALLEL:
-                merged = unique(hitBys);
-                break;
-            case INCLUSIVE:
-                merged = unique(hitBys);
-                break;
-            case EXCLUSIVE:
-                merged = Collections.singletonList(hitBys.get(0));
-                break;
-        }
-        return merged;
-    }
-
-    private ArrayList<String> unique(List<String> hitBys) {
-        ArrayList<String> merged = new ArrayList<>();
-        for (String hitBy : hitBys) {
-            if (!merged.contains(hitBy)) {
-                merged.add(hitBy);
-            }
-        }
-        return merged;
-    }
-
-    ArrayList<String> getRemainingTokens(List<String> hitBys, List<String> merged) {
-        ArrayList<String> remaining = new ArrayList<>(hitBys);
-        for (String mergedToken : merged) {
-            remaining.remove(mergedToken);
+    /**
+     * @return the tokens that are not merged when the gateway fires
+     */
+    GatewayTokens getRemainingTokens(SGatewayInstance gatewayInstance, GatewayTokens tokens) {
+        if (gatewayInstance.getGatewayType() == SGatewayType.EXCLUSIVE) {
+            return tokens.mergeOne();
         }
-        return remaining;
+        return tokens.mergeAll();
     }
 
     /**
@@ -410,14 +380,11 @@ public class GatewayInstanceServiceImpl implements GatewayInstanceService {
      * @return
      *         the new gateway
      */
-    private SGatewayInstance createGatewayWithRemainingTokens(SGatewayInstance gatewayInstance, List<String> remaining)
-            throws SGatewayCreationException {
+    private SGatewayInstance createGatewayWithRemainingTokens(SGatewayInstance gatewayInstance,
+            GatewayTokens remaining) throws SGatewayCreationException {
         SGatewayInstance sGatewayInstance = new SGatewayInstance(gatewayInstance);
-        String remainingTokenAsString = "";
-        for (String token : remaining) {
-            remainingTokenAsString += token + ",";
-        }
-        sGatewayInstance.setHitBys(remainingTokenAsString.substring(0, remainingTokenAsString.length() - 1));
+        sGatewayInstance.setHitTransitions(remaining.getTransitions());
+        sGatewayInstance.setHitBys(remaining.getAdditionalTokens());
         createGatewayInstance(sGatewayInstance);
         return sGatewayInstance;
     }
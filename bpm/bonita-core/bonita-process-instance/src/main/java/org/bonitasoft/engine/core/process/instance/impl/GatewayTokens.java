@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bonitasoft.engine.core.process.instance.model.SGatewayInstance;
+
+/**
+ * Tokens that hit a gateway instance and are not merged yet, identified by the index (starting at 1) of the incoming
+ * transition they came from.
+ * <p>
+ * The first token of each transition is a bit of {@link SGatewayInstance#getHitTransitions()}, so hitting the gateway
+ * and checking which transitions were hit do not parse anything. Tokens coming from a transition that was already
+ * hit, which only happens with loops, are kept in arrival order in {@link SGatewayInstance#getHitBys()}; they are
+ * merged by the next gateway instance.
+ * <p>
+ * Gateway instances written before the hitTransitions column existed have all their tokens in hitBys. They are read
+ * as such and written in the current representation on their next update.
+ */
+final class GatewayTokens {
+
+    static final int MAX_TRANSITIONS = Long.SIZE;
+
+    private long transitions;
+    private final List<Integer> additionalTokens;
+
+    private GatewayTokens(long transitions, List<Integer> additionalTokens) {
+        this.transitions = transitions;
+        this.additionalTokens = additionalTokens;
+    }
+
+    static GatewayTokens of(SGatewayInstance gatewayInstance) {
+        if (gatewayInstance.isFinished()) {
+            return new GatewayTokens(0, new ArrayList<>());
+        }
+        List<Integer> tokens = parse(gatewayInstance.getHitBys());
+        if (gatewayInstance.getHitTransitions() == 0) {
+            // either no token, or all tokens in hitBys as written before the hitTransitions column
+            return fromTokens(tokens);
+        }
+        return new GatewayTokens(gatewayInstance.getHitTransitions(), tokens);
+    }
+
+    static GatewayTokens fromTokens(List<Integer> tokens) {
+        GatewayTokens gatewayTokens = new GatewayTokens(0, new ArrayList<>());
+        tokens.forEach(gatewayTokens::hit);
+        return gatewayTokens;
+    }
+
+    private static List<Integer> parse(String hitBys) {
+        List<Integer> tokens = new ArrayList<>();
+        if (hitBys == null || hitBys.isEmpty()) {
+            return tokens;
+        }
+        for (String token : hitBys.split(",")) {
+            tokens.add(Integer.valueOf(token.trim()));
+        }
+        return tokens;
+    }
+
+    static boolean isValidTransitionIndex(long transitionIndex) {
+        return transitionIndex >= 1 && transitionIndex <= MAX_TRANSITIONS;
+    }
+
+    void hit(int transitionIndex) {
+        if (!isValidTransitionIndex(transitionIndex)) {
+            throw new IllegalArgumentException("Transition index must be between 1 and " + MAX_TRANSITIONS
+                    + " but was " + transitionIndex);
+        }
+        if (isHitBy(transitionIndex)) {
+            additionalTokens.add(transitionIndex);
+        } else {
+            transitions |= bit(transitionIndex);
+        }
+    }
+
+    boolean isHitBy(int transitionIndex) {
+        return isValidTransitionIndex(transitionIndex) && (transitions & bit(transitionIndex)) != 0;
+    }
+
+    /**
+     * @return true when each of the transitions 1 to numberOfTransitions has a token
+     */
+    boolean isHitByAll(int numberOfTransitions) {
+        if (numberOfTransitions > MAX_TRANSITIONS) {
+            return false;
+        }
+        long all = numberOfTransitions == MAX_TRANSITIONS ? -1L : bit(numberOfTransitions + 1) - 1;
+        return (transitions & all) == all;
+    }
+
+    int getNumberOfTokens() {
+        return Long.bitCount(transitions) + additionalTokens.size();
+    }
+
+    boolean isEmpty() {
+        return getNumberOfTokens() == 0;
+    }
+
+    long getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * @return the tokens coming from transitions that were already hit, as stored in hitBys
+     */
+    String getAdditionalTokens() {
+        return additionalTokens.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Merge one token of each transition, as parallel and inclusive gateways do.
+     *
+     * @return the tokens that are not merged
+     */
+    GatewayTokens mergeAll() {
+        return fromTokens(additionalTokens);
+    }
+
+    /**
+     * Merge a single token, as exclusive gateways do.
+     *
+     * @return the tokens that are not merged
+     */
+    GatewayTokens mergeOne() {
+        List<Integer> remaining = new ArrayList<>();
+        long others = transitions & (transitions - 1);
+        while (others != 0) {
+            remaining.add(Long.numberOfTrailingZeros(others) + 1);
+            others &= others - 1;
+        }
+        remaining.addAll(additionalTokens);
+        return fromTokens(remaining);
+    }
+
+    private static long bit(int transitionIndex) {
+        return 1L << (transitionIndex - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "GatewayTokens{transitions=" + Long.toBinaryString(transitions) + ", additionalTokens="
+                + additionalTokens + '}';
+    }
+}
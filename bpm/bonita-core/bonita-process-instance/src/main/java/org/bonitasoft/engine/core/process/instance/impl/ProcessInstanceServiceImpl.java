@@ -13,11 +13,9 @@
  **/
 package org.bonitasoft.engine.core.process.instance.impl;
 
-import static java.util.Collections.singletonMap;
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 
 import java.text.MessageFormat;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -105,6 +103,8 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
 
     private static final String USER_ID = "userId";
 
+    private static final String OPEN = "Open";
+
     private static final String SUPERVISED_BY = "SupervisedBy";
 
     private static final String FAILED_AND_SUPERVISED_BY = "FailedAndSupervisedBy";
@@ -676,6 +676,17 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
         return persistenceRead.searchEntity(SProcessInstance.class, queryOptions, Collections.emptyMap());
     }
 
+    @Override
+    public long getNumberOfOpenProcessInstances(final QueryOptions queryOptions) throws SBonitaReadException {
+        return persistenceRead.getNumberOfEntities(SProcessInstance.class, OPEN, queryOptions, Collections.emptyMap());
+    }
+
+    @Override
+    public List<SProcessInstance> searchOpenProcessInstances(final QueryOptions queryOptions)
+            throws SBonitaReadException {
+        return persistenceRead.searchEntity(SProcessInstance.class, OPEN, queryOptions, Collections.emptyMap());
+    }
+
     @Override
     public long getNumberOfOpenProcessInstancesSupervisedBy(final long userId, final QueryOptions queryOptions)
             throws SBonitaReadException {
@@ -957,13 +968,12 @@ public class ProcessInstanceServiceImpl implements ProcessInstanceService {
     }
 
     @Override
-    public List<Long> getProcessInstanceIdsToRecover(Duration considerElementsOlderThan, QueryOptions queryOptions)
+    public List<Long> getProcessInstanceIdsToRecover(long maxLastUpdate, long afterId, int maxResults)
             throws SBonitaReadException {
         return persistenceRead.selectList(new SelectListDescriptor<>(
                 "getProcessInstanceIdsToRecover",
-                singletonMap("maxLastUpdate",
-                        System.currentTimeMillis() - considerElementsOlderThan.toMillis()),
-                SProcessInstance.class, queryOptions));
+                Map.of("maxLastUpdate", maxLastUpdate, "afterId", afterId),
+                SProcessInstance.class, new QueryOptions(0, maxResults)));
     }
 
     @Override
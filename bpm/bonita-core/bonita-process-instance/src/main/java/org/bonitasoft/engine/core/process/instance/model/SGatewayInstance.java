@@ -36,6 +36,8 @@ public class SGatewayInstance extends SFlowNodeInstance {
     @Enumerated(EnumType.STRING)
     private SGatewayType gatewayType;
     private String hitBys = "";
+    // bit i - 1 is set when the transition of index i has a token not merged yet
+    private long hitTransitions;
 
     public SGatewayInstance(final String name, final long flowNodeDefinitionId, final long rootContainerId,
             final long parentContainerId,
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2020 Bonitasoft S.A.
+ * Copyright (C) 2024 Bonitasoft S.A.
  * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
  * This library is free software; you can redistribute it and/or modify it under the terms
  * of the GNU Lesser General Public License as published by the Free Software Foundation
@@ -11,19 +11,33 @@
  * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
  * Floor, Boston, MA 02110-1301, USA.
  **/
-package org.bonitasoft.engine.tenant.restart;
+package org.bonitasoft.engine.core.process.instance.model;
 
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.engine.persistence.PlatformPersistentObject;
 
+/**
+ * Process instance that reached a final state and whose archiving was deferred.
+ * The id is the id of the process instance.
+ */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Builder
-public class ElementToRecover {
+@Entity
+@Table(name = "archive_queue")
+public class SProcessInstanceToArchive implements PlatformPersistentObject {
 
-    enum Type {
-        PROCESS, FLOWNODE
-    }
+    @Id
+    private long id;
+    private long processDefinitionId;
+    private long queuedDate;
 
-    private Type type;
-    private Long id;
 }
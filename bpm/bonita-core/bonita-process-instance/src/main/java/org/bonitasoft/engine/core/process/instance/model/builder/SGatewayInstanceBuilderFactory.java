@@ -31,4 +31,6 @@ public interface SGatewayInstanceBuilderFactory extends SFlowNodeInstanceBuilder
 
     String getHitBysKey();
 
+    String getHitTransitionsKey();
+
 }
@@ -35,6 +35,8 @@ public class SGatewayInstanceBuilderFactoryImpl extends SFlowNodeInstanceBuilder
 
     private static final String HITBYS = "hitBys";
 
+    private static final String HIT_TRANSITIONS = "hitTransitions";
+
     @Override
     public SGatewayInstanceBuilder createNewInstance(final String name, final long flowNodeDefinitionId,
             final long rootContainerId,
@@ -73,4 +75,9 @@ public class SGatewayInstanceBuilderFactoryImpl extends SFlowNodeInstanceBuilder
         return HITBYS;
     }
 
+    @Override
+    public String getHitTransitionsKey() {
+        return HIT_TRANSITIONS;
+    }
+
 }
@@ -244,6 +244,14 @@ public class SelectDescriptorBuilder {
                 queryOptions);
     }
 
+    public static SelectListDescriptor<SMessageInstance> getUnhandledMessageInstances(final long afterId,
+            final int maxResults) {
+        final Map<String, Object> parameters = Collections.singletonMap("afterId", afterId);
+        final QueryOptions queryOptions = new QueryOptions(0, maxResults);
+        return new SelectListDescriptor<>("getUnhandledMessageInstances", parameters, SMessageInstance.class,
+                queryOptions);
+    }
+
     public static SelectOneDescriptor<SAActivityInstance> getArchivedActivityInstanceWithActivityIdAndStateId(
             final long activityInstanceId,
             final int stateId) {
@@ -14,6 +14,7 @@
 package org.bonitasoft.engine.core.process.instance.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -48,6 +49,7 @@ import org.bonitasoft.engine.persistence.ReadPersistenceService;
 import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.SRecorderException;
+import org.bonitasoft.engine.recorder.model.InsertRecord;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -384,41 +386,167 @@ public class GatewayInstanceServiceImplTest {
     }
 
     @Test
-    public void should_getMergedTokens_on_exclusive_return_the_first_token() throws Exception {
+    public void should_merge_the_first_token_on_exclusive() {
         SGatewayInstance gate = new SGatewayInstance();
         gate.setGatewayType(SGatewayType.EXCLUSIVE);
 
-        List<String> mergedTokens = gatewayInstanceService.getMergedTokens(gate, Arrays.asList("1", "2"));
+        GatewayTokens remaining = gatewayInstanceService.getRemainingTokens(gate,
+                GatewayTokens.fromTokens(Arrays.asList(1, 2)));
 
-        assertThat(mergedTokens).containsOnly("1");
+        assertThat(remaining.getTransitions()).isEqualTo(0b10);
+        assertThat(remaining.getAdditionalTokens()).isEmpty();
     }
 
     @Test
-    public void should_getMergedTokens_on_parallel() throws Exception {
+    public void should_merge_one_token_per_transition_on_parallel() {
         SGatewayInstance gate = new SGatewayInstance();
         gate.setGatewayType(SGatewayType.PARALLEL);
 
-        List<String> mergedTokens = gatewayInstanceService.getMergedTokens(gate, Arrays.asList("1", "2", "3", "2"));
+        GatewayTokens remaining = gatewayInstanceService.getRemainingTokens(gate,
+                GatewayTokens.fromTokens(Arrays.asList(1, 2, 3, 2, 1)));
 
-        assertThat(mergedTokens).containsOnly("1", "2", "3");
+        assertThat(remaining.getTransitions()).isEqualTo(0b11);
+        assertThat(remaining.getAdditionalTokens()).isEmpty();
     }
 
     @Test
-    public void should_getMergedTokens_on_inclusive() throws Exception {
+    public void should_merge_one_token_per_transition_on_inclusive() {
         SGatewayInstance gate = new SGatewayInstance();
         gate.setGatewayType(SGatewayType.INCLUSIVE);
 
-        List<String> mergedTokens = gatewayInstanceService.getMergedTokens(gate, Arrays.asList("1", "2", "3", "2"));
+        GatewayTokens remaining = gatewayInstanceService.getRemainingTokens(gate,
+                GatewayTokens.fromTokens(Arrays.asList(1, 2, 3, 2, 2)));
 
-        assertThat(mergedTokens).containsOnly("1", "2", "3");
+        assertThat(remaining.getTransitions()).isEqualTo(0b10);
+        assertThat(remaining.getAdditionalTokens()).isEqualTo("2");
     }
 
     @Test
-    public void should_getRemainingToken_return_not_merged_tokens() {
-        List<String> remainingTokens = gatewayInstanceService.getRemainingTokens(Arrays.asList("1", "2", "3", "2", "1"),
-                Arrays.asList("1", "2", "3"));
+    public void should_hitTransition_set_the_bit_of_the_transition() throws Exception {
+        SGatewayInstance gate = new SGatewayInstance();
+        gate.setHitTransitions(0b1);
+
+        gatewayInstanceService.hitTransition(gate, 3);
+
+        verify(recorder).recordUpdate(updateRecordCaptor.capture(), nullable(String.class));
+        assertThat(updateRecordCaptor.getValue().getFields()).containsEntry("hitTransitions", 0b101L)
+                .containsEntry("hitBys", "");
+    }
+
+    @Test
+    public void should_hitTransition_keep_token_of_a_transition_already_hit() throws Exception {
+        SGatewayInstance gate = new SGatewayInstance();
+        gate.setHitTransitions(0b11);
+        gate.setHitBys("2");
+
+        gatewayInstanceService.hitTransition(gate, 2);
+
+        verify(recorder).recordUpdate(updateRecordCaptor.capture(), nullable(String.class));
+        assertThat(updateRecordCaptor.getValue().getFields()).containsEntry("hitTransitions", 0b11L)
+                .containsEntry("hitBys", "2,2");
+    }
+
+    @Test
+    public void should_hitTransition_migrate_tokens_of_gateway_written_before_hit_transitions_existed()
+            throws Exception {
+        SGatewayInstance gate = new SGatewayInstance();
+        gate.setHitBys("1,2,1");
+
+        gatewayInstanceService.hitTransition(gate, 3);
 
-        assertThat(remainingTokens).containsOnly("2", "1");
+        verify(recorder).recordUpdate(updateRecordCaptor.capture(), nullable(String.class));
+        assertThat(updateRecordCaptor.getValue().getFields()).containsEntry("hitTransitions", 0b111L)
+                .containsEntry("hitBys", "1");
+    }
+
+    @Test
+    public void should_hitTransition_fail_when_index_is_greater_than_the_number_of_supported_transitions() {
+        SGatewayInstance gate = new SGatewayInstance();
+
+        assertThatThrownBy(() -> gatewayInstanceService.hitTransition(gate, 65))
+                .isInstanceOf(SGatewayModificationException.class);
+    }
+
+    @Test
+    public void should_create_gateway_with_remaining_tokens_when_parallel_gateway_is_hit_in_a_loop()
+            throws Exception {
+        SProcessDefinitionImpl processDefinition = gatewayWithThreeIncomingTransitions();
+        SGatewayInstance gate = gate(SGatewayType.PARALLEL);
+        gate.setHitTransitions(0b111);
+        gate.setHitBys("1,1");
+
+        List<SGatewayInstance> toFire = gatewayInstanceService
+                .setFinishAndCreateNewGatewayForRemainingToken(processDefinition, gate);
+
+        assertThat(toFire).isEmpty();
+        verify(recorder).recordUpdate(updateRecordCaptor.capture(), nullable(String.class));
+        assertThat(updateRecordCaptor.getValue().getFields()).containsEntry("hitBys", "FINISH:3");
+        ArgumentCaptor<InsertRecord> insertRecordCaptor = ArgumentCaptor.forClass(InsertRecord.class);
+        verify(recorder).recordInsert(insertRecordCaptor.capture(), nullable(String.class));
+        SGatewayInstance newGate = (SGatewayInstance) insertRecordCaptor.getValue().getEntity();
+        assertThat(newGate.getHitTransitions()).isEqualTo(0b1);
+        assertThat(newGate.getHitBys()).isEqualTo("1");
+    }
+
+    @Test
+    public void should_fire_gateways_with_remaining_tokens_when_exclusive_gateway_is_hit_in_a_loop()
+            throws Exception {
+        SProcessDefinitionImpl processDefinition = gatewayWithThreeIncomingTransitions();
+        SGatewayInstance gate = gate(SGatewayType.EXCLUSIVE);
+        gate.setHitTransitions(0b11);
+        gate.setHitBys("1");
+
+        List<SGatewayInstance> toFire = gatewayInstanceService
+                .setFinishAndCreateNewGatewayForRemainingToken(processDefinition, gate);
+
+        assertThat(toFire).hasSize(2);
+        assertThat(toFire.get(0).getHitTransitions()).isEqualTo(0b11);
+        assertThat(toFire.get(1).getHitTransitions()).isEqualTo(0b10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_inclusive_gateway_merge_tokens_of_transitions_hit_in_a_loop() throws Exception {
+        SProcessDefinitionImpl processDefinition = gatewayWithThreeIncomingTransitions();
+        SGatewayInstance gate = gate(SGatewayType.INCLUSIVE);
+        gate.setHitTransitions(0b101);
+        gate.setHitBys("3");
+        ArgumentCaptor<List<STransitionDefinition>> withTokens = ArgumentCaptor.forClass(List.class);
+        doNothing().when(gatewayInstanceService).addBackwardReachableTransitions(
+                any(SFlowElementContainerDefinition.class), any(SFlowNodeDefinition.class), anyList(), anyList(),
+                anyList());
+        doReturn(false).when(gatewayInstanceService).transitionsContainsAToken(anyList(),
+                any(SFlowNodeDefinition.class), anyLong(), any(SFlowElementContainerDefinition.class));
+
+        boolean isMerged = gatewayInstanceService.isInclusiveGatewayActivated(processDefinition, gate);
+
+        assertThat(isMerged).isTrue();
+        verify(gatewayInstanceService, times(2)).addBackwardReachableTransitions(eq(processContainer),
+                any(SFlowNodeDefinition.class), withTokens.capture(), anyList(), anyList());
+        assertThat(withTokens.getAllValues().get(0)).containsExactly(transition(1, 666), transition(3, 666));
+        assertThat(withTokens.getAllValues().get(1)).containsExactly(transition(2, 666));
+    }
+
+    private SProcessDefinitionImpl gatewayWithThreeIncomingTransitions() {
+        node(666, "gate");
+        node(1, "step1");
+        node(2, "step2");
+        node(3, "step3");
+        transition(1, 666);
+        transition(2, 666);
+        transition(3, 666);
+        SProcessDefinitionImpl processDefinition = new SProcessDefinitionImpl("P", "1.0");
+        processDefinition.setProcessContainer(processContainer);
+        return processDefinition;
+    }
+
+    private SGatewayInstance gate(SGatewayType gatewayType) {
+        SGatewayInstance gate = new SGatewayInstance();
+        gate.setName("gate");
+        gate.setGatewayType(gatewayType);
+        gate.setFlowNodeDefinitionId(666);
+        gate.setParentContainerId(PROCESS_INSTANCE_ID);
+        return gate;
     }
 
     @Test
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.core.process.instance.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.bonitasoft.engine.core.process.instance.model.SGatewayInstance;
+import org.junit.Test;
+
+public class GatewayTokensTest {
+
+    @Test
+    public void should_set_a_bit_for_the_first_token_of_each_transition() {
+        GatewayTokens tokens = GatewayTokens.fromTokens(Arrays.asList(1, 3));
+
+        assertThat(tokens.getTransitions()).isEqualTo(0b101);
+        assertThat(tokens.getAdditionalTokens()).isEmpty();
+        assertThat(tokens.isHitBy(1)).isTrue();
+        assertThat(tokens.isHitBy(2)).isFalse();
+        assertThat(tokens.isHitBy(3)).isTrue();
+    }
+
+    @Test
+    public void should_keep_tokens_of_transitions_already_hit_in_arrival_order() {
+        GatewayTokens tokens = GatewayTokens.fromTokens(Arrays.asList(2, 1, 2, 2, 1));
+
+        assertThat(tokens.getTransitions()).isEqualTo(0b11);
+        assertThat(tokens.getAdditionalTokens()).isEqualTo("2,2,1");
+        assertThat(tokens.getNumberOfTokens()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_be_hit_by_all_transitions_only_when_each_has_a_token() {
+        assertThat(GatewayTokens.fromTokens(Arrays.asList(1, 2, 3)).isHitByAll(3)).isTrue();
+        assertThat(GatewayTokens.fromTokens(Arrays.asList(1, 3, 3)).isHitByAll(3)).isFalse();
+        assertThat(GatewayTokens.fromTokens(Arrays.asList(1, 2, 3)).isHitByAll(4)).isFalse();
+    }
+
+    @Test
+    public void should_support_64_transitions() {
+        GatewayTokens tokens = GatewayTokens.fromTokens(Collections.emptyList());
+        for (int i = 1; i <= 64; i++) {
+            assertThat(tokens.isHitByAll(64)).isFalse();
+            tokens.hit(i);
+        }
+
+        assertThat(tokens.isHitByAll(63)).isTrue();
+        assertThat(tokens.isHitByAll(64)).isTrue();
+        assertThat(tokens.isHitBy(64)).isTrue();
+        assertThatThrownBy(() -> tokens.hit(65)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_merge_one_token_per_transition() {
+        GatewayTokens remaining = GatewayTokens.fromTokens(Arrays.asList(1, 2, 1, 3, 1)).mergeAll();
+
+        assertThat(remaining.getTransitions()).isEqualTo(0b1);
+        assertThat(remaining.getAdditionalTokens()).isEqualTo("1");
+    }
+
+    @Test
+    public void should_merge_a_single_token() {
+        GatewayTokens remaining = GatewayTokens.fromTokens(Arrays.asList(2, 3, 2)).mergeOne();
+
+        assertThat(remaining.getTransitions()).isEqualTo(0b110);
+        assertThat(remaining.getAdditionalTokens()).isEmpty();
+        assertThat(remaining.getNumberOfTokens()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_read_tokens_of_gateway_instance() {
+        SGatewayInstance gatewayInstance = new SGatewayInstance();
+        gatewayInstance.setHitTransitions(0b11);
+        gatewayInstance.setHitBys("2");
+
+        GatewayTokens tokens = GatewayTokens.of(gatewayInstance);
+
+        assertThat(tokens.getTransitions()).isEqualTo(0b11);
+        assertThat(tokens.getAdditionalTokens()).isEqualTo("2");
+    }
+
+    @Test
+    public void should_read_tokens_of_gateway_instance_written_before_hit_transitions_existed() {
+        SGatewayInstance gatewayInstance = new SGatewayInstance();
+        gatewayInstance.setHitBys("1,2,3,2");
+
+        GatewayTokens tokens = GatewayTokens.of(gatewayInstance);
+
+        assertThat(tokens.getTransitions()).isEqualTo(0b111);
+        assertThat(tokens.getAdditionalTokens()).isEqualTo("2");
+    }
+
+    @Test
+    public void should_not_have_tokens_when_gateway_instance_is_finished() {
+        SGatewayInstance gatewayInstance = new SGatewayInstance();
+        gatewayInstance.setHitTransitions(0b11);
+        gatewayInstance.setHitBys("FINISH:2");
+
+        assertThat(GatewayTokens.of(gatewayInstance).isEmpty()).isTrue();
+    }
+}
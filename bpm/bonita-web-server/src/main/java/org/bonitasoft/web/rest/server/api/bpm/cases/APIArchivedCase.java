@@ -27,6 +27,7 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.Definitions;
@@ -62,6 +63,12 @@ public class APIArchivedCase extends ConsoleAPI<ArchivedCaseItem>
     public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
 
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(ArchivedCaseItem.FILTER_TEAM_MANAGER_ID)
@@ -71,7 +78,7 @@ public class APIArchivedCase extends ConsoleAPI<ArchivedCaseItem>
                             + ArchivedCaseItem.FILTER_SUPERVISOR_ID);
         }
 
-        return getArchivedCaseDatastore().search(page, resultsByPage, search, orders, filters);
+        return searchIn(getArchivedCaseDatastore(), page, resultsByPage, search, orders, filters, continuation);
     }
 
     @Override
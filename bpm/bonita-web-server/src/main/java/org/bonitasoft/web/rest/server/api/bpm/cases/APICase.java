@@ -31,6 +31,7 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.APIHasGet;
 import org.bonitasoft.web.rest.server.framework.api.APIHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 import org.bonitasoft.web.toolkit.client.data.item.Definitions;
@@ -62,6 +63,12 @@ public class APICase extends ConsoleAPI<CaseItem>
     public ItemSearchResult<CaseItem> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<CaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(CaseItem.FILTER_TEAM_MANAGER_ID)
                 && filters.containsKey(CaseItem.FILTER_SUPERVISOR_ID)) {
@@ -70,7 +77,7 @@ public class APICase extends ConsoleAPI<CaseItem>
                             + CaseItem.FILTER_SUPERVISOR_ID);
         }
 
-        return getCaseDatastore().search(page, resultsByPage, search, orders, filters);
+        return searchIn(getCaseDatastore(), page, resultsByPage, search, orders, filters, continuation);
     }
 
     @Override
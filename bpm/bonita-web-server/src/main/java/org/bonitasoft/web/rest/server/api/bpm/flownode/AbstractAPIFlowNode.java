@@ -44,6 +44,7 @@ import org.bonitasoft.web.rest.server.framework.api.APIHasUpdate;
 import org.bonitasoft.web.rest.server.framework.api.Datastore;
 import org.bonitasoft.web.rest.server.framework.search.ISearchDirection;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
 
@@ -75,6 +76,12 @@ public class AbstractAPIFlowNode<ITEM extends IFlowNodeItem> extends ConsoleAPI<
     @Override
     public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search,
             final String orders, final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
         // Check that team manager and supervisor filters are not used together
         if (filters.containsKey(HumanTaskItem.FILTER_TEAM_MANAGER_ID)
                 && filters.containsKey(HumanTaskItem.FILTER_SUPERVISOR_ID)) {
@@ -84,7 +91,7 @@ public class AbstractAPIFlowNode<ITEM extends IFlowNodeItem> extends ConsoleAPI<
                     + HumanTaskItem.FILTER_SUPERVISOR_ID);
         }
 
-        return super.search(page, resultsByPage, search, orders, filters);
+        return searchIn(getSearchDatastore(), page, resultsByPage, search, orders, filters, continuation);
     }
 
     @Override
@@ -97,7 +97,8 @@ public abstract class CommonDatastore<C extends IItem, E extends Serializable> e
                 page,
                 resultsByPage,
                 engineSearchResults.getCount(),
-                convertEngineToConsoleItemsList(engineSearchResults.getResult()));
+                convertEngineToConsoleItemsList(engineSearchResults.getResult()),
+                engineSearchResults.getContinuationToken());
     }
 
     protected List<C> convertEngineToConsoleItemsList(final List<E> engineSearchResults) {
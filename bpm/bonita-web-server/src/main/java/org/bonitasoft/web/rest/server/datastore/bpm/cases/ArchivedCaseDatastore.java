@@ -35,6 +35,7 @@ import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
@@ -85,8 +86,15 @@ public class ArchivedCaseDatastore extends CommonDatastore<ArchivedCaseItem, Arc
     public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<ArchivedCaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
 
-        final SearchOptionsBuilder builder = buildSearchOptions(page, resultsByPage, search, orders, filters);
+        final SearchOptionsBuilder builder = continuation.applyTo(
+                buildSearchOptions(page, resultsByPage, search, orders, filters));
 
         // Run search depending on filters passed
         final SearchResult<ArchivedProcessInstance> searchResult = runSearch(filters, builder);
@@ -96,7 +104,8 @@ public class ArchivedCaseDatastore extends CommonDatastore<ArchivedCaseItem, Arc
                 page,
                 resultsByPage,
                 searchResult.getCount(),
-                convertEngineToConsoleItemsList(searchResult.getResult()));
+                convertEngineToConsoleItemsList(searchResult.getResult()),
+                searchResult.getContinuationToken());
     }
 
     protected SearchOptionsBuilder buildSearchOptions(final int page, final int resultsByPage, final String search,
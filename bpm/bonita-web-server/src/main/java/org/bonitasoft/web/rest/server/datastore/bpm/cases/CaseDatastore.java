@@ -37,6 +37,7 @@ import org.bonitasoft.web.rest.server.framework.api.DatastoreHasDelete;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
@@ -80,8 +81,15 @@ public class CaseDatastore extends CommonDatastore<CaseItem, ProcessInstance>
     public ItemSearchResult<CaseItem> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<CaseItem> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
         try {
-            final SearchOptionsBuilder builder = buildSearchOptions(page, resultsByPage, search, orders, filters);
+            final SearchOptionsBuilder builder = continuation.applyTo(
+                    buildSearchOptions(page, resultsByPage, search, orders, filters));
             final SearchResult<ProcessInstance> searchResult = searchProcessInstances(filters, builder.done());
             return convertEngineToConsoleSearch(page, resultsByPage, searchResult);
         } catch (final BonitaException e) {
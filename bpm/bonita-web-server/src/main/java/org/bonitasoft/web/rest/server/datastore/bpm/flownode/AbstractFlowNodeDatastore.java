@@ -32,6 +32,7 @@ import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.rest.server.framework.utils.SearchOptionsBuilderUtil;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
@@ -113,14 +114,22 @@ public class AbstractFlowNodeDatastore<CONSOLE_ITEM extends FlowNodeItem, ENGINE
     public ItemSearchResult<CONSOLE_ITEM> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
-        final SearchOptionsBuilder builder = makeSearchOptionBuilder(page, resultsByPage, search, orders, filters);
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<CONSOLE_ITEM> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
+        final SearchOptionsBuilder builder = continuation.applyTo(
+                makeSearchOptionBuilder(page, resultsByPage, search, orders, filters));
         final SearchResult<ENGINE_ITEM> results = runSearch(builder, filters);
 
         return new ItemSearchResult<>(
                 page,
                 resultsByPage,
                 results.getCount(),
-                convertEngineToConsoleItemsList(results.getResult()));
+                convertEngineToConsoleItemsList(results.getResult()),
+                results.getContinuationToken());
     }
 
     @SuppressWarnings("unchecked")
@@ -32,6 +32,7 @@ import org.bonitasoft.web.rest.server.datastore.utils.Sorts;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasGet;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
 import org.bonitasoft.web.toolkit.client.data.APIID;
@@ -122,7 +123,14 @@ public abstract class AbstractArchivedFlowNodeDatastore<CONSOLE_ITEM extends Arc
     public ItemSearchResult<CONSOLE_ITEM> search(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters) {
+        return search(page, resultsByPage, search, orders, filters, SearchContinuation.NONE);
+    }
+
+    @Override
+    public ItemSearchResult<CONSOLE_ITEM> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
         final SearchOptionsCreator creator = makeSearchOptionCreator(page, resultsByPage, search, orders, filters);
+        continuation.applyTo(creator.getBuilder());
 
         final SearchResult<ENGINE_ITEM> results = runSearch(creator, filters);
 
@@ -130,7 +138,8 @@ public abstract class AbstractArchivedFlowNodeDatastore<CONSOLE_ITEM extends Arc
                 page,
                 resultsByPage,
                 results.getCount(),
-                convertEngineToConsoleItemsList(results.getResult()));
+                convertEngineToConsoleItemsList(results.getResult()),
+                results.getContinuationToken());
     }
 
     /**
@@ -27,6 +27,7 @@ import org.bonitasoft.web.rest.server.datastore.bpm.flownode.archive.converter.A
 import org.bonitasoft.web.rest.server.datastore.bpm.flownode.archive.converter.ArchivedHumanTaskSearchDescriptorConverter;
 import org.bonitasoft.web.rest.server.datastore.utils.SearchOptionsCreator;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.util.MapUtil;
 import org.bonitasoft.web.toolkit.client.data.APIID;
@@ -67,12 +68,12 @@ public abstract class AbstractArchivedHumanTaskDatastore<CONSOLE_ITEM extends Ar
 
     @Override
     public ItemSearchResult<CONSOLE_ITEM> search(final int page, final int resultsByPage, final String search,
-            final String orders,
-            final Map<String, String> filters) {
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
         // can't use the ArchivedFlowNodeSearchDescriptorConverter to map web filter to engine ones since
         // the supervisor id filter isn't handle in engine but is a specific method
         String supervisorIdString = filters.remove(HumanTaskItem.FILTER_SUPERVISOR_ID);
         final SearchOptionsCreator creator = makeSearchOptionCreator(page, resultsByPage, search, orders, filters);
+        continuation.applyTo(creator.getBuilder());
         if (StringUtils.isNotBlank(supervisorIdString)) {
             filters.put(HumanTaskItem.FILTER_SUPERVISOR_ID, supervisorIdString);
         }
@@ -83,7 +84,8 @@ public abstract class AbstractArchivedHumanTaskDatastore<CONSOLE_ITEM extends Ar
                 page,
                 resultsByPage,
                 results.getCount(),
-                convertEngineToConsoleItemsList(results.getResult()));
+                convertEngineToConsoleItemsList(results.getResult()),
+                results.getContinuationToken());
     }
 
     @SuppressWarnings("unchecked")
@@ -45,6 +45,7 @@ public class ItemSearchResultConverter<I extends IItem, E extends Serializable>
     }
 
     public ItemSearchResult<I> toItemSearchResult() {
-        return new ItemSearchResult<>(page, nbResultsByPage, total, converter.convert(result.getResult()));
+        return new ItemSearchResult<>(page, nbResultsByPage, total, converter.convert(result.getResult()),
+                result.getContinuationToken());
     }
 }
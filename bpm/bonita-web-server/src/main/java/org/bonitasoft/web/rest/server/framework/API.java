@@ -29,6 +29,7 @@ import org.bonitasoft.web.rest.server.framework.api.DatastoreHasSearch;
 import org.bonitasoft.web.rest.server.framework.api.DatastoreHasUpdate;
 import org.bonitasoft.web.rest.server.framework.exception.ForbiddenAttributesException;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIItemNotFoundException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIMethodNotAllowedException;
@@ -192,6 +193,12 @@ public abstract class API<ITEM extends IItem> {
     public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search,
             final String orders,
             final Map<String, String> filters, final List<String> deploys, final List<String> counters) {
+        return runSearch(page, resultsByPage, search, orders, filters, deploys, counters, SearchContinuation.NONE);
+    }
+
+    public ItemSearchResult<ITEM> runSearch(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final List<String> deploys,
+            final List<String> counters, final SearchContinuation continuation) {
 
         // FIXME Activate at end of APIs refactoring
         // if (!(this instanceof APIHasSearch)) {
@@ -212,7 +219,7 @@ public abstract class API<ITEM extends IItem> {
         }
 
         final ItemSearchResult<ITEM> searchResult = search(page, resultsByPage, search, realOrders,
-                filters != null ? filters : new HashMap<>());
+                filters != null ? filters : new HashMap<>(), continuation);
 
         for (final ITEM item : searchResult.getResults()) {
             fillDeploys(item, deploys != null ? deploys : new ArrayList<>());
@@ -222,17 +229,45 @@ public abstract class API<ITEM extends IItem> {
         return searchResult;
     }
 
-    @SuppressWarnings("unchecked")
     public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search,
             final String orders, final Map<String, String> filters) {
+        return getSearchDatastore().search(page, resultsByPage, search, orders, filters);
+    }
 
+    /**
+     * Search using the continuation token and count mode requested by the client. APIs supporting them override this
+     * method and pass them to their datastore, the other ones reject them.
+     */
+    public ItemSearchResult<ITEM> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
+        if (continuation.isRequested()) {
+            throw new APIMethodNotAllowedException(
+                    "SEARCH method with continuation token or count mode not allowed.");
+        }
+        return search(page, resultsByPage, search, orders, filters);
+    }
+
+    /**
+     * Search in the given datastore, passing it the requested continuation token and count mode if any
+     */
+    protected static <I extends IItem> ItemSearchResult<I> searchIn(final DatastoreHasSearch<I> datastore,
+            final int page, final int resultsByPage, final String search, final String orders,
+            final Map<String, String> filters, final SearchContinuation continuation) {
+        if (continuation.isRequested()) {
+            return datastore.search(page, resultsByPage, search, orders, filters, continuation);
+        }
+        return datastore.search(page, resultsByPage, search, orders, filters);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected DatastoreHasSearch<ITEM> getSearchDatastore() {
         final Datastore datastore = getDefaultDatastore();
 
         if (datastore == null || !(datastore instanceof DatastoreHasSearch<?>)) {
             throw new APIMethodNotAllowedException("SEARCH method not allowed.");
         }
 
-        return ((DatastoreHasSearch<ITEM>) datastore).search(page, resultsByPage, search, orders, filters);
+        return (DatastoreHasSearch<ITEM>) datastore;
     }
 
     /**
@@ -23,15 +23,18 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.bonitasoft.console.common.server.i18n.I18n;
+import org.bonitasoft.engine.search.CountMode;
 import org.bonitasoft.web.rest.server.framework.exception.APIMissingIdException;
 import org.bonitasoft.web.rest.server.framework.json.JSonSimpleDeserializer;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.rest.server.framework.utils.RestRequestParser;
 import org.bonitasoft.web.toolkit.client.common.AbstractTreeNode;
 import org.bonitasoft.web.toolkit.client.common.Tree;
 import org.bonitasoft.web.toolkit.client.common.TreeLeaf;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIIncorrectIdException;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIMalformedUrlException;
 import org.bonitasoft.web.toolkit.client.common.json.JSonItemReader;
 import org.bonitasoft.web.toolkit.client.common.json.JSonItemWriter;
 import org.bonitasoft.web.toolkit.client.data.APIID;
@@ -63,6 +66,12 @@ public class APIServletCall extends ServletCall {
 
     public static final String PARAMETER_QUERY = "q";
 
+    public static final String PARAMETER_CONTINUATION_TOKEN = "t";
+
+    public static final String PARAMETER_COUNT_MODE = "m";
+
+    public static final String HEADER_CONTINUATION_TOKEN = "X-Bonita-Continuation-Token";
+
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // REQUEST PARSING
     // //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -183,8 +192,14 @@ public class APIServletCall extends ServletCall {
                 final ItemSearchResult<?> result = api.runSearch(Integer.parseInt(getParameter(PARAMETER_PAGE, "0")),
                         Integer.parseInt(getParameter(PARAMETER_LIMIT, "10")), getParameter(PARAMETER_SEARCH),
                         getParameter(PARAMETER_ORDER), parseFilters(getParameterAsList(PARAMETER_FILTER)),
-                        getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER));
-                head("Content-Range", result.getPage() + "-" + result.getLength() + "/" + result.getTotal());
+                        getParameterAsList(PARAMETER_DEPLOY), getParameterAsList(PARAMETER_COUNTER),
+                        new SearchContinuation(getParameter(PARAMETER_CONTINUATION_TOKEN),
+                                parseCountMode(getParameter(PARAMETER_COUNT_MODE))));
+                head("Content-Range", result.getPage() + "-" + result.getLength() + "/"
+                        + (result.getTotal() < 0 ? "*" : String.valueOf(result.getTotal())));
+                if (result.getContinuationToken() != null) {
+                    head(HEADER_CONTINUATION_TOKEN, result.getContinuationToken());
+                }
 
                 output(result.getResults());
             }
@@ -195,6 +210,18 @@ public class APIServletCall extends ServletCall {
         }
     }
 
+    private CountMode parseCountMode(final String countMode) {
+        if (countMode == null) {
+            return null;
+        }
+        try {
+            return CountMode.valueOf(countMode.toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            throw new APIMalformedUrlException(getRequestURL(),
+                    "Invalid count mode " + countMode + ", expected one of exact, estimate or none");
+        }
+    }
+
     @Override
     protected void output(final Object object) {
         super.output(object);
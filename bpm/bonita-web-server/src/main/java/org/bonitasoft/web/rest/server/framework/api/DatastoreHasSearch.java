@@ -16,6 +16,8 @@ package org.bonitasoft.web.rest.server.framework.api;
 import java.util.Map;
 
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
+import org.bonitasoft.web.toolkit.client.common.exception.api.APIMethodNotAllowedException;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 
 /**
@@ -26,4 +28,17 @@ public interface DatastoreHasSearch<C extends IItem> {
     ItemSearchResult<C> search(final int page, final int resultsByPage, final String search, final String orders,
             final Map<String, String> filters);
 
+    /**
+     * Search using the continuation token and count mode requested by the client. Datastores supporting them override
+     * this method, the other ones reject them.
+     */
+    default ItemSearchResult<C> search(final int page, final int resultsByPage, final String search,
+            final String orders, final Map<String, String> filters, final SearchContinuation continuation) {
+        if (continuation.isRequested()) {
+            throw new APIMethodNotAllowedException(
+                    "SEARCH method with continuation token or count mode not allowed.");
+        }
+        return search(page, resultsByPage, search, orders, filters);
+    }
+
 }
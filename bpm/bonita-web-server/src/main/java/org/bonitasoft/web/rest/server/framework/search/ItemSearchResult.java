@@ -31,13 +31,25 @@ public class ItemSearchResult<T extends IItem> {
 
     private final List<T> results;
 
+    private final String continuationToken;
+
     public ItemSearchResult(final int page, final int length, final long total, final List<T> results) {
+        this(page, length, total, results, null);
+    }
+
+    /**
+     * @param total the number of results, negative when it was not counted
+     * @param continuationToken the token to retrieve the next page, null if there is none
+     */
+    public ItemSearchResult(final int page, final int length, final long total, final List<T> results,
+            final String continuationToken) {
         this.page = page;
         this.length = length;
         this.total = total;
         this.results = results;
+        this.continuationToken = continuationToken;
 
-        if (page < 0 || page > total) {
+        if (page < 0 || total >= 0 && page > total) {
             throw new APISearchIndexOutOfRange(page);
         }
     }
@@ -70,4 +82,11 @@ public class ItemSearchResult<T extends IItem> {
         return this.results;
     }
 
+    /**
+     * @return the token to retrieve the next page, null if there is none
+     */
+    public String getContinuationToken() {
+        return this.continuationToken;
+    }
+
 }
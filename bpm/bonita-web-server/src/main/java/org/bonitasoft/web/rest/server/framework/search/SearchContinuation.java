@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.web.rest.server.framework.search;
+
+import org.bonitasoft.engine.search.CountMode;
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
+
+/**
+ * Continuation token and count mode requested for a search. They are read from the request parameters and passed to
+ * the API, then to the datastore, that applies them to the engine search options of the search it runs.
+ */
+public final class SearchContinuation {
+
+    /**
+     * Search paginated using the page index and counting all results
+     */
+    public static final SearchContinuation NONE = new SearchContinuation(null, null);
+
+    /**
+     * null when the search is not paginated using continuation tokens, empty for the first page
+     */
+    private final String token;
+
+    private final CountMode countMode;
+
+    public SearchContinuation(final String token, final CountMode countMode) {
+        this.token = token;
+        this.countMode = countMode;
+    }
+
+    /**
+     * @return true if a continuation token or a count mode was requested
+     */
+    public boolean isRequested() {
+        return token != null || countMode != null;
+    }
+
+    /**
+     * Apply the requested continuation token and count mode, if any, to the given builder
+     */
+    public SearchOptionsBuilder applyTo(final SearchOptionsBuilder builder) {
+        if (token != null) {
+            builder.continueAfter(token.isEmpty() ? null : token);
+        }
+        if (countMode != null) {
+            builder.countMode(countMode);
+        }
+        return builder;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+}
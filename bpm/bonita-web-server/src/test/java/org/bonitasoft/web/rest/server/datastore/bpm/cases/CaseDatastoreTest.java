@@ -32,6 +32,7 @@ import org.bonitasoft.engine.bpm.process.ProcessInstanceSearchDescriptor;
 import org.bonitasoft.engine.bpm.process.ProcessInstanceState;
 import org.bonitasoft.engine.bpm.process.impl.internal.ProcessInstanceImpl;
 import org.bonitasoft.engine.exception.SearchException;
+import org.bonitasoft.engine.search.CountMode;
 import org.bonitasoft.engine.search.SearchOptions;
 import org.bonitasoft.engine.search.SearchOptionsBuilder;
 import org.bonitasoft.engine.search.SearchResult;
@@ -40,11 +41,13 @@ import org.bonitasoft.engine.search.impl.SearchResultImpl;
 import org.bonitasoft.engine.session.APISession;
 import org.bonitasoft.web.rest.model.bpm.cases.CaseItem;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIException;
 import org.bonitasoft.web.toolkit.client.data.item.IItem;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -92,6 +95,24 @@ public class CaseDatastoreTest {
         assertEquals(caseItem, caseItems.get(0));
     }
 
+    @Test
+    public final void search_should_apply_requested_continuation_only_to_the_searched_process_instances()
+            throws SearchException {
+        doReturn(new SearchResultImpl<>(-1L, Collections.emptyList())).when(processAPI)
+                .searchProcessInstances(any(SearchOptions.class));
+
+        caseDatastore.search(0, 10, null, CaseItem.ATTRIBUTE_ID, new HashMap<>(),
+                new SearchContinuation("", CountMode.NONE));
+        caseDatastore.search(0, 10, null, CaseItem.ATTRIBUTE_ID, new HashMap<>());
+
+        final ArgumentCaptor<SearchOptions> searchOptions = ArgumentCaptor.forClass(SearchOptions.class);
+        verify(processAPI, times(2)).searchProcessInstances(searchOptions.capture());
+        assertThat(searchOptions.getAllValues().get(0).isContinuationPaginated()).isTrue();
+        assertThat(searchOptions.getAllValues().get(0).getCountMode()).isEqualTo(CountMode.NONE);
+        assertThat(searchOptions.getAllValues().get(1).isContinuationPaginated()).isFalse();
+        assertThat(searchOptions.getAllValues().get(1).getCountMode()).isEqualTo(CountMode.EXACT);
+    }
+
     /**
      * Test method for {@link org.bonitasoft.web.rest.server.datastore.bpm.cases.CaseDatastore#search(int, int, String,
      * String, Map).
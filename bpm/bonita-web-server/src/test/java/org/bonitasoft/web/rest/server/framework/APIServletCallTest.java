@@ -15,6 +15,7 @@ package org.bonitasoft.web.rest.server.framework;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,7 +26,10 @@ import java.util.List;
 import javax.servlet.http.HttpServletMapping;
 import javax.servlet.http.HttpServletRequest;
 
+import org.bonitasoft.engine.search.CountMode;
+import org.bonitasoft.engine.search.SearchOptionsBuilder;
 import org.bonitasoft.web.rest.server.framework.search.ItemSearchResult;
+import org.bonitasoft.web.rest.server.framework.search.SearchContinuation;
 import org.bonitasoft.web.toolkit.client.common.exception.api.APIIncorrectIdException;
 import org.junit.Before;
 import org.junit.Rule;
@@ -105,15 +109,42 @@ public class APIServletCallTest {
         when(itemSearchResult.getLength()).thenReturn(8);
         when(itemSearchResult.getTotal()).thenReturn(789L);
 
-        when(api.runSearch(Integer.parseInt(parameterPageValue), Integer.parseInt(parameterLimitValue),
-                parameterSearchValue, parameterOrderValue, new HashMap<>(), parameterDeployValue,
-                parameterCounterValue)).thenReturn(itemSearchResult);
+        when(api.runSearch(eq(Integer.parseInt(parameterPageValue)), eq(Integer.parseInt(parameterLimitValue)),
+                eq(parameterSearchValue), eq(parameterOrderValue), eq(new HashMap<>()), eq(parameterDeployValue),
+                eq(parameterCounterValue), any(SearchContinuation.class))).thenReturn(itemSearchResult);
 
         apiServletCall.doGet();
-        verify(api, times(1)).runSearch(Integer.parseInt(parameterPageValue), Integer.parseInt(parameterLimitValue),
-                parameterSearchValue, parameterOrderValue, new HashMap<>(), parameterDeployValue,
-                parameterCounterValue);
+        verify(api, times(1)).runSearch(eq(Integer.parseInt(parameterPageValue)),
+                eq(Integer.parseInt(parameterLimitValue)), eq(parameterSearchValue), eq(parameterOrderValue),
+                eq(new HashMap<>()), eq(parameterDeployValue), eq(parameterCounterValue),
+                argThat(continuation -> !continuation.isRequested()));
         verify(apiServletCall).head("Content-Range", 4 + "-" + 8 + "/" + 789L);
     }
 
+    @Test
+    public void doGet_On_Search_Should_Set_Continuation_Token_Header_And_Unknown_Total() throws Exception {
+        doReturn(new ArrayList<>()).when(apiServletCall).getParameterAsList(anyString());
+        doReturn("0").when(apiServletCall).getParameter("p", "0");
+        doReturn("10").when(apiServletCall).getParameter("c", "10");
+        doReturn("").when(apiServletCall).getParameter("t");
+        doReturn("none").when(apiServletCall).getParameter("m");
+        doNothing().when(apiServletCall).head(anyString(), anyString());
+        doNothing().when(apiServletCall).output(any(List.class));
+        doReturn(2).when(apiServletCall).countParameters();
+        final SearchOptionsBuilder[] builder = new SearchOptionsBuilder[1];
+        when(api.runSearch(anyInt(), anyInt(), any(), any(), any(), any(), any(), any(SearchContinuation.class)))
+                .thenAnswer(invocation -> {
+                    builder[0] = invocation.<SearchContinuation> getArgument(7)
+                            .applyTo(new SearchOptionsBuilder(0, 10));
+                    return new ItemSearchResult<>(0, 10, -1, new ArrayList<>(), "nextPageToken");
+                });
+
+        apiServletCall.doGet();
+
+        assertThat(builder[0].done().isContinuationPaginated()).isTrue();
+        assertThat(builder[0].done().getCountMode()).isEqualTo(CountMode.NONE);
+        verify(apiServletCall).head("Content-Range", "0-10/*");
+        verify(apiServletCall).head(APIServletCall.HEADER_CONTINUATION_TOKEN, "nextPageToken");
+    }
+
 }
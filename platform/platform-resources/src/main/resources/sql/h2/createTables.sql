@@ -131,6 +131,12 @@ CREATE TABLE process_content (
   content MEDIUMTEXT NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE process_runtime_content (
+  tenantid BIGINT NOT NULL,
+  id BIGINT NOT NULL,
+  content LONGBLOB,
+  PRIMARY KEY (tenantid, id)
+);
 
 CREATE TABLE arch_document_mapping (
   tenantid BIGINT NOT NULL,
@@ -319,6 +325,7 @@ CREATE TABLE flownode_instance (
   priority TINYINT,
   gatewayType VARCHAR(50),
   hitBys VARCHAR(255),
+  hitTransitions BIGINT DEFAULT 0,
   stateCategory VARCHAR(50) NOT NULL,
   logicalGroup1 BIGINT NOT NULL,
   logicalGroup2 BIGINT NOT NULL,
@@ -1077,4 +1084,25 @@ CREATE TABLE arch_bpm_failure (
 );
 CREATE INDEX idx_arch_flownode_instance_id ON arch_bpm_failure (flowNodeInstanceId);
 CREATE INDEX idx_arch_process_instance_id ON arch_bpm_failure (processInstanceId);
-CREATE INDEX idx_arch_process_definition_id ON arch_bpm_failure (processDefinitionId);
\ No newline at end of file
+CREATE INDEX idx_arch_process_definition_id ON arch_bpm_failure (processDefinitionId);
+
+CREATE TABLE archive_queue (
+  id BIGINT NOT NULL,
+  processDefinitionId BIGINT NOT NULL,
+  queuedDate BIGINT NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX idx_archive_queue_date ON archive_queue (queuedDate);
+CREATE TABLE search_term_index (
+  entityType VARCHAR(50) NOT NULL,
+  trigram VARCHAR(12) NOT NULL,
+  entityId BIGINT NOT NULL,
+  PRIMARY KEY (entityType, trigram, entityId)
+);
+CREATE INDEX idx_search_term_entity ON search_term_index (entityType, entityId);
+CREATE TABLE search_term_index_build (
+  entityType VARCHAR(50) NOT NULL,
+  lastEntityId BIGINT NOT NULL,
+  complete BOOLEAN NOT NULL,
+  PRIMARY KEY (entityType)
+);
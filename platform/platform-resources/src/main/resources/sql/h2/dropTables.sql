@@ -61,10 +61,14 @@ DROP TABLE platformCommand;
 DROP TABLE form_mapping;
 DROP TABLE page_mapping;
 DROP TABLE process_content;
+DROP TABLE process_runtime_content;
 DROP TABLE proc_parameter;
 DROP TABLE bar_resource;
 DROP TABLE temporary_content;
 DROP TABLE tenant_resource;
 DROP TABLE icon;
 DROP TABLE arch_bpm_failure;
-DROP TABLE bpm_failure;
\ No newline at end of file
+DROP TABLE bpm_failure;
+DROP TABLE archive_queue;
+DROP TABLE search_term_index;
+DROP TABLE search_term_index_build;
\ No newline at end of file
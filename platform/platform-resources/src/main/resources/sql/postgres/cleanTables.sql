@@ -7,6 +7,7 @@ DELETE FROM category;
 DELETE FROM arch_process_comment;
 DELETE FROM process_comment;
 DELETE FROM process_definition;
+DELETE FROM process_runtime_content;
 DELETE FROM arch_document_mapping;
 DELETE FROM document;
 DELETE FROM document_mapping;
@@ -58,5 +59,8 @@ DELETE FROM page_mapping;
 DELETE FROM proc_parameter;
 DELETE FROM arch_bpm_failure;
 DELETE FROM bpm_failure;
+DELETE FROM archive_queue;
+DELETE FROM search_term_index;
+DELETE FROM search_term_index_build;
 -- do NOT clear directly PLATFORM table, Hibernate needs to update its cache to know the platform has been deleted
  
\ No newline at end of file
@@ -134,6 +134,12 @@ CREATE TABLE process_content (
   content TEXT NOT NULL,
   PRIMARY KEY (tenantid, id)
 );
+CREATE TABLE process_runtime_content (
+  tenantid INT8 NOT NULL,
+  id INT8 NOT NULL,
+  content BYTEA,
+  PRIMARY KEY (tenantid, id)
+);
 CREATE TABLE arch_document_mapping (
   tenantid INT8 NOT NULL,
   id INT8 NOT NULL,
@@ -321,6 +327,7 @@ CREATE TABLE flownode_instance (
   priority SMALLINT,
   gatewayType VARCHAR(50),
   hitBys VARCHAR(255),
+  hitTransitions INT8 DEFAULT 0,
   stateCategory VARCHAR(50) NOT NULL,
   logicalGroup1 INT8 NOT NULL,
   logicalGroup2 INT8 NOT NULL,
@@ -1078,4 +1085,25 @@ CREATE TABLE arch_bpm_failure (
 );
 CREATE INDEX idx_arch_flownode_instance_id ON arch_bpm_failure (flowNodeInstanceId);
 CREATE INDEX idx_arch_process_instance_id ON arch_bpm_failure (processInstanceId);
-CREATE INDEX idx_arch_process_definition_id ON arch_bpm_failure (processDefinitionId);
\ No newline at end of file
+CREATE INDEX idx_arch_process_definition_id ON arch_bpm_failure (processDefinitionId);
+
+CREATE TABLE archive_queue (
+  id INT8 NOT NULL,
+  processDefinitionId INT8 NOT NULL,
+  queuedDate INT8 NOT NULL,
+  PRIMARY KEY (id)
+);
+CREATE INDEX idx_archive_queue_date ON archive_queue (queuedDate);
+CREATE TABLE search_term_index (
+  entityType VARCHAR(50) NOT NULL,
+  trigram VARCHAR(12) NOT NULL,
+  entityId INT8 NOT NULL,
+  PRIMARY KEY (entityType, trigram, entityId)
+);
+CREATE INDEX idx_search_term_entity ON search_term_index (entityType, entityId);
+CREATE TABLE search_term_index_build (
+  entityType VARCHAR(50) NOT NULL,
+  lastEntityId INT8 NOT NULL,
+  complete BOOLEAN NOT NULL,
+  PRIMARY KEY (entityType)
+);
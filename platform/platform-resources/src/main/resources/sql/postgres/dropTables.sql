@@ -61,10 +61,14 @@ DROP TABLE IF EXISTS platformCommand;
 DROP TABLE IF EXISTS form_mapping;
 DROP TABLE IF EXISTS page_mapping;
 DROP TABLE IF EXISTS process_content;
+DROP TABLE IF EXISTS process_runtime_content;
 DROP TABLE IF EXISTS proc_parameter;
 DROP TABLE IF EXISTS bar_resource;
 DROP TABLE IF EXISTS temporary_content;
 DROP TABLE IF EXISTS tenant_resource;
 DROP TABLE IF EXISTS icon;
 DROP TABLE IF EXISTS arch_bpm_failure;
-DROP TABLE IF EXISTS bpm_failure;
\ No newline at end of file
+DROP TABLE IF EXISTS bpm_failure;
+DROP TABLE IF EXISTS archive_queue;
+DROP TABLE IF EXISTS search_term_index;
+DROP TABLE IF EXISTS search_term_index_build;
\ No newline at end of file
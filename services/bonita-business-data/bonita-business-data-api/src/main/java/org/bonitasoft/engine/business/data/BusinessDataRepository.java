@@ -60,7 +60,7 @@ public interface BusinessDataRepository extends TenantLifecycleService {
      *
      * @param entityClass the class of the entity to search for.
      * @param primaryKeys the primary keys.
-     * @return the list of found entities
+     * @return the list of found entities, in the order of the given primary keys
      */
     <T extends Entity> List<T> findByIdentifiers(Class<T> entityClass, List<Long> primaryKeys);
 
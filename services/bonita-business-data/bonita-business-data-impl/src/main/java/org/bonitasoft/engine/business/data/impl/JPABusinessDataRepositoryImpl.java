@@ -52,6 +52,7 @@ import org.bonitasoft.engine.transaction.STransactionNotFoundException;
 import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.hibernate.Hibernate;
 import org.hibernate.QueryException;
+import org.hibernate.Session;
 import org.hibernate.boot.archive.scan.internal.DisabledScanner;
 import org.hibernate.proxy.HibernateProxy;
 import org.slf4j.Logger;
@@ -66,6 +67,7 @@ public class JPABusinessDataRepositoryImpl implements BusinessDataRepository, Si
 
     private static final Logger log = LoggerFactory.getLogger(JPABusinessDataRepositoryImpl.class);
     private static final String BDR_PERSISTENCE_UNIT = "BDR";
+    private static final int DEFAULT_BATCH_FETCH_SIZE = 100;
 
     private final Map<String, Object> configuration;
 
@@ -79,6 +81,10 @@ public class JPABusinessDataRepositoryImpl implements BusinessDataRepository, Si
 
     private final UserTransactionService transactionService;
 
+    private int batchFetchSize = DEFAULT_BATCH_FETCH_SIZE;
+
+    private boolean reuseLoadedEntities = true;
+
     public JPABusinessDataRepositoryImpl(final UserTransactionService transactionService,
             final BusinessDataModelRepository businessDataModelRepository, final Map<String, Object> configuration,
             ClassLoaderService classLoaderService, long tenantId) {
@@ -91,6 +97,24 @@ public class JPABusinessDataRepositoryImpl implements BusinessDataRepository, Si
         classLoaderService.addListener(identifier(ScopeType.TENANT, tenantId), this);
     }
 
+    /**
+     * @param batchFetchSize maximum number of identifiers in the IN clause of a query loading entities by identifiers
+     */
+    public void setBatchFetchSize(final int batchFetchSize) {
+        if (batchFetchSize <= 0) {
+            throw new IllegalArgumentException("The batch fetch size must be positive, was " + batchFetchSize);
+        }
+        this.batchFetchSize = batchFetchSize;
+    }
+
+    /**
+     * @param reuseLoadedEntities true to not query entities already loaded in the current transaction when loading
+     *        entities by identifiers
+     */
+    public void setReuseLoadedEntities(final boolean reuseLoadedEntities) {
+        this.reuseLoadedEntities = reuseLoadedEntities;
+    }
+
     @Override
     public void start() {
         if (entityManagerFactory == null && businessDataModelRepository.isBDMDeployed()) {
@@ -241,12 +265,32 @@ public class JPABusinessDataRepositoryImpl implements BusinessDataRepository, Si
         if (primaryKeys == null || primaryKeys.isEmpty()) {
             return new ArrayList<>();
         }
-        final List<T> entities = new ArrayList<>();
+        final List<Long> identifiers = new ArrayList<>(primaryKeys.size());
         for (final Long primaryKey : primaryKeys) {
-            try {
-                entities.add(findById(entityClass, primaryKey));
-            } catch (final SBusinessDataNotFoundException e) {
-                // If the business data does not exist, do not add it in the result list in order to have the same behaviour as findByIds
+            if (primaryKey != null) {
+                identifiers.add(primaryKey);
+            }
+        }
+        if (identifiers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final EntityManager em = getEntityManager();
+        final List<T> loadedEntities;
+        try {
+            // entities are loaded by chunks of ids, and returned in the order of the given ids
+            loadedEntities = em.unwrap(Session.class).byMultipleIds(entityClass)
+                    .withBatchSize(batchFetchSize)
+                    .enableSessionCheck(reuseLoadedEntities)
+                    .multiLoad(identifiers);
+        } catch (final PersistenceException e) {
+            //wrap in retryable exception because the issue might come from BDR reloading
+            throw new SRetryableException(e);
+        }
+        final List<T> entities = new ArrayList<>(loadedEntities.size());
+        for (final T entity : loadedEntities) {
+            // If the business data does not exist, do not add it in the result list in order to have the same behaviour as findByIds
+            if (entity != null) {
+                entities.add(entity);
             }
         }
         return entities;
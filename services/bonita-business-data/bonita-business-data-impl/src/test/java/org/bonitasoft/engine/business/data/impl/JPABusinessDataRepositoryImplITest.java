@@ -203,6 +203,23 @@ public class JPABusinessDataRepositoryImplITest {
         assertThat(emps).doesNotContain(emp3);
     }
 
+    @Test
+    public void should_get_employees_by_identifiers_in_the_order_of_the_identifiers() throws Exception {
+        Employee emp1 = addEmployeeToRepository(anEmployee().withLastName("Kangaroo").build());
+        Employee emp2 = addEmployeeToRepository(anEmployee().withLastName("Koala").build());
+        Employee emp3 = addEmployeeToRepository(anEmployee().withLastName("Wombat").build());
+        businessDataRepository.getEntityManager().flush();
+        businessDataRepository.getEntityManager().clear();
+        businessDataRepository.setBatchFetchSize(2);
+
+        List<Employee> emps = businessDataRepository.findByIdentifiers(Employee.class,
+                Arrays.asList(emp3.getPersistenceId(), -145L, emp1.getPersistenceId(), emp2.getPersistenceId(),
+                        emp3.getPersistenceId()));
+
+        assertThat(emps).extracting(Employee::getLastName).containsExactly("Wombat", "Kangaroo", "Koala",
+                "Wombat");
+    }
+
     @Test
     public void should_return_an_empty_list_when_getting_entities_with_empty_ids_list() throws Exception {
         ArrayList<Long> emptyIdsList = new ArrayList<>();
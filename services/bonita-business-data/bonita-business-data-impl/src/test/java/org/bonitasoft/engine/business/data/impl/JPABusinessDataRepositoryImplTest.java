@@ -20,8 +20,10 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import javax.persistence.EntityManager;
@@ -41,6 +43,8 @@ import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.commons.exceptions.SRetryableException;
 import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.transaction.UserTransactionService;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -176,12 +180,70 @@ public class JPABusinessDataRepositoryImplTest {
     @Test(expected = SRetryableException.class)
     public void should_findByIdentifiers_throw_retryable_when_persistenceException() {
         //given
-        doThrow(PersistenceException.class).when(manager).find(Address.class, PRIMARY_KEY_1);
+        MultiIdentifierLoadAccess<Address> loadAccess = mockMultiIdentifierLoadAccess();
+        doThrow(PersistenceException.class).when(loadAccess).multiLoad(anyList());
         //when
         repository.findByIdentifiers(Address.class, Collections.singletonList(PRIMARY_KEY_1));
         //then exception
     }
 
+    @Test
+    public void findByIdentifiers_should_load_entities_by_batch_in_the_order_of_the_identifiers() {
+        //given
+        repository.setBatchFetchSize(50);
+        MultiIdentifierLoadAccess<Address> loadAccess = mockMultiIdentifierLoadAccess();
+        final Address address1 = new Address(1L);
+        final Address address3 = new Address(3L);
+        doReturn(Arrays.asList(address3, null, address1, address3)).when(loadAccess)
+                .multiLoad(Arrays.asList(3L, 2L, 1L, 3L));
+        //when
+        final List<Address> addresses = repository.findByIdentifiers(Address.class,
+                Arrays.asList(3L, 2L, null, 1L, 3L));
+        //then
+        assertThat(addresses).containsExactly(address3, address1, address3);
+        verify(loadAccess).withBatchSize(50);
+        verify(loadAccess).enableSessionCheck(true);
+        verify(manager, never()).find(any(), any());
+    }
+
+    @Test
+    public void findByIdentifiers_should_query_again_loaded_entities_when_not_reusing_them() {
+        //given
+        repository.setReuseLoadedEntities(false);
+        MultiIdentifierLoadAccess<Address> loadAccess = mockMultiIdentifierLoadAccess();
+        doReturn(Collections.singletonList(new Address(1L))).when(loadAccess).multiLoad(anyList());
+        //when
+        repository.findByIdentifiers(Address.class, Collections.singletonList(1L));
+        //then
+        verify(loadAccess).enableSessionCheck(false);
+    }
+
+    @Test
+    public void findByIdentifiers_should_not_query_entities_with_only_null_identifiers() {
+        //when
+        final List<Address> addresses = repository.findByIdentifiers(Address.class,
+                Collections.singletonList(null));
+        //then
+        assertThat(addresses).isEmpty();
+        verify(manager, never()).unwrap(any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setBatchFetchSize_should_reject_non_positive_sizes() {
+        repository.setBatchFetchSize(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MultiIdentifierLoadAccess<Address> mockMultiIdentifierLoadAccess() {
+        Session session = mock(Session.class);
+        MultiIdentifierLoadAccess<Address> loadAccess = mock(MultiIdentifierLoadAccess.class);
+        doReturn(session).when(manager).unwrap(Session.class);
+        doReturn(loadAccess).when(session).byMultipleIds(Address.class);
+        doReturn(loadAccess).when(loadAccess).withBatchSize(anyInt());
+        doReturn(loadAccess).when(loadAccess).enableSessionCheck(anyBoolean());
+        return loadAccess;
+    }
+
     @Test(expected = SRetryableException.class)
     public void should_findByNamedQuery_throw_retryable_when_persistenceException() throws Exception {
         //given
@@ -45,23 +45,35 @@ import org.bonitasoft.engine.data.instance.model.impl.XStreamFactory;
 @Slf4j
 public class BonitaClassLoader extends URLClassLoader {
 
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
     private final ClassLoaderIdentifier id;
     protected Map<String, File> nonJarResources;
-    // that directory contains the jars and resources given in the constructor
+    // that directory contains the resources given in the constructor, jars are in the JarStore used to create it
     private final File temporaryDirectory;
+    private final Set<File> jars;
+    // released when the class loader is destroyed
+    private final JarStore jarStore;
     private boolean isActive = true;
     private final Instant creationTime = Instant.now();
     private final String uuid = generateUUID();
     private final Set<BonitaClassLoader> children = new HashSet<>();
+    // packages having classes in the jars, null when some jars could not be indexed
+    private final Set<String> packages;
 
     BonitaClassLoader(ClassLoaderIdentifier id, ClassLoader parent, Set<File> jars, Map<String, File> nonJarResources,
-            File temporaryDirectory) {
+            File temporaryDirectory, Set<String> packages, JarStore jarStore) {
         super(id.getType().name() + "__" + id.getId(), jars.stream().map(BonitaClassLoader::toURL).toArray(URL[]::new),
                 parent);
         this.id = id;
         //TODO: These non-jar resources might be added along with jars without having to do special handling
         this.nonJarResources = new HashMap<>(nonJarResources);
         this.temporaryDirectory = temporaryDirectory;
+        this.packages = packages;
+        this.jars = new HashSet<>(jars);
+        this.jarStore = jarStore;
         if (parent instanceof BonitaClassLoader) {
             //The parent is not a BonitaClassloader when we are on the Global classloader
             ((BonitaClassLoader) parent).children.add(this);
@@ -109,29 +121,41 @@ public class BonitaClassLoader extends URLClassLoader {
 
     @Override
     protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
-        Class<?> c = null;
-        c = findLoadedClass(name);
-        if (c == null) {
-            try {
-                c = findClass(name);
-            } catch (final ClassNotFoundException e) {
-                // ignore
-            } catch (final LinkageError le) {
-                // might be because of a duplicate loading (concurrency loading), retry to find it one time See BS-2483
-                c = findLoadedClass(name);
-                if (c == null) {
-                    // was not because of duplicate loading: throw the exception
-                    throw le;
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null && mayContain(name)) {
+                try {
+                    c = findClass(name);
+                } catch (final ClassNotFoundException e) {
+                    // ignore
+                } catch (final LinkageError le) {
+                    // might be because of a duplicate loading (concurrency loading), retry to find it one time See BS-2483
+                    c = findLoadedClass(name);
+                    if (c == null) {
+                        // was not because of duplicate loading: throw the exception
+                        throw le;
+                    }
                 }
             }
+            if (c == null) {
+                c = getParent().loadClass(name);
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
         }
-        if (c == null) {
-            c = getParent().loadClass(name);
-        }
-        if (resolve) {
-            resolveClass(c);
+    }
+
+    /**
+     * @return false when none of the jars has a class in the package of the class, so that they are not scanned
+     */
+    boolean mayContain(final String className) {
+        if (packages == null) {
+            return true;
         }
-        return c;
+        int lastDot = className.lastIndexOf('.');
+        return packages.contains(lastDot < 0 ? "" : className.substring(0, lastDot));
     }
 
     public void destroy() {
@@ -150,6 +174,9 @@ public class BonitaClassLoader extends URLClassLoader {
             log.debug("Full cause:", e);
         }
         FileUtils.deleteQuietly(temporaryDirectory);
+        if (isActive) {
+            jars.forEach(jarStore::release);
+        }
         isActive = false;
         log.debug("Destroyed {}", this);
     }
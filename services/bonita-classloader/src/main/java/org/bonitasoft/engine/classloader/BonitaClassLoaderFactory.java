@@ -18,10 +18,12 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -33,17 +35,68 @@ public class BonitaClassLoaderFactory {
 
     private static final Pattern jarMatcher = Pattern.compile(".*\\.jar");
 
+    /**
+     * Create a class loader having its jars written in its own temporary directory.
+     */
     static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
             URI temporaryDirectoryUri,
             ClassLoader parent) throws IOException {
         File temporaryDirectory = createTemporaryDirectory(temporaryDirectoryUri);
-        Map<String, File> allFiles = writeResourcesOnFileSystem(resources, temporaryDirectory);
-        Set<File> jars = allFiles.entrySet().stream().filter(u -> jarMatcher.matcher(u.getKey()).matches())
-                .map(Map.Entry::getValue).collect(Collectors.toSet());
-        Map<String, File> nonJarResources = allFiles.entrySet().stream()
-                .filter(u -> !jarMatcher.matcher(u.getKey()).matches())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        return new BonitaClassLoader(id, parent, jars, nonJarResources, temporaryDirectory);
+        return createClassLoader(resources, id, temporaryDirectory, parent,
+                new JarStore(temporaryDirectory.toPath()));
+    }
+
+    /**
+     * Create a class loader having its jars in the given {@link JarStore}, other resources are written in its own
+     * temporary directory.
+     */
+    public static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
+            URI temporaryDirectoryUri, ClassLoader parent, JarStore jarStore) throws IOException {
+        return createClassLoader(resources, id, createTemporaryDirectory(temporaryDirectoryUri), parent, jarStore);
+    }
+
+    private static BonitaClassLoader createClassLoader(Stream<BonitaResource> resources, ClassLoaderIdentifier id,
+            File temporaryDirectory, ClassLoader parent, JarStore jarStore) {
+        Set<File> jars = new LinkedHashSet<>();
+        Map<String, File> nonJarResources = new HashMap<>();
+        try {
+            resources.forEach(resource -> {
+                try {
+                    if (jarMatcher.matcher(resource.getName()).matches()) {
+                        File jar = jarStore.store(resource.getContent());
+                        if (!jars.add(jar)) {
+                            // same content given twice, the class loader releases it only once
+                            jarStore.release(jar);
+                        }
+                    } else {
+                        Pair<String, File> written = writeResource(resource, temporaryDirectory);
+                        nonJarResources.put(written.getKey(), written.getValue());
+                    }
+                } catch (final IOException e) {
+                    throw new BonitaRuntimeException(e);
+                }
+            });
+        } catch (final RuntimeException e) {
+            jars.forEach(jarStore::release);
+            throw e;
+        }
+        return new BonitaClassLoader(id, parent, jars, nonJarResources, temporaryDirectory,
+                indexPackages(jars, jarStore), jarStore);
+    }
+
+    /**
+     * @return the packages having classes in the jars, null if one of the jars can not be indexed
+     */
+    private static Set<String> indexPackages(Set<File> jars, JarStore jarStore) {
+        Set<String> packages = new HashSet<>();
+        for (File jar : jars) {
+            Set<String> jarPackages = jarStore.getPackages(jar);
+            if (jarPackages == null) {
+                return null;
+            }
+            packages.addAll(jarPackages);
+        }
+        return packages;
     }
 
     private static File createTemporaryDirectory(URI temporaryDirectoryUri) throws IOException {
@@ -54,17 +107,6 @@ public class BonitaClassLoaderFactory {
         return Files.createTempDirectory(temporaryDirectory, "engine-classloader").toFile();
     }
 
-    private static Map<String, File> writeResourcesOnFileSystem(final Stream<BonitaResource> resources,
-            File temporaryDirectory) {
-        return resources.map(resource -> {
-            try {
-                return writeResource(resource, temporaryDirectory);
-            } catch (final IOException e) {
-                throw new BonitaRuntimeException(e);
-            }
-        }).collect(Collectors.toMap(Pair::getKey, Pair::getValue));
-    }
-
     static Pair<String, File> writeResource(BonitaResource resource, File temporaryDirectory) throws IOException {
         String name = resource.getName();
         int i = name.lastIndexOf(".");
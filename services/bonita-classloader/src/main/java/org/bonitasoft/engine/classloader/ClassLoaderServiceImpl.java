@@ -69,6 +69,7 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
     private final UserTransactionService userTransactionService;
     private final BroadcastService broadcastService;
     private final ClassLoaderUpdater classLoaderUpdater;
+    private JarStore jarStore;
 
     public ClassLoaderServiceImpl(final ParentClassLoaderResolver parentClassLoaderResolver,
             @Qualifier("platformEventService") EventService eventService,
@@ -177,11 +178,18 @@ public class ClassLoaderServiceImpl implements ClassLoaderService {
         return BonitaHomeServer.getInstance().getLocalTemporaryFolder(identifier.getType().name(), identifier.getId());
     }
 
+    synchronized JarStore getJarStore() throws IOException {
+        if (jarStore == null) {
+            jarStore = new JarStore(BonitaHomeServer.getInstance().getJarStoreFolder().toPath());
+        }
+        return jarStore;
+    }
+
     BonitaClassLoader createClassloader(ClassLoaderIdentifier id) throws IOException, SClassLoaderException {
         log.debug("Creating classloader {}", id);
         BonitaClassLoader classLoader = BonitaClassLoaderFactory.createClassLoader(getDependencies(id), id,
                 getLocalTemporaryFolder(id),
-                getParentClassLoader(id));
+                getParentClassLoader(id), getJarStore());
         log.info("Created classloader {}: {}", id, classLoader);
         return classLoader;
     }
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.classloader;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local store of dependency jars, addressed by the SHA-256 of their content: a jar is written once, then the same
+ * file is given to all class loaders using that content, including after a refresh.
+ * <p>
+ * The folder of the store is only accessible by its owner, when the file system supports it. The content of a jar
+ * already in the folder is checked against its name before it is used for the first time. Jars are written in a
+ * temporary file that is then moved, so that class loaders never see a partially written jar. The packages of a
+ * stored jar never change, so they are read only once.
+ * <p>
+ * Each jar counts the class loaders it was stored for, and is deleted once all of them released it, see
+ * {@link #release(File)}.
+ */
+@Slf4j
+public class JarStore {
+
+    private static final String JAR_EXTENSION = ".jar";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path folder;
+    private final Map<Path, Set<String>> packagesByJar = new ConcurrentHashMap<>();
+    private final Set<Path> verifiedJars = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Integer> references = new ConcurrentHashMap<>();
+
+    /**
+     * @param folder folder of the store, created if needed and restricted to its owner
+     * @throws IOException if the folder can not be created, or if its permissions can not be restricted, e.g. because
+     *         it belongs to another user
+     */
+    public JarStore(Path folder) throws IOException {
+        this.folder = folder;
+        Files.createDirectories(folder);
+        if (folder.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(folder, OWNER_ONLY);
+        }
+    }
+
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * @return the stored jar having this content, written only if no jar with this content was stored before. It must
+     *         be released once it is not used anymore.
+     */
+    public File store(byte[] content) throws IOException {
+        String hash = sha256(content);
+        Path jar = folder.resolve(hash.substring(0, 2)).resolve(hash + JAR_EXTENSION);
+        try {
+            // written and referenced atomically, so that a concurrent release does not delete it
+            references.compute(jar, (path, count) -> {
+                try {
+                    write(jar, hash, content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count == null ? 1 : count + 1;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return jar.toFile();
+    }
+
+    /**
+     * Release a jar returned by {@link #store(byte[])}. The jar is deleted once it was released as many times as it was
+     * stored.
+     */
+    public void release(File jar) {
+        references.computeIfPresent(jar.toPath(), (path, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            delete(path);
+            return null;
+        });
+    }
+
+    private void write(Path jar, String hash, byte[] content) throws IOException {
+        if (isStored(jar, hash, content.length)) {
+            return;
+        }
+        Path directory = jar.getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, hash, TEMPORARY_EXTENSION);
+        try {
+            Files.write(temporaryFile, content);
+            try {
+                Files.move(temporaryFile, jar, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, jar, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        packagesByJar.remove(jar);
+        verifiedJars.add(jar);
+        log.debug("Stored jar {}", jar);
+    }
+
+    private void delete(Path jar) {
+        packagesByJar.remove(jar);
+        verifiedJars.remove(jar);
+        try {
+            Files.deleteIfExists(jar);
+            log.debug("Deleted jar {}, it is not used anymore", jar);
+        } catch (IOException e) {
+            log.warn("Unable to delete the stored jar {}: {}", jar, e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the jar exists and has the given content, its content being checked only the first time
+     */
+    private boolean isStored(Path jar, String hash, long size) throws IOException {
+        if (!Files.isRegularFile(jar) || Files.size(jar) != size) {
+            verifiedJars.remove(jar);
+            return false;
+        }
+        if (verifiedJars.contains(jar)) {
+            return true;
+        }
+        if (!hash.equals(sha256(Files.readAllBytes(jar)))) {
+            log.warn("The content of the stored jar {} does not match its name, it will be replaced", jar);
+            return false;
+        }
+        verifiedJars.add(jar);
+        return true;
+    }
+
+    /**
+     * @return the packages having classes in the jar, null when the jar can not be read
+     */
+    public Set<String> getPackages(File jar) {
+        return packagesByJar.computeIfAbsent(jar.toPath(), JarStore::readPackages);
+    }
+
+    private static Set<String> readPackages(Path jar) {
+        try (JarFile jarFile = new JarFile(jar.toFile(), false)) {
+            return jarFile.stream().map(JarEntry::getName)
+                    .filter(name -> name.endsWith(CLASS_EXTENSION))
+                    .map(JarStore::packageOf)
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (IOException e) {
+            log.debug("Unable to read the packages of {}, its classes will not be indexed: {}", jar, e.getMessage());
+            return null;
+        }
+    }
+
+    static String packageOf(String entryName) {
+        String name = entryName;
+        if (name.startsWith(VERSIONS_PREFIX)) {
+            // multi-release jar: META-INF/versions/<version>/<package>/<class>
+            int versionEnd = name.indexOf('/', VERSIONS_PREFIX.length());
+            name = versionEnd < 0 ? name : name.substring(versionEnd + 1);
+        }
+        int lastSlash = name.lastIndexOf('/');
+        return lastSlash < 0 ? "" : name.substring(0, lastSlash).replace('/', '.');
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
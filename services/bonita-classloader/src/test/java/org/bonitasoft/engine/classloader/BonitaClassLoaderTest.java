@@ -225,6 +225,75 @@ public class BonitaClassLoaderTest {
         assertThat(invoke(child2.loadClass("Child"), "getVersion")).isEqualTo("Version of the lib in parent is 2.0");
     }
 
+    @Test
+    public void should_reuse_stored_jars_when_recreating_classloader() throws Exception {
+        JarStore jarStore = new JarStore(temporaryFolder.newFolder().toPath());
+        byte[] jar = generateJar("Hello", "public class Hello{}");
+        BonitaClassLoader classLoader1 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("hello.jar", jar)), identifier(PROCESS, 12L), temporaryFolder.newFolder().toURI(),
+                testClassLoader, jarStore);
+        classLoader1.destroy();
+
+        BonitaClassLoader classLoader2 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("hello.jar", jar)), identifier(PROCESS, 12L), temporaryFolder.newFolder().toURI(),
+                testClassLoader, jarStore);
+
+        assertThat(classLoader2.getURLs()).containsExactly(classLoader1.getURLs());
+        assertThat(new File(classLoader2.getURLs()[0].toURI())).exists();
+        assertThat(classLoader2.loadClass("Hello").getClassLoader()).isSameAs(classLoader2);
+        classLoader2.destroy();
+    }
+
+    @Test
+    public void should_delete_stored_jars_once_no_classloader_uses_them() throws Exception {
+        JarStore jarStore = new JarStore(temporaryFolder.newFolder().toPath());
+        byte[] jar = generateJar("Hello", "public class Hello{}");
+        BonitaClassLoader classLoader1 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("hello.jar", jar)), identifier(PROCESS, 12L), temporaryFolder.newFolder().toURI(),
+                testClassLoader, jarStore);
+        BonitaClassLoader classLoader2 = BonitaClassLoaderFactory.createClassLoader(
+                Stream.of(resource("hello.jar", jar)), identifier(PROCESS, 13L), temporaryFolder.newFolder().toURI(),
+                testClassLoader, jarStore);
+        File storedJar = new File(classLoader1.getURLs()[0].toURI());
+
+        classLoader1.destroy();
+        assertThat(storedJar).exists();
+        classLoader2.destroy();
+
+        assertThat(storedJar).doesNotExist();
+    }
+
+    @Test
+    public void should_not_look_for_classes_in_jars_not_having_their_package() throws Exception {
+        BonitaClassLoader classLoader = createClassloader(resource("hello.jar", generateJar("org.acme.Hello",
+                "package org.acme;",
+                "public class Hello{}")));
+
+        assertThat(classLoader.mayContain("org.acme.Hello")).isTrue();
+        assertThat(classLoader.mayContain("org.acme.other.Hello")).isFalse();
+        assertThat(classLoader.mayContain("Hello")).isFalse();
+        assertThat(classLoader.loadClass("org.acme.Hello").getClassLoader()).isSameAs(classLoader);
+        assertThat(classLoader.loadClass(BonitaClassLoaderTest.class.getName()))
+                .isSameAs(BonitaClassLoaderTest.class);
+        classLoader.destroy();
+    }
+
+    @Test
+    public void should_look_for_classes_in_all_jars_when_a_jar_can_not_be_indexed() throws Exception {
+        BonitaClassLoader classLoader = createClassloader(resource("myJar.jar", "Salut le monde".getBytes()));
+
+        assertThat(classLoader.mayContain("org.acme.Hello")).isTrue();
+        classLoader.destroy();
+    }
+
+    @Test
+    public void should_be_registered_as_parallel_capable() throws Exception {
+        BonitaClassLoader classLoader = createClassloader();
+
+        assertThat(classLoader.isRegisteredAsParallelCapable()).isTrue();
+        classLoader.destroy();
+    }
+
     private BonitaClassLoader createClassloader(BonitaResource... resources) throws IOException {
         return createClassloader(testClassLoader, resources);
     }
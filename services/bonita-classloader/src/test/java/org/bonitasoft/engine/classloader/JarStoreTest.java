@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.classloader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.io.IOUtil.generateJar;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private JarStore jarStore;
+
+    @Before
+    public void before() throws Exception {
+        jarStore = new JarStore(temporaryFolder.newFolder().toPath());
+    }
+
+    @Test
+    public void should_write_jars_having_same_content_only_once() throws Exception {
+        File first = jarStore.store("content".getBytes());
+        FileTime written = FileTime.from(Instant.now().minus(Duration.ofDays(1)));
+        Files.setLastModifiedTime(first.toPath(), written);
+
+        File second = new JarStore(jarStore.getFolder()).store("content".getBytes());
+
+        assertThat(second).isEqualTo(first).hasBinaryContent("content".getBytes());
+        assertThat(first.getName()).isEqualTo(JarStore.sha256("content".getBytes()) + ".jar");
+        assertThat(Files.getLastModifiedTime(second.toPath())).isEqualTo(written);
+    }
+
+    @Test
+    public void should_rewrite_an_existing_jar_not_matching_its_name() throws Exception {
+        File jar = jarStore.store("content".getBytes());
+        Files.write(jar.toPath(), "CONTENT".getBytes());
+
+        File stored = new JarStore(jarStore.getFolder()).store("content".getBytes());
+
+        assertThat(stored).isEqualTo(jar).hasBinaryContent("content".getBytes());
+    }
+
+    @Test
+    public void should_restrict_the_store_folder_to_its_owner() throws Exception {
+        Path folder = temporaryFolder.newFolder().toPath();
+        assumeTrue(folder.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(folder, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        new JarStore(folder);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(folder))).isEqualTo("rwx------");
+    }
+
+    @Test
+    public void should_write_jars_having_different_content_in_different_files() throws Exception {
+        File first = jarStore.store("content1".getBytes());
+        File second = jarStore.store("content2".getBytes());
+
+        assertThat(first).isNotEqualTo(second).hasBinaryContent("content1".getBytes());
+        assertThat(second).hasBinaryContent("content2".getBytes());
+    }
+
+    @Test
+    public void should_rewrite_a_truncated_jar() throws Exception {
+        File jar = jarStore.store("content".getBytes());
+        Files.write(jar.toPath(), "cont".getBytes());
+
+        assertThat(jarStore.store("content".getBytes())).isEqualTo(jar).hasBinaryContent("content".getBytes());
+    }
+
+    @Test
+    public void should_delete_a_jar_once_released_as_many_times_as_it_was_stored() throws Exception {
+        File first = jarStore.store("content".getBytes());
+        File second = jarStore.store("content".getBytes());
+
+        jarStore.release(first);
+        assertThat(second).exists();
+        jarStore.release(second);
+
+        assertThat(second).doesNotExist();
+        assertThat(jarStore.store("content".getBytes())).hasBinaryContent("content".getBytes());
+    }
+
+    @Test
+    public void should_get_packages_having_classes_in_the_jar() throws Exception {
+        File jar = jarStore.store(generateJar("org.acme.Hello", "package org.acme;", "public class Hello{}"));
+
+        assertThat(jarStore.getPackages(jar)).containsExactly("org.acme");
+    }
+
+    @Test
+    public void should_not_get_packages_of_a_jar_that_can_not_be_read() throws Exception {
+        File jar = jarStore.store("not a jar".getBytes());
+
+        assertThat(jarStore.getPackages(jar)).isNull();
+    }
+
+    @Test
+    public void should_get_package_of_jar_entries() {
+        assertThat(JarStore.packageOf("org/acme/Hello.class")).isEqualTo("org.acme");
+        assertThat(JarStore.packageOf("Hello.class")).isEmpty();
+        assertThat(JarStore.packageOf("META-INF/versions/11/org/acme/Hello.class")).isEqualTo("org.acme");
+    }
+}
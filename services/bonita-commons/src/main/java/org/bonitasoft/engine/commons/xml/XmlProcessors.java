@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.commons.xml;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Parse, query and serialize XML without creating JAXP factories each time.
+ * <p>
+ * Document builders, transformers and compiled XPath expressions are not thread safe, so each thread has its own
+ * instances: one document builder and one transformer, reset before each use, and the last
+ * {@value #MAX_COMPILED_EXPRESSIONS} XPath expressions it compiled.
+ */
+public final class XmlProcessors {
+
+    static final int MAX_COMPILED_EXPRESSIONS = 256;
+
+    private static final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<>();
+    private static final ThreadLocal<Transformer> transformers = new ThreadLocal<>();
+    private static final ThreadLocal<XPathCache> xpathCaches = ThreadLocal.withInitial(XPathCache::new);
+
+    private XmlProcessors() {
+    }
+
+    public static Document parse(final String xml) throws ParserConfigurationException, SAXException, IOException {
+        DocumentBuilder builder = documentBuilders.get();
+        if (builder == null) {
+            builder = newDocumentBuilder();
+            documentBuilders.set(builder);
+        } else {
+            builder.reset();
+        }
+        return builder.parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * @return the compiled expression, only usable by the current thread
+     */
+    public static XPathExpression compile(final String expression) throws XPathExpressionException {
+        return xpathCaches.get().compile(expression);
+    }
+
+    /**
+     * @return the document indented and encoded in UTF-8, as {@code DocumentManager.getDocumentContent} does
+     */
+    public static String toString(final Document document) throws TransformerException {
+        Transformer transformer = transformers.get();
+        if (transformer == null) {
+            transformer = newTransformer();
+            transformers.set(transformer);
+        } else {
+            transformer.reset();
+        }
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        final StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(document), new StreamResult(writer));
+        return writer.toString();
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        try {
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, ""); // security-compliant
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, ""); // security-compliant
+        } catch (IllegalArgumentException e) {
+            //ignored, if not supported by the implementation
+        }
+        return factory.newDocumentBuilder();
+    }
+
+    private static Transformer newTransformer() throws TransformerException {
+        final TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, ""); // security-compliant
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, ""); // security-compliant
+        } catch (IllegalArgumentException e) {
+            //ignored, if not supported by the implementation
+        }
+        return factory.newTransformer();
+    }
+
+    /**
+     * Compiled expressions of one thread, the least recently used being removed when full. Expressions are compiled
+     * without namespace context, variable or function resolver, so the text of the expression is enough as a key.
+     */
+    private static final class XPathCache extends LinkedHashMap<String, XPathExpression> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient XPath xpath = XPathFactory.newInstance().newXPath();
+
+        private XPathCache() {
+            super(16, 0.75f, true);
+        }
+
+        private XPathExpression compile(final String expression) throws XPathExpressionException {
+            XPathExpression compiled = get(expression);
+            if (compiled == null) {
+                compiled = xpath.compile(expression);
+                put(expression, compiled);
+            }
+            return compiled;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, XPathExpression> eldest) {
+            return size() > MAX_COMPILED_EXPRESSIONS;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+
+/**
+ * Encodes values with Java serialization, optionally compressed with deflate. Classes are resolved using the context
+ * class loader.
+ */
+public class BinaryDataValueCodec implements DataValueCodec {
+
+    public static final String ID = "binary";
+    public static final String DEFLATE_ID = "binary-deflate";
+
+    private final boolean compressed;
+
+    public BinaryDataValueCodec(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    @Override
+    public String getId() {
+        return compressed ? DEFLATE_ID : ID;
+    }
+
+    @Override
+    public byte[] encode(Serializable value) {
+        if (!compressed) {
+            return serialize(value);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream oos = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater, true))) {
+            oos.writeObject(value);
+        } catch (final IOException e) {
+            throw new SBonitaRuntimeException(e);
+        } finally {
+            // a deflater given to the stream is not ended when the stream is closed
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Serializable decode(byte[] bytes) {
+        if (!compressed) {
+            return deserialize(bytes);
+        }
+        try (ObjectInputStream ois = new ContextClassLoaderObjectInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+            return (Serializable) ois.readObject();
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new SBonitaRuntimeException(e);
+        }
+    }
+
+    static byte[] serialize(Serializable value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(value);
+        } catch (final IOException e) {
+            throw new SBonitaRuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Serializable deserialize(byte[] bytes) {
+        try (ObjectInputStream ois = new ContextClassLoaderObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Serializable) ois.readObject();
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new SBonitaRuntimeException(e);
+        }
+    }
+
+    private static final class ContextClassLoaderObjectInputStream extends ObjectInputStream {
+
+        private ContextClassLoaderObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), true, Thread.currentThread().getContextClassLoader());
+            } catch (final ClassNotFoundException e) {
+                // primitive types and classes of the JDK
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent map of values computed for a class loader, that does not prevent the class loader from being garbage
+ * collected. Class loaders are compared by identity. The null class loader is supported.
+ */
+final class ClassLoaderScopedMap<V> {
+
+    private final ConcurrentMap<Key, V> values = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+    private volatile V nullClassLoaderValue;
+
+    V computeIfAbsent(ClassLoader classLoader, Function<ClassLoader, V> mappingFunction) {
+        if (classLoader == null) {
+            return computeIfAbsentForNullClassLoader(mappingFunction);
+        }
+        V value = values.get(new Key(classLoader, null));
+        if (value != null) {
+            return value;
+        }
+        purgeCollectedClassLoaders();
+        return values.computeIfAbsent(new Key(classLoader, collectedClassLoaders),
+                key -> mappingFunction.apply(classLoader));
+    }
+
+    void remove(ClassLoader classLoader) {
+        if (classLoader == null) {
+            nullClassLoaderValue = null;
+        } else {
+            values.remove(new Key(classLoader, null));
+        }
+    }
+
+    int size() {
+        purgeCollectedClassLoaders();
+        return values.size() + (nullClassLoaderValue != null ? 1 : 0);
+    }
+
+    private synchronized V computeIfAbsentForNullClassLoader(Function<ClassLoader, V> mappingFunction) {
+        if (nullClassLoaderValue == null) {
+            nullClassLoaderValue = mappingFunction.apply(null);
+        }
+        return nullClassLoaderValue;
+    }
+
+    private void purgeCollectedClassLoaders() {
+        Reference<? extends ClassLoader> collected;
+        while ((collected = collectedClassLoaders.poll()) != null) {
+            values.remove(collected);
+        }
+    }
+
+    private static final class Key extends WeakReference<ClassLoader> {
+
+        private final int hashCode;
+
+        private Key(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader != null && classLoader == ((Key) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+
+/**
+ * Encodes values with a tagged binary format, optionally compressed with deflate.
+ * <p>
+ * Strings, boxed primitives, {@link BigDecimal}, {@link BigInteger}, {@link Date}, byte arrays, {@link ArrayList},
+ * {@link HashMap} and {@link LinkedHashMap} are written as a one byte tag followed by their content, integers using a
+ * variable length. Other values are written as an embedded Java serialization stream. Only these exact classes are
+ * encoded by the format, so that the decoded value has the same classes as the encoded one. The format does not keep
+ * shared references: a value containing the same mutable object twice is entirely written with Java serialization.
+ */
+public class CompactDataValueCodec implements DataValueCodec {
+
+    public static final String ID = "compact";
+    public static final String DEFLATE_ID = "compact-deflate";
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int SHORT = 6;
+    private static final int BYTE = 7;
+    private static final int TRUE = 8;
+    private static final int FALSE = 9;
+    private static final int CHARACTER = 10;
+    private static final int BIG_DECIMAL = 11;
+    private static final int BIG_INTEGER = 12;
+    private static final int DATE = 13;
+    private static final int BYTES = 14;
+    private static final int ARRAY_LIST = 15;
+    private static final int HASH_MAP = 16;
+    private static final int LINKED_HASH_MAP = 17;
+    private static final int SERIALIZED = 18;
+
+    private final boolean compressed;
+
+    public CompactDataValueCodec(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    @Override
+    public String getId() {
+        return compressed ? DEFLATE_ID : ID;
+    }
+
+    /**
+     * @return true if the value can not be modified, so that it can be shared instead of copied
+     */
+    static boolean isImmutable(Object value) {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Float || value instanceof Short
+                || value instanceof Byte || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum || value.getClass() == BigDecimal.class
+                || value.getClass() == BigInteger.class;
+    }
+
+    @Override
+    public byte[] encode(Serializable value) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Deflater deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+        try (DataOutputStream output = new DataOutputStream(
+                compressed ? new DeflaterOutputStream(bytes, deflater, true) : bytes)) {
+            if (hasSharedMutableValues(value, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+                writeSerialized(output, value);
+            } else {
+                write(output, value);
+            }
+        } catch (final IOException e) {
+            throw new SBonitaRuntimeException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Serializable decode(byte[] bytes) {
+        final InputStream input = compressed ? new InflaterInputStream(new ByteArrayInputStream(bytes))
+                : new ByteArrayInputStream(bytes);
+        try (DataInputStream dataInput = new DataInputStream(input)) {
+            return (Serializable) read(dataInput);
+        } catch (final IOException e) {
+            throw new SBonitaRuntimeException(e);
+        }
+    }
+
+    private static boolean hasSharedMutableValues(Object value, Set<Object> visited) {
+        if (isImmutable(value)) {
+            return false;
+        }
+        if (!visited.add(value)) {
+            return true;
+        }
+        if (value.getClass() == ArrayList.class) {
+            for (Object element : (List<?>) value) {
+                if (hasSharedMutableValues(element, visited)) {
+                    return true;
+                }
+            }
+        } else if (value.getClass() == HashMap.class || value.getClass() == LinkedHashMap.class) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (hasSharedMutableValues(entry.getKey(), visited)
+                        || hasSharedMutableValues(entry.getValue(), visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void write(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeBytes(output, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            writeVarLong(output, (Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            writeVarLong(output, (Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) value);
+        } else if (value.getClass() == BigDecimal.class) {
+            output.writeByte(BIG_DECIMAL);
+            writeBytes(output, ((BigDecimal) value).unscaledValue().toByteArray());
+            writeVarLong(output, ((BigDecimal) value).scale());
+        } else if (value.getClass() == BigInteger.class) {
+            output.writeByte(BIG_INTEGER);
+            writeBytes(output, ((BigInteger) value).toByteArray());
+        } else if (value.getClass() == Date.class) {
+            output.writeByte(DATE);
+            writeVarLong(output, ((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            output.writeByte(BYTES);
+            writeBytes(output, (byte[]) value);
+        } else if (value.getClass() == ArrayList.class) {
+            output.writeByte(ARRAY_LIST);
+            List<?> list = (List<?>) value;
+            writeVarLong(output, list.size());
+            for (Object element : list) {
+                write(output, element);
+            }
+        } else if (value.getClass() == HashMap.class || value.getClass() == LinkedHashMap.class) {
+            output.writeByte(value.getClass() == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeVarLong(output, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(output, entry.getKey());
+                write(output, entry.getValue());
+            }
+        } else {
+            writeSerialized(output, value);
+        }
+    }
+
+    private static void writeSerialized(DataOutputStream output, Object value) throws IOException {
+        if (!(value instanceof Serializable)) {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+        output.writeByte(SERIALIZED);
+        writeBytes(output, BinaryDataValueCodec.serialize((Serializable) value));
+    }
+
+    private static Object read(DataInputStream input) throws IOException {
+        final int tag = input.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case INTEGER:
+                return (int) readVarLong(input);
+            case LONG:
+                return readVarLong(input);
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case SHORT:
+                return input.readShort();
+            case BYTE:
+                return input.readByte();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case CHARACTER:
+                return input.readChar();
+            case BIG_DECIMAL:
+                BigInteger unscaledValue = new BigInteger(readBytes(input));
+                return new BigDecimal(unscaledValue, (int) readVarLong(input));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case DATE:
+                return new Date(readVarLong(input));
+            case BYTES:
+                return readBytes(input);
+            case ARRAY_LIST:
+                int size = readSize(input);
+                ArrayList<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(input));
+                }
+                return list;
+            case HASH_MAP:
+            case LINKED_HASH_MAP:
+                int entries = readSize(input);
+                Map<Object, Object> map = tag == HASH_MAP ? new HashMap<>() : new LinkedHashMap<>();
+                for (int i = 0; i < entries; i++) {
+                    map.put(read(input), read(input));
+                }
+                return map;
+            case SERIALIZED:
+                return BinaryDataValueCodec.deserialize(readBytes(input));
+            default:
+                throw new IOException("Unknown compact data value tag: " + tag);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[readSize(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static int readSize(DataInputStream input) throws IOException {
+        long size = readVarLong(input);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Invalid compact data value size: " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Zigzag encoded variable length integer: 7 bits per byte, the high bit telling whether another byte follows.
+     */
+    private static void writeVarLong(OutputStream output, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            output.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        output.write((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Invalid compact data value: variable length integer too long");
+    }
+}
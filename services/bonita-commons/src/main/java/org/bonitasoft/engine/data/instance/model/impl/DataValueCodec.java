@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.Serializable;
+
+/**
+ * Converts the values of data instances stored as objects, i.e. XML object data and archived blob data, to bytes and
+ * back.
+ * <p>
+ * Codecs are registered in {@link DataValueCodecs}, either as Spring beans or as services declared in
+ * 'META-INF/services/org.bonitasoft.engine.data.instance.model.impl.DataValueCodec'. The id of the codec is stored
+ * with each encoded value, so a codec must keep reading the values it wrote as long as they can be stored.
+ * Classes of the values must be loaded using the context class loader. Codecs are used concurrently.
+ */
+public interface DataValueCodec {
+
+    /**
+     * @return the id of the codec stored with the values, made of at most 64 ASCII letters, digits or '-'
+     */
+    String getId();
+
+    /**
+     * @throws org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException when the value cannot be encoded
+     */
+    byte[] encode(Serializable value);
+
+    /**
+     * @throws org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException when the value cannot be decoded
+     */
+    Serializable decode(byte[] bytes);
+
+}
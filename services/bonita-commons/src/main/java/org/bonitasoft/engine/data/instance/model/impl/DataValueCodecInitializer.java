@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the {@link DataValueCodec} beans and selects the codec used to write values of data instances, given by
+ * 'bonita.runtime.data.codec'.
+ */
+@Slf4j
+@Component
+public class DataValueCodecInitializer {
+
+    public DataValueCodecInitializer(ObjectProvider<DataValueCodec> codecs,
+            @Value("${bonita.runtime.data.codec:" + XStreamDataValueCodec.ID + "}") String currentCodecId) {
+        codecs.orderedStream().forEach(DataValueCodecs::register);
+        DataValueCodecs.setCurrentCodec(currentCodecId);
+        log.info("Values of data instances are written using the data value codec {}", currentCodecId);
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+
+/**
+ * Registry of the {@link DataValueCodec}s used to store values of data instances.
+ * <p>
+ * Values are written using the current codec, {@value XStreamDataValueCodec#ID} by default. Values written with
+ * another codec than the legacy one of their column are prefixed by a header giving the id of the codec:
+ * <ul>
+ * <li>text values, stored in CLOB columns, are 'bonita-data:&lt;codec id&gt;:' followed by the Base64 encoded value.
+ * Text values without header are XStream XML.</li>
+ * <li>binary values, stored in BLOB columns, start with 3 magic bytes, a version byte, the length of the codec id and
+ * the codec id, followed by the encoded value. Binary values without header are Java serialization streams.</li>
+ * </ul>
+ * Values are read with the codec given in their header, whatever the current codec is, so legacy values stay readable.
+ */
+@Slf4j
+public final class DataValueCodecs {
+
+    static final String TEXT_HEADER = "bonita-data:";
+    private static final byte[] BINARY_MAGIC = { (byte) 0xB0, 'D', 'V' };
+    private static final byte BINARY_VERSION = 1;
+    private static final Pattern CODEC_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private static final ConcurrentMap<String, DataValueCodec> CODECS = new ConcurrentHashMap<>();
+    private static final XStreamDataValueCodec XSTREAM_CODEC = new XStreamDataValueCodec();
+    private static final BinaryDataValueCodec BINARY_CODEC = new BinaryDataValueCodec(false);
+    private static volatile DataValueCodec currentCodec = XSTREAM_CODEC;
+
+    static {
+        register(XSTREAM_CODEC);
+        register(BINARY_CODEC);
+        register(new BinaryDataValueCodec(true));
+        register(new CompactDataValueCodec(false));
+        register(new CompactDataValueCodec(true));
+        for (DataValueCodec codec : ServiceLoader.load(DataValueCodec.class, DataValueCodecs.class.getClassLoader())) {
+            register(codec);
+        }
+    }
+
+    private DataValueCodecs() {
+    }
+
+    /**
+     * Register a codec, replacing the one having the same id.
+     */
+    public static void register(DataValueCodec codec) {
+        if (!CODEC_ID.matcher(codec.getId()).matches()) {
+            throw new IllegalArgumentException("Invalid data value codec id: " + codec.getId());
+        }
+        DataValueCodec previous = CODECS.put(codec.getId(), codec);
+        if (previous != null && previous != codec) {
+            log.info("Data value codec {} replaced by {}", codec.getId(), codec.getClass().getName());
+        }
+    }
+
+    /**
+     * @param codecId id of the registered codec used to write values from now on
+     */
+    public static void setCurrentCodec(String codecId) {
+        currentCodec = getCodec(codecId);
+    }
+
+    public static DataValueCodec getCurrentCodec() {
+        return currentCodec;
+    }
+
+    public static DataValueCodec getCodec(String codecId) {
+        DataValueCodec codec = CODECS.get(codecId);
+        if (codec == null) {
+            throw new SBonitaRuntimeException("No data value codec registered with id " + codecId);
+        }
+        return codec;
+    }
+
+    /**
+     * @return the value as text, XStream XML without header when the current codec is the XStream one
+     */
+    public static String toText(Serializable value) {
+        DataValueCodec codec = currentCodec;
+        if (codec == XSTREAM_CODEC) {
+            return XSTREAM_CODEC.toXML(value);
+        }
+        return TEXT_HEADER + codec.getId() + ':' + Base64.getEncoder().encodeToString(codec.encode(value));
+    }
+
+    public static Serializable fromText(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (!text.startsWith(TEXT_HEADER)) {
+            return XSTREAM_CODEC.fromXML(text);
+        }
+        int idEnd = text.indexOf(':', TEXT_HEADER.length());
+        if (idEnd < 0) {
+            throw new SBonitaRuntimeException("Invalid data value header: no codec id");
+        }
+        DataValueCodec codec = getCodec(text.substring(TEXT_HEADER.length(), idEnd));
+        return codec.decode(Base64.getDecoder().decode(text.substring(idEnd + 1)));
+    }
+
+    /**
+     * @return the value as bytes, a Java serialization stream without header when the current codec is the XStream
+     *         or the binary one
+     */
+    public static byte[] toBytes(Serializable value) {
+        DataValueCodec codec = currentCodec;
+        if (codec == XSTREAM_CODEC || codec == BINARY_CODEC) {
+            return BINARY_CODEC.encode(value);
+        }
+        byte[] id = codec.getId().getBytes(StandardCharsets.US_ASCII);
+        byte[] encoded = codec.encode(value);
+        int headerLength = BINARY_MAGIC.length + 2 + id.length;
+        byte[] bytes = Arrays.copyOf(BINARY_MAGIC, headerLength + encoded.length);
+        bytes[BINARY_MAGIC.length] = BINARY_VERSION;
+        bytes[BINARY_MAGIC.length + 1] = (byte) id.length;
+        System.arraycopy(id, 0, bytes, BINARY_MAGIC.length + 2, id.length);
+        System.arraycopy(encoded, 0, bytes, headerLength, encoded.length);
+        return bytes;
+    }
+
+    public static Serializable fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (!hasBinaryHeader(bytes)) {
+            return BINARY_CODEC.decode(bytes);
+        }
+        if (bytes[BINARY_MAGIC.length] != BINARY_VERSION) {
+            throw new SBonitaRuntimeException("Unsupported data value header version: " + bytes[BINARY_MAGIC.length]);
+        }
+        int idLength = bytes[BINARY_MAGIC.length + 1];
+        int headerLength = BINARY_MAGIC.length + 2 + idLength;
+        if (headerLength > bytes.length) {
+            throw new SBonitaRuntimeException("Invalid data value header: truncated codec id");
+        }
+        DataValueCodec codec = getCodec(
+                new String(bytes, BINARY_MAGIC.length + 2, idLength, StandardCharsets.US_ASCII));
+        return codec.decode(Arrays.copyOfRange(bytes, headerLength, bytes.length));
+    }
+
+    private static boolean hasBinaryHeader(byte[] bytes) {
+        if (bytes.length < BINARY_MAGIC.length + 2) {
+            return false;
+        }
+        for (int i = 0; i < BINARY_MAGIC.length; i++) {
+            if (bytes[i] != BINARY_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+
+/**
+ * Keeps the value decoded from the stored value of a data instance, so that reading the value several times decodes
+ * it once. The decoded value is kept as long as the stored value is the same instance.
+ * <p>
+ * Immutable values are shared by all reads. A mutable value, such as a list or a map, can be modified by the caller:
+ * each read then returns its own copy, made from a private copy kept by this class, so that a value modified in place
+ * is never seen by the next read. A modified value must still be set again on the data instance to be stored. Values
+ * that can not be copied are decoded on each read. Not thread-safe, like the entity holding it.
+ */
+public final class MemoizedDataValue<E> {
+
+    private static final CompactDataValueCodec COPY_CODEC = new CompactDataValueCodec(false);
+
+    private E encoded;
+    private Serializable decoded;
+    private byte[] decodedCopy;
+
+    public Serializable get(E encodedValue, Function<E, Serializable> decoder) {
+        if (encodedValue == null) {
+            return null;
+        }
+        if (encodedValue == encoded) {
+            return decodedCopy != null ? COPY_CODEC.decode(decodedCopy) : decoded;
+        }
+        Serializable value = decoder.apply(encodedValue);
+        decoded = null;
+        decodedCopy = null;
+        encoded = null;
+        if (CompactDataValueCodec.isImmutable(value)) {
+            decoded = value;
+            encoded = encodedValue;
+        } else {
+            try {
+                decodedCopy = COPY_CODEC.encode(value);
+                encoded = encodedValue;
+            } catch (SBonitaRuntimeException e) {
+                // not serializable: decoded again on the next read
+            }
+        }
+        return value;
+    }
+}
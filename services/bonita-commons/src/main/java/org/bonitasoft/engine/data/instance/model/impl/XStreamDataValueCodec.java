@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes values as XML using the {@link XStreamFactory XStream instance} of the context class loader.
+ */
+public class XStreamDataValueCodec implements DataValueCodec {
+
+    public static final String ID = "xstream";
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(Serializable value) {
+        return toXML(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Serializable decode(byte[] bytes) {
+        return (Serializable) XStreamFactory.getXStream().fromXML(new ByteArrayInputStream(bytes));
+    }
+
+    String toXML(Serializable value) {
+        return XStreamFactory.getXStream().toXML(value);
+    }
+
+    Serializable fromXML(String xml) {
+        return (Serializable) XStreamFactory.getXStream().fromXML(xml);
+    }
+}
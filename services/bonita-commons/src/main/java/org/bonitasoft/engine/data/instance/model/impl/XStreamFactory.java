@@ -13,15 +13,16 @@
  **/
 package org.bonitasoft.engine.data.instance.model.impl;
 
-import java.util.Map;
-import java.util.WeakHashMap;
-
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.security.AnyTypePermission;
 
+/**
+ * Provides the XStream instance of the context class loader. XStream instances are thread-safe once configured, and
+ * can be used concurrently.
+ */
 public class XStreamFactory {
 
-    private static final Map<ClassLoader, XStream> XSTREAM_MAP = new WeakHashMap<>();
+    private static final ClassLoaderScopedMap<XStream> XSTREAM_MAP = new ClassLoaderScopedMap<>();
 
     public static XStream getXStream() {
         final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
@@ -49,6 +49,14 @@ public class FolderMgr {
         return tempFolder;
     }
 
+    /**
+     * Folder where dependency jars are stored by content. It is private to this engine, like its other temporary
+     * folders, and deleted with them.
+     */
+    static Folder getJarStoreFolder() throws IOException {
+        return getFolder(getTempFolder(), "jar_store").createIfNotExists();
+    }
+
     private static void warnIfSomeTempFolderAlreadyExists(File systemTempFolder) {
         File[] files = systemTempFolder
                 .listFiles((dir, name) -> dir.isDirectory() && name.startsWith(TEMP_FOLDER_NAME_PREFIX));
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.commons.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+class XmlProcessorsTest {
+
+    @Test
+    void should_reuse_compiled_expression() throws Exception {
+        final XPathExpression expression = XmlProcessors.compile("//book/@id");
+
+        assertThat(XmlProcessors.compile("//book/@id")).isSameAs(expression);
+        assertThat(XmlProcessors.compile("//book/title")).isNotSameAs(expression);
+    }
+
+    @Test
+    void should_compile_again_expressions_removed_from_a_full_cache() throws Exception {
+        final XPathExpression expression = XmlProcessors.compile("/catalog");
+
+        for (int i = 0; i < XmlProcessors.MAX_COMPILED_EXPRESSIONS; i++) {
+            XmlProcessors.compile("/catalog/book[" + (i + 1) + "]");
+        }
+
+        assertThat(XmlProcessors.compile("/catalog")).isNotSameAs(expression);
+    }
+
+    @Test
+    void should_evaluate_compiled_expression_on_parsed_document() throws Exception {
+        final Document document = XmlProcessors
+                .parse("<catalog><book id=\"bk101\"><title>Guide</title></book></catalog>");
+
+        assertThat(XmlProcessors.compile("//book[@id='bk101']/title").evaluate(document, XPathConstants.STRING))
+                .isEqualTo("Guide");
+    }
+
+    @Test
+    void should_parse_after_a_failed_parse() throws Exception {
+        assertThatThrownBy(() -> XmlProcessors.parse("<catalog><book></catalog>")).isInstanceOf(SAXException.class);
+
+        assertThat(XmlProcessors.parse("<catalog/>").getDocumentElement().getNodeName()).isEqualTo("catalog");
+    }
+
+    @Test
+    void should_serialize_document() throws Exception {
+        final Document document = XmlProcessors.parse("<catalog><book id=\"bk101\"/></catalog>");
+        document.getDocumentElement().setAttribute("name", "books");
+
+        final String xml = XmlProcessors.toString(document);
+
+        assertThat(xml).startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"").contains("<catalog name=\"books\">")
+                .contains("<book id=\"bk101\"/>");
+    }
+}
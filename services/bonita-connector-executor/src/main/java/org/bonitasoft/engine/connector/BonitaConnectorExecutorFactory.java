@@ -19,4 +19,13 @@ public interface BonitaConnectorExecutorFactory {
 
     ThreadPoolExecutor create();
 
+    /**
+     * @param connectorDefinitionId the id of the definition of the connector
+     * @return the maximum number of connectors of this definition that can be executed at the same time, 0 when
+     *         there is no limit other than the size of the executor
+     */
+    default int getMaxConcurrentExecutions(String connectorDefinitionId) {
+        return 0;
+    }
+
 }
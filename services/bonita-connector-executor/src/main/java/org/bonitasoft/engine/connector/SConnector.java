@@ -63,4 +63,11 @@ public interface SConnector {
      * @throws SConnectorException
      */
     void disconnect() throws SConnectorException;
+
+    /**
+     * @return the id of the definition of this connector, or null when it is not known
+     */
+    default String getDefinitionId() {
+        return null;
+    }
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.connector.impl;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of connectors of the same definition executed at the same time.
+ * <p>
+ * A connector is only submitted to the executor once a permit is available: while it waits, it is queued here and
+ * does not hold a thread of the executor. The permit is released when its execution completes, which submits the next
+ * waiting connector.
+ */
+class ConnectorBulkhead {
+
+    private final int maxConcurrentExecutions;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int running;
+
+    ConnectorBulkhead(int maxConcurrentExecutions) {
+        this.maxConcurrentExecutions = maxConcurrentExecutions;
+    }
+
+    /**
+     * @param execution submits the connector to the executor, called once a permit is available
+     * @return the result of the execution
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> execution) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> start(execution, result);
+        boolean startNow;
+        synchronized (this) {
+            startNow = running < maxConcurrentExecutions;
+            if (startNow) {
+                running++;
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private <T> void start(Supplier<CompletableFuture<T>> execution, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            // cancelled while waiting
+            release();
+            return;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = execution.get();
+        } catch (RuntimeException e) {
+            release();
+            result.completeExceptionally(e);
+            return;
+        }
+        future.whenComplete((value, error) -> {
+            release();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                running--;
+            }
+        }
+        if (next != null) {
+            // the permit is handed over to the next waiting connector
+            next.run();
+        }
+    }
+
+    synchronized int getRunning() {
+        return running;
+    }
+
+    synchronized int getWaiting() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.connector.impl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.connector.BonitaConnectorExecutorFactory;
+import org.bonitasoft.engine.connector.impl.ConnectorSingleThreadExecutorFactory.QueueRejectedExecutionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes up to 'bonita.tenant.connector.maxThreads' connectors at the same time, each one on its own thread.
+ * Threads are created when connectors are submitted and end when they stay idle, so that connectors waiting on remote
+ * systems do not delay the other ones. When the JVM supports them, virtual threads are used.
+ * Only activated when 'bonita.tenant.connector.maxThreads' is greater than 1.
+ * <p>
+ * The number of connectors of a same definition executed at the same time can be limited using
+ * 'bonita.tenant.connector.bulkheads', e.g. {@code rest-get=5,database-jdbc=2}.
+ */
+@Slf4j
+@Component
+@Primary
+@ConditionalOnExpression("${bonita.tenant.connector.maxThreads:1} > 1")
+public class ConnectorElasticExecutorFactory implements BonitaConnectorExecutorFactory {
+
+    private static final String THREAD_NAME = "ConnectorExecutor";
+    private static final long PLATFORM_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final long VIRTUAL_THREAD_KEEP_ALIVE_SECONDS = 1;
+
+    private final int queueCapacity;
+    private final int maxThreads;
+    private final Map<String, Integer> maxConcurrentExecutions;
+
+    public ConnectorElasticExecutorFactory(@Value("${bonita.tenant.connector.queueCapacity}") int queueCapacity,
+            @Value("${bonita.tenant.connector.maxThreads:1}") int maxThreads,
+            @Value("${bonita.tenant.connector.bulkheads:}") String bulkheads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException(
+                    "'bonita.tenant.connector.maxThreads' must be at least 1, was " + maxThreads);
+        }
+        this.queueCapacity = queueCapacity;
+        this.maxThreads = maxThreads;
+        this.maxConcurrentExecutions = parseBulkheads(bulkheads);
+    }
+
+    static Map<String, Integer> parseBulkheads(String bulkheads) {
+        Map<String, Integer> maxConcurrentExecutions = new HashMap<>();
+        if (bulkheads == null || bulkheads.isBlank()) {
+            return maxConcurrentExecutions;
+        }
+        for (String bulkhead : bulkheads.split(",")) {
+            String[] definitionAndMax = bulkhead.split("=");
+            try {
+                if (definitionAndMax.length != 2 || definitionAndMax[0].isBlank()) {
+                    throw new NumberFormatException();
+                }
+                maxConcurrentExecutions.put(definitionAndMax[0].trim(), Integer.parseInt(definitionAndMax[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'bonita.tenant.connector.bulkheads' must be a list of"
+                        + " <connector definition id>=<max concurrent executions>, was " + bulkheads);
+            }
+        }
+        return maxConcurrentExecutions;
+    }
+
+    @Override
+    public ThreadPoolExecutor create() {
+        ThreadFactory threadFactory = virtualThreadFactory();
+        long keepAliveSeconds = VIRTUAL_THREAD_KEEP_ALIVE_SECONDS;
+        if (threadFactory == null) {
+            threadFactory = new ConnectorExecutorThreadFactory(THREAD_NAME);
+            keepAliveSeconds = PLATFORM_THREAD_KEEP_ALIVE_SECONDS;
+        }
+        log.info("Connectors are executed using up to {} {} threads", maxThreads,
+                threadFactory instanceof ConnectorExecutorThreadFactory ? "platform" : "virtual");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, keepAliveSeconds, SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new QueueRejectedExecutionHandler());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public int getMaxConcurrentExecutions(String connectorDefinitionId) {
+        return maxConcurrentExecutions.getOrDefault(connectorDefinitionId, 0);
+    }
+
+    /**
+     * The engine is built for a JVM not having virtual threads, they are created using reflection.
+     *
+     * @return a factory of virtual threads, or null when the JVM does not support them
+     */
+    static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
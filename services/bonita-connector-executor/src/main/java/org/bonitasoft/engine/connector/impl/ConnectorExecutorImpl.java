@@ -16,10 +16,11 @@ package org.bonitasoft.engine.connector.impl;
 import static org.bonitasoft.engine.connector.ConnectorExecutionResult.result;
 
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -75,6 +76,7 @@ public class ConnectorExecutorImpl implements ConnectorExecutor {
     private final ExecutorServiceMetricsProvider executorServiceMetricsProvider;
 
     private final AtomicLong runningWorks = new AtomicLong();
+    private final ConcurrentMap<String, ConnectorBulkhead> bulkheads = new ConcurrentHashMap<>();
     private Counter executedWorkCounter;
     private Gauge numberOfConnectorsPending;
     private Gauge numberOfConnectorsRunning;
@@ -111,7 +113,13 @@ public class ConnectorExecutorImpl implements ConnectorExecutor {
 
         ExecuteConnectorCallable task = new ExecuteConnectorCallable(inputParameters, sConnector, tenantId,
                 classLoader);
-        return execute(sConnector, task);
+        ConnectorBulkhead bulkhead = getBulkhead(sConnector);
+        if (bulkhead == null) {
+            return execute(sConnector, task);
+        }
+        // the connector is only submitted once it gets a permit, so that waiting neither holds a thread of the
+        // executor nor counts in its execution
+        return bulkhead.submit(() -> execute(sConnector, task));
     }
 
     protected CompletableFuture<ConnectorExecutionResult> execute(SConnector sConnector,
@@ -126,6 +134,25 @@ public class ConnectorExecutorImpl implements ConnectorExecutor {
         }, executorService);
     }
 
+    /**
+     * @return the bulkhead limiting the number of connectors of the same definition executed at the same time, or
+     *         null when there is no such limit
+     */
+    ConnectorBulkhead getBulkhead(SConnector sConnector) {
+        String definitionId = sConnector.getDefinitionId();
+        if (definitionId == null) {
+            return null;
+        }
+        return bulkheads.computeIfAbsent(definitionId, id -> {
+            int maxConcurrentExecutions = bonitaConnectorExecutorFactory.getMaxConcurrentExecutions(id);
+            return maxConcurrentExecutions > 0 ? new ConnectorBulkhead(maxConcurrentExecutions) : null;
+        });
+    }
+
+    private int getNumberOfConnectorsWaitingForBulkheads() {
+        return bulkheads.values().stream().mapToInt(ConnectorBulkhead::getWaiting).sum();
+    }
+
     private Callable<ConnectorExecutionResult> wrapForStats(final Callable<Map<String, Object>> task) {
         return () -> {
             runningWorks.incrementAndGet();
@@ -144,13 +171,10 @@ public class ConnectorExecutorImpl implements ConnectorExecutor {
             final Map<String, Object> inputParameters) {
         if (timeTracker.isTrackable(recordName)) {
             final long endTime = System.currentTimeMillis();
-            final StringBuilder desc = new StringBuilder();
-            desc.append("Connector: ");
-            desc.append(sConnector);
-            desc.append(" - ");
-            desc.append("inputParameters: ");
-            desc.append(inputParameters);
-            timeTracker.track(recordName, desc.toString(), endTime - startTime);
+            final String definitionId = sConnector.getDefinitionId();
+            timeTracker.track(recordName, definitionId != null ? definitionId : sConnector.getClass().getName(),
+                    () -> "Connector: " + sConnector + " - " + "inputParameters: " + inputParameters,
+                    endTime - startTime);
         }
     }
 
@@ -265,8 +289,9 @@ public class ConnectorExecutorImpl implements ConnectorExecutor {
                             tenantId);
             Tags tags = Tags.of("tenant", String.valueOf(tenantId));
             numberOfConnectorsPending = Gauge
-                    .builder(NUMBER_OF_CONNECTORS_PENDING, threadPoolExecutor.getQueue(), Collection::size)
-                    .tags(tags).baseUnit(CONNECTORS_UNIT).description("Connectors pending in the execution queue")
+                    .builder(NUMBER_OF_CONNECTORS_PENDING, threadPoolExecutor.getQueue(),
+                            queue -> queue.size() + getNumberOfConnectorsWaitingForBulkheads())
+                    .tags(tags).baseUnit(CONNECTORS_UNIT).description("Connectors pending in the execution queue or waiting for their bulkhead")
                     .register(meterRegistry);
             numberOfConnectorsRunning = Gauge.builder(NUMBER_OF_CONNECTORS_RUNNING, runningWorks, AtomicLong::get)
                     .tags(tags).baseUnit(CONNECTORS_UNIT).description("Connectors currently executing")
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.connector.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConnectorBulkheadTest {
+
+    private final ConnectorBulkhead bulkhead = new ConnectorBulkhead(1);
+
+    @Test
+    public void should_submit_the_next_execution_when_the_running_one_completes() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger submissions = new AtomicInteger();
+
+        CompletableFuture<String> firstResult = bulkhead.submit(() -> {
+            submissions.incrementAndGet();
+            return first;
+        });
+        CompletableFuture<String> secondResult = bulkhead.submit(() -> {
+            submissions.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+
+        assertThat(submissions).hasValue(1);
+        assertThat(bulkhead.getWaiting()).isEqualTo(1);
+
+        first.complete("first");
+
+        assertThat(firstResult).isCompletedWithValue("first");
+        assertThat(secondResult).isCompletedWithValue("second");
+        assertThat(submissions).hasValue(2);
+        assertThat(bulkhead.getRunning()).isZero();
+    }
+
+    @Test
+    public void should_release_the_permit_when_the_submission_fails() {
+        CompletableFuture<String> result = bulkhead.submit(() -> {
+            throw new IllegalStateException("rejected");
+        });
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(bulkhead.getRunning()).isZero();
+    }
+
+    @Test
+    public void should_not_submit_an_execution_cancelled_while_waiting() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger submissions = new AtomicInteger();
+        bulkhead.submit(() -> first);
+        CompletableFuture<String> cancelled = bulkhead.submit(() -> {
+            submissions.incrementAndGet();
+            return CompletableFuture.completedFuture("cancelled");
+        });
+
+        cancelled.cancel(false);
+        first.complete("first");
+
+        assertThat(submissions).hasValue(0);
+        assertThat(bulkhead.getRunning()).isZero();
+    }
+}
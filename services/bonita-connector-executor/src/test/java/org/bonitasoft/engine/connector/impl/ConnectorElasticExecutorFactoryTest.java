@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.connector.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConnectorElasticExecutorFactoryTest {
+
+    @Test
+    public void should_execute_connectors_in_parallel_up_to_max_threads() throws Exception {
+        ThreadPoolExecutor executor = new ConnectorElasticExecutorFactory(10, 3, "").create();
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.getActiveCount()).isEqualTo(3);
+            assertThat(executor.getQueue()).hasSize(1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void should_return_max_concurrent_executions_of_configured_definitions() {
+        ConnectorElasticExecutorFactory factory = new ConnectorElasticExecutorFactory(10, 3,
+                "rest-get=5, database-jdbc = 2");
+
+        assertThat(factory.getMaxConcurrentExecutions("rest-get")).isEqualTo(5);
+        assertThat(factory.getMaxConcurrentExecutions("database-jdbc")).isEqualTo(2);
+        assertThat(factory.getMaxConcurrentExecutions("email")).isZero();
+    }
+
+    @Test
+    public void should_reject_invalid_bulkheads() {
+        assertThatThrownBy(() -> new ConnectorElasticExecutorFactory(10, 3, "rest-get:5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bonita.tenant.connector.bulkheads");
+    }
+
+    @Test
+    public void should_reject_less_than_one_thread() {
+        assertThatThrownBy(() -> new ConnectorElasticExecutorFactory(10, 0, ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bonita.tenant.connector.maxThreads");
+    }
+}
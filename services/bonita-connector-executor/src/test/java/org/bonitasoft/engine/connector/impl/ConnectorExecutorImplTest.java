@@ -266,6 +266,50 @@ public class ConnectorExecutorImplTest {
                 .as("Pending connectors number").isEqualTo(1);
     }
 
+    @Test
+    public void should_limit_concurrent_executions_of_a_connector_definition() throws Exception {
+        connectorExecutorImpl.stop();
+        connectorExecutorImpl = new ConnectorExecutorImpl(sessionAccessor, sessionService, timeTracker,
+                meterRegistry, TENANT_ID, new DefaultExecutorServiceMetricsProvider(),
+                new ConnectorElasticExecutorFactory(10, 4, "slow=1"));
+        connectorExecutorImpl.start();
+
+        connectorExecutorImpl.execute(new LocalSConnector(2, "slow"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader());
+        connectorExecutorImpl.execute(new LocalSConnector(2, "slow"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader());
+        connectorExecutorImpl.execute(new LocalSConnector(-1, "fast"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader()).get(1, TimeUnit.SECONDS);
+
+        //then: only one connector of the 'slow' definition is running, the other one waits for it
+        assertThat(meterRegistry.find(ConnectorExecutorImpl.NUMBER_OF_CONNECTORS_RUNNING).gauge().value())
+                .as("Running connectors number").isEqualTo(1);
+        ConnectorBulkhead slowBulkhead = connectorExecutorImpl.getBulkhead(new LocalSConnector(-1, "slow"));
+        assertThat(slowBulkhead.getRunning()).isEqualTo(1);
+        assertThat(slowBulkhead.getWaiting()).isEqualTo(1);
+        assertThat(connectorExecutorImpl.getBulkhead(new LocalSConnector(-1, "fast"))).isNull();
+    }
+
+    @Test
+    public void should_not_hold_an_executor_thread_while_waiting_for_the_bulkhead() throws Exception {
+        connectorExecutorImpl.stop();
+        connectorExecutorImpl = new ConnectorExecutorImpl(sessionAccessor, sessionService, timeTracker,
+                meterRegistry, TENANT_ID, new DefaultExecutorServiceMetricsProvider(),
+                new ConnectorElasticExecutorFactory(10, 2, "slow=1"));
+        connectorExecutorImpl.start();
+
+        connectorExecutorImpl.execute(new LocalSConnector(2, "slow"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader());
+        connectorExecutorImpl.execute(new LocalSConnector(2, "slow"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader());
+
+        //then: the second thread of the executor is still available for other definitions
+        assertThat(connectorExecutorImpl.execute(new LocalSConnector(-1, "fast"), new HashMap<>(),
+                Thread.currentThread().getContextClassLoader()).get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(meterRegistry.find(ConnectorExecutorImpl.NUMBER_OF_CONNECTORS_PENDING).gauge().value())
+                .as("Pending connectors number").isEqualTo(1);
+    }
+
     @Test
     public void createExecutorService_should_register_ExecutorServiceMetrics() {
         assertThat(
@@ -283,9 +327,20 @@ public class ConnectorExecutorImplTest {
     private static class LocalSConnector extends AbstractSConnector {
 
         private final long sleepPeriodInSeconds;
+        private final String definitionId;
 
         private LocalSConnector(long sleepPeriodInSeconds) {
+            this(sleepPeriodInSeconds, null);
+        }
+
+        private LocalSConnector(long sleepPeriodInSeconds, String definitionId) {
             this.sleepPeriodInSeconds = sleepPeriodInSeconds;
+            this.definitionId = definitionId;
+        }
+
+        @Override
+        public String getDefinitionId() {
+            return definitionId;
         }
 
         @Override
@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.api.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.data.instance.api.DataContainer;
+import org.bonitasoft.engine.data.instance.api.ParentContainerResolver;
+import org.bonitasoft.engine.data.instance.model.SDataInstance;
+import org.bonitasoft.engine.transaction.BonitaTransactionSynchronization;
+import org.bonitasoft.engine.transaction.STransactionNotFoundException;
+import org.bonitasoft.engine.transaction.UserTransactionService;
+
+/**
+ * Keep, for the duration of the current transaction, the data instances visible from a container, i.e. the data of
+ * the container and of its parent containers, with the data of closer containers shadowing the ones of parent
+ * containers.
+ * <p>
+ * Data instances are kept per thread and forgotten when the transaction completes. All kept data instances are
+ * forgotten as soon as a data instance is created, updated or deleted.
+ * Activated by setting 'bonita.tenant.data.instance.cache.enabled' to true.
+ */
+@Slf4j
+public class DataInstanceCache {
+
+    private final UserTransactionService transactionService;
+    private final boolean enabled;
+    private final ThreadLocal<TransactionCache> transactionCaches = new ThreadLocal<>();
+
+    public DataInstanceCache(UserTransactionService transactionService, boolean enabled) {
+        this.transactionService = transactionService;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true when data instances can be kept in the current transaction
+     */
+    boolean isActive() {
+        return enabled && transactionService.isTransactionActive();
+    }
+
+    /**
+     * @return the data instances visible from the container, ordered from the closest container, or null when they
+     *         are not kept in the current transaction
+     */
+    List<SDataInstance> get(DataContainer container, ParentContainerResolver parentContainerResolver) {
+        TransactionCache cache = getTransactionCache();
+        if (cache == null) {
+            return null;
+        }
+        return cache.entries.get(new Key(container, parentContainerResolver));
+    }
+
+    /**
+     * Keep the data instances visible from the container until the end of the current transaction. Does nothing when
+     * the cache is not enabled or when there is no active transaction.
+     */
+    void put(DataContainer container, ParentContainerResolver parentContainerResolver,
+            List<SDataInstance> dataInstances) {
+        TransactionCache cache = getOrCreateTransactionCache();
+        if (cache != null) {
+            cache.entries.put(new Key(container, parentContainerResolver), dataInstances);
+        }
+    }
+
+    /**
+     * Forget all data instances kept in the current transaction.
+     */
+    void invalidate() {
+        TransactionCache cache = getTransactionCache();
+        if (cache != null) {
+            cache.entries.clear();
+        }
+    }
+
+    private TransactionCache getTransactionCache() {
+        TransactionCache cache = transactionCaches.get();
+        if (cache != null && cache.completed) {
+            // the transaction was completed by another thread, e.g. after a timeout
+            transactionCaches.remove();
+            return null;
+        }
+        return cache;
+    }
+
+    private TransactionCache getOrCreateTransactionCache() {
+        TransactionCache cache = getTransactionCache();
+        if (cache != null || !enabled || !transactionService.isTransactionActive()) {
+            return cache;
+        }
+        final TransactionCache newCache = new TransactionCache();
+        try {
+            transactionService.registerBonitaSynchronization((BonitaTransactionSynchronization) txState -> {
+                newCache.completed = true;
+                transactionCaches.remove();
+            });
+        } catch (STransactionNotFoundException e) {
+            log.debug("Data instances are not cached, no transaction found: {}", e.getMessage());
+            return null;
+        }
+        transactionCaches.set(newCache);
+        return newCache;
+    }
+
+    private static final class TransactionCache {
+
+        private final Map<Key, List<SDataInstance>> entries = new HashMap<>();
+        private volatile boolean completed;
+    }
+
+    /**
+     * The container hierarchy, and so the visible data instances, depends on the resolver used to compute it.
+     */
+    private static final class Key {
+
+        private final DataContainer container;
+        private final ParentContainerResolver parentContainerResolver;
+
+        private Key(DataContainer container, ParentContainerResolver parentContainerResolver) {
+            this.container = container;
+            this.parentContainerResolver = parentContainerResolver;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            Key that = (Key) o;
+            return container.equals(that.container) && parentContainerResolver == that.parentContainerResolver;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(container, System.identityHashCode(parentContainerResolver));
+        }
+    }
+}
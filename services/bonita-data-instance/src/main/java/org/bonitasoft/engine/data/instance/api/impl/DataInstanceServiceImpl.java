@@ -81,6 +81,8 @@ public class DataInstanceServiceImpl implements DataInstanceService {
 
     protected final ArchiveService archiveService;
 
+    private DataInstanceCache dataInstanceCache;
+
     public DataInstanceServiceImpl(final Recorder recorder, final ReadPersistenceService persistenceService,
             final ArchiveService archiveService) {
         this.recorder = recorder;
@@ -88,6 +90,14 @@ public class DataInstanceServiceImpl implements DataInstanceService {
         this.archiveService = archiveService;
     }
 
+    /**
+     * @param dataInstanceCache keeps the data instances visible from a container during a transaction, so that
+     *        reading several data of the same container runs a single query
+     */
+    public void setDataInstanceCache(final DataInstanceCache dataInstanceCache) {
+        this.dataInstanceCache = dataInstanceCache;
+    }
+
     private void archiveDataInstance(final SDataInstance sDataInstance) throws SDataInstanceException {
         if (!sDataInstance.isTransientData()) {
             try {
@@ -106,6 +116,19 @@ public class DataInstanceServiceImpl implements DataInstanceService {
             final ParentContainerResolver parentContainerResolver) throws SDataInstanceException {
         NullCheckingUtil.checkArgsNotNull(dataName, containerType);
 
+        final List<SDataInstance> visibleDataInstances = getCachedVisibleDataInstances(containerId, containerType,
+                parentContainerResolver);
+        if (visibleDataInstances != null) {
+            for (final SDataInstance dataInstance : visibleDataInstances) {
+                if (dataName.equals(dataInstance.getName())) {
+                    return dataInstance;
+                }
+            }
+            throw new SDataInstanceNotFoundException(
+                    "DataInstance with name not found: [name: " + dataName + ", container type: " + containerType
+                            + ", container id: " + containerId + ']');
+        }
+
         final String queryName = "getDataInstancesWithNames";
         final Map<String, Object> inputParameters = new HashMap<String, Object>();
         inputParameters.put("dataNames", Collections.singletonList(dataName));
@@ -131,21 +154,49 @@ public class DataInstanceServiceImpl implements DataInstanceService {
             throws SDataInstanceException {
         NullCheckingUtil.checkArgsNotNull(containerType);
 
-        final String queryName = "getDataInstances";
-        final Map<String, Object> inputParameters = new HashMap<String, Object>();
-        final List<SDataInstance> dataInstances = getSDatainstanceOfContainers(containerId, containerType,
-                parentContainerResolver, queryName, inputParameters);
+        List<SDataInstance> dataInstances = getCachedVisibleDataInstances(containerId, containerType,
+                parentContainerResolver);
+        if (dataInstances == null) {
+            dataInstances = getSDatainstanceOfContainers(containerId, containerType, parentContainerResolver,
+                    "getDataInstances", new HashMap<String, Object>());
+        }
 
         //apply pagination here because we could not do the request only in database cause of a post data's processing to remove duplicate variable
         final int startIndex = Math.max(0, fromIndex);
         final int toIndex = Math.min(dataInstances.size(), fromIndex + numberOfResults);
 
         if (toIndex > startIndex) {
-            return dataInstances.subList(startIndex, toIndex);
+            return new ArrayList<>(dataInstances.subList(startIndex, toIndex));
         }
         return Collections.emptyList();
     }
 
+    /**
+     * @return all data instances visible from the container, read once per transaction and ordered from the closest
+     *         container, or null when data instances are not cached
+     */
+    private List<SDataInstance> getCachedVisibleDataInstances(final long containerId, final String containerType,
+            final ParentContainerResolver parentContainerResolver)
+            throws SDataInstanceNotFoundException, SDataInstanceReadException {
+        if (dataInstanceCache == null || !dataInstanceCache.isActive()) {
+            return null;
+        }
+        final DataContainer container = new DataContainer(containerId, containerType);
+        List<SDataInstance> dataInstances = dataInstanceCache.get(container, parentContainerResolver);
+        if (dataInstances == null) {
+            dataInstances = Collections.unmodifiableList(getSDatainstanceOfContainers(containerId, containerType,
+                    parentContainerResolver, "getDataInstances", new HashMap<String, Object>()));
+            dataInstanceCache.put(container, parentContainerResolver, dataInstances);
+        }
+        return dataInstances;
+    }
+
+    private void invalidateCachedDataInstances() {
+        if (dataInstanceCache != null) {
+            dataInstanceCache.invalidate();
+        }
+    }
+
     private Map<String, List<Long>> buildContainersMap(final List<DataContainer> containerHierarchy,
             final Map<String, Object> inputParameters) {
         final Map<String, List<Long>> containers = new HashMap<String, List<Long>>();
@@ -419,6 +470,18 @@ public class DataInstanceServiceImpl implements DataInstanceService {
         if (dataNames.isEmpty()) {
             return Collections.emptyList();
         }
+        final List<SDataInstance> visibleDataInstances = getCachedVisibleDataInstances(containerId, containerType,
+                parentContainerResolver);
+        if (visibleDataInstances != null) {
+            final Set<String> names = new HashSet<>(dataNames);
+            final List<SDataInstance> dataInstances = new ArrayList<>();
+            for (final SDataInstance dataInstance : visibleDataInstances) {
+                if (names.contains(dataInstance.getName())) {
+                    dataInstances.add(dataInstance);
+                }
+            }
+            return dataInstances;
+        }
 
         final String queryName = "getDataInstancesWithNames";
         final Map<String, Object> inputParameters = new HashMap<String, Object>();
@@ -513,6 +576,7 @@ public class DataInstanceServiceImpl implements DataInstanceService {
 
     @Override
     public void createDataInstance(final SDataInstance dataInstance) throws SDataInstanceException {
+        invalidateCachedDataInstances();
         try {
             recorder.recordInsert(new InsertRecord(dataInstance), DATA_INSTANCE);
         } catch (final SRecorderException e) {
@@ -525,6 +589,7 @@ public class DataInstanceServiceImpl implements DataInstanceService {
     public void updateDataInstance(final SDataInstance dataInstance, final EntityUpdateDescriptor descriptor)
             throws SDataInstanceException {
         NullCheckingUtil.checkArgsNotNull(dataInstance);
+        invalidateCachedDataInstances();
         try {
             recorder.recordUpdate(UpdateRecord.buildSetFields(dataInstance, descriptor), DATA_INSTANCE);
         } catch (final SRecorderException e) {
@@ -537,6 +602,7 @@ public class DataInstanceServiceImpl implements DataInstanceService {
     @Override
     public void deleteDataInstance(final SDataInstance dataInstance) throws SDataInstanceException {
         NullCheckingUtil.checkArgsNotNull(dataInstance);
+        invalidateCachedDataInstances();
         try {
             recorder.recordDelete(new DeleteRecord(dataInstance), DATA_INSTANCE);
         } catch (final SRecorderException e) {
@@ -19,12 +19,16 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 import org.bonitasoft.engine.data.definition.model.SDataDefinition;
-import org.bonitasoft.engine.data.instance.model.impl.XStreamFactory;
+import org.bonitasoft.engine.data.instance.model.impl.DataValueCodecs;
+import org.bonitasoft.engine.data.instance.model.impl.MemoizedDataValue;
 import org.hibernate.annotations.Type;
 
 /**
@@ -43,29 +47,29 @@ public final class SXMLObjectDataInstance extends SDataInstance {
     @Type(type = "materialized_clob")
     private String value;
 
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient MemoizedDataValue<String> decodedValue = new MemoizedDataValue<>();
+
     public SXMLObjectDataInstance(final SDataDefinition dataDefinition) {
         super(dataDefinition);
     }
 
     @Override
     public Serializable getValue() {
-        return revert(value);
+        return decodedValue.get(value, DataValueCodecs::fromText);
     }
 
     @Override
     public void setValue(final Serializable value) {
-        this.value = convert(value);
-    }
-
-    private String convert(final Serializable value) {
-        return XStreamFactory.getXStream().toXML(value);
+        this.value = DataValueCodecs.toText(value);
     }
 
-    private Serializable revert(final String value) {
-        if (value != null) {
-            return (Serializable) XStreamFactory.getXStream().fromXML(value);
-        }
-        return null;
+    /**
+     * @return the value as stored, without decoding it
+     */
+    public String getStoredValue() {
+        return value;
     }
 
 }
@@ -13,24 +13,22 @@
  **/
 package org.bonitasoft.engine.data.instance.model.archive;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.ObjectStreamClass;
 import java.io.Serializable;
 
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
-import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
 import org.bonitasoft.engine.data.instance.model.SDataInstance;
+import org.bonitasoft.engine.data.instance.model.impl.DataValueCodecs;
+import org.bonitasoft.engine.data.instance.model.impl.MemoizedDataValue;
 import org.bonitasoft.engine.persistence.PersistentObject;
 import org.hibernate.annotations.Type;
 
@@ -46,6 +44,10 @@ public class SABlobDataInstance extends SADataInstance {
     @Type(type = "materialized_blob")
     private byte[] value;
 
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient MemoizedDataValue<byte[]> decodedValue = new MemoizedDataValue<>();
+
     public SABlobDataInstance(final SDataInstance sDataInstance) {
         super(sDataInstance);
         setValue(sDataInstance.getValue());
@@ -53,12 +55,12 @@ public class SABlobDataInstance extends SADataInstance {
 
     @Override
     public Serializable getValue() {
-        return revert(value);
+        return decodedValue.get(value, DataValueCodecs::fromBytes);
     }
 
     @Override
     public void setValue(final Serializable value) {
-        this.value = convert(value);
+        this.value = DataValueCodecs.toBytes(value);
     }
 
     @Override
@@ -66,57 +68,4 @@ public class SABlobDataInstance extends SADataInstance {
         return SDataInstance.class;
     }
 
-    private byte[] convert(final Serializable value) {
-        ObjectOutputStream oos = null;
-        try {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            oos = new ObjectOutputStream(baos);
-            oos.writeObject(value);
-            oos.flush();
-            return baos.toByteArray();
-        } catch (final IOException ioe) {
-            throw new SBonitaRuntimeException(ioe);
-        } finally {
-            try {
-                if (oos != null) {
-                    oos.close();
-                }
-            } catch (final IOException ioe) {
-                throw new SBonitaRuntimeException(ioe);
-            }
-        }
-    }
-
-    private Serializable revert(final byte[] bytes) {
-        if (bytes == null) {
-            return null;
-        }
-        ObjectInputStream ois = null;
-        try {
-            final ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-            ois = new ObjectInputStream(bais) {
-
-                @Override
-                protected Class<?> resolveClass(final ObjectStreamClass desc) throws ClassNotFoundException {
-                    final String className = desc.getName();
-                    final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-                    return Class.forName(className, true, classLoader);
-                }
-            };
-            return (Serializable) ois.readObject();
-        } catch (final IOException ioe) {
-            throw new SBonitaRuntimeException(ioe);
-        } catch (final ClassNotFoundException cnfe) {
-            throw new SBonitaRuntimeException(cnfe);
-        } finally {
-            if (ois != null) {
-                try {
-                    ois.close();
-                } catch (final IOException ioe) {
-                    throw new SBonitaRuntimeException(ioe);
-                }
-            }
-        }
-    }
-
 }
@@ -19,12 +19,17 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 import org.bonitasoft.engine.data.instance.model.SDataInstance;
-import org.bonitasoft.engine.data.instance.model.impl.XStreamFactory;
+import org.bonitasoft.engine.data.instance.model.SXMLObjectDataInstance;
+import org.bonitasoft.engine.data.instance.model.impl.DataValueCodecs;
+import org.bonitasoft.engine.data.instance.model.impl.MemoizedDataValue;
 import org.hibernate.annotations.Type;
 
 @Data
@@ -39,22 +44,28 @@ public final class SAXMLObjectDataInstance extends SADataInstance {
     @Type(type = "materialized_clob")
     private String value;
 
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient MemoizedDataValue<String> decodedValue = new MemoizedDataValue<>();
+
     public SAXMLObjectDataInstance(final SDataInstance sDataInstance) {
         super(sDataInstance);
-        setValue(sDataInstance.getValue());
+        if (sDataInstance instanceof SXMLObjectDataInstance) {
+            // the stored value is archived as is, without decoding and encoding it again
+            this.value = ((SXMLObjectDataInstance) sDataInstance).getStoredValue();
+        } else {
+            setValue(sDataInstance.getValue());
+        }
     }
 
     @Override
     public Serializable getValue() {
-        if (value != null) {
-            return (Serializable) XStreamFactory.getXStream().fromXML(value);
-        }
-        return null;
+        return decodedValue.get(value, DataValueCodecs::fromText);
     }
 
     @Override
     public void setValue(final Serializable value) {
-        this.value = XStreamFactory.getXStream().toXML(value);
+        this.value = DataValueCodecs.toText(value);
     }
 
 }
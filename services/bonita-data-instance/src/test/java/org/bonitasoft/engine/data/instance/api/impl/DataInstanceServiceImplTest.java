@@ -22,6 +22,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
 import org.bonitasoft.engine.archive.ArchiveInsertRecord;
 import org.bonitasoft.engine.archive.ArchiveService;
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
@@ -39,6 +42,7 @@ import org.bonitasoft.engine.persistence.SBonitaReadException;
 import org.bonitasoft.engine.persistence.SelectListDescriptor;
 import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.model.EntityUpdateDescriptor;
+import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -58,6 +62,8 @@ public class DataInstanceServiceImplTest {
     private ReadPersistenceService persistenceService;
     @Mock
     private ArchiveService archiveService;
+    @Mock
+    private UserTransactionService transactionService;
 
     @Mock
     private ParentContainerResolver parentContainerResolver;
@@ -226,4 +232,94 @@ public class DataInstanceServiceImplTest {
         //then
         assertThat(dataInstance.getValue()).isEqualTo("SUBTASK_VALUE");
     }
+
+    @Test
+    public void should_read_data_instances_visible_from_a_container_once_per_transaction() throws Exception {
+        //given
+        useDataInstanceCache();
+        givenDataInstancesOfTaskAndProcess();
+        //when
+        SDataInstance taskData = dataInstanceServiceImpl.getDataInstance("shared", 68L, "TASK",
+                parentContainerResolver);
+        dataInstanceServiceImpl.getDataInstance("processData", 68L, "TASK", parentContainerResolver);
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        dataInstanceServiceImpl.getDataInstance("shared", 68L, "TASK", parentContainerResolver);
+        List<SDataInstance> someData = dataInstanceServiceImpl.getDataInstances(
+                Arrays.asList("shared", "processData"), 68L, "TASK", parentContainerResolver);
+        long numberOfDataInstances = dataInstanceServiceImpl.getNumberOfDataInstances(68L, "TASK",
+                parentContainerResolver);
+        //then
+        assertThat(taskData.getValue()).isEqualTo("TASK_VALUE");
+        assertThat(someData).extracting(SDataInstance::getValue).containsExactlyInAnyOrder("TASK_VALUE",
+                "PROC_VALUE");
+        assertThat(numberOfDataInstances).isEqualTo(3);
+        verify(persistenceService, times(1)).selectList(any(SelectListDescriptor.class));
+        verify(parentContainerResolver, times(1)).getContainerHierarchy(new DataContainer(68L, "TASK"));
+    }
+
+    @Test
+    public void should_read_data_instances_again_after_a_data_instance_is_updated() throws Exception {
+        //given
+        useDataInstanceCache();
+        givenDataInstancesOfTaskAndProcess();
+        SDataInstance taskData = dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK",
+                parentContainerResolver);
+        //when
+        dataInstanceServiceImpl.updateDataInstance(taskData, new EntityUpdateDescriptor());
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        //then
+        verify(persistenceService, times(2)).selectList(any(SelectListDescriptor.class));
+    }
+
+    @Test
+    public void should_read_data_instances_again_after_the_transaction_is_completed() throws Exception {
+        //given
+        useDataInstanceCache();
+        givenDataInstancesOfTaskAndProcess();
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        //when
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        //then
+        verify(persistenceService, times(2)).selectList(any(SelectListDescriptor.class));
+    }
+
+    @Test
+    public void should_not_cache_data_instances_outside_of_a_transaction() throws Exception {
+        //given
+        dataInstanceServiceImpl.setDataInstanceCache(new DataInstanceCache(transactionService, true));
+        givenDataInstancesOfTaskAndProcess();
+        //when
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        dataInstanceServiceImpl.getDataInstance("taskData", 68L, "TASK", parentContainerResolver);
+        //then
+        verify(persistenceService, times(2)).selectList(any(SelectListDescriptor.class));
+        verify(transactionService, never()).registerBonitaSynchronization(any());
+    }
+
+    private void useDataInstanceCache() {
+        doReturn(true).when(transactionService).isTransactionActive();
+        dataInstanceServiceImpl.setDataInstanceCache(new DataInstanceCache(transactionService, true));
+    }
+
+    private void givenDataInstancesOfTaskAndProcess() throws Exception {
+        List<SDataInstance> dataInstances = Arrays.asList(
+                createDataInstance(1, "shared", 66L, "PROC", "PROC_VALUE"),
+                createDataInstance(2, "processData", 66L, "PROC", "PROC_VALUE"),
+                createDataInstance(3, "shared", 68L, "TASK", "TASK_VALUE"),
+                createDataInstance(4, "taskData", 68L, "TASK", "TASK_VALUE"));
+        doAnswer(invocation -> new ArrayList<>(dataInstances)).when(persistenceService)
+                .selectList(any(SelectListDescriptor.class));
+        doReturn(Arrays.asList(new DataContainer(68L, "TASK"), new DataContainer(66L, "PROC")))
+                .when(parentContainerResolver).getContainerHierarchy(new DataContainer(68L, "TASK"));
+    }
+
+    private SLongTextDataInstance createDataInstance(long id, String name, long containerId, String containerType,
+            String value) {
+        SLongTextDataInstance dataInstance = createDataInstance(id, containerId, containerType, value);
+        dataInstance.setName(name);
+        return dataInstance;
+    }
 }
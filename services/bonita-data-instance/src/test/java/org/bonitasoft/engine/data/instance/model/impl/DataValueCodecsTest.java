@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.data.instance.model.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+import org.junit.After;
+import org.junit.Test;
+
+public class DataValueCodecsTest {
+
+    @After
+    public void resetCurrentCodec() {
+        DataValueCodecs.setCurrentCodec(XStreamDataValueCodec.ID);
+    }
+
+    @Test
+    public void should_write_text_values_as_xml_without_header_with_default_codec() {
+        String text = DataValueCodecs.toText(aMap());
+
+        assertThat(text).isEqualTo(XStreamFactory.getXStream().toXML(aMap()));
+        assertThat(DataValueCodecs.fromText(text)).isEqualTo(aMap());
+    }
+
+    @Test
+    public void should_write_text_values_with_codec_header_when_using_binary_codec() {
+        DataValueCodecs.setCurrentCodec(BinaryDataValueCodec.DEFLATE_ID);
+
+        String text = DataValueCodecs.toText(aMap());
+
+        assertThat(text).startsWith("bonita-data:binary-deflate:");
+        assertThat(DataValueCodecs.fromText(text)).isEqualTo(aMap());
+    }
+
+    @Test
+    public void should_read_text_values_written_with_another_codec() {
+        String legacyText = XStreamFactory.getXStream().toXML(aMap());
+        DataValueCodecs.setCurrentCodec(BinaryDataValueCodec.ID);
+        String binaryText = DataValueCodecs.toText(aMap());
+        DataValueCodecs.setCurrentCodec(XStreamDataValueCodec.ID);
+
+        assertThat(DataValueCodecs.fromText(legacyText)).isEqualTo(aMap());
+        assertThat(DataValueCodecs.fromText(binaryText)).isEqualTo(aMap());
+    }
+
+    @Test
+    public void should_read_legacy_java_serialized_binary_values() throws Exception {
+        ByteArrayOutputStream legacyBytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(legacyBytes)) {
+            oos.writeObject(aMap());
+        }
+        DataValueCodecs.setCurrentCodec(BinaryDataValueCodec.DEFLATE_ID);
+
+        assertThat(DataValueCodecs.fromBytes(legacyBytes.toByteArray())).isEqualTo(aMap());
+    }
+
+    @Test
+    public void should_write_binary_values_with_codec_header_only_when_not_using_legacy_codec() {
+        byte[] legacyBytes = DataValueCodecs.toBytes(aMap());
+        DataValueCodecs.setCurrentCodec(BinaryDataValueCodec.DEFLATE_ID);
+        byte[] compressedBytes = DataValueCodecs.toBytes(aMap());
+
+        assertThat(legacyBytes).startsWith((byte) 0xAC, (byte) 0xED);
+        assertThat(compressedBytes).startsWith((byte) 0xB0, (byte) 'D', (byte) 'V');
+        assertThat(DataValueCodecs.fromBytes(legacyBytes)).isEqualTo(aMap());
+        assertThat(DataValueCodecs.fromBytes(compressedBytes)).isEqualTo(aMap());
+    }
+
+    @Test
+    public void should_keep_the_classes_of_values_written_with_compact_codec() {
+        LinkedHashMap<String, Serializable> value = new LinkedHashMap<>();
+        value.put("name", "Walter Bates");
+        value.put("count", 3);
+        value.put("total", new BigDecimal("1250.50"));
+        value.put("date", new Date(1700000000000L));
+        value.put("tags", new ArrayList<>(List.of("a", "b")));
+        value.put("other", new TreeMap<>(Map.of("key", 1L)));
+        DataValueCodecs.setCurrentCodec(CompactDataValueCodec.ID);
+
+        Serializable read = DataValueCodecs.fromText(DataValueCodecs.toText(value));
+
+        assertThat(read).isInstanceOf(LinkedHashMap.class).isEqualTo(value);
+        assertThat(((Map<?, ?>) read).get("other")).isInstanceOf(TreeMap.class);
+    }
+
+    @Test
+    public void should_write_smaller_values_with_compact_codec_than_with_binary_codec() {
+        assertThat(new CompactDataValueCodec(false).encode(aMap()))
+                .hasSizeLessThan(new BinaryDataValueCodec(false).encode(aMap()).length);
+        assertThat(new CompactDataValueCodec(true).encode(aMap()))
+                .hasSizeLessThan(new BinaryDataValueCodec(true).encode(aMap()).length);
+    }
+
+    @Test
+    public void should_keep_shared_references_of_values_written_with_compact_codec() {
+        ArrayList<Object> list = new ArrayList<>();
+        list.add(list);
+        CompactDataValueCodec codec = new CompactDataValueCodec(true);
+
+        ArrayList<?> read = (ArrayList<?>) codec.decode(codec.encode(list));
+
+        assertThat(read.get(0)).isSameAs(read);
+    }
+
+    @Test
+    public void should_use_registered_codec() {
+        DataValueCodecs.register(new UpperCaseCodec());
+        DataValueCodecs.setCurrentCodec("upper-case");
+
+        String text = DataValueCodecs.toText("hello");
+
+        assertThat(text).startsWith("bonita-data:upper-case:");
+        assertThat(DataValueCodecs.fromText(text)).isEqualTo("HELLO");
+    }
+
+    @Test
+    public void should_fail_to_read_value_of_unknown_codec() {
+        assertThatThrownBy(() -> DataValueCodecs.fromText("bonita-data:unknown:AAAA"))
+                .isInstanceOf(SBonitaRuntimeException.class).hasMessageContaining("unknown");
+    }
+
+    @Test
+    public void should_reject_invalid_codec_ids() {
+        assertThatThrownBy(() -> DataValueCodecs.register(new UpperCaseCodec() {
+
+            @Override
+            public String getId() {
+                return "not:valid";
+            }
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HashMap<String, Serializable> aMap() {
+        HashMap<String, Serializable> map = new HashMap<>();
+        map.put("name", "Walter Bates");
+        map.put("amount", 1250.5d);
+        map.put("items", new HashMap<>(Map.of("quantity", 3)));
+        return map;
+    }
+
+    private static class UpperCaseCodec implements DataValueCodec {
+
+        @Override
+        public String getId() {
+            return "upper-case";
+        }
+
+        @Override
+        public byte[] encode(Serializable value) {
+            return value.toString().getBytes();
+        }
+
+        @Override
+        public Serializable decode(byte[] bytes) {
+            return new String(bytes).toUpperCase();
+        }
+    }
+}
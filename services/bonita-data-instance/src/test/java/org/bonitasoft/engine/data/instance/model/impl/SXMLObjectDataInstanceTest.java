@@ -16,6 +16,9 @@ package org.bonitasoft.engine.data.instance.model.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.bonitasoft.engine.data.definition.model.SDataDefinition;
 import org.bonitasoft.engine.data.instance.model.SXMLObjectDataInstance;
@@ -56,4 +59,54 @@ public class SXMLObjectDataInstanceTest {
         //then
         assertThat(returnedValue).as("should be null").isNull();
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void SXMLObjectDataInstanceImpl_should_not_share_a_mutable_value_between_reads() {
+        //given
+        final SXMLObjectDataInstance sxmlObjectDataInstance = new SXMLObjectDataInstance(dataDefinition);
+        sxmlObjectDataInstance.setValue(new ArrayList<>(Arrays.asList("a", "b")));
+        final List<String> firstValue = (List<String>) sxmlObjectDataInstance.getValue();
+
+        //when
+        firstValue.add("c");
+        final Serializable secondValue = sxmlObjectDataInstance.getValue();
+
+        //then
+        assertThat(secondValue).isNotSameAs(firstValue).isEqualTo(Arrays.asList("a", "b"));
+    }
+
+    @Test
+    public void SXMLObjectDataInstanceImpl_should_decode_the_new_value_after_it_is_set() {
+        //given
+        final SXMLObjectDataInstance sxmlObjectDataInstance = new SXMLObjectDataInstance(dataDefinition);
+        sxmlObjectDataInstance.setValue(new ArrayList<>(Arrays.asList("a", "b")));
+        sxmlObjectDataInstance.getValue();
+
+        //when
+        sxmlObjectDataInstance.setValue(new ArrayList<>(Arrays.asList("c")));
+
+        //then
+        assertThat(sxmlObjectDataInstance.getValue()).isEqualTo(Arrays.asList("c"));
+    }
+
+    @Test
+    public void SXMLObjectDataInstanceImpl_should_read_xml_value_when_using_binary_codec() {
+        //given
+        final SXMLObjectDataInstance sxmlObjectDataInstance = new SXMLObjectDataInstance(dataDefinition);
+        sxmlObjectDataInstance.setValue(new ArrayList<>(Arrays.asList("a", "b")));
+        final SXMLObjectDataInstance otherDataInstance = new SXMLObjectDataInstance(dataDefinition);
+        try {
+            DataValueCodecs.setCurrentCodec(BinaryDataValueCodec.ID);
+            otherDataInstance.setValue(new ArrayList<>(Arrays.asList("c")));
+
+            //then
+            assertThat(sxmlObjectDataInstance.getStoredValue()).startsWith("<");
+            assertThat(sxmlObjectDataInstance.getValue()).isEqualTo(Arrays.asList("a", "b"));
+            assertThat(otherDataInstance.getStoredValue()).startsWith("bonita-data:binary:");
+            assertThat(otherDataInstance.getValue()).isEqualTo(Arrays.asList("c"));
+        } finally {
+            DataValueCodecs.setCurrentCodec(XStreamDataValueCodec.ID);
+        }
+    }
 }
@@ -170,4 +170,16 @@ public interface ExpressionExecutorStrategy {
      */
     boolean mustPutEvaluatedExpressionInContext();
 
+    /**
+     * Prepare the evaluation of the given expressions of a process definition, e.g. by compiling them, so that their
+     * first evaluation is not slower than the next ones. Does nothing by default.
+     *
+     * @param definitionId
+     *        id of the process definition holding the expressions
+     * @param expressions
+     *        expressions of the kind of this strategy
+     */
+    default void precompile(long definitionId, List<SExpression> expressions) {
+    }
+
 }
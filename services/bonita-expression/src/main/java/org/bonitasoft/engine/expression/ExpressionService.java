@@ -13,6 +13,7 @@
  **/
 package org.bonitasoft.engine.expression;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -102,4 +103,16 @@ public interface ExpressionService {
     boolean mustPutEvaluatedExpressionInContext(ExpressionKind expressionKind);
 
     void setExpressionExecutorStrategy(List<ExpressionExecutorStrategy> expressionStrategies);
+
+    /**
+     * Prepare the evaluation of the expressions of a process definition, using the strategy of each expression kind.
+     * Expressions that can't be prepared are ignored: they will fail when evaluated.
+     *
+     * @param definitionId
+     *        id of the process definition holding the expressions
+     * @param expressions
+     *        expressions of the process definition
+     * @see ExpressionExecutorStrategy#precompile(long, List)
+     */
+    void precompile(long definitionId, Collection<SExpression> expressions);
 }
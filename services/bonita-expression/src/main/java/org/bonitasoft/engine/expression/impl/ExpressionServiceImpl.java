@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.expression.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -88,8 +90,9 @@ public class ExpressionServiceImpl implements ExpressionService {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EVALUATE_EXPRESSION)) {
                 final long endTime = System.currentTimeMillis();
-                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSION, "Expression: " + expression + " - "
-                        + "dependencyValues: " + dependencyValues + " - " + "strategy: " + expressionExecutorStrategy,
+                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSION, expression.getExpressionKind().getType(),
+                        () -> "Expression: " + expression + " - " + "dependencyValues: " + dependencyValues + " - "
+                                + "strategy: " + expressionExecutorStrategy,
                         endTime - startTime);
             }
         }
@@ -149,8 +152,9 @@ public class ExpressionServiceImpl implements ExpressionService {
         } finally {
             if (timeTracker.isTrackable(TimeTrackerRecords.EVALUATE_EXPRESSIONS)) {
                 final long endTime = System.currentTimeMillis();
-                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSIONS, "Expressions: " + expressions + " - "
-                        + "dependencyValues: " + dependencyValues + " - " + "strategy: " + expressionExecutorStrategy,
+                timeTracker.track(TimeTrackerRecords.EVALUATE_EXPRESSIONS, expressionKind.getType(),
+                        () -> "Expressions: " + expressions + " - " + "dependencyValues: " + dependencyValues + " - "
+                                + "strategy: " + expressionExecutorStrategy,
                         endTime - startTime);
             }
         }
@@ -185,4 +189,17 @@ public class ExpressionServiceImpl implements ExpressionService {
         return expressionExecutorsMap.get(expressionKind).mustPutEvaluatedExpressionInContext();
     }
 
+    @Override
+    public void precompile(final long definitionId, final Collection<SExpression> expressions) {
+        final Map<ExpressionKind, List<SExpression>> expressionsByKind = new HashMap<>();
+        for (final SExpression expression : expressions) {
+            if (expressionExecutorsMap.containsKey(expression.getExpressionKind())) {
+                expressionsByKind.computeIfAbsent(expression.getExpressionKind(), k -> new ArrayList<>())
+                        .add(expression);
+            }
+        }
+        expressionsByKind.forEach((kind, expressionsOfKind) -> expressionExecutorsMap.get(kind)
+                .precompile(definitionId, expressionsOfKind));
+    }
+
 }
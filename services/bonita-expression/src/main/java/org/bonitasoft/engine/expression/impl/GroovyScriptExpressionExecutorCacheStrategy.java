@@ -15,13 +15,19 @@ package org.bonitasoft.engine.expression.impl;
 
 import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 
+import java.nio.charset.StandardCharsets;
 import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import groovy.lang.Binding;
 import groovy.lang.GroovyCodeSource;
@@ -31,6 +37,7 @@ import groovy.lang.MissingPropertyException;
 import groovy.lang.Script;
 import org.bonitasoft.engine.cache.CacheService;
 import org.bonitasoft.engine.cache.SCacheException;
+import org.bonitasoft.engine.classloader.BonitaClassLoader;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.classloader.SClassLoaderException;
 import org.bonitasoft.engine.classloader.SingleClassLoaderListener;
@@ -77,12 +84,72 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
         if (definitionId == null) {
             throw new SBonitaRuntimeException("Unable to evaluate expression without a definitionId");
         }
-        final GroovyShell shell = getShell(definitionId);
+        final String key = getScriptKey(definitionId, expressionContent);
+        Class scriptClass = (Class) cacheService.get(GROOVY_SCRIPT_CACHE_NAME, key);
+        if (scriptClass == null) {
+            scriptClass = compile(getShell(definitionId), key, expressionContent);
+        }
+        return scriptClass;
+    }
 
-        GroovyCodeSource gcs = getOrCreateGroovyCodeSource(SCRIPT_KEY + expressionContent.hashCode(),
-                expressionContent);
-        // parse the groovy source code with cache set to true
-        return shell.getClassLoader().parseClass(gcs, true);
+    /**
+     * Scripts are compiled using the classloader of their process definition, the key identifies both.
+     */
+    public static String getScriptKey(long definitionId, String expressionContent) {
+        return SCRIPT_KEY + definitionId + "_" + sha256(expressionContent);
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new SBonitaRuntimeException(e);
+        }
+    }
+
+    private Class compile(GroovyShell shell, String key, String expressionContent) throws SCacheException {
+        final GroovyCodeSource gcs = AccessController
+                .doPrivileged((PrivilegedAction<GroovyCodeSource>) () -> new GroovyCodeSource(expressionContent,
+                        generateScriptName(), GroovyShell.DEFAULT_CODE_BASE));
+        // the class is cached here, not by the groovy classloader
+        final Class scriptClass = shell.getClassLoader().parseClass(gcs, false);
+        cacheService.store(GROOVY_SCRIPT_CACHE_NAME, key, scriptClass);
+        return scriptClass;
+    }
+
+    /**
+     * Compile in parallel the scripts that are not already in the cache, so that their first evaluation does not pay
+     * the compilation. Scripts that do not compile are ignored, the error is raised when they are evaluated.
+     */
+    @Override
+    public void precompile(long definitionId, List<SExpression> expressions) {
+        final GroovyShell shell;
+        try {
+            shell = getShell(definitionId);
+        } catch (SClassLoaderException | SCacheException e) {
+            log.warn("Unable to precompile the groovy scripts of process definition {}: {}", definitionId,
+                    e.getMessage());
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        final Set<String> contents = expressions.stream().map(SExpression::getContent).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final long compiled = contents.parallelStream().filter(content -> {
+            final String key = getScriptKey(definitionId, content);
+            try {
+                if (cacheService.get(GROOVY_SCRIPT_CACHE_NAME, key) == null) {
+                    compile(shell, key, content);
+                    return true;
+                }
+            } catch (SCacheException | RuntimeException e) {
+                log.debug("Unable to precompile groovy script of process definition {}: {}", definitionId,
+                        e.getMessage());
+            }
+            return false;
+        }).count();
+        log.debug("{} groovy scripts of process definition {} precompiled in {} ms", compiled, definitionId,
+                System.currentTimeMillis() - startTime);
     }
 
     private GroovyCodeSource getOrCreateGroovyCodeSource(String key, String scriptContent) throws SCacheException {
@@ -171,18 +238,27 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
     @Override
     public void onUpdate(ClassLoader newClassLoader) {
         log.debug("Groovy cache cleared after update on {}", newClassLoader);
-        clearCache();
+        clearCache(newClassLoader);
     }
 
     @Override
     public void onDestroy(ClassLoader oldClassLoader) {
         log.debug("Groovy cache cleared after destroy of {}", oldClassLoader);
-        clearCache();
+        clearCache(oldClassLoader);
     }
 
-    private void clearCache() {
+    /**
+     * Only the shell and the scripts of the process are removed when its classloader changes, other processes keep
+     * their compiled scripts.
+     */
+    private void clearCache(ClassLoader classLoader) {
         try {
-            cacheService.clear(GROOVY_SCRIPT_CACHE_NAME);
+            if (classLoader instanceof BonitaClassLoader bonitaClassLoader
+                    && bonitaClassLoader.getIdentifier().getType() == ScopeType.PROCESS) {
+                clearProcessEntries(bonitaClassLoader.getIdentifier().getId());
+            } else {
+                cacheService.clear(GROOVY_SCRIPT_CACHE_NAME);
+            }
         } catch (SCacheException e) {
             log.error(
                     "error while clearing the cache of the groovy script executor strategy, you might have classloading issue, restart the server if it's the case",
@@ -190,6 +266,16 @@ public class GroovyScriptExpressionExecutorCacheStrategy extends NonEmptyContent
         }
     }
 
+    private void clearProcessEntries(long definitionId) throws SCacheException {
+        final String scriptKeyPrefix = SCRIPT_KEY + definitionId + "_";
+        for (Object key : cacheService.getKeys(GROOVY_SCRIPT_CACHE_NAME)) {
+            if (key instanceof String stringKey && stringKey.startsWith(scriptKeyPrefix)) {
+                cacheService.remove(GROOVY_SCRIPT_CACHE_NAME, key);
+            }
+        }
+        cacheService.remove(GROOVY_SCRIPT_CACHE_NAME, SHELL_KEY + definitionId);
+    }
+
     @Override
     public ExpressionKind getExpressionKind() {
         return KIND_READ_ONLY_SCRIPT_GROOVY;
@@ -14,23 +14,19 @@
 package org.bonitasoft.engine.expression.impl;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
+import org.bonitasoft.engine.commons.xml.XmlProcessors;
 import org.bonitasoft.engine.expression.ContainerState;
 import org.bonitasoft.engine.expression.ExpressionExecutorStrategy;
 import org.bonitasoft.engine.expression.exception.SExpressionDependencyMissingException;
@@ -41,7 +37,6 @@ import org.bonitasoft.engine.expression.model.SExpression;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -68,48 +63,55 @@ public class XPathReadExpressionExecutorStrategy implements ExpressionExecutorSt
             final Map<Integer, Object> resolvedExpressions,
             final ContainerState containerState)
             throws SExpressionEvaluationException, SExpressionDependencyMissingException {
+        final String xmlContent = getXmlContent(expression, resolvedExpressions);
+        try {
+            return evaluate(expression, XmlProcessors.parse(xmlContent));
+        } catch (final SBonitaRuntimeException | IOException | SAXException | ParserConfigurationException e) {
+            throw new SExpressionEvaluationException(getMessageForException(expression), e, expression.getName());
+        }
+    }
+
+    private String getXmlContent(final SExpression expression, final Map<Integer, Object> resolvedExpressions)
+            throws SExpressionDependencyMissingException, SExpressionEvaluationException {
         if (expression.getDependencies().size() != 1 || expression.getDependencies().get(0) == null) {
             throw new SExpressionDependencyMissingException(
                     "XPathReadExpressionExecutorStrategy must have exactly one dependency");
         }
+        if (getXPathConstants(expression.getReturnType()) == null) {
+            throw new SExpressionEvaluationException(
+                    "XPathReadExpressionExecutorStrategy return type not supported: " + expression.getReturnType(),
+                    expression.getName());
+        }
+        // Check has already been done above:
+        final SExpression dep = expression.getDependencies().get(0);
+        final String xmlContent = (String) resolvedExpressions.get(dep.getDiscriminant());
+        if (xmlContent == null || xmlContent.isEmpty()) {
+            throw new SExpressionEvaluationException("The content of the xml is nul or empty: " + expression,
+                    expression.getName());
+        }
+        return xmlContent;
+    }
 
-        final String expressionName = expression.getName();
+    private Object evaluate(final SExpression expression, final Document document)
+            throws SExpressionEvaluationException {
         final String returnType = expression.getReturnType();
-        final String messageForException = "Error evaluating expression " + expression
-                + " with strategy XPathReadExpressionExecutorStrategy";
         try {
-            final QName qname = getXPathConstants(returnType);
-            if (qname == null) {
-                throw new SExpressionEvaluationException(
-                        "XPathReadExpressionExecutorStrategy return type not supported: " + expression.getReturnType(),
-                        expressionName);
-            }
-            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            try {
-                factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, ""); // security-compliant
-                factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, ""); // security-compliant
-            } catch (IllegalArgumentException e) {
-                //ignored, if not supported by the implementation
-            }
-            final DocumentBuilder builder = factory.newDocumentBuilder();
-            // Check has already been done above:
-            final SExpression dep = expression.getDependencies().get(0);
-            final String xmlContent = (String) resolvedExpressions.get(dep.getDiscriminant());
-            if (xmlContent == null || xmlContent.isEmpty()) {
-                throw new SExpressionEvaluationException("The content of the xml is nul or empty: " + expression,
-                        expressionName);
-            }
-            final Document document = builder.parse(new InputSource(new StringReader(xmlContent)));
-            final XPathFactory xpFactory = XPathFactory.newInstance();
-            final XPath xpath = xpFactory.newXPath();
-            final XPathExpression exp = xpath.compile(expression.getContent());
-            return transType(exp.evaluate(document, qname), returnType);
-        } catch (final XPathExpressionException | SBonitaRuntimeException | IOException | SAXException
-                | ParserConfigurationException e) {
-            throw new SExpressionEvaluationException(messageForException, e, expressionName);
+            final XPathExpression exp = XmlProcessors.compile(expression.getContent());
+            return transType(exp.evaluate(document, getXPathConstants(returnType)), returnType);
+        } catch (final XPathExpressionException | SBonitaRuntimeException e) {
+            throw new SExpressionEvaluationException(getMessageForException(expression), e, expression.getName());
         }
     }
 
+    private String getMessageForException(final SExpression expression) {
+        return "Error evaluating expression " + expression + " with strategy XPathReadExpressionExecutorStrategy";
+    }
+
+    private boolean returnsNodes(final SExpression expression) {
+        final QName qname = getXPathConstants(expression.getReturnType());
+        return XPathConstants.NODE.equals(qname) || XPathConstants.NODESET.equals(qname);
+    }
+
     private Object transType(final Object result, final String returnType) {
         try {
             if (Boolean.class.getName().equals(returnType)) {
@@ -176,8 +178,27 @@ public class XPathReadExpressionExecutorStrategy implements ExpressionExecutorSt
             final ContainerState containerState)
             throws SExpressionEvaluationException, SExpressionDependencyMissingException {
         final List<Object> list = new ArrayList<>(expressions.size());
+        // the xml is parsed once for all expressions reading it, except for expressions returning nodes, so that
+        // the nodes they return do not belong to a document shared with other results
+        final Map<String, Document> documents = new HashMap<>();
         for (final SExpression expression : expressions) {
-            list.add(evaluate(expression, context, resolvedExpressions, containerState));
+            final String xmlContent = getXmlContent(expression, resolvedExpressions);
+            try {
+                Document document;
+                if (returnsNodes(expression)) {
+                    document = XmlProcessors.parse(xmlContent);
+                } else {
+                    document = documents.get(xmlContent);
+                    if (document == null) {
+                        document = XmlProcessors.parse(xmlContent);
+                        documents.put(xmlContent, document);
+                    }
+                }
+                list.add(evaluate(expression, document));
+            } catch (final IOException | SAXException | ParserConfigurationException e) {
+                throw new SExpressionEvaluationException(getMessageForException(expression), e,
+                        expression.getName());
+            }
         }
         return list;
     }
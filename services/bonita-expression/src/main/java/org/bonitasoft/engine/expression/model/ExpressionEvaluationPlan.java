@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.model;
+
+import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+
+/**
+ * Order in which the expressions of an expression tree must be evaluated, computed once per expression.
+ * <ul>
+ * <li>expressions of a kind that has no dependency (see
+ * {@link org.bonitasoft.engine.expression.ExpressionExecutorStrategy#NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER}) are
+ * grouped by kind, to be evaluated in one call per kind</li>
+ * <li>other expressions are sorted so that each expression comes after its dependencies</li>
+ * </ul>
+ * Each expression of the tree appears only once (expressions are identified by their discriminant), and the
+ * discriminants are computed once when the plan is built.
+ * The plan of a {@link SExpressionImpl} is kept by the expression itself, so the plans of the expressions of a process
+ * definition live as long as the process definition.
+ */
+public final class ExpressionEvaluationPlan {
+
+    private final Map<ExpressionKind, List<SExpression>> noDependencyExpressions;
+    private final List<SExpression> orderedExpressions;
+    private final int[] orderedDiscriminants;
+    private final int rootDiscriminant;
+    private final int size;
+
+    private ExpressionEvaluationPlan(Map<ExpressionKind, List<SExpression>> noDependencyExpressions,
+            List<SExpression> orderedExpressions, int[] orderedDiscriminants, int rootDiscriminant) {
+        this.noDependencyExpressions = noDependencyExpressions;
+        this.orderedExpressions = orderedExpressions;
+        this.orderedDiscriminants = orderedDiscriminants;
+        this.rootDiscriminant = rootDiscriminant;
+        this.size = orderedExpressions.size()
+                + noDependencyExpressions.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * @return the plan of the given expression, reusing the one already computed when possible
+     */
+    public static ExpressionEvaluationPlan of(SExpression expression) {
+        if (expression instanceof SExpressionImpl) {
+            return ((SExpressionImpl) expression).getEvaluationPlan();
+        }
+        return compile(expression);
+    }
+
+    public static ExpressionEvaluationPlan compile(SExpression expression) {
+        Map<ExpressionKind, List<SExpression>> noDependencyExpressions = new LinkedHashMap<>();
+        List<SExpression> orderedExpressions = new ArrayList<>();
+        List<Integer> orderedDiscriminants = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
+        int rootDiscriminant = visit(expression, visited, noDependencyExpressions, orderedExpressions,
+                orderedDiscriminants);
+        int[] discriminants = new int[orderedDiscriminants.size()];
+        for (int i = 0; i < discriminants.length; i++) {
+            discriminants[i] = orderedDiscriminants.get(i);
+        }
+        noDependencyExpressions.replaceAll((kind, expressions) -> Collections.unmodifiableList(expressions));
+        return new ExpressionEvaluationPlan(Collections.unmodifiableMap(noDependencyExpressions),
+                Collections.unmodifiableList(orderedExpressions), discriminants, rootDiscriminant);
+    }
+
+    /**
+     * Depth first traversal, adding an expression after its dependencies.
+     * The tree of a process definition is small enough to use recursion.
+     */
+    private static int visit(SExpression expression, Set<Integer> visited,
+            Map<ExpressionKind, List<SExpression>> noDependencyExpressions, List<SExpression> orderedExpressions,
+            List<Integer> orderedDiscriminants) {
+        int discriminant = expression.getDiscriminant();
+        if (!visited.add(discriminant)) {
+            return discriminant;
+        }
+        for (SExpression dependency : expression.getDependencies()) {
+            if (dependency != null) {
+                visit(dependency, visited, noDependencyExpressions, orderedExpressions, orderedDiscriminants);
+            }
+        }
+        ExpressionKind kind = expression.getExpressionKind();
+        if (kind != null && NO_DEPENDENCY_EXPRESSION_EVALUATION_ORDER.contains(kind)) {
+            noDependencyExpressions.computeIfAbsent(kind, k -> new ArrayList<>()).add(expression);
+            return discriminant;
+        }
+        orderedExpressions.add(expression);
+        orderedDiscriminants.add(discriminant);
+        return discriminant;
+    }
+
+    /**
+     * @return expressions without dependency, grouped by kind
+     */
+    public Map<ExpressionKind, List<SExpression>> getNoDependencyExpressions() {
+        return noDependencyExpressions;
+    }
+
+    /**
+     * @return expressions having dependencies (or of a kind that may have dependencies), each one after its
+     *         dependencies
+     */
+    public List<SExpression> getOrderedExpressions() {
+        return orderedExpressions;
+    }
+
+    /**
+     * @return the discriminant of the expression at the given index of {@link #getOrderedExpressions()}
+     */
+    public int getOrderedDiscriminant(int index) {
+        return orderedDiscriminants[index];
+    }
+
+    public int getRootDiscriminant() {
+        return rootDiscriminant;
+    }
+
+    /**
+     * @return number of distinct expressions in the tree
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.bonitasoft.engine.expression.model.ExpressionEvaluationPlan;
 import org.bonitasoft.engine.expression.model.ExpressionKind;
 import org.bonitasoft.engine.expression.model.SExpression;
 
@@ -40,6 +41,11 @@ public class SExpressionImpl implements SExpression {
 
     private final ExpressionKind expressionKind = new ExpressionKind();
 
+    /**
+     * computed on first evaluation: expressions of a process definition are not modified once deployed
+     */
+    private transient volatile ExpressionEvaluationPlan evaluationPlan;
+
     public SExpressionImpl() {
         super();
     }
@@ -57,22 +63,27 @@ public class SExpressionImpl implements SExpression {
 
     public void setContent(final String content) {
         this.content = content;
+        evaluationPlan = null;
     }
 
     public void setExpressionType(final String expressionType) {
         expressionKind.setType(expressionType);
+        evaluationPlan = null;
     }
 
     public void setReturnType(final String returnType) {
         this.returnType = returnType;
+        evaluationPlan = null;
     }
 
     public void setInterpreter(final String interpreter) {
         expressionKind.setInterpreter(interpreter);
+        evaluationPlan = null;
     }
 
     public void setDependencies(final List<SExpression> dependencies) {
         this.dependencies = dependencies;
+        evaluationPlan = null;
     }
 
     @Override
@@ -82,6 +93,7 @@ public class SExpressionImpl implements SExpression {
 
     public void setName(final String name) {
         this.name = name;
+        evaluationPlan = null;
     }
 
     @Override
@@ -163,4 +175,13 @@ public class SExpressionImpl implements SExpression {
         return hashCode();
     }
 
+    public ExpressionEvaluationPlan getEvaluationPlan() {
+        ExpressionEvaluationPlan plan = evaluationPlan;
+        if (plan == null) {
+            plan = ExpressionEvaluationPlan.compile(this);
+            evaluationPlan = plan;
+        }
+        return plan;
+    }
+
 }
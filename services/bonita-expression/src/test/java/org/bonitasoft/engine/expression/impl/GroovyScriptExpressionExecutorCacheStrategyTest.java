@@ -16,11 +16,14 @@ package org.bonitasoft.engine.expression.impl;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.classloader.ClassLoaderIdentifier.identifier;
 import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.DEFINITION_ID;
+import static org.bonitasoft.engine.expression.impl.GroovyScriptExpressionExecutorCacheStrategy.GROOVY_SCRIPT_CACHE_NAME;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 
 import java.io.File;
 import java.io.IOException;
@@ -36,10 +39,12 @@ import org.bonitasoft.engine.bpm.document.DocumentValue;
 import org.bonitasoft.engine.cache.CacheConfiguration;
 import org.bonitasoft.engine.cache.SCacheException;
 import org.bonitasoft.engine.cache.ehcache.EhCacheCacheService;
+import org.bonitasoft.engine.classloader.BonitaClassLoader;
 import org.bonitasoft.engine.classloader.ClassLoaderService;
 import org.bonitasoft.engine.classloader.SClassLoaderException;
 import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
 import org.bonitasoft.engine.commons.io.IOUtil;
+import org.bonitasoft.engine.dependency.model.ScopeType;
 import org.bonitasoft.engine.expression.ContainerState;
 import org.bonitasoft.engine.expression.exception.SExpressionEvaluationException;
 import org.bonitasoft.engine.expression.exception.SInvalidExpressionException;
@@ -149,6 +154,47 @@ public class GroovyScriptExpressionExecutorCacheStrategyTest {
         assertThat(shell1).isNotEqualTo(shell2);
     }
 
+    @Test
+    public void should_update_of_process_classloader_only_clear_cache_of_this_process() throws Exception {
+        // given
+        final Class script12 = groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache("MyScriptContent", 12L);
+        final Class script13 = groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache("MyScriptContent", 13L);
+        final BonitaClassLoader processClassLoader = mock(BonitaClassLoader.class);
+        doReturn(identifier(ScopeType.PROCESS, 12L)).when(processClassLoader).getIdentifier();
+
+        // when
+        groovyScriptExpressionExecutorCacheStrategy.onUpdate(processClassLoader);
+
+        // then
+        assertThat(groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache("MyScriptContent", 12L))
+                .isNotEqualTo(script12);
+        assertThat(groovyScriptExpressionExecutorCacheStrategy.getScriptFromCache("MyScriptContent", 13L))
+                .isEqualTo(script13);
+    }
+
+    @Test
+    public void should_precompile_put_scripts_of_the_process_in_cache() throws Exception {
+        // given
+        final SExpressionImpl expression1 = new SExpressionImpl("expr1", "'a' + 'b'", null, String.class.getName(),
+                null, null);
+        final SExpressionImpl expression2 = new SExpressionImpl("expr2", "1 + 1", null, Integer.class.getName(),
+                null, null);
+        final SExpressionImpl invalidExpression = new SExpressionImpl("invalid", "{{", null,
+                Integer.class.getName(), null, null);
+
+        // when
+        groovyScriptExpressionExecutorCacheStrategy.precompile(12L,
+                List.of(expression1, expression2, invalidExpression));
+
+        // then
+        assertThat(cacheService.get(GROOVY_SCRIPT_CACHE_NAME,
+                GroovyScriptExpressionExecutorCacheStrategy.getScriptKey(12L, "'a' + 'b'"))).isNotNull();
+        assertThat(cacheService.get(GROOVY_SCRIPT_CACHE_NAME,
+                GroovyScriptExpressionExecutorCacheStrategy.getScriptKey(12L, "1 + 1"))).isNotNull();
+        assertThat(cacheService.get(GROOVY_SCRIPT_CACHE_NAME,
+                GroovyScriptExpressionExecutorCacheStrategy.getScriptKey(12L, "{{"))).isNull();
+    }
+
     @Test
     public void should_getShell_return_same_shell_for_1_definition() throws Exception {
         // when
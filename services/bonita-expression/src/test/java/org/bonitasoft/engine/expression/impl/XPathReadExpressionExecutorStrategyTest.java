@@ -15,6 +15,7 @@ package org.bonitasoft.engine.expression.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -214,6 +215,30 @@ public class XPathReadExpressionExecutorStrategyTest {
         strategy.validate(expression);
     }
 
+    @Test
+    public void evaluateSeveralXpathReadingTheSameXml() throws SExpressionException {
+        final SExpressionImpl dep = new SExpressionImpl(null, XML_CONTENT_BOOKS, SExpressionType.TYPE_CONSTANT.name(),
+                String.class.getName(), null, null);
+        final SExpression title = new SExpressionImpl("title", "//book[@id='bk101']/title", getXPathType(),
+                String.class.getName(), null, Arrays.<SExpression> asList(dep));
+        final SExpression quantity = new SExpressionImpl("quantity", "//catalog/book[@id='bk101']/quantity",
+                getXPathType(), Long.class.getName(), null, Arrays.<SExpression> asList(dep));
+        final SExpression books = new SExpressionImpl("books", "//catalog/book", getXPathType(),
+                NodeList.class.getName(), null, Arrays.<SExpression> asList(dep));
+        final SExpression book = new SExpressionImpl("book", "//catalog/book", getXPathType(),
+                Node.class.getName(), null, Arrays.<SExpression> asList(dep));
+
+        final List<Object> results = strategy.evaluate(Arrays.asList(title, quantity, books, book),
+                new HashMap<String, Object>(0), getResolvedExpressionMap(title), ContainerState.ACTIVE);
+
+        assertEquals("XML Developer's Guide", results.get(0));
+        assertEquals(123456789L, results.get(1));
+        final NodeList bookList = (NodeList) results.get(2);
+        assertEquals("book", bookList.item(0).getNodeName());
+        // nodes returned by different expressions do not share their document
+        assertNotSame(bookList.item(0).getOwnerDocument(), ((Node) results.get(3)).getOwnerDocument());
+    }
+
     private Map<Integer, Object> getResolvedExpressionMap(final SExpression... expressions) {
         final HashMap<Integer, Object> hashMap = new HashMap<Integer, Object>();
         for (final SExpression expression : expressions) {
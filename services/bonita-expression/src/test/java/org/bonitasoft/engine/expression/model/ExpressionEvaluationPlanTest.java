@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.expression.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.KIND_CONSTANT;
+import static org.bonitasoft.engine.expression.ExpressionExecutorStrategy.KIND_VARIABLE;
+
+import java.util.List;
+
+import org.bonitasoft.engine.expression.model.impl.SExpressionImpl;
+import org.junit.Test;
+
+public class ExpressionEvaluationPlanTest {
+
+    @Test
+    public void should_order_expressions_after_their_dependencies() {
+        SExpressionImpl constant = constant("1");
+        SExpressionImpl variable = variable("amount");
+        SExpressionImpl innerList = list("inner", constant, variable);
+        SExpressionImpl outerList = list("outer", innerList, constant("2"));
+
+        ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(outerList);
+
+        assertThat(plan.getOrderedExpressions()).containsExactly(innerList, outerList);
+        assertThat(plan.getOrderedDiscriminant(0)).isEqualTo(innerList.getDiscriminant());
+        assertThat(plan.getOrderedDiscriminant(1)).isEqualTo(outerList.getDiscriminant());
+        assertThat(plan.getRootDiscriminant()).isEqualTo(outerList.getDiscriminant());
+        assertThat(plan.getNoDependencyExpressions().get(KIND_CONSTANT)).containsExactly(constant, constant("2"));
+        assertThat(plan.getNoDependencyExpressions().get(KIND_VARIABLE)).containsExactly(variable);
+        assertThat(plan.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_keep_only_one_occurrence_of_equal_expressions() {
+        SExpressionImpl sharedList = list("shared", constant("1"));
+        SExpressionImpl root = list("root", sharedList, list("shared", constant("1")), constant("1"));
+
+        ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.compile(root);
+
+        assertThat(plan.getOrderedExpressions()).containsExactly(sharedList, root);
+        assertThat(plan.getNoDependencyExpressions().get(KIND_CONSTANT)).hasSize(1);
+        assertThat(plan.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_reuse_plan_of_expression_until_it_is_modified() {
+        SExpressionImpl root = list("root", constant("1"));
+
+        ExpressionEvaluationPlan plan = ExpressionEvaluationPlan.of(root);
+
+        assertThat(ExpressionEvaluationPlan.of(root)).isSameAs(plan);
+        root.setDependencies(List.of(constant("2")));
+        assertThat(ExpressionEvaluationPlan.of(root)).isNotSameAs(plan);
+        assertThat(ExpressionEvaluationPlan.of(root).getNoDependencyExpressions().get(KIND_CONSTANT))
+                .containsExactly(constant("2"));
+    }
+
+    private static SExpressionImpl constant(String value) {
+        return new SExpressionImpl(value, value, SExpression.TYPE_CONSTANT, String.class.getName(), null,
+                null);
+    }
+
+    private static SExpressionImpl variable(String name) {
+        return new SExpressionImpl(name, name, SExpression.TYPE_VARIABLE, Long.class.getName(), null, null);
+    }
+
+    private static SExpressionImpl list(String name, SExpression... elements) {
+        return new SExpressionImpl(name, name, SExpression.TYPE_LIST, List.class.getName(), null,
+                List.of(elements));
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * In memory {@link LockService} that does not rely on a global monitor.
+ * Locks are stored in a {@link ConcurrentHashMap} (so only the bin of the key is locked when updating it), using a key
+ * made of primitive values instead of a formatted string.
+ * Each lock entry counts the threads holding or waiting for it, the entry is removed from the map when this count
+ * drops to zero, so a thread never acquires a lock that is no more in the map.
+ * Activated by setting 'bonita.platform.lock.memory.striped' to true.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "bonita.platform.lock.memory.striped", havingValue = "true")
+public class StripedMemoryLockService implements LockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedMemoryLockService.class);
+
+    private final Map<String, Integer> objectTypes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextObjectTypeOrdinal = new AtomicInteger();
+    private final Map<LockKey, LockEntry> locks = new ConcurrentHashMap<>();
+    private final int lockTimeoutSeconds;
+
+    public StripedMemoryLockService(@Value("${bonita.platform.lock.memory.timeout}") int lockTimeoutSeconds) {
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @Override
+    public BonitaLock lock(long objectToLockId, String objectType, long tenantId)
+            throws SLockException, SLockTimeoutException {
+        BonitaLock bonitaLock = tryLock(objectToLockId, objectType, lockTimeoutSeconds, SECONDS, tenantId);
+        if (bonitaLock == null) {
+            throw new SLockTimeoutException(String.format("Unable to acquire lock %s,%s,%s in %s seconds",
+                    objectToLockId, objectType, tenantId, lockTimeoutSeconds));
+        }
+        return bonitaLock;
+    }
+
+    @Override
+    public BonitaLock tryLock(long objectToLockId, String objectType, long timeout, TimeUnit timeUnit, long tenantId)
+            throws SLockException {
+        LockKey key = new LockKey(typeOrdinal(objectType), objectToLockId, tenantId);
+        LockEntry lock = locks.compute(key, (k, entry) -> {
+            LockEntry lockEntry = entry == null ? new LockEntry() : entry;
+            lockEntry.references++;
+            return lockEntry;
+        });
+        boolean acquired = false;
+        try {
+            acquired = lock.tryLock(timeout, timeUnit);
+        } catch (InterruptedException e) {
+            throw new SLockException("interrupted while trying to get the lock", e);
+        } finally {
+            if (!acquired) {
+                locks.computeIfPresent(key, (k, entry) -> entry.release());
+            }
+        }
+        if (!acquired) {
+            logger.debug("Lock was not acquired for {} {} on tenant {}", objectType, objectToLockId, tenantId);
+            return null;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Lock acquired for {} {} on tenant {}", objectType, objectToLockId, tenantId);
+        }
+        return new BonitaLock(objectType, objectToLockId);
+    }
+
+    @Override
+    public void unlock(BonitaLock lock, long tenantId) throws SLockException {
+        LockKey key = new LockKey(typeOrdinal(lock.getObjectType()), lock.getObjectToLockId(), tenantId);
+        locks.computeIfPresent(key, (k, entry) -> {
+            entry.unlock();
+            return entry.release();
+        });
+        logger.debug("Lock released {}", lock);
+    }
+
+    private int typeOrdinal(String objectType) {
+        Integer ordinal = objectTypes.get(objectType);
+        if (ordinal == null) {
+            ordinal = objectTypes.computeIfAbsent(objectType, t -> nextObjectTypeOrdinal.getAndIncrement());
+        }
+        return ordinal;
+    }
+
+    // For testing purpose
+    int getNumberOfLocks() {
+        return locks.size();
+    }
+
+    private record LockKey(int objectType, long objectToLockId, long tenantId) {
+    }
+
+    /**
+     * Lock counting the number of lock requests (acquired or pending) not yet released.
+     * The count is only modified inside a compute method of the map, which is atomic for a given key.
+     */
+    private static final class LockEntry extends ReentrantLock {
+
+        private int references;
+
+        private LockEntry release() {
+            return --references == 0 ? null : this;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StripedMemoryLockServiceTest {
+
+    private static final long TENANT_ID = 1L;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+    private StripedMemoryLockService lockService;
+
+    @Before
+    public void before() {
+        lockService = new StripedMemoryLockService(1);
+    }
+
+    @After
+    public void after() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void should_not_lock_an_object_locked_by_an_other_thread() throws Exception {
+        lockService.lock(5, "a", TENANT_ID);
+
+        assertThat(tryLockInAnOtherThread(5, "a", TENANT_ID)).isNull();
+    }
+
+    @Test
+    public void should_lock_different_objects_independently() throws Exception {
+        lockService.lock(5, "a", TENANT_ID);
+
+        assertThat(tryLockInAnOtherThread(6, "a", TENANT_ID)).isNotNull();
+        assertThat(tryLockInAnOtherThread(5, "b", TENANT_ID)).isNotNull();
+        assertThat(tryLockInAnOtherThread(5, "a", 2L)).isNotNull();
+    }
+
+    @Test
+    public void should_lock_multiple_times_on_the_same_thread() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(123, "abc", TENANT_ID);
+        lockService.lock(123, "abc", TENANT_ID);
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+        assertThat(tryLockInAnOtherThread(123, "abc", TENANT_ID)).isNull();
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+        assertThat(tryLockInAnOtherThread(123, "abc", TENANT_ID)).isNotNull();
+    }
+
+    @Test
+    public void should_throw_timeout_exception_when_lock_is_not_released() throws Exception {
+        lockService.lock(2, "a", TENANT_ID);
+
+        Future<BonitaLock> otherThreadLock = executorService.submit(() -> lockService.lock(2, "a", TENANT_ID));
+
+        assertThatThrownBy(otherThreadLock::get).hasCauseInstanceOf(SLockTimeoutException.class);
+    }
+
+    @Test
+    public void should_give_the_lock_to_waiting_thread_when_released() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(7, "a", TENANT_ID);
+        Future<BonitaLock> otherThreadLock = executorService
+                .submit(() -> lockService.tryLock(7, "a", 5, TimeUnit.SECONDS, TENANT_ID));
+        Thread.sleep(50);
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+
+        assertThat(otherThreadLock.get()).isEqualTo(new BonitaLock("a", 7));
+    }
+
+    @Test
+    public void should_remove_lock_entries_once_released() throws Exception {
+        BonitaLock bonitaLock = lockService.lock(8, "a", TENANT_ID);
+        assertThat(tryLockInAnOtherThread(8, "a", TENANT_ID)).isNull();
+        assertThat(lockService.getNumberOfLocks()).isEqualTo(1);
+
+        lockService.unlock(bonitaLock, TENANT_ID);
+
+        assertThat(lockService.getNumberOfLocks()).isZero();
+    }
+
+    @Test
+    public void should_keep_mutual_exclusion_under_contention() throws Exception {
+        AtomicInteger threadsInCriticalSection = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executorService.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    BonitaLock lock = lockService.lock(j % 3, "a", TENANT_ID);
+                    if (j % 3 == 0 && threadsInCriticalSection.incrementAndGet() > 1) {
+                        violations.incrementAndGet();
+                    }
+                    if (j % 3 == 0) {
+                        threadsInCriticalSection.decrementAndGet();
+                    }
+                    lockService.unlock(lock, TENANT_ID);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertThat(violations).hasValue(0);
+        assertThat(lockService.getNumberOfLocks()).isZero();
+    }
+
+    private BonitaLock tryLockInAnOtherThread(long objectToLockId, String objectType, long tenantId)
+            throws Exception {
+        return executorService
+                .submit(() -> lockService.tryLock(objectToLockId, objectType, 10, TimeUnit.MILLISECONDS, tenantId))
+                .get();
+    }
+}
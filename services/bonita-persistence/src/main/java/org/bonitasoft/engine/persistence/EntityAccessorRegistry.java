@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.bonitasoft.engine.services.SPersistenceException;
+
+/**
+ * Setters of the persistent entities, used to apply the fields of an
+ * {@link org.bonitasoft.engine.services.UpdateDescriptor}.
+ * <p>
+ * The accessor methods of the mapped classes are found when the registry is created. The first time a field path is
+ * set on a class, a setter calling these methods directly is generated using {@link LambdaMetafactory} and kept, so
+ * that later updates neither parse the path nor invoke methods by reflection. A path like {@code pageMapping.url}
+ * calls the getter of each intermediate field, resolved using the declared return type of the previous getter.
+ */
+public class EntityAccessorRegistry {
+
+    private final Map<Class<?>, EntityAccessors> accessors = new ConcurrentHashMap<>();
+
+    public EntityAccessorRegistry(final Collection<Class<? extends PersistentObject>> entityClasses) {
+        for (final Class<? extends PersistentObject> entityClass : entityClasses) {
+            accessors.put(entityClass, new EntityAccessors(entityClass));
+        }
+    }
+
+    /**
+     * Set the given fields of the entity. The setters of all fields are resolved before setting any of them, so that
+     * the entity is left unchanged when one of the fields is unknown.
+     *
+     * @throws SPersistenceException if one of the fields has no setter
+     */
+    public void setFields(final Object entity, final Map<String, Object> fields) throws SPersistenceException {
+        final Class<?> entityClass = entity.getClass();
+        final List<BiConsumer<Object, Object>> setters = new ArrayList<>(fields.size());
+        final List<Object> values = new ArrayList<>(fields.size());
+        for (final Map.Entry<String, Object> field : fields.entrySet()) {
+            setters.add(getSetter(entityClass, field.getKey()));
+            values.add(field.getValue());
+        }
+        for (int i = 0; i < setters.size(); i++) {
+            setters.get(i).accept(entity, values.get(i));
+        }
+    }
+
+    /**
+     * @param fieldPath name of the field, or names of the fields to get then of the field to set, separated by dots
+     * @throws SPersistenceException if the field has no setter
+     */
+    public BiConsumer<Object, Object> getSetter(final Class<?> entityClass, final String fieldPath)
+            throws SPersistenceException {
+        final EntityAccessors entityAccessors = getAccessors(entityClass);
+        BiConsumer<Object, Object> setter = entityAccessors.setters.get(fieldPath);
+        if (setter == null) {
+            setter = createSetter(entityAccessors, fieldPath);
+            entityAccessors.setters.putIfAbsent(fieldPath, setter);
+        }
+        return setter;
+    }
+
+    private EntityAccessors getAccessors(final Class<?> entityClass) {
+        // classes that are not mapped, e.g. excluded ones or classes of intermediate fields, are added when needed
+        return accessors.computeIfAbsent(entityClass, EntityAccessors::new);
+    }
+
+    private BiConsumer<Object, Object> createSetter(final EntityAccessors entityAccessors, final String fieldPath)
+            throws SPersistenceException {
+        final int dot = fieldPath.indexOf('.');
+        if (dot < 0) {
+            final Method setter = entityAccessors.methods.get("set" + capitalize(fieldPath));
+            if (setter == null) {
+                throw new SPersistenceException("Unable to update field '" + fieldPath + "' of "
+                        + entityAccessors.entityClass.getName() + ": no setter found");
+            }
+            return generateSetter(setter);
+        }
+        final String fieldName = fieldPath.substring(0, dot);
+        final Method getter = entityAccessors.methods.get("get" + capitalize(fieldName));
+        if (getter == null) {
+            throw new SPersistenceException("Unable to update field '" + fieldPath + "' of "
+                    + entityAccessors.entityClass.getName() + ": no getter found for '" + fieldName + "'");
+        }
+        final Function<Object, Object> get = generateGetter(getter);
+        final BiConsumer<Object, Object> set = getSetter(getter.getReturnType(), fieldPath.substring(dot + 1));
+        return (entity, value) -> set.accept(get.apply(entity), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> generateSetter(final Method setter) throws SPersistenceException {
+        final Class<?> parameterType = setter.getParameterTypes()[0];
+        final Class<?> valueType = MethodType.methodType(parameterType).wrap().returnType();
+        final BiConsumer<Object, Object> generated = (BiConsumer<Object, Object>) generate(setter, BiConsumer.class,
+                "accept", MethodType.methodType(void.class, Object.class, Object.class),
+                MethodType.methodType(void.class, setter.getDeclaringClass(), valueType));
+        if (!parameterType.isPrimitive() || parameterType == boolean.class || parameterType == char.class) {
+            return generated;
+        }
+        // numbers of another type are converted, as done by reflection, e.g. an Integer given to a setter of long
+        return (entity, value) -> generated.accept(entity,
+                value instanceof Number && !valueType.isInstance(value) ? convert((Number) value, parameterType)
+                        : value);
+    }
+
+    private static Object convert(final Number value, final Class<?> primitiveType) {
+        if (primitiveType == long.class) {
+            return value.longValue();
+        } else if (primitiveType == int.class) {
+            return value.intValue();
+        } else if (primitiveType == double.class) {
+            return value.doubleValue();
+        } else if (primitiveType == float.class) {
+            return value.floatValue();
+        } else if (primitiveType == short.class) {
+            return value.shortValue();
+        }
+        return value.byteValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> generateGetter(final Method getter) throws SPersistenceException {
+        final Class<?> valueType = MethodType.methodType(getter.getReturnType()).wrap().returnType();
+        return (Function<Object, Object>) generate(getter, Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class),
+                MethodType.methodType(valueType, getter.getDeclaringClass()));
+    }
+
+    private static Object generate(final Method method, final Class<?> functionalInterface, final String name,
+            final MethodType erasedType, final MethodType instantiatedType) throws SPersistenceException {
+        try {
+            // the generated class is defined in the class loader of the entity, which can see the entity classes
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(),
+                    MethodHandles.lookup());
+            final MethodHandle handle = lookup.unreflect(method);
+            final CallSite callSite = LambdaMetafactory.metafactory(lookup, name,
+                    MethodType.methodType(functionalInterface), erasedType, handle, instantiatedType);
+            return callSite.getTarget().invoke();
+        } catch (final Throwable e) {
+            throw new SPersistenceException("Unable to generate an accessor calling " + method, e);
+        }
+    }
+
+    private static String capitalize(final String fieldName) {
+        if (fieldName.isEmpty()) {
+            return fieldName;
+        }
+        return Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    }
+
+    /**
+     * Getters and setters of a class, by method name, and the setters already generated, by field path.
+     */
+    private static final class EntityAccessors {
+
+        private final Class<?> entityClass;
+
+        private final Map<String, Method> methods = new HashMap<>();
+
+        private final ConcurrentMap<String, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
+
+        private EntityAccessors(final Class<?> entityClass) {
+            this.entityClass = entityClass;
+            for (final Method method : entityClass.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) {
+                    continue;
+                }
+                final String name = method.getName();
+                if (name.startsWith("set") && method.getParameterCount() == 1
+                        || name.startsWith("get") && method.getParameterCount() == 0
+                                && method.getReturnType() != void.class) {
+                    methods.putIfAbsent(name, method);
+                }
+            }
+        }
+    }
+}
@@ -78,6 +78,7 @@ public class HibernatePersistenceService implements PersistenceService {
     private final SequenceManager sequenceManager;
     private int stat_display_count;
     private final QueryBuilderFactory queryBuilderFactory;
+    private final EntityAccessorRegistry entityAccessorRegistry;
 
     public HibernatePersistenceService(final ReadSessionAccessor sessionAccessor,
             final HibernateConfigurationProvider hbmConfigurationProvider,
@@ -94,6 +95,7 @@ public class HibernatePersistenceService implements PersistenceService {
         classAliasMappings = hbmConfigurationProvider.getClassAliasMappings();
         mappingExclusions = hbmConfigurationProvider.getMappingExclusions();
         cacheQueries = hbmConfigurationProvider.getCacheQueries();
+        entityAccessorRegistry = new EntityAccessorRegistry(classMapping);
 
         hibernateMetricsBinder.bindMetrics(getSessionFactory());
     }
@@ -244,19 +246,11 @@ public class HibernatePersistenceService implements PersistenceService {
         if (!session.contains(entity)) {
             throw new SPersistenceException("The object cannot be updated because it's disconnected " + entity);
         }
-        for (final Map.Entry<String, Object> field : updateDescriptor.getFields().entrySet()) {
-            setField(entity, field.getKey(), field.getValue());
-        }
-    }
-
-    private void setField(final PersistentObject entity, final String fieldName, final Object parameterValue)
-            throws SPersistenceException {
-        Long id = null;
         try {
-            id = entity.getId();
-            ClassReflector.setField(entity, fieldName, parameterValue);
-        } catch (final Exception e) {
-            throw new SPersistenceException("Problem while updating entity: " + entity + " with id: " + id, e);
+            entityAccessorRegistry.setFields(entity, updateDescriptor.getFields());
+        } catch (final RuntimeException e) {
+            throw new SPersistenceException(
+                    "Problem while updating entity: " + entity + " with id: " + entity.getId(), e);
         }
     }
 
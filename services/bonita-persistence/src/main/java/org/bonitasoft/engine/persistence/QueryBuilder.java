@@ -15,9 +15,11 @@ package org.bonitasoft.engine.persistence;
 
 import static java.util.Collections.emptySet;
 
+import java.io.Serializable;
 import java.util.*;
 
 import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.engine.persistence.model.SSearchTermIndexEntry;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 
@@ -33,11 +35,13 @@ abstract class QueryBuilder<T> {
     private final QueryGeneratorForFilters queryGeneratorForFilters;
     private final QueryGeneratorForSearchTerm queryGeneratorForSearchTerm;
     private final QueryGeneratorForOrderBy queryGeneratorForOrderBy;
+    private final QueryGeneratorForKeyset queryGeneratorForKeyset;
     StringBuilder stringQueryBuilder;
     private Map<String, String> classAliasMappings;
     private Session session;
     private boolean cacheEnabled;
     private Map<String, Object> parameters = new HashMap<>();
+    private SearchTermIndex searchTermIndex = SearchTermIndex.DISABLED;
 
     QueryBuilder(Session session, Query baseQuery, OrderByBuilder orderByBuilder,
             Map<String, String> classAliasMappings,
@@ -53,6 +57,7 @@ abstract class QueryBuilder<T> {
                 likeEscapeCharacter);
         this.queryGeneratorForSearchTerm = new QueryGeneratorForSearchTerm(likeEscapeCharacter);
         this.queryGeneratorForOrderBy = new QueryGeneratorForOrderBy(classAliasMappings, orderByBuilder);
+        this.queryGeneratorForKeyset = new QueryGeneratorForKeyset(classAliasMappings);
 
     }
 
@@ -109,22 +114,38 @@ abstract class QueryBuilder<T> {
             final Set<String> specificFilters) {
         final Map<Class<? extends PersistentObject>, Set<String>> allTextFields = multipleFilter.getFields();
         final Set<String> fields = new HashSet<>();
+        final List<QueryGeneratorForSearchTerm.IndexedFields> indexedFields = new ArrayList<>();
         for (final Map.Entry<Class<? extends PersistentObject>, Set<String>> entry : allTextFields.entrySet()) {
             final String alias = classAliasMappings.get(entry.getKey().getName());
+            final Set<String> entityFields = new HashSet<>();
             for (final String field : entry.getValue()) {
-                fields.add(alias + '.' + field);
+                entityFields.add(alias + '.' + field);
+            }
+            entityFields.removeAll(specificFilters);
+            final String indexedType = searchTermIndex.getIndexedType(entry.getKey(), entry.getValue());
+            if (indexedType != null && !entityFields.isEmpty()) {
+                indexedFields.add(new QueryGeneratorForSearchTerm.IndexedFields(alias,
+                        SearchTermIndex.getStoredType(indexedType), entityFields));
+            } else {
+                fields.addAll(entityFields);
             }
         }
-        fields.removeAll(specificFilters);
 
-        if (!fields.isEmpty()) {
+        if (!fields.isEmpty() || !indexedFields.isEmpty()) {
             final List<String> terms = multipleFilter.getTerms();
-            applyFiltersOnQuery(builder, fields, terms);
+            applyFiltersOnQuery(builder, fields, indexedFields, terms);
         }
     }
 
+    /**
+     * @return the name of the search term index in the query
+     */
+    String getSearchTermIndexSource() {
+        return SSearchTermIndexEntry.class.getSimpleName();
+    }
+
     private void applyFiltersOnQuery(final StringBuilder queryBuilder, final Set<String> fields,
-            final List<String> terms) {
+            final List<QueryGeneratorForSearchTerm.IndexedFields> indexedFields, final List<String> terms) {
         if (!hasWHEREInRootQuery(queryBuilder.toString())) {
             queryBuilder.append(" WHERE ");
         } else {
@@ -133,7 +154,7 @@ abstract class QueryBuilder<T> {
         queryBuilder.append("(");
 
         QueryGeneratorForSearchTerm.QueryGeneratedSearchTerms result = queryGeneratorForSearchTerm.generate(fields,
-                terms);
+                indexedFields, terms, getSearchTermIndexSource());
         queryBuilder.append(result.getSearch());
 
         queryBuilder.append(")");
@@ -146,6 +167,26 @@ abstract class QueryBuilder<T> {
         stringQueryBuilder.append(result);
     }
 
+    void appendKeysetOrderByClause(List<OrderByOption> orderByOptions, Class<? extends PersistentObject> entityType)
+            throws SBonitaReadException {
+        String result = queryGeneratorForOrderBy.generate(
+                orderByOptions != null ? orderByOptions : Collections.emptyList(), entityType, true);
+        stringQueryBuilder.append(result);
+    }
+
+    void appendAfterCondition(List<OrderByOption> orderByOptions, List<Serializable> afterValues,
+            Class<? extends PersistentObject> entityType) throws SBonitaReadException {
+        QueryGeneratorForKeyset.QueryGeneratedKeyset result = queryGeneratorForKeyset.generate(orderByOptions,
+                afterValues, entityType);
+        if (!hasWHEREInRootQuery(stringQueryBuilder.toString())) {
+            stringQueryBuilder.append(" WHERE ");
+        } else {
+            stringQueryBuilder.append(" AND ");
+        }
+        stringQueryBuilder.append(result.getCondition());
+        parameters.putAll(result.getParameters());
+    }
+
     boolean hasChanged() {
         return !baseQuery.getQueryString().equals(stringQueryBuilder.toString());
     }
@@ -154,12 +195,18 @@ abstract class QueryBuilder<T> {
 
     void manageFiltersAndParameters(AbstractSelectDescriptor<T> selectDescriptor)
             throws SBonitaReadException {
+        final QueryOptions queryOptions = selectDescriptor.getQueryOptions();
         if (selectDescriptor.hasAFilter()) {
-            final QueryOptions queryOptions = selectDescriptor.getQueryOptions();
             appendFilters(queryOptions.getFilters(), queryOptions.getMultipleFilter());
         }
-        if (selectDescriptor.hasOrderByParameters()) {
-            appendOrderByClause(selectDescriptor.getQueryOptions().getOrderByOptions(),
+        if (queryOptions != null && queryOptions.isKeysetPaginated()) {
+            if (!queryOptions.getAfterValues().isEmpty()) {
+                appendAfterCondition(queryOptions.getOrderByOptions(), queryOptions.getAfterValues(),
+                        selectDescriptor.getEntityType());
+            }
+            appendKeysetOrderByClause(queryOptions.getOrderByOptions(), selectDescriptor.getEntityType());
+        } else if (selectDescriptor.hasOrderByParameters()) {
+            appendOrderByClause(queryOptions.getOrderByOptions(),
                     selectDescriptor.getEntityType());
         }
     }
@@ -169,6 +216,11 @@ abstract class QueryBuilder<T> {
         return this;
     }
 
+    public QueryBuilder searchTermIndex(SearchTermIndex searchTermIndex) {
+        this.searchTermIndex = searchTermIndex;
+        return this;
+    }
+
     private void setParameters(final Query query, final Map<String, Object> inputParameters) {
         for (final Map.Entry<String, Object> entry : inputParameters.entrySet()) {
             final Object value = entry.getValue();
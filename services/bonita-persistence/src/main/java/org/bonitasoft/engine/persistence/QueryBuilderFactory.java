@@ -30,6 +30,7 @@ public class QueryBuilderFactory {
     private OrderByBuilder orderByBuilder = new DefaultOrderByBuilder();
     private Map<String, String> classAliasMappings;
     private char likeEscapeCharacter;
+    private SearchTermIndex searchTermIndex = SearchTermIndex.DISABLED;
 
     public QueryBuilderFactory(OrderByCheckingMode orderByCheckingMode, Map<String, String> classAliasMappings,
             char likeEscapeCharacter)
@@ -45,14 +46,21 @@ public class QueryBuilderFactory {
         if (query instanceof NativeQuery) {
             return new SQLQueryBuilder<>(session, query, orderByBuilder, classAliasMappings,
                     likeEscapeCharacter,
-                    orderByCheckingMode, selectDescriptor);
+                    orderByCheckingMode, selectDescriptor).searchTermIndex(searchTermIndex);
         } else {
             return new HQLQueryBuilder<>(session, query, orderByBuilder, classAliasMappings, likeEscapeCharacter,
-                    orderByCheckingMode, selectDescriptor);
+                    orderByCheckingMode, selectDescriptor).searchTermIndex(searchTermIndex);
         }
     }
 
     public void setOrderByBuilder(OrderByBuilder orderByBuilder) {
         this.orderByBuilder = orderByBuilder;
     }
+
+    /**
+     * Resolve search terms on indexed fields using the search term index instead of LIKE clauses only
+     */
+    public void setSearchTermIndex(SearchTermIndex searchTermIndex) {
+        this.searchTermIndex = searchTermIndex;
+    }
 }
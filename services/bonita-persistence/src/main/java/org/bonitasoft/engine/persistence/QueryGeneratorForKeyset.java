@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Generates the condition selecting the elements that come after a given element, in the order of the order by
+ * options followed by the id.
+ * Plain ascending and descending orders are considered to have null values first and last respectively, so that the
+ * order does not depend on the database. This can differ from the order of the same query paginated using an offset,
+ * that keeps the default null ordering of the database, as documented on the continuation pagination of the search
+ * options.
+ */
+class QueryGeneratorForKeyset {
+
+    private final Map<String, String> classAliasMappings;
+    private int parameterCounter = 1;
+    private final Map<String, Object> parameters = new HashMap<>();
+
+    QueryGeneratorForKeyset(Map<String, String> classAliasMappings) {
+        this.classAliasMappings = classAliasMappings;
+    }
+
+    static OrderByType getKeysetOrderByType(OrderByType orderByType) {
+        switch (orderByType) {
+            case ASC:
+                return OrderByType.ASC_NULLS_FIRST;
+            case DESC:
+                return OrderByType.DESC_NULLS_LAST;
+            default:
+                return orderByType;
+        }
+    }
+
+    QueryGeneratedKeyset generate(List<OrderByOption> orderByOptions, List<Serializable> afterValues,
+            Class<? extends PersistentObject> entityType) throws SBonitaReadException {
+        List<OrderByOption> keyOptions = new ArrayList<>(
+                orderByOptions != null ? orderByOptions : Collections.emptyList());
+        if (!QueryOptions.isSortedById(keyOptions)) {
+            keyOptions.add(new OrderByOption(entityType, "id", OrderByType.ASC));
+        }
+        if (keyOptions.size() != afterValues.size()) {
+            throw new SBonitaReadException("Unable to start the page after " + afterValues + ", expected "
+                    + keyOptions.size() + " values for " + keyOptions);
+        }
+        String condition = null;
+        for (int i = keyOptions.size() - 1; i >= 0; i--) {
+            condition = after(getField(keyOptions.get(i)), afterValues.get(i),
+                    getKeysetOrderByType(keyOptions.get(i).getOrderByType()), condition);
+        }
+        return new QueryGeneratedKeyset(condition, parameters);
+    }
+
+    /**
+     * @param nextCondition condition on the next fields, applied when this field is equal to the value, null when it
+     *        is the last field
+     */
+    private String after(String field, Serializable value, OrderByType orderByType, String nextCondition) {
+        boolean descending = orderByType == OrderByType.DESC_NULLS_LAST || orderByType == OrderByType.DESC_NULLS_FIRST;
+        boolean nullsLast = orderByType == OrderByType.ASC_NULLS_LAST || orderByType == OrderByType.DESC_NULLS_LAST;
+        List<String> conditions = new ArrayList<>(3);
+        if (value == null) {
+            if (nextCondition != null) {
+                conditions.add("(" + field + " IS NULL AND " + nextCondition + ")");
+            }
+            if (!nullsLast) {
+                conditions.add(field + " IS NOT NULL");
+            }
+        } else {
+            String parameter = createParameter(value);
+            conditions.add(field + (descending ? " < " : " > ") + parameter);
+            if (nullsLast) {
+                conditions.add(field + " IS NULL");
+            }
+            if (nextCondition != null) {
+                conditions.add("(" + field + " = " + parameter + " AND " + nextCondition + ")");
+            }
+        }
+        if (conditions.isEmpty()) {
+            return "1 = 0";
+        }
+        return "(" + String.join(" OR ", conditions) + ")";
+    }
+
+    private String getField(OrderByOption orderByOption) throws SBonitaReadException {
+        if (orderByOption.getClazz() == null) {
+            return orderByOption.getFieldName();
+        }
+        final String className = orderByOption.getClazz().getName();
+        final String classAlias = classAliasMappings.get(className);
+        if (classAlias == null || classAlias.trim().isEmpty()) {
+            throw new SBonitaReadException("No class alias found for class " + className);
+        }
+        return classAlias + '.' + orderByOption.getFieldName();
+    }
+
+    private String createParameter(Object value) {
+        final String parameterName = "k" + parameterCounter++;
+        parameters.put(parameterName, value);
+        return ":" + parameterName;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static final class QueryGeneratedKeyset {
+
+        private String condition;
+        private Map<String, Object> parameters;
+    }
+}
@@ -40,6 +40,15 @@ public class QueryGeneratorForOrderBy {
 
     String generate(List<OrderByOption> orderByOptions, Class<? extends PersistentObject> entityType)
             throws SBonitaReadException {
+        return generate(orderByOptions, entityType, false);
+    }
+
+    /**
+     * @param keyset when true, the order is the one used by {@link QueryGeneratorForKeyset}: results are always
+     *        sorted by id last and plain orders have explicit null ordering
+     */
+    String generate(List<OrderByOption> orderByOptions, Class<? extends PersistentObject> entityType,
+            boolean keyset) throws SBonitaReadException {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(" ORDER BY ");
         boolean startWithComma = false;
@@ -54,12 +63,13 @@ public class QueryGeneratorForOrderBy {
                 appendClassAlias(fieldNameBuilder, clazz);
             }
             final String fieldName = orderByOption.getFieldName();
-            if ("id".equalsIgnoreCase(fieldName) || "sourceObjectId".equalsIgnoreCase(fieldName)) {
+            if ("id".equalsIgnoreCase(fieldName) || !keyset && "sourceObjectId".equalsIgnoreCase(fieldName)) {
                 sortedById = true;
             }
             fieldNameBuilder.append(fieldName);
             orderByBuilder.appendOrderBy(stringBuilder, fieldNameBuilder.toString(),
-                    orderByOption.getOrderByType());
+                    keyset ? QueryGeneratorForKeyset.getKeysetOrderByType(orderByOption.getOrderByType())
+                            : orderByOption.getOrderByType());
             startWithComma = true;
         }
         if (!sortedById) {
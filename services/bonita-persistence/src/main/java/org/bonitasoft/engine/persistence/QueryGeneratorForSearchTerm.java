@@ -15,6 +15,7 @@ package org.bonitasoft.engine.persistence;
 
 import static org.bonitasoft.engine.persistence.QueryBuilder.escapeTerm;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -69,7 +70,55 @@ class QueryGeneratorForSearchTerm {
         }
     }
 
+    private void buildLikeClauseForMultipleFieldsOneTerm(final StringBuilder queryBuilder, final Set<String> fields,
+            final String term) {
+        final Iterator<String> fieldIterator = fields.iterator();
+        while (fieldIterator.hasNext()) {
+            buildLikeClauseForOneFieldOneTerm(queryBuilder, fieldIterator.next(), term);
+            if (fieldIterator.hasNext()) {
+                queryBuilder.append(" OR ");
+            }
+        }
+    }
+
+    /**
+     * Only check the LIKE clauses on the entities whose index contains all the trigrams of the term, or on all
+     * entities when the term is too short to have trigrams.
+     */
+    private void buildIndexedClauseForOneTerm(final StringBuilder queryBuilder, final IndexedFields indexedFields,
+            final String term, final String indexSource) {
+        final Set<String> trigrams = SearchTermIndex.trigrams(term);
+        if (trigrams.isEmpty()) {
+            buildLikeClauseForMultipleFieldsOneTerm(queryBuilder, indexedFields.getFields(), term);
+            return;
+        }
+        queryBuilder.append("(").append(indexedFields.getAlias()).append(".id IN (SELECT sti.entityId FROM ")
+                .append(indexSource).append(" sti WHERE sti.entityType = ")
+                .append(createParameter(indexedFields.getStoredType())).append(" AND sti.trigram IN (");
+        final Iterator<String> trigramIterator = trigrams.iterator();
+        while (trigramIterator.hasNext()) {
+            queryBuilder.append(createParameter(trigramIterator.next()));
+            if (trigramIterator.hasNext()) {
+                queryBuilder.append(", ");
+            }
+        }
+        queryBuilder.append(") GROUP BY sti.entityId HAVING COUNT(DISTINCT sti.trigram) = ")
+                .append(createParameter((long) trigrams.size())).append(") AND (");
+        buildLikeClauseForMultipleFieldsOneTerm(queryBuilder, indexedFields.getFields(), term);
+        queryBuilder.append("))");
+    }
+
     QueryGeneratedSearchTerms generate(Set<String> fields, List<String> terms) {
+        return generate(fields, Collections.emptyList(), terms, null);
+    }
+
+    /**
+     * @param fields the fields on which the terms are searched using LIKE clauses
+     * @param indexedFields the fields on which the terms are searched using the search term index
+     * @param indexSource the entity or table name of the search term index
+     */
+    QueryGeneratedSearchTerms generate(Set<String> fields, List<IndexedFields> indexedFields, List<String> terms,
+            String indexSource) {
         StringBuilder stringBuilder = new StringBuilder();
         final Iterator<String> fieldIterator = fields.iterator();
         while (fieldIterator.hasNext()) {
@@ -78,9 +127,29 @@ class QueryGeneratorForSearchTerm {
                 stringBuilder.append(" OR ");
             }
         }
+        for (IndexedFields indexedEntityFields : indexedFields) {
+            for (String term : terms) {
+                if (stringBuilder.length() > 0) {
+                    stringBuilder.append(" OR ");
+                }
+                buildIndexedClauseForOneTerm(stringBuilder, indexedEntityFields, term, indexSource);
+            }
+        }
         return new QueryGeneratedSearchTerms(stringBuilder.toString(), parameters);
     }
 
+    /**
+     * Fields of one entity of the query, whose values are in the search term index
+     */
+    @Data
+    @AllArgsConstructor
+    static final class IndexedFields {
+
+        private String alias;
+        private String storedType;
+        private Set<String> fields;
+    }
+
     @Data
     @AllArgsConstructor
     static final class QueryGeneratedSearchTerms {
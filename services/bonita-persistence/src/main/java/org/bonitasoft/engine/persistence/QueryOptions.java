@@ -37,6 +37,8 @@ public class QueryOptions implements Serializable {
 
     private final List<OrderByOption> orderByOptions;
 
+    private final List<Serializable> afterValues;
+
     public static final int UNLIMITED_NUMBER_OF_RESULTS = Integer.MAX_VALUE;
 
     public static final QueryOptions ALL_RESULTS = new QueryOptions(0, UNLIMITED_NUMBER_OF_RESULTS);
@@ -49,6 +51,7 @@ public class QueryOptions implements Serializable {
         orderByOptions = queryOptions.getOrderByOptions();
         filters = queryOptions.getFilters();
         multipleFilter = queryOptions.getMultipleFilter();
+        afterValues = queryOptions.getAfterValues();
     }
 
     /**
@@ -61,6 +64,7 @@ public class QueryOptions implements Serializable {
         orderByOptions = Collections.emptyList();
         filters = Collections.emptyList();
         multipleFilter = null;
+        afterValues = null;
     }
 
     public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions) {
@@ -70,6 +74,7 @@ public class QueryOptions implements Serializable {
         this.orderByOptions = orderByOptions;
         filters = Collections.emptyList();
         multipleFilter = null;
+        afterValues = null;
     }
 
     public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions,
@@ -81,6 +86,37 @@ public class QueryOptions implements Serializable {
         this.orderByOptions = orderByOptions;
         this.filters = filters;
         this.multipleFilter = multipleFilter;
+        afterValues = null;
+    }
+
+    /**
+     * Options of a page that starts after a given element instead of a given index, i.e. using keyset pagination.
+     * Results are ordered by the order by options then by id, null values being the lowest values.
+     *
+     * @param afterValues values of the order by fields, followed by the id, of the last element of the previous page.
+     *        Empty to get the first page.
+     */
+    public QueryOptions(final int numberOfResults, final List<OrderByOption> orderByOptions,
+            final List<FilterOption> filters, final SearchFields multipleFilter, final List<Serializable> afterValues) {
+        this(0, numberOfResults, orderByOptions, filters, multipleFilter, afterValues);
+    }
+
+    /**
+     * Options of a page ordered like pages using keyset pagination, that starts at the given index after the given
+     * element. Used to retrieve a page using its offset while keeping the order of the other pages of the same search.
+     *
+     * @param afterValues values of the order by fields, followed by the id, of the element after which the page
+     *        starts. Empty to start at the given index from the first element.
+     */
+    public QueryOptions(final int fromIndex, final int numberOfResults, final List<OrderByOption> orderByOptions,
+            final List<FilterOption> filters, final SearchFields multipleFilter, final List<Serializable> afterValues) {
+        super();
+        this.fromIndex = fromIndex;
+        this.numberOfResults = numberOfResults;
+        this.orderByOptions = orderByOptions;
+        this.filters = filters;
+        this.multipleFilter = multipleFilter;
+        this.afterValues = afterValues;
     }
 
     /**
@@ -104,6 +140,7 @@ public class QueryOptions implements Serializable {
         }
         filters = Collections.emptyList();
         multipleFilter = null;
+        afterValues = null;
     }
 
     @Deprecated
@@ -114,6 +151,7 @@ public class QueryOptions implements Serializable {
         this.orderByOptions = orderByOptions;
         filters = Collections.emptyList();
         multipleFilter = null;
+        afterValues = null;
     }
 
     @Deprecated
@@ -126,6 +164,7 @@ public class QueryOptions implements Serializable {
         orderByOptions.add(new OrderByOption(clazz, fieldName, orderByType));
         filters = Collections.emptyList();
         multipleFilter = null;
+        afterValues = null;
     }
 
     public int getFromIndex() {
@@ -148,10 +187,30 @@ public class QueryOptions implements Serializable {
         return orderByOptions;
     }
 
+    /**
+     * @return values of the order by fields, followed by the id, of the element after which the page starts, null if
+     *         the page is not ordered as a keyset paginated page
+     */
+    public List<Serializable> getAfterValues() {
+        return afterValues;
+    }
+
+    public boolean isKeysetPaginated() {
+        return afterValues != null;
+    }
+
     public boolean hasOrderByOptions() {
         return orderByOptions != null && !orderByOptions.isEmpty();
     }
 
+    /**
+     * @return true if one of the order by options is on the id, whatever its case, as considered when generating the
+     *         order by clause
+     */
+    public static boolean isSortedById(final List<OrderByOption> orderByOptions) {
+        return orderByOptions.stream().anyMatch(o -> "id".equalsIgnoreCase(o.getFieldName()));
+    }
+
     /**
      * Just for get number of elements on a table
      */
@@ -168,7 +227,7 @@ public class QueryOptions implements Serializable {
     @Override
     public String toString() {
         return "QueryOptions [fromIndex=" + fromIndex + ", numberOfResults=" + numberOfResults + ", orderByOptions="
-                + orderByOptions + "]";
+                + orderByOptions + (afterValues != null ? ", afterValues=" + afterValues : "") + "]";
     }
 
     public boolean hasAFilter() {
@@ -199,6 +258,9 @@ public class QueryOptions implements Serializable {
         if (orderByOptions != null ? !orderByOptions.equals(that.orderByOptions) : that.orderByOptions != null) {
             return false;
         }
+        if (afterValues != null ? !afterValues.equals(that.afterValues) : that.afterValues != null) {
+            return false;
+        }
 
         return true;
     }
@@ -210,6 +272,7 @@ public class QueryOptions implements Serializable {
         result = 31 * result + (filters != null ? filters.hashCode() : 0);
         result = 31 * result + (multipleFilter != null ? multipleFilter.hashCode() : 0);
         result = 31 * result + (orderByOptions != null ? orderByOptions.hashCode() : 0);
+        result = 31 * result + (afterValues != null ? afterValues.hashCode() : 0);
         return result;
     }
 }
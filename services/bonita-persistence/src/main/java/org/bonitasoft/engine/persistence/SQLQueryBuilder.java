@@ -46,6 +46,11 @@ public class SQLQueryBuilder<T> extends QueryBuilder<T> {
                 selectDescriptor);
     }
 
+    @Override
+    String getSearchTermIndexSource() {
+        return SearchTermIndexer.TABLE;
+    }
+
     public void addConstantsAsParameters(Query sqlQuery) {
         if (sqlQuery.getQueryString().contains(":" + TRUE_VALUE_PARAMETER)) {
             // there is no need to convert the true value to a integer for Oracle and Sqlserver, hibernate does that already.
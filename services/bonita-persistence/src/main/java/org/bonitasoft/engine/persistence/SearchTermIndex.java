@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fields whose values are indexed in the search_term_index table, by name of the indexed entity class.
+ * <p>
+ * Values are split into trigrams, i.e. all their lower-cased substrings of 3 characters. A search term of at least 3
+ * characters is then only checked with a LIKE on the entities having all the trigrams of the term, instead of on all
+ * the rows of the table.
+ * When the index is disabled, search terms are only resolved using LIKE clauses. They are also resolved using LIKE
+ * clauses on a type until the build of its index is known to be complete, see {@link #setBuilt(String)}.
+ */
+public class SearchTermIndex {
+
+    public static final SearchTermIndex DISABLED = new SearchTermIndex(false, Collections.emptyMap());
+
+    public static final int TRIGRAM_LENGTH = 3;
+
+    private final boolean enabled;
+
+    private final Map<String, Set<String>> indexedFields;
+
+    private final Set<String> builtTypes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param enabled whether the index is maintained and used by search queries
+     * @param indexedFields the indexed fields, by name of the entity class. Entities of subclasses are indexed with
+     *        the type of the configured class.
+     */
+    public SearchTermIndex(final boolean enabled, final Map<String, Set<String>> indexedFields) {
+        this.enabled = enabled;
+        this.indexedFields = indexedFields;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the name of the configured class the given class is or extends, null if it is not indexed
+     */
+    public String getIndexedType(final Class<?> entityClass) {
+        if (!enabled) {
+            return null;
+        }
+        for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+            if (indexedFields.containsKey(type.getName())) {
+                return type.getName();
+            }
+        }
+        return null;
+    }
+
+    public Set<String> getIndexedFields(final String indexedType) {
+        return indexedFields.getOrDefault(indexedType, Collections.emptySet());
+    }
+
+    /**
+     * @return the indexed type of the given class if all the given fields are indexed and the index of the type is
+     *         built, null otherwise
+     */
+    String getIndexedType(final Class<?> entityClass, final Set<String> fields) {
+        final String indexedType = getIndexedType(entityClass);
+        if (indexedType == null || !isBuilt(indexedType) || !getIndexedFields(indexedType).containsAll(fields)) {
+            return null;
+        }
+        return indexedType;
+    }
+
+    /**
+     * Record that all the entities of the given type are indexed, so that searches on the type start using the index
+     */
+    public void setBuilt(final String indexedType) {
+        builtTypes.add(indexedType);
+    }
+
+    public boolean isBuilt(final String indexedType) {
+        return builtTypes.contains(indexedType);
+    }
+
+    /**
+     * Forget the types recorded as built, searches on all types use LIKE clauses again
+     */
+    public void resetBuilt() {
+        builtTypes.clear();
+    }
+
+    /**
+     * @return the type stored in the index for the given indexed type, i.e. the simple name of the class
+     */
+    public static String getStoredType(final String indexedType) {
+        return indexedType.substring(indexedType.lastIndexOf('.') + 1);
+    }
+
+    public Set<String> getIndexedTypes() {
+        return enabled ? indexedFields.keySet() : Collections.emptySet();
+    }
+
+    /**
+     * @return the trigrams of the given value, empty if it is shorter than 3 characters
+     */
+    public static Set<String> trigrams(final String value) {
+        if (value == null || value.length() < TRIGRAM_LENGTH) {
+            return Collections.emptySet();
+        }
+        final String lowerCase = value.toLowerCase(Locale.ROOT);
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerCase.length(); i++) {
+            trigrams.add(lowerCase.substring(i, i + TRIGRAM_LENGTH));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.bonitasoft.engine.commons.ClassReflector;
+import org.bonitasoft.engine.commons.exceptions.SReflectException;
+import org.bonitasoft.engine.services.SPersistenceException;
+import org.hibernate.HibernateException;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Maintains the search_term_index table when indexed entities are inserted, updated or deleted through the
+ * {@link org.bonitasoft.engine.recorder.Recorder}, see {@link SearchTermIndex}.
+ * <p>
+ * Rows are written using SQL statements instead of Hibernate entities: all the trigrams of an entity are inserted
+ * using a single statement, and the session does not keep track of them.
+ */
+public class SearchTermIndexer {
+
+    static final String TABLE = "search_term_index";
+    static final String BUILD_TABLE = "search_term_index_build";
+
+    private final HibernatePersistenceService persistenceService;
+
+    private final SearchTermIndex searchTermIndex;
+
+    public SearchTermIndexer(final HibernatePersistenceService persistenceService,
+            final SearchTermIndex searchTermIndex) {
+        this.persistenceService = persistenceService;
+        this.searchTermIndex = searchTermIndex;
+    }
+
+    public boolean isEnabled() {
+        return searchTermIndex.isEnabled();
+    }
+
+    /**
+     * Index the search fields of the given entity, if its class is indexed
+     */
+    public void index(final PersistentObject entity) throws SPersistenceException {
+        final String indexedType = searchTermIndex.getIndexedType(entity.getClass());
+        if (indexedType != null) {
+            insert(indexedType, entity);
+        }
+    }
+
+    /**
+     * Index again the search fields of the given entity, if one of the updated fields is indexed
+     */
+    public void reindex(final PersistentObject entity, final Collection<String> updatedFields)
+            throws SPersistenceException {
+        final String indexedType = searchTermIndex.getIndexedType(entity.getClass());
+        if (indexedType == null
+                || Collections.disjoint(searchTermIndex.getIndexedFields(indexedType), updatedFields)) {
+            return;
+        }
+        delete(indexedType, entity.getId());
+        insert(indexedType, entity);
+    }
+
+    public void remove(final PersistentObject entity) throws SPersistenceException {
+        final String indexedType = searchTermIndex.getIndexedType(entity.getClass());
+        if (indexedType != null) {
+            delete(indexedType, entity.getId());
+        }
+    }
+
+    /**
+     * @return true if all the entities of the given indexed type that existed when the index was enabled were indexed.
+     *         Once true, it is recorded in the {@link SearchTermIndex} and the database is not read anymore.
+     */
+    public boolean isBuilt(final String indexedType) throws SPersistenceException {
+        if (searchTermIndex.isBuilt(indexedType)) {
+            return true;
+        }
+        final Object complete = executeQuery("SELECT complete FROM " + BUILD_TABLE + " WHERE entityType = :entityType",
+                Map.of("entityType", SearchTermIndex.getStoredType(indexedType)));
+        if (Boolean.TRUE.equals(complete)) {
+            searchTermIndex.setBuilt(indexedType);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the id of the last entity indexed by the build of the index of the given type, null if the build did not
+     *         start
+     */
+    public Long getBuildProgress(final String indexedType) throws SPersistenceException {
+        final Object lastEntityId = executeQuery(
+                "SELECT lastEntityId FROM " + BUILD_TABLE + " WHERE entityType = :entityType",
+                Map.of("entityType", SearchTermIndex.getStoredType(indexedType)));
+        return lastEntityId != null ? ((Number) lastEntityId).longValue() : null;
+    }
+
+    /**
+     * Record, in the current transaction, that the build of the index of the given type indexed the entities up to the
+     * given id
+     */
+    public void saveBuildProgress(final String indexedType, final long lastEntityId, final boolean complete)
+            throws SPersistenceException {
+        final String storedType = SearchTermIndex.getStoredType(indexedType);
+        try {
+            final int updated = createQuery("UPDATE " + BUILD_TABLE
+                    + " SET lastEntityId = :lastEntityId, complete = :complete WHERE entityType = :entityType")
+                    .setParameter("entityType", storedType)
+                    .setParameter("lastEntityId", lastEntityId)
+                    .setParameter("complete", complete)
+                    .executeUpdate();
+            if (updated == 0) {
+                createQuery("INSERT INTO " + BUILD_TABLE
+                        + " (entityType, lastEntityId, complete) VALUES (:entityType, :lastEntityId, :complete)")
+                        .setParameter("entityType", storedType)
+                        .setParameter("lastEntityId", lastEntityId)
+                        .setParameter("complete", complete)
+                        .executeUpdate();
+            }
+        } catch (final HibernateException e) {
+            throw new SPersistenceException(e);
+        }
+    }
+
+    /**
+     * Delete all the rows of the index, and the progress of its builds
+     */
+    public void clear() throws SPersistenceException {
+        try {
+            createQuery("DELETE FROM " + TABLE).executeUpdate();
+            createQuery("DELETE FROM " + BUILD_TABLE).executeUpdate();
+            searchTermIndex.resetBuilt();
+        } catch (final HibernateException e) {
+            throw new SPersistenceException(e);
+        }
+    }
+
+    private void insert(final String indexedType, final PersistentObject entity) throws SPersistenceException {
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (String field : searchTermIndex.getIndexedFields(indexedType)) {
+            trigrams.addAll(SearchTermIndex.trigrams(readField(entity, field)));
+        }
+        if (trigrams.isEmpty()) {
+            return;
+        }
+        final StringBuilder sql = new StringBuilder("INSERT INTO ").append(TABLE)
+                .append(" (entityType, trigram, entityId) VALUES ");
+        for (int i = 0; i < trigrams.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:entityType, :t").append(i).append(", :entityId)");
+        }
+        try {
+            final NativeQuery<?> query = createQuery(sql.toString());
+            query.setParameter("entityType", SearchTermIndex.getStoredType(indexedType));
+            query.setParameter("entityId", entity.getId());
+            int i = 0;
+            for (String trigram : trigrams) {
+                query.setParameter("t" + i++, trigram);
+            }
+            query.executeUpdate();
+        } catch (final HibernateException e) {
+            throw new SPersistenceException(e);
+        }
+    }
+
+    private void delete(final String indexedType, final long entityId) throws SPersistenceException {
+        try {
+            createQuery("DELETE FROM " + TABLE + " WHERE entityType = :entityType AND entityId = :entityId")
+                    .setParameter("entityType", SearchTermIndex.getStoredType(indexedType))
+                    .setParameter("entityId", entityId)
+                    .executeUpdate();
+        } catch (final HibernateException e) {
+            throw new SPersistenceException(e);
+        }
+    }
+
+    private Object executeQuery(final String sql, final Map<String, Object> parameters)
+            throws SPersistenceException {
+        try {
+            final NativeQuery<?> query = createQuery(sql);
+            parameters.forEach(query::setParameter);
+            return query.uniqueResult();
+        } catch (final HibernateException e) {
+            throw new SPersistenceException(e);
+        }
+    }
+
+    private NativeQuery<?> createQuery(final String sql) throws SPersistenceException {
+        // the session is only flushed before the statement if it contains changes of the index table, i.e. never
+        return persistenceService.getSession().createNativeQuery(sql).addSynchronizedQuerySpace(TABLE);
+    }
+
+    private static String readField(final PersistentObject entity, final String field) throws SPersistenceException {
+        try {
+            final Object value = ClassReflector.invokeGetter(entity, ClassReflector.getGetterName(field));
+            return value != null ? value.toString() : null;
+        } catch (final SReflectException e) {
+            throw new SPersistenceException("Unable to read the indexed field " + field + " of " + entity, e);
+        }
+    }
+}
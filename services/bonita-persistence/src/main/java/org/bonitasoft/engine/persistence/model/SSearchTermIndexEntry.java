@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.engine.persistence.PlatformPersistentObject;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Trigram of a search field value of an indexed entity, see {@link org.bonitasoft.engine.persistence.SearchTermIndex}.
+ * Only read by search queries, rows are written by {@link org.bonitasoft.engine.persistence.SearchTermIndexer}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "search_term_index")
+@IdClass(SSearchTermIndexEntry.Key.class)
+public class SSearchTermIndexEntry implements PlatformPersistentObject {
+
+    public static final String ENTITY_TYPE = "entityType";
+    public static final String TRIGRAM = "trigram";
+    public static final String ENTITY_ID = "entityId";
+
+    @Id
+    private String entityType;
+    @Id
+    private String trigram;
+    @Id
+    private long entityId;
+
+    @Override
+    public long getId() {
+        return entityId;
+    }
+
+    @Override
+    public void setId(long id) {
+        this.entityId = id;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String entityType;
+        private String trigram;
+        private long entityId;
+    }
+}
@@ -25,6 +25,7 @@ import org.bonitasoft.engine.events.model.SFireEventException;
 import org.bonitasoft.engine.events.model.SInsertEvent;
 import org.bonitasoft.engine.events.model.SUpdateEvent;
 import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.SearchTermIndexer;
 import org.bonitasoft.engine.recorder.Recorder;
 import org.bonitasoft.engine.recorder.SRecorderException;
 import org.bonitasoft.engine.recorder.model.DeleteAllRecord;
@@ -46,16 +47,28 @@ public class RecorderImpl implements Recorder {
 
     private final EventService eventService;
 
+    private SearchTermIndexer searchTermIndexer;
+
     public RecorderImpl(final PersistenceService persistenceService,
             final EventService eventService) {
         this.persistenceService = persistenceService;
         this.eventService = eventService;
     }
 
+    /**
+     * @param searchTermIndexer updates the search term index when indexed entities are recorded, null to not update it
+     */
+    public void setSearchTermIndexer(final SearchTermIndexer searchTermIndexer) {
+        this.searchTermIndexer = searchTermIndexer;
+    }
+
     @Override
     public void recordInsert(final InsertRecord insertRecord, String type) throws SRecorderException {
         try {
             var entity = persistenceService.insert(insertRecord.getEntity());
+            if (searchTermIndexer != null) {
+                searchTermIndexer.index(entity);
+            }
             eventService.fireEvent(createInsertEvent(entity, type));
         } catch (final Exception e) {
             logExceptionsFromHandlers(e);
@@ -86,6 +99,9 @@ public class RecorderImpl implements Recorder {
     public void recordDelete(final DeleteRecord deleteRecord, String type) throws SRecorderException {
         try {
             persistenceService.delete(deleteRecord.getEntity());
+            if (searchTermIndexer != null) {
+                searchTermIndexer.remove(deleteRecord.getEntity());
+            }
             eventService.fireEvent(createDeleteEvent(deleteRecord.getEntity(), type));
         } catch (final Exception e) {
             logExceptionsFromHandlers(e);
@@ -109,6 +125,9 @@ public class RecorderImpl implements Recorder {
                 updateRecord.getFields());
         try {
             persistenceService.update(desc);
+            if (searchTermIndexer != null) {
+                searchTermIndexer.reindex(updateRecord.getEntity(), updateRecord.getFields().keySet());
+            }
             eventService.fireEvent(createUpdateEvent(updateRecord.getEntity(), updateRecord.getFields(), type));
         } catch (final Exception e) {
             logExceptionsFromHandlers(e);
@@ -15,9 +15,12 @@ package org.bonitasoft.engine.sequence;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.LockService;
 
@@ -40,12 +43,25 @@ public class SequenceManagerImpl implements SequenceManager {
 
     private final LockService lockService;
 
+    private final MeterRegistry meterRegistry;
+
+    private final int prefetchLowWaterMarkPercentage;
+
+    private final int maxRangeSizeFactor;
+
+    private ExecutorService prefetchExecutor;
+
     private final Map<Long, TenantSequenceManagerImpl> sequenceManagers = new HashMap<>();
 
     public SequenceManagerImpl(final LockService lockService,
             final SequenceMappingProvider sequenceMappingProvider,
-            final DataSource datasource, final int retries, final int delay, final int delayFactor) {
+            final DataSource datasource, final int retries, final int delay, final int delayFactor,
+            final MeterRegistry meterRegistry, final int prefetchLowWaterMarkPercentage,
+            final int maxRangeSizeFactor) {
         this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.prefetchLowWaterMarkPercentage = prefetchLowWaterMarkPercentage;
+        this.maxRangeSizeFactor = maxRangeSizeFactor;
         this.sequenceMappingProvider = sequenceMappingProvider;
         this.retries = retries;
         this.delay = delay;
@@ -77,7 +93,22 @@ public class SequenceManagerImpl implements SequenceManager {
     TenantSequenceManagerImpl createTenantSequenceManager(long tenantId) {
         return new TenantSequenceManagerImpl(tenantId, lockService, getSequenceIdToRangeSizeMap(),
                 getClassNameToSequenceIdMap(), datasource, retries, delay,
-                delayFactor);
+                delayFactor, meterRegistry, getPrefetchExecutor(), prefetchLowWaterMarkPercentage,
+                maxRangeSizeFactor);
+    }
+
+    private synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchLowWaterMarkPercentage <= 0) {
+            return null;
+        }
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Bonita-Sequence-Prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
     }
 
     @Override
@@ -86,8 +117,11 @@ public class SequenceManagerImpl implements SequenceManager {
     }
 
     @Override
-    public void close() {
-        // Do nothing
+    public synchronized void close() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
     }
 
     @Override
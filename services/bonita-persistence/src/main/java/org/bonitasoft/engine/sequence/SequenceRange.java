@@ -14,16 +14,47 @@
 package org.bonitasoft.engine.sequence;
 
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SequenceRange {
 
-    private AtomicLong nextAvailableId;
-    private long lastIdInRange;
-    private final int rangeSize;
+    private static final Logger logger = LoggerFactory.getLogger(SequenceRange.class);
+
+    /**
+     * When the range size is adaptive, it grows when ranges are consumed faster than this, and shrinks when they are
+     * consumed much slower.
+     */
+    static final long TARGET_REFILL_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private volatile AtomicLong nextAvailableId;
+    private volatile long lastIdInRange;
+    private final int initialRangeSize;
+    private final int maxRangeSize;
+    private int rangeSize;
+    private long lastRefillNanos = -1;
+    private final AtomicReference<CompletableFuture<Range>> prefetchedRange = new AtomicReference<>();
 
     public SequenceRange(int rangeSize) {
+        this(rangeSize, rangeSize);
+    }
+
+    /**
+     * @param rangeSize the initial number of ids to take at each refill
+     * @param maxRangeSize the maximum number of ids to take at each refill when the sequence is heavily used
+     */
+    public SequenceRange(int rangeSize, int maxRangeSize) {
+        this.initialRangeSize = rangeSize;
         this.rangeSize = rangeSize;
+        this.maxRangeSize = Math.max(rangeSize, maxRangeSize);
     }
 
     public Optional<Long> getNextAvailableId() {
@@ -45,7 +76,96 @@ public class SequenceRange {
     }
 
     public void updateToNextRange(long nextAvailableIdFromDatabase) {
-        nextAvailableId = new AtomicLong(nextAvailableIdFromDatabase);
-        lastIdInRange = nextAvailableIdFromDatabase + rangeSize - 1;
+        updateToNextRange(new Range(nextAvailableIdFromDatabase, rangeSize));
+    }
+
+    public void updateToNextRange(Range range) {
+        lastIdInRange = range.firstId() + range.size() - 1;
+        nextAvailableId = new AtomicLong(range.firstId());
+    }
+
+    /**
+     * Compute the size of the next range to take from the database, depending on how fast the previous one was
+     * consumed. Must be called once per range taken from the database.
+     */
+    synchronized int nextRangeSize(long nowNanos) {
+        if (lastRefillNanos >= 0) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed < TARGET_REFILL_INTERVAL_NANOS) {
+                rangeSize = (int) Math.min((long) rangeSize * 2, maxRangeSize);
+            } else if (elapsed > 4 * TARGET_REFILL_INTERVAL_NANOS) {
+                rangeSize = Math.max(rangeSize / 2, initialRangeSize);
+            }
+        }
+        lastRefillNanos = nowNanos;
+        return rangeSize;
+    }
+
+    /**
+     * @return true when less than the given percentage of the current range is still available and no range is
+     *         already being prefetched
+     */
+    boolean shouldPrefetch(int lowWaterMarkPercentage) {
+        AtomicLong next = nextAvailableId;
+        if (lowWaterMarkPercentage <= 0 || next == null || prefetchedRange.get() != null) {
+            return false;
+        }
+        long current = next.get();
+        long remaining = current < 0 ? 0 : lastIdInRange - current + 1;
+        return remaining * 100 <= (long) rangeSize * lowWaterMarkPercentage;
+    }
+
+    /**
+     * Take the next range in background, it will be used once the current range is exhausted.
+     * Does nothing if a range is already being prefetched.
+     */
+    void prefetch(RangeSupplier rangeSupplier, Executor executor) {
+        CompletableFuture<Range> future = new CompletableFuture<>();
+        if (!prefetchedRange.compareAndSet(null, future)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(rangeSupplier.get());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // e.g. the executor is shut down, ranges will be taken synchronously
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @return the prefetched range, waiting for it if it is still being taken from the database. Empty if no range
+     *         was prefetched or if the prefetch failed.
+     */
+    Optional<Range> takePrefetchedRange() {
+        CompletableFuture<Range> future = prefetchedRange.getAndSet(null);
+        if (future == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(future.join());
+        } catch (CompletionException | CancellationException e) {
+            logger.warn("Unable to prefetch the next range of ids, it will be taken synchronously: {}",
+                    e.getMessage());
+            logger.debug("Cause:", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A range of ids reserved in the database
+     */
+    public record Range(long firstId, int size) {
+    }
+
+    @FunctionalInterface
+    interface RangeSupplier {
+
+        Range get() throws Exception;
     }
 }
@@ -18,9 +18,15 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import org.bonitasoft.engine.commons.exceptions.SBonitaRuntimeException;
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.BonitaLock;
@@ -40,6 +46,8 @@ public class TenantSequenceManagerImpl {
     private static Logger logger = LoggerFactory.getLogger(TenantSequenceManagerImpl.class);
 
     static final String SEQUENCE = "SEQUENCE";
+    public static final String SEQUENCE_RANGE_REFILLS = "bonita.bpmengine.sequence.refill";
+    public static final String SEQUENCE_STALL_TIME = "bonita.bpmengine.sequence.stall";
 
     private final Long tenantId;
     private final Map<Long, SequenceRange> sequences = new HashMap<>();
@@ -56,11 +64,41 @@ public class TenantSequenceManagerImpl {
 
     private final LockService lockService;
 
+    private final MeterRegistry meterRegistry;
+
+    private final Executor prefetchExecutor;
+
+    private final int prefetchLowWaterMarkPercentage;
+
+    private final int maxRangeSizeFactor;
+
+    public TenantSequenceManagerImpl(final long tenantId, final LockService lockService,
+            final Map<Long, Integer> sequenceIdToRangeSize,
+            final Map<String, Long> classNameToSequenceId,
+            final DataSource datasource, final int retries, final int delay, final int delayFactor,
+            final MeterRegistry meterRegistry) {
+        this(tenantId, lockService, sequenceIdToRangeSize, classNameToSequenceId, datasource, retries, delay,
+                delayFactor, meterRegistry, null, 0, 1);
+    }
+
+    /**
+     * @param prefetchExecutor executor used to take the next range of ids in background, null to disable prefetch
+     * @param prefetchLowWaterMarkPercentage the next range is prefetched when less than this percentage of the current
+     *        range is available
+     * @param maxRangeSizeFactor the range size of a heavily used sequence can grow up to its configured range size
+     *        multiplied by this factor, 1 to always use the configured range size
+     */
     public TenantSequenceManagerImpl(final long tenantId, final LockService lockService,
             final Map<Long, Integer> sequenceIdToRangeSize,
             final Map<String, Long> classNameToSequenceId,
-            final DataSource datasource, final int retries, final int delay, final int delayFactor) {
+            final DataSource datasource, final int retries, final int delay, final int delayFactor,
+            final MeterRegistry meterRegistry, final Executor prefetchExecutor,
+            final int prefetchLowWaterMarkPercentage, final int maxRangeSizeFactor) {
         this.tenantId = tenantId;
+        this.meterRegistry = meterRegistry;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetchLowWaterMarkPercentage = prefetchExecutor == null ? 0 : prefetchLowWaterMarkPercentage;
+        this.maxRangeSizeFactor = Math.max(1, maxRangeSizeFactor);
         this.lockService = lockService;
         this.sequenceIdToRangeSize = sequenceIdToRangeSize;
         this.classNameToSequenceId = classNameToSequenceId;
@@ -75,31 +113,79 @@ public class TenantSequenceManagerImpl {
         SequenceRange sequence = getSequence(sequenceId);
         Optional<Long> nextAvailableId = sequence.getNextAvailableId();
         if (nextAvailableId.isPresent()) {
+            prefetchIfNeeded(sequenceId, sequence);
             return nextAvailableId.get();
         }
+        long stallStart = System.nanoTime();
         //synchronize on the sequence object itself (we will read/update only on this one)
         synchronized (sequence) {
-            nextAvailableId = sequence.getNextAvailableId();
-            int loopCounter = 0;
-            // set a max number of retries to 100:
-            while (!nextAvailableId.isPresent() && loopCounter < 100) {
-                if (loopCounter > 0) {
-                    logger.debug("Could not get an Id after updating to next range. Retrying...");
-                }
-                sequence.updateToNextRange(setNewRange(sequenceId));
+            try {
                 nextAvailableId = sequence.getNextAvailableId();
-                loopCounter++;
+                int loopCounter = 0;
+                // set a max number of retries to 100:
+                while (!nextAvailableId.isPresent() && loopCounter < 100) {
+                    if (loopCounter > 0) {
+                        logger.debug("Could not get an Id after updating to next range. Retrying...");
+                    }
+                    sequence.updateToNextRange(takeNextRange(sequenceId, sequence));
+                    nextAvailableId = sequence.getNextAvailableId();
+                    loopCounter++;
+                }
+                return nextAvailableId.orElseThrow(
+                        () -> new IllegalStateException("No new available id found for sequence " + entityName));
+            } finally {
+                Timer.builder(SEQUENCE_STALL_TIME).tag("tenant", String.valueOf(tenantId))
+                        .tag("sequence", String.valueOf(sequenceId))
+                        .description("Time spent waiting for a new range of ids")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - stallStart, TimeUnit.NANOSECONDS);
             }
-            return nextAvailableId.orElseThrow(
-                    () -> new IllegalStateException("No new available id found for sequence " + entityName));
         }
     }
 
+    private SequenceRange.Range takeNextRange(long sequenceId, SequenceRange sequence)
+            throws SObjectNotFoundException {
+        Optional<SequenceRange.Range> prefetchedRange = sequence.takePrefetchedRange();
+        if (prefetchedRange.isPresent()) {
+            return prefetchedRange.get();
+        }
+        SequenceRange.Range range = reserveRange(sequenceId, sequence);
+        countRefill(sequenceId, false);
+        return range;
+    }
+
+    private void prefetchIfNeeded(long sequenceId, SequenceRange sequence) {
+        if (sequence.shouldPrefetch(prefetchLowWaterMarkPercentage)) {
+            sequence.prefetch(() -> {
+                SequenceRange.Range range = reserveRange(sequenceId, sequence);
+                countRefill(sequenceId, true);
+                return range;
+            }, prefetchExecutor);
+        }
+    }
+
+    private SequenceRange.Range reserveRange(long sequenceId, SequenceRange sequence)
+            throws SObjectNotFoundException {
+        int rangeSize = sequence.nextRangeSize(System.nanoTime());
+        return new SequenceRange.Range(setNewRange(sequenceId, rangeSize), rangeSize);
+    }
+
+    private void countRefill(long sequenceId, boolean prefetched) {
+        Counter.builder(SEQUENCE_RANGE_REFILLS).tag("tenant", String.valueOf(tenantId))
+                .tag("sequence", String.valueOf(sequenceId))
+                .tag("prefetched", String.valueOf(prefetched))
+                .description("Number of ranges of ids taken from the database")
+                .register(meterRegistry)
+                .increment();
+    }
+
     private SequenceRange getSequence(Long sequenceId) {
         if (!sequences.containsKey(sequenceId)) {
             synchronized (this) {
                 if (!sequences.containsKey(sequenceId)) {
-                    sequences.put(sequenceId, new SequenceRange(sequenceIdToRangeSize.get(sequenceId)));
+                    int rangeSize = sequenceIdToRangeSize.get(sequenceId);
+                    sequences.put(sequenceId, new SequenceRange(rangeSize,
+                            (int) Math.min((long) rangeSize * maxRangeSizeFactor, Integer.MAX_VALUE)));
                 }
             }
         }
@@ -119,7 +205,7 @@ public class TenantSequenceManagerImpl {
      *
      * @return the next available id of the sequence
      */
-    private long setNewRange(final long sequenceId) throws SObjectNotFoundException {
+    private long setNewRange(final long sequenceId, final int rangeSize) throws SObjectNotFoundException {
         BonitaLock lock = createLock(sequenceId);
         Exception lastException = null;
         try {
@@ -134,7 +220,7 @@ public class TenantSequenceManagerImpl {
                     connection.setAutoCommit(false);
                     SequenceDAO sequenceDAO = createDao(connection);
                     long nextAvailableId = sequenceDAO.selectById(sequenceId);
-                    sequenceDAO.updateSequence(nextAvailableId + sequenceIdToRangeSize.get(sequenceId), sequenceId);
+                    sequenceDAO.updateSequence(nextAvailableId + rangeSize, sequenceId);
                     connection.commit();
                     return nextAvailableId;
                 } catch (final SObjectNotFoundException t) {
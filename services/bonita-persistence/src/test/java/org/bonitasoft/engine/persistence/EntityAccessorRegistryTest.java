@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import org.bonitasoft.engine.services.SPersistenceException;
+import org.junit.Test;
+
+public class EntityAccessorRegistryTest {
+
+    private final EntityAccessorRegistry registry = new EntityAccessorRegistry(List.of(Book.class, Shelf.class));
+
+    @Test
+    public void should_set_fields_of_entity() throws Exception {
+        final Book book = new Book();
+
+        registry.setFields(book, Map.of("title", "Dune", "author", "Herbert"));
+
+        assertThat(book.getTitle()).isEqualTo("Dune");
+        assertThat(book.getAuthor()).isEqualTo("Herbert");
+    }
+
+    @Test
+    public void should_reuse_generated_setter() throws Exception {
+        assertThat(registry.getSetter(Book.class, "title")).isSameAs(registry.getSetter(Book.class, "title"));
+    }
+
+    @Test
+    public void should_set_field_of_intermediate_field() throws Exception {
+        final Shelf shelf = new Shelf();
+        shelf.setBook(new Book());
+
+        registry.setFields(shelf, Map.of("book.title", "Dune", "position", 3));
+
+        assertThat(shelf.getBook().getTitle()).isEqualTo("Dune");
+        assertThat(shelf.getPosition()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_convert_number_given_to_setter_of_another_primitive_type() throws Exception {
+        final Shelf shelf = new Shelf();
+
+        registry.setFields(shelf, Map.of("capacity", 40));
+
+        assertThat(shelf.getCapacity()).isEqualTo(40L);
+    }
+
+    @Test
+    public void should_not_change_entity_when_a_field_is_unknown() {
+        final Book book = new Book();
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", "Dune");
+        fields.put("publisher", "Chilton");
+
+        assertThatThrownBy(() -> registry.setFields(book, fields)).isInstanceOf(SPersistenceException.class)
+                .hasMessageContaining("publisher");
+        assertThat(book.getTitle()).isNull();
+    }
+
+    @Test
+    public void should_fail_when_field_of_intermediate_field_is_unknown() {
+        assertThatThrownBy(() -> registry.getSetter(Shelf.class, "book.publisher"))
+                .isInstanceOf(SPersistenceException.class).hasMessageContaining("publisher");
+        assertThatThrownBy(() -> registry.getSetter(Shelf.class, "room.name"))
+                .isInstanceOf(SPersistenceException.class).hasMessageContaining("room");
+    }
+
+    @Data
+    public static class Shelf implements PersistentObject {
+
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+        private int position;
+        private long capacity;
+        private Book book;
+
+        @Override
+        public void setTenantId(final long id) {
+        }
+    }
+}
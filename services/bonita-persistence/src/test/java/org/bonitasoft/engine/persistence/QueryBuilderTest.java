@@ -185,6 +185,56 @@ public class QueryBuilderTest {
         assertThat(queryBuilder.getQueryParameters().get("f1")).isEqualTo(12);
     }
 
+    @Test
+    public void should_generate_keyset_order_by_with_explicit_null_ordering_and_id() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj");
+        //when
+        queryBuilder.appendKeysetOrderByClause(
+                Collections.singletonList(new OrderByOption(TestObject.class, "sourceObjectId", OrderByType.DESC)),
+                TestObject.class);
+        //then
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj ORDER BY testObj.sourceObjectId DESC NULLS LAST,testObj.id ASC");
+    }
+
+    @Test
+    public void should_generate_condition_to_start_after_given_values() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder("SELECT testObj.* FROM test_object testObj");
+        //when
+        queryBuilder.appendAfterCondition(
+                Collections.singletonList(new OrderByOption(TestObject.class, "theValue", OrderByType.DESC)),
+                Arrays.asList("abc", 12L), TestObject.class);
+        //then
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj WHERE (testObj.theValue < :k2 OR testObj.theValue IS NULL"
+                        + " OR (testObj.theValue = :k2 AND (testObj.id > :k1)))");
+        assertThat(queryBuilder.getQueryParameters()).containsEntry("k1", 12L).containsEntry("k2", "abc");
+    }
+
+    @Test
+    public void should_generate_condition_to_start_after_null_value() throws Exception {
+        //given
+        QueryBuilder queryBuilder = createQueryBuilder(
+                "SELECT testObj.* FROM test_object testObj WHERE testObj.enabled = true");
+        //when
+        queryBuilder.appendAfterCondition(
+                Collections.singletonList(new OrderByOption(TestObject.class, "theValue", OrderByType.ASC)),
+                Arrays.asList(null, 12L), TestObject.class);
+        //then
+        assertThat(queryBuilder.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj WHERE testObj.enabled = true AND"
+                        + " ((testObj.theValue IS NULL AND (testObj.id > :k1)) OR testObj.theValue IS NOT NULL)");
+    }
+
+    @Test(expected = SBonitaReadException.class)
+    public void should_throw_exception_when_after_values_do_not_match_order() throws Exception {
+        createQueryBuilder("SELECT testObj.* FROM test_object testObj").appendAfterCondition(
+                Collections.singletonList(new OrderByOption(TestObject.class, "theValue", OrderByType.ASC)),
+                Collections.singletonList(12L), TestObject.class);
+    }
+
     @Test
     public void should_generate_query_with_search_term() {
         //given
@@ -201,6 +251,26 @@ public class QueryBuilderTest {
         assertThat(queryBuilder.getQueryParameters().get("s2")).isEqualTo("%toto%");
     }
 
+    @Test
+    public void should_use_like_clauses_until_index_of_searched_type_is_built() {
+        SearchTermIndex searchTermIndex = new SearchTermIndex(true,
+                singletonMap(TestObject.class.getName(), aSet("field1")));
+        SearchFields searchFields = new SearchFields(Collections.singletonList("toto"),
+                Collections.singletonMap(TestObject.class, aSet("field1")));
+        QueryBuilder notBuilt = createQueryBuilder("SELECT testObj.* FROM test_object testObj")
+                .searchTermIndex(searchTermIndex);
+
+        notBuilt.appendFilters(Collections.emptyList(), searchFields);
+        searchTermIndex.setBuilt(TestObject.class.getName());
+        QueryBuilder built = createQueryBuilder("SELECT testObj.* FROM test_object testObj")
+                .searchTermIndex(searchTermIndex);
+        built.appendFilters(Collections.emptyList(), searchFields);
+
+        assertThat(notBuilt.getQuery()).isEqualTo(
+                "SELECT testObj.* FROM test_object testObj WHERE (testObj.field1 LIKE :s1 ESCAPE '§')");
+        assertThat(built.getQuery()).contains("testObj.id IN (SELECT sti.entityId FROM SSearchTermIndexEntry sti");
+    }
+
     @Test
     public void should_generate_query_with_multiple_search_terms() {
         //given
@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.persistence;
 
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,4 +49,41 @@ public class QueryGeneratorForSearchTermTest {
         assertThat(query.getParameters()).containsOnly(
                 entry("s1", "%100@%%"));
     }
+
+    @Test
+    public void should_restrict_like_clauses_to_entities_having_all_trigrams_of_the_term_in_index() {
+        QueryGeneratorForSearchTerm generator = new QueryGeneratorForSearchTerm('$');
+
+        QueryGeneratorForSearchTerm.QueryGeneratedSearchTerms query = generator.generate(emptySet(),
+                singletonList(new QueryGeneratorForSearchTerm.IndexedFields("user", "SUser",
+                        singleton("user.userName"))),
+                singletonList("Walt"), "SSearchTermIndexEntry");
+
+        assertThat(query.getSearch()).isEqualTo("(user.id IN (SELECT sti.entityId FROM SSearchTermIndexEntry sti"
+                + " WHERE sti.entityType = :s1 AND sti.trigram IN (:s2, :s3)"
+                + " GROUP BY sti.entityId HAVING COUNT(DISTINCT sti.trigram) = :s4)"
+                + " AND (user.userName LIKE :s5 ESCAPE '$'))");
+        assertThat(query.getParameters()).containsOnly(
+                entry("s1", "SUser"),
+                entry("s2", "wal"),
+                entry("s3", "alt"),
+                entry("s4", 2L),
+                entry("s5", "%Walt%"));
+    }
+
+    @Test
+    public void should_only_use_like_clauses_on_indexed_fields_when_term_is_shorter_than_a_trigram() {
+        QueryGeneratorForSearchTerm generator = new QueryGeneratorForSearchTerm('$');
+
+        QueryGeneratorForSearchTerm.QueryGeneratedSearchTerms query = generator.generate(
+                Stream.of("field1").collect(toSet()),
+                singletonList(new QueryGeneratorForSearchTerm.IndexedFields("user", "SUser",
+                        singleton("user.userName"))),
+                singletonList("Wa"), "search_term_index");
+
+        assertThat(query.getSearch()).isEqualTo("field1 LIKE :s1 ESCAPE '$' OR user.userName LIKE :s2 ESCAPE '$'");
+        assertThat(query.getParameters()).containsOnly(
+                entry("s1", "%Wa%"),
+                entry("s2", "%Wa%"));
+    }
 }
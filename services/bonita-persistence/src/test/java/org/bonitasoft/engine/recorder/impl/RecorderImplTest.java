@@ -24,6 +24,7 @@ import java.util.UUID;
 import org.bonitasoft.engine.events.EventService;
 import org.bonitasoft.engine.events.model.SEvent;
 import org.bonitasoft.engine.persistence.PersistentObject;
+import org.bonitasoft.engine.persistence.SearchTermIndexer;
 import org.bonitasoft.engine.recorder.model.DeleteRecord;
 import org.bonitasoft.engine.recorder.model.InsertRecord;
 import org.bonitasoft.engine.recorder.model.UpdateRecord;
@@ -46,6 +47,8 @@ public class RecorderImplTest {
     private PersistenceService persistenceService;
     @Mock
     private EventService eventService;
+    @Mock
+    private SearchTermIndexer searchTermIndexer;
     @InjectMocks
     private RecorderImpl recorder;
 
@@ -74,6 +77,21 @@ public class RecorderImplTest {
         verify(eventService).fireEvent(argThat(match("theEvent_DELETED", entity)));
     }
 
+    @Test
+    public void should_update_search_term_index_when_recording_changes() throws Exception {
+        when(persistenceService.insert(any())).thenAnswer(AdditionalAnswers.returnsFirstArg());
+        recorder.setSearchTermIndexer(searchTermIndexer);
+        MyPersistentObject entity = entity();
+
+        recorder.recordInsert(insertRecord(entity), "theEvent");
+        recorder.recordUpdate(updateRecord(entity), "theEvent");
+        recorder.recordDelete(deleteRecord(entity), "theEvent");
+
+        verify(searchTermIndexer).index(entity);
+        verify(searchTermIndexer).reindex(entity, updateRecord(entity).getFields().keySet());
+        verify(searchTermIndexer).remove(entity);
+    }
+
     protected ArgumentMatcher<SEvent> match(String type, Object entity) {
         return sEvent -> sEvent.getType().equals(type) && sEvent.getObject().equals(entity);
     }
@@ -24,9 +24,13 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.sql.DataSource;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.bonitasoft.engine.commons.exceptions.SObjectNotFoundException;
 import org.bonitasoft.engine.lock.BonitaLock;
 import org.bonitasoft.engine.lock.LockService;
@@ -66,16 +70,19 @@ public class TenantSequenceManagerImplTest {
     private Connection connection;
 
     private TenantSequenceManagerImpl tenantSequenceManager;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HashMap<Long, Integer> sequenceIdToRangeSize;
+    private HashMap<String, Long> classNameToSequenceId;
 
     @Before
     public void before() throws Exception {
         doReturn(connection).when(dataSource).getConnection();
-        HashMap<Long, Integer> sequenceIdToRangeSize = new HashMap<>();
+        sequenceIdToRangeSize = new HashMap<>();
         sequenceIdToRangeSize.put(SEQUENCE_w_2, 2);
         sequenceIdToRangeSize.put(SEQUENCE_w_5, 5);
         sequenceIdToRangeSize.put(SEQUENCE_w_100, 100);
         sequenceIdToRangeSize.put(SEQUENCE_w_1000, 1000);
-        HashMap<String, Long> classNameToSequenceId = new HashMap<>();
+        classNameToSequenceId = new HashMap<>();
         classNameToSequenceId.put(OBJECT_w_2, SEQUENCE_w_2);
         classNameToSequenceId.put(OBJECT_w_5, SEQUENCE_w_5);
         classNameToSequenceId.put(OBJECT_w_100, SEQUENCE_w_100);
@@ -84,7 +91,7 @@ public class TenantSequenceManagerImplTest {
         doReturn(lock).when(lockService).lock(anyLong(), anyString(), anyLong());
 
         tenantSequenceManager = new TenantSequenceManagerImpl(TENANT_ID, lockService, sequenceIdToRangeSize,
-                classNameToSequenceId, dataSource, RETRIES, 1, 1) {
+                classNameToSequenceId, dataSource, RETRIES, 1, 1, meterRegistry) {
 
             @Override
             SequenceDAO createDao(Connection connection) {
@@ -269,4 +276,84 @@ public class TenantSequenceManagerImplTest {
         assertThatThrownBy(() -> tenantSequenceManager.getNextId(OBJECT_w_5))
                 .hasMessage("Unable to get a sequence id for 554");
     }
+
+    @Test
+    public void should_count_refills_and_record_stall_time() throws Exception {
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_2);
+
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_RANGE_REFILLS)
+                .tag("sequence", String.valueOf(SEQUENCE_w_2)).tag("prefetched", "false").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_STALL_TIME)
+                .tag("tenant", String.valueOf(TENANT_ID)).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_prefetch_next_range_when_low_water_mark_is_reached() throws Exception {
+        doReturn(100L, 200L).when(sequenceDAO).selectById(SEQUENCE_w_5);
+        AtomicReference<Runnable> prefetchTask = new AtomicReference<>();
+        Executor prefetchExecutor = prefetchTask::set;
+        tenantSequenceManager = createTenantSequenceManager(prefetchExecutor, 40, 1);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(100);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(101);
+        assertThat(prefetchTask.get()).as("3 ids remaining out of 5: above the low water mark").isNull();
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(102);
+        assertThat(prefetchTask.get()).isNotNull();
+
+        prefetchTask.get().run();
+        verify(sequenceDAO).updateSequence(205L, SEQUENCE_w_5);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(103);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(104);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_5)).isEqualTo(200);
+        verify(sequenceDAO, times(2)).selectById(SEQUENCE_w_5);
+        assertThat(meterRegistry.find(TenantSequenceManagerImpl.SEQUENCE_RANGE_REFILLS)
+                .tag("prefetched", "true").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_take_range_synchronously_when_prefetch_failed() throws Exception {
+        doReturn(100L).when(sequenceDAO).selectById(SEQUENCE_w_2);
+        tenantSequenceManager = createTenantSequenceManager(task -> {
+            throw new IllegalStateException("executor is shutdown");
+        }, 50, 1);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(100);
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(101);
+        doReturn(300L).when(sequenceDAO).selectById(SEQUENCE_w_2);
+
+        assertThat(tenantSequenceManager.getNextId(OBJECT_w_2)).isEqualTo(300);
+    }
+
+    @Test
+    public void should_grow_range_size_when_ranges_are_consumed_quickly() throws Exception {
+        doReturn(100L, 200L, 300L).when(sequenceDAO).selectById(SEQUENCE_w_2);
+        tenantSequenceManager = createTenantSequenceManager(null, 0, 4);
+
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+        tenantSequenceManager.getNextId(OBJECT_w_2);
+
+        InOrder inOrder = inOrder(sequenceDAO);
+        inOrder.verify(sequenceDAO).updateSequence(102L, SEQUENCE_w_2);
+        inOrder.verify(sequenceDAO).updateSequence(204L, SEQUENCE_w_2);
+    }
+
+    private TenantSequenceManagerImpl createTenantSequenceManager(Executor prefetchExecutor,
+            int lowWaterMarkPercentage, int maxRangeSizeFactor) {
+        return new TenantSequenceManagerImpl(TENANT_ID, lockService, sequenceIdToRangeSize,
+                classNameToSequenceId, dataSource, RETRIES, 1, 1, meterRegistry, prefetchExecutor,
+                lowWaterMarkPercentage, maxRangeSizeFactor) {
+
+            @Override
+            SequenceDAO createDao(Connection connection) {
+                return sequenceDAO;
+            }
+        };
+    }
 }
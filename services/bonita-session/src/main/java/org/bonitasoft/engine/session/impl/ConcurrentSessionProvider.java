@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.session.impl;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bonitasoft.engine.session.SSessionAlreadyExistsException;
+import org.bonitasoft.engine.session.SSessionNotFoundException;
+import org.bonitasoft.engine.session.SessionProvider;
+import org.bonitasoft.engine.session.model.SSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Session provider that does not lock when sessions are read or renewed.
+ * <p>
+ * A renewal only updates the last renew time of the session. Expired sessions are found using a
+ * {@link SessionExpiryWheel} instead of checking all sessions; the wheel advances when sessions are added and when
+ * invalid sessions are cleaned.
+ * Activated by setting 'bonita.runtime.session.concurrent' to true.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "bonita.runtime.session.concurrent", havingValue = "true")
+public class ConcurrentSessionProvider implements SessionProvider {
+
+    public static final String NUMBER_OF_SESSIONS = "bonita.bpmengine.session.active";
+    public static final String NUMBER_OF_EXPIRED_SESSIONS = "bonita.bpmengine.session.expired";
+    public static final String SESSIONS_UNIT = "sessions";
+
+    private static final long TICK_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final int NUMBER_OF_SLOTS = 4096;
+
+    private final ConcurrentMap<Long, SessionEntry> sessions = new ConcurrentHashMap<>();
+    private final SessionExpiryWheel<SessionEntry> expiryWheel;
+    private final LongSupplier clock;
+    private final Counter expiredSessions;
+
+    public ConcurrentSessionProvider(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::currentTimeMillis, TICK_MILLIS, NUMBER_OF_SLOTS);
+    }
+
+    ConcurrentSessionProvider(MeterRegistry meterRegistry, LongSupplier clock, long tickMillis,
+            int numberOfSlots) {
+        this.clock = clock;
+        this.expiryWheel = new SessionExpiryWheel<>(tickMillis, numberOfSlots, clock.getAsLong());
+        Gauge.builder(NUMBER_OF_SESSIONS, sessions, Map::size)
+                .baseUnit(SESSIONS_UNIT).description("Sessions currently opened")
+                .register(meterRegistry);
+        expiredSessions = Counter.builder(NUMBER_OF_EXPIRED_SESSIONS)
+                .baseUnit(SESSIONS_UNIT).description("Sessions removed because they expired")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void addSession(final SSession session) throws SSessionAlreadyExistsException {
+        final long id = session.getId();
+        SessionEntry entry = new SessionEntry(session);
+        if (sessions.putIfAbsent(id, entry) != null) {
+            throw new SSessionAlreadyExistsException("A session wih id \"" + id + "\" already exists");
+        }
+        expiryWheel.schedule(entry, entry.getExpirationTime());
+        expiryWheel.advance(clock.getAsLong(), this::expireIfNeeded);
+    }
+
+    @Override
+    public void removeSession(final long sessionId) throws SSessionNotFoundException {
+        if (sessions.remove(sessionId) == null) {
+            throw new SSessionNotFoundException("No session found with id \"" + sessionId + "\"");
+        }
+    }
+
+    @Override
+    public SSession getSession(final long sessionId) throws SSessionNotFoundException {
+        return getEntry(sessionId).getSession();
+    }
+
+    @Override
+    public void updateSession(final SSession session) throws SSessionNotFoundException {
+        final long id = session.getId();
+        SessionEntry entry = new SessionEntry(session);
+        if (sessions.replace(id, entry) == null) {
+            throw new SSessionNotFoundException("No session found with id \"" + id + "\"");
+        }
+        expiryWheel.schedule(entry, entry.getExpirationTime());
+    }
+
+    @Override
+    public void renewSession(final long sessionId) throws SSessionNotFoundException {
+        getEntry(sessionId).renew(clock.getAsLong());
+    }
+
+    @Override
+    public void cleanInvalidSessions() {
+        expiryWheel.advance(clock.getAsLong(), this::expireIfNeeded);
+    }
+
+    @Override
+    public void removeSessions() {
+        sessions.clear();
+    }
+
+    @Override
+    public void deleteSessionsOfTenant(final long tenantId, final boolean keepTechnicalSessions) {
+        sessions.values().removeIf(entry -> tenantId == entry.session.getTenantId()
+                && (!keepTechnicalSessions || !entry.session.isTechnicalUser()));
+    }
+
+    private SessionEntry getEntry(final long sessionId) throws SSessionNotFoundException {
+        final SessionEntry entry = sessions.get(sessionId);
+        if (entry == null) {
+            throw new SSessionNotFoundException("No session found with id \"" + sessionId + "\"");
+        }
+        return entry;
+    }
+
+    /**
+     * @return the expiration time of the session if it is still valid, {@link SessionExpiryWheel#NEVER} when it was
+     *         removed or replaced
+     */
+    private long expireIfNeeded(SessionEntry entry) {
+        long id = entry.session.getId();
+        if (sessions.get(id) != entry) {
+            return SessionExpiryWheel.NEVER;
+        }
+        long expirationTime = entry.getExpirationTime();
+        if (expirationTime > clock.getAsLong()) {
+            return expirationTime;
+        }
+        if (sessions.remove(id, entry)) {
+            expiredSessions.increment();
+        }
+        return SessionExpiryWheel.NEVER;
+    }
+
+    private static final class SessionEntry {
+
+        private static final long NEVER_RENEWED = Long.MIN_VALUE;
+
+        private final SSession session;
+        private final long initialRenewTime;
+        private final AtomicLong lastRenewTime;
+        private volatile SSession renewedSession;
+
+        private SessionEntry(SSession session) {
+            this.session = session;
+            this.initialRenewTime = session.getLastRenewDate() != null ? session.getLastRenewDate().getTime()
+                    : NEVER_RENEWED;
+            this.lastRenewTime = new AtomicLong(initialRenewTime);
+        }
+
+        private void renew(long now) {
+            lastRenewTime.accumulateAndGet(now, Math::max);
+        }
+
+        private long getExpirationTime() {
+            long renewTime = lastRenewTime.get();
+            return renewTime == NEVER_RENEWED ? SessionExpiryWheel.NEVER : renewTime + session.getDuration();
+        }
+
+        private SSession getSession() {
+            long renewTime = lastRenewTime.get();
+            if (renewTime == initialRenewTime) {
+                return session;
+            }
+            SSession renewed = renewedSession;
+            if (renewed == null || renewed.getLastRenewDate().getTime() != renewTime) {
+                renewed = session.toBuilder().lastRenewDate(new Date(renewTime)).build();
+                renewedSession = renewed;
+            }
+            return renewed;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.session.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hashed timer wheel finding the elements that expired without scanning all of them.
+ * <p>
+ * Each slot of the wheel holds the elements expiring during one tick. When the wheel advances, only the slots of the
+ * ticks elapsed since the last advance are visited, and the given handler is called on their elements. The handler
+ * returns the current expiration time of the element, so that an element whose expiration was postponed in the
+ * meantime (e.g. a renewed session) is moved to the slot of its new expiration time. An element is never moved when
+ * its expiration changes.
+ */
+final class SessionExpiryWheel<T> {
+
+    /**
+     * Expiration time of elements that must not be scheduled
+     */
+    static final long NEVER = Long.MAX_VALUE;
+
+    private final long tickMillis;
+    private final Queue<T>[] slots;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    /**
+     * Last tick whose slot was visited
+     */
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    SessionExpiryWheel(long tickMillis, int numberOfSlots, long now) {
+        this.tickMillis = tickMillis;
+        this.slots = new Queue[numberOfSlots];
+        for (int i = 0; i < numberOfSlots; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = now / tickMillis - 1;
+    }
+
+    void schedule(T element, long expirationTime) {
+        if (expirationTime == NEVER) {
+            return;
+        }
+        long tick = Math.max(expirationTime / tickMillis, currentTick + 1);
+        slots[(int) (tick % slots.length)].offer(element);
+    }
+
+    /**
+     * Visit the slots of the ticks that elapsed since the last advance. Does nothing when another thread is already
+     * advancing the wheel.
+     *
+     * @param now the current time in milliseconds
+     * @param handler called on each element of the visited slots, returns the expiration time of the element if it
+     *        must still be scheduled, {@link #NEVER} otherwise
+     */
+    void advance(long now, ToLongFunction<T> handler) {
+        long lastElapsedTick = now / tickMillis - 1;
+        if (lastElapsedTick <= currentTick || !advanceLock.tryLock()) {
+            return;
+        }
+        try {
+            long firstTick = Math.max(currentTick + 1, lastElapsedTick - slots.length + 1);
+            for (long tick = firstTick; tick <= lastElapsedTick; tick++) {
+                Queue<T> slot = slots[(int) (tick % slots.length)];
+                // elements rescheduled in the same slot (expiring after a full turn of the wheel) are not visited again
+                for (int remaining = slot.size(); remaining > 0; remaining--) {
+                    T element = slot.poll();
+                    if (element == null) {
+                        break;
+                    }
+                    schedule(element, handler.applyAsLong(element));
+                }
+            }
+            currentTick = lastElapsedTick;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+}
@@ -133,9 +133,7 @@ public class SessionServiceImpl implements SessionService {
 
     @Override
     public void renewSession(final long sessionId) throws SSessionException {
-        final SSession session = getSession(sessionId);
-        SSession updatedSession = session.toBuilder().lastRenewDate(new Date()).build();
-        sessionProvider.updateSession(updatedSession);
+        sessionProvider.renewSession(sessionId);
     }
 
     @Override
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.session.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bonitasoft.engine.session.SSessionAlreadyExistsException;
+import org.bonitasoft.engine.session.SSessionNotFoundException;
+import org.bonitasoft.engine.session.model.SSession;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentSessionProviderTest {
+
+    private static final long DURATION = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentSessionProvider sessionProvider;
+
+    @Before
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        sessionProvider = new ConcurrentSessionProvider(meterRegistry, now::get, 1000, 16);
+    }
+
+    @Test
+    public void should_get_added_session() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+
+        assertThat(sessionProvider.getSession(12L).getUserName()).isEqualTo("john");
+    }
+
+    @Test
+    public void should_not_add_a_session_twice() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+
+        assertThatThrownBy(() -> sessionProvider.addSession(session(12L, 1)))
+                .isInstanceOf(SSessionAlreadyExistsException.class);
+    }
+
+    @Test
+    public void should_not_get_removed_session() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+
+        sessionProvider.removeSession(12L);
+
+        assertThatThrownBy(() -> sessionProvider.getSession(12L)).isInstanceOf(SSessionNotFoundException.class);
+        assertThatThrownBy(() -> sessionProvider.removeSession(12L)).isInstanceOf(SSessionNotFoundException.class);
+    }
+
+    @Test
+    public void should_update_last_renew_date_when_renewing_session() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+        now.addAndGet(5_000);
+
+        sessionProvider.renewSession(12L);
+
+        assertThat(sessionProvider.getSession(12L).getLastRenewDate()).isEqualTo(new Date(now.get()));
+        assertThat(sessionProvider.getSession(12L).getExpirationDate()).isEqualTo(new Date(now.get() + DURATION));
+    }
+
+    @Test
+    public void should_remove_expired_sessions_when_cleaning_invalid_sessions() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+        sessionProvider.addSession(session(13L, 1));
+        now.addAndGet(DURATION / 2);
+        sessionProvider.renewSession(13L);
+
+        now.addAndGet(DURATION / 2 + 1_000);
+        sessionProvider.cleanInvalidSessions();
+
+        assertThatThrownBy(() -> sessionProvider.getSession(12L)).isInstanceOf(SSessionNotFoundException.class);
+        assertThat(sessionProvider.getSession(13L)).isNotNull();
+        assertThat(meterRegistry.find(ConcurrentSessionProvider.NUMBER_OF_EXPIRED_SESSIONS).counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(ConcurrentSessionProvider.NUMBER_OF_SESSIONS).gauge().value()).isEqualTo(1);
+
+        now.addAndGet(DURATION);
+        sessionProvider.cleanInvalidSessions();
+
+        assertThatThrownBy(() -> sessionProvider.getSession(13L)).isInstanceOf(SSessionNotFoundException.class);
+    }
+
+    @Test
+    public void should_remove_expired_sessions_after_several_turns_of_the_wheel() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+
+        now.addAndGet(DURATION * 3);
+        sessionProvider.cleanInvalidSessions();
+
+        assertThatThrownBy(() -> sessionProvider.getSession(12L)).isInstanceOf(SSessionNotFoundException.class);
+    }
+
+    @Test
+    public void should_keep_expiration_of_updated_session() throws Exception {
+        sessionProvider.addSession(session(12L, 1));
+        now.addAndGet(DURATION / 2);
+        sessionProvider.updateSession(session(12L, 1));
+
+        now.addAndGet(DURATION / 2 + 1_000);
+        sessionProvider.cleanInvalidSessions();
+
+        assertThat(sessionProvider.getSession(12L)).isNotNull();
+    }
+
+    @Test
+    public void should_delete_sessions_of_tenant_except_technical_ones() throws Exception {
+        sessionProvider.addSession(session(54L, 3));
+        sessionProvider.addSession(session(55L, 3).toBuilder().technicalUser(true).build());
+        sessionProvider.addSession(session(56L, 1));
+
+        sessionProvider.deleteSessionsOfTenant(3, true);
+
+        assertThatThrownBy(() -> sessionProvider.getSession(54L)).isInstanceOf(SSessionNotFoundException.class);
+        assertThat(sessionProvider.getSession(55L)).isNotNull();
+        assertThat(sessionProvider.getSession(56L)).isNotNull();
+    }
+
+    private SSession session(long id, long tenantId) {
+        return SSession.builder().id(id).tenantId(tenantId).userName("john").userId(12).duration(DURATION)
+                .lastRenewDate(new Date(now.get())).build();
+    }
+}
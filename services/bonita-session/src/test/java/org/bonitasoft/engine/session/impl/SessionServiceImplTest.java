@@ -80,6 +80,15 @@ public class SessionServiceImplTest {
         verify(sessionProvider, times(1)).cleanInvalidSessions();
     }
 
+    /**
+     * Test method for {@link org.bonitasoft.engine.session.impl.SessionServiceImpl#renewSession(long)}.
+     */
+    @Test
+    public final void renewSession() throws Exception {
+        sessionServiceImpl.renewSession(SESSION_ID);
+        verify(sessionProvider, times(1)).renewSession(SESSION_ID);
+    }
+
     /**
      * Test method for {@link org.bonitasoft.engine.session.impl.SessionServiceImpl#deleteSessions()}.
      */
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tracking;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations, having log-linear buckets: durations lower than 16 are counted exactly, other
+ * durations are counted in one of the 16 buckets splitting their power of two, i.e. with a precision of about 6%.
+ */
+final class DurationHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int NUMBER_OF_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final AtomicLong totalDuration = new AtomicLong();
+    private final AtomicLong maxDuration = new AtomicLong();
+    private volatile HistogramRecord lastFlushed;
+
+    void record(long duration) {
+        long value = Math.max(0, duration);
+        counts.incrementAndGet(bucketIndex(value));
+        totalDuration.addAndGet(value);
+        long max;
+        while (value > (max = maxDuration.get()) && !maxDuration.compareAndSet(max, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * @return the durations recorded since the previous call, and start recording new ones
+     */
+    HistogramRecord flush(long timestamp, TimeTrackerRecords name, String key) {
+        long[] bucketCounts = new long[NUMBER_OF_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+            bucketCounts[i] = counts.getAndSet(i, 0);
+            count += bucketCounts[i];
+        }
+        HistogramRecord record = new HistogramRecord(timestamp, name, key, count, totalDuration.getAndSet(0),
+                maxDuration.getAndSet(0), bucketCounts);
+        lastFlushed = record;
+        return record;
+    }
+
+    /**
+     * @return the durations returned by the last call to {@link #flush(long, TimeTrackerRecords, String)}, null if
+     *         never flushed
+     */
+    HistogramRecord getLastFlushed() {
+        return lastFlushed;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @return the highest duration counted in the bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -20,14 +20,25 @@ public final class FlushEvent {
 
     private final List<Record> records;
 
+    private final List<HistogramRecord> histograms;
+
     private final long flushTime;
 
     public FlushEvent(final long flushTime, final List<Record> records) {
+        this(flushTime, records, null);
+    }
+
+    public FlushEvent(final long flushTime, final List<Record> records, final List<HistogramRecord> histograms) {
         if (records != null) {
             this.records = records;
         } else {
             this.records = Collections.emptyList();
         }
+        if (histograms != null) {
+            this.histograms = histograms;
+        } else {
+            this.histograms = Collections.emptyList();
+        }
         this.flushTime = flushTime;
     }
 
@@ -35,6 +46,13 @@ public final class FlushEvent {
         return this.records;
     }
 
+    /**
+     * @return the durations aggregated since the previous flush, when the time tracker aggregates records
+     */
+    public List<HistogramRecord> getHistograms() {
+        return this.histograms;
+    }
+
     public long getFlushTime() {
         return this.flushTime;
     }
@@ -43,6 +61,7 @@ public final class FlushEvent {
     public String toString() {
         return "FlushEvent{" +
                 "records.size=" + this.records.size() +
+                ", histograms.size=" + this.histograms.size() +
                 ", flushTime=" + this.flushTime +
                 '}';
     }
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tracking;
+
+/**
+ * Durations of a record name and key, aggregated between two flushes.
+ */
+public class HistogramRecord {
+
+    private final long timestamp;
+
+    private final TimeTrackerRecords name;
+
+    private final String key;
+
+    private final long count;
+
+    private final long totalDuration;
+
+    private final long maxDuration;
+
+    private final long[] bucketCounts;
+
+    HistogramRecord(final long timestamp, final TimeTrackerRecords name, final String key, final long count,
+            final long totalDuration, final long maxDuration, final long[] bucketCounts) {
+        this.timestamp = timestamp;
+        this.name = name;
+        this.key = key;
+        this.count = count;
+        this.totalDuration = totalDuration;
+        this.maxDuration = maxDuration;
+        this.bucketCounts = bucketCounts;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public TimeTrackerRecords getName() {
+        return this.name;
+    }
+
+    /**
+     * @return what was tracked, e.g. the connector definition id or the process definition id, empty when not given
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getTotalDuration() {
+        return this.totalDuration;
+    }
+
+    public long getMaxDuration() {
+        return this.maxDuration;
+    }
+
+    public double getMeanDuration() {
+        return this.count == 0 ? 0 : (double) this.totalDuration / this.count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the duration that is greater than or equal to the given percentage of durations, with a precision of
+     *         about 6%
+     */
+    public long getDurationAtPercentile(final double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long cumulatedCount = 0;
+        for (int i = 0; i < this.bucketCounts.length; i++) {
+            cumulatedCount += this.bucketCounts[i];
+            if (cumulatedCount >= rank) {
+                return Math.min(DurationHistogram.bucketUpperBound(i), this.maxDuration);
+            }
+        }
+        return this.maxDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramRecord{" +
+                "name=" + this.name +
+                ", key=" + this.key +
+                ", count=" + this.count +
+                ", max=" + this.maxDuration +
+                '}';
+    }
+}
@@ -15,7 +15,13 @@ package org.bonitasoft.engine.tracking;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.apache.commons.collections4.queue.CircularFifoQueue;
 import org.bonitasoft.engine.commons.TenantLifecycleService;
 import org.slf4j.Logger;
@@ -23,12 +29,21 @@ import org.slf4j.LoggerFactory;
 
 public class TimeTracker implements TenantLifecycleService {
 
+    public static final String TRACKED_DURATION = "bonita.bpmengine.timetracker.duration";
+    public static final String TRACKED_DURATION_MAX = "bonita.bpmengine.timetracker.duration.max";
+    public static final String TRACKED_COUNT = "bonita.bpmengine.timetracker.count";
+    private static final double[] EXPORTED_PERCENTILES = { 50, 95, 99 };
+    private static final String NO_KEY = "";
+
     private static final Logger log = LoggerFactory.getLogger(TimeTracker.class);
     private final Set<TimeTrackerRecords> activatedRecords;
     private FlushThread flushThread;
     private final Map<String, FlushEventListener> flushEventListeners;
     private final Queue<Record> records;
+    private final Map<TimeTrackerRecords, ConcurrentMap<String, DurationHistogram>> histograms;
     private final Clock clock;
+    private MeterRegistry meterRegistry;
+    private boolean aggregating = false;
 
     private long flushIntervalInMS;
     private boolean startTracking = false;
@@ -58,6 +73,10 @@ public class TimeTracker implements TenantLifecycleService {
         this.clock = clock;
         this.flushIntervalInMS = flushIntervalInMS;
         this.records = new CircularFifoQueue<>(maxSize);
+        this.histograms = new EnumMap<>(TimeTrackerRecords.class);
+        for (final TimeTrackerRecords recordName : TimeTrackerRecords.values()) {
+            this.histograms.put(recordName, new ConcurrentHashMap<>());
+        }
         this.serviceStarted = false;
         this.flushEventListeners = new ConcurrentHashMap<>();
         if (flushEventListeners != null) {
@@ -216,6 +235,26 @@ public class TimeTracker implements TenantLifecycleService {
         return this.clock;
     }
 
+    /**
+     * When aggregating, tracked durations are not kept one by one with their description: they are counted in a
+     * histogram per record name and key, flushed as {@link HistogramRecord}s. This is cheap enough to be used in
+     * production.
+     */
+    public void setAggregating(final boolean aggregating) {
+        this.aggregating = aggregating;
+    }
+
+    public boolean isAggregating() {
+        return this.aggregating;
+    }
+
+    /**
+     * When set, the percentiles of the durations aggregated during the last flush interval are exported as meters
+     */
+    public void setMeterRegistry(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     public String getStatus() {
         final StringBuilder sb = new StringBuilder();
         sb.append("-----");
@@ -248,6 +287,10 @@ public class TimeTracker implements TenantLifecycleService {
         }
         sb.append("\n");
 
+        sb.append("  - aggregating: ");
+        sb.append(this.aggregating);
+        sb.append("\n");
+
         sb.append("  - records.size: ");
         sb.append(this.records.size());
         sb.append("\n");
@@ -269,6 +312,73 @@ public class TimeTracker implements TenantLifecycleService {
         if (!isTrackable(recordName)) {
             return;
         }
+        if (this.aggregating) {
+            aggregate(recordName, NO_KEY, duration);
+            return;
+        }
+        TimeTrackerEvent.emit(recordName, null, duration);
+        addRecord(recordName, recordDescription, duration);
+    }
+
+    /**
+     * Track a duration, building its description only if records are not aggregated.
+     *
+     * @param key what is tracked (e.g. the connector definition id or the process definition id), used to aggregate
+     *        durations
+     * @param recordDescription the description of the record, used when records are not aggregated
+     */
+    public void track(final TimeTrackerRecords recordName, final String key,
+            final Supplier<String> recordDescription, final long duration) {
+        if (!isTrackable(recordName)) {
+            return;
+        }
+        if (this.aggregating) {
+            aggregate(recordName, key != null ? key : NO_KEY, duration);
+            return;
+        }
+        TimeTrackerEvent.emit(recordName, key, duration);
+        addRecord(recordName, recordDescription.get(), duration);
+    }
+
+    private void aggregate(final TimeTrackerRecords recordName, final String key, final long duration) {
+        TimeTrackerEvent.emit(recordName, key, duration);
+        final ConcurrentMap<String, DurationHistogram> histogramsOfRecord = this.histograms.get(recordName);
+        DurationHistogram histogram = histogramsOfRecord.get(key);
+        if (histogram == null) {
+            histogram = histogramsOfRecord.computeIfAbsent(key, k -> createHistogram(recordName, k));
+        }
+        histogram.record(duration);
+    }
+
+    private DurationHistogram createHistogram(final TimeTrackerRecords recordName, final String key) {
+        final DurationHistogram histogram = new DurationHistogram();
+        if (this.meterRegistry != null) {
+            final Tags tags = Tags.of("record", recordName.name(), "key", key);
+            for (final double percentile : EXPORTED_PERCENTILES) {
+                Gauge.builder(TRACKED_DURATION, histogram,
+                        h -> lastFlushed(h, r -> r.getDurationAtPercentile(percentile)))
+                        .tags(tags).tag("quantile", String.valueOf(percentile / 100)).baseUnit("milliseconds")
+                        .description("Percentile of the tracked durations of the last flush interval")
+                        .register(this.meterRegistry);
+            }
+            Gauge.builder(TRACKED_DURATION_MAX, histogram, h -> lastFlushed(h, HistogramRecord::getMaxDuration))
+                    .tags(tags).baseUnit("milliseconds")
+                    .description("Maximum tracked duration of the last flush interval")
+                    .register(this.meterRegistry);
+            Gauge.builder(TRACKED_COUNT, histogram, h -> lastFlushed(h, HistogramRecord::getCount))
+                    .tags(tags).description("Number of durations tracked during the last flush interval")
+                    .register(this.meterRegistry);
+        }
+        return histogram;
+    }
+
+    private static double lastFlushed(final DurationHistogram histogram,
+            final ToLongFunction<HistogramRecord> value) {
+        final HistogramRecord lastFlushed = histogram.getLastFlushed();
+        return lastFlushed == null ? Double.NaN : value.applyAsLong(lastFlushed);
+    }
+
+    private void addRecord(final TimeTrackerRecords recordName, final String recordDescription, final long duration) {
         final long timestamp = System.currentTimeMillis();
         final Record record = new Record(timestamp, recordName, recordDescription, duration);
         log.debug("Tracking record: " + record);
@@ -287,7 +397,8 @@ public class TimeTracker implements TenantLifecycleService {
             records = getRecordsCopy();
             clearRecords();
         }
-        final FlushEvent flushEvent = new FlushEvent(this.lastFlushTimestamp, records);
+        final FlushEvent flushEvent = new FlushEvent(this.lastFlushTimestamp, records,
+                flushHistograms(this.lastFlushTimestamp));
 
         flushListeners(flushEvent, flushEventListenerResults);
         log.info("Flush finished: " + flushEvent);
@@ -308,6 +419,17 @@ public class TimeTracker implements TenantLifecycleService {
         }
     }
 
+    List<HistogramRecord> flushHistograms(final long flushTime) {
+        final List<HistogramRecord> histogramRecords = new ArrayList<>();
+        this.histograms.forEach((recordName, histogramsOfRecord) -> histogramsOfRecord.forEach((key, histogram) -> {
+            final HistogramRecord histogramRecord = histogram.flush(flushTime, recordName, key);
+            if (histogramRecord.getCount() > 0) {
+                histogramRecords.add(histogramRecord);
+            }
+        }));
+        return histogramRecords;
+    }
+
     public List<Record> getRecordsCopy() {
         return Arrays.asList(this.records.toArray(new Record[this.records.size()]));
     }
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tracking;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event emitted for each duration tracked by the {@link TimeTracker}.
+ */
+@Name("org.bonitasoft.engine.TimeTracker")
+@Label("Time Tracker Record")
+@Category("Bonita")
+@Description("Duration of an engine operation tracked by the time tracker")
+@StackTrace(false)
+class TimeTrackerEvent extends Event {
+
+    @Label("Record")
+    String record;
+
+    @Label("Key")
+    String key;
+
+    @Label("Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    long duration;
+
+    static void emit(final TimeTrackerRecords recordName, final String key, final long duration) {
+        final TimeTrackerEvent event = new TimeTrackerEvent();
+        if (event.isEnabled()) {
+            event.record = recordName.name();
+            event.key = key;
+            event.duration = duration;
+            event.commit();
+        }
+    }
+}
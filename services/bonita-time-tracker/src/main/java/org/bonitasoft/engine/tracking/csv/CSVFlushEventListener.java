@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.bonitasoft.engine.tracking.AbstractFlushEventListener;
 import org.bonitasoft.engine.tracking.FlushEvent;
+import org.bonitasoft.engine.tracking.HistogramRecord;
 import org.bonitasoft.engine.tracking.Record;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +35,8 @@ public class CSVFlushEventListener extends AbstractFlushEventListener {
 
     public static final String FILE_PREFIX = "bonita_timetracker_";
 
+    public static final String HISTOGRAMS_FILE_PREFIX = "bonita_timetracker_histograms_";
+
     public static final String FILE_SUFFIX = ".csv";
 
     public CSVFlushEventListener(final boolean activateAtStart, final String outputFolder, final String csvSeparator) {
@@ -69,9 +72,35 @@ public class CSVFlushEventListener extends AbstractFlushEventListener {
             log.info("Reusing csv file: {}", outputFile);
         }
         CSVUtil.writeCSVRows(outputFile, csvContent, this.csvSeparator);
+        if (!flushEvent.getHistograms().isEmpty()) {
+            writeHistograms(flushTime, flushEvent.getHistograms());
+        }
         return new CSVFlushEventListenerResult(flushEvent, outputFile);
     }
 
+    private void writeHistograms(final long flushTime, final List<HistogramRecord> histograms) throws Exception {
+        final List<List<String>> csvContent = new ArrayList<>();
+        for (final HistogramRecord histogram : histograms) {
+            final List<String> row = new ArrayList<>();
+            row.add(String.valueOf(histogram.getTimestamp()));
+            row.add(histogram.getName().name());
+            row.add(histogram.getKey());
+            row.add(String.valueOf(histogram.getCount()));
+            row.add(String.valueOf(histogram.getMeanDuration()));
+            row.add(String.valueOf(histogram.getDurationAtPercentile(50)));
+            row.add(String.valueOf(histogram.getDurationAtPercentile(95)));
+            row.add(String.valueOf(histogram.getDurationAtPercentile(99)));
+            row.add(String.valueOf(histogram.getMaxDuration()));
+            csvContent.add(row);
+        }
+        final File outputFile = getDayFile(flushTime, this.outputFolder, HISTOGRAMS_FILE_PREFIX, FILE_SUFFIX);
+        if (!outputFile.exists()) {
+            CSVUtil.writeCSVRow(outputFile, List.of("timestamp", "name", "key", "count", "mean", "p50", "p95", "p99",
+                    "max"), this.csvSeparator);
+        }
+        CSVUtil.writeCSVRows(outputFile, csvContent, this.csvSeparator);
+    }
+
     @Override
     public String getStatus() {
         String status = super.getStatus() + "\n";
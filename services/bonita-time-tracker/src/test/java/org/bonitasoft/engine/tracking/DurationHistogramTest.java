@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.tracking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class DurationHistogramTest {
+
+    @Test
+    public void should_count_each_duration_in_a_bucket_containing_it() {
+        for (long value : new long[] { 0, 1, 15, 16, 17, 33, 1000, 123_456_789L, Long.MAX_VALUE }) {
+            int index = DurationHistogram.bucketIndex(value);
+
+            assertThat(index).isBetween(0, DurationHistogram.NUMBER_OF_BUCKETS - 1);
+            assertThat(DurationHistogram.bucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(DurationHistogram.bucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    public void should_compute_percentiles_with_a_bounded_error() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        HistogramRecord record = histogram.flush(12L, TimeTrackerRecords.EVALUATE_EXPRESSION, "");
+
+        assertThat(record.getCount()).isEqualTo(1000);
+        assertThat(record.getTotalDuration()).isEqualTo(500_500);
+        assertThat(record.getMaxDuration()).isEqualTo(1000);
+        assertThat(record.getDurationAtPercentile(50)).isBetween(500L, 532L);
+        assertThat(record.getDurationAtPercentile(99)).isBetween(990L, 1000L);
+        assertThat(record.getDurationAtPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    public void should_start_new_recording_after_flush() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(42);
+        histogram.flush(12L, TimeTrackerRecords.EVALUATE_EXPRESSION, "");
+
+        HistogramRecord record = histogram.flush(13L, TimeTrackerRecords.EVALUATE_EXPRESSION, "");
+
+        assertThat(record.getCount()).isZero();
+        assertThat(record.getMaxDuration()).isZero();
+        assertThat(histogram.getLastFlushed()).isSameAs(record);
+    }
+}
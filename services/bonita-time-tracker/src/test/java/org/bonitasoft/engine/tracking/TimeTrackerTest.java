@@ -14,6 +14,7 @@
 package org.bonitasoft.engine.tracking;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bonitasoft.engine.tracking.memory.MemoryFlushEventListener;
 import org.junit.After;
 import org.junit.Test;
@@ -167,6 +169,53 @@ public class TimeTrackerTest extends AbstractTimeTrackerTest {
         this.tracker.stop();
     }
 
+    @Test
+    public void should_aggregate_durations_without_building_descriptions() {
+        when(this.flushThread.isStarted()).thenReturn(true);
+        this.tracker = createTimeTracker(true, null, 10, 2, REC1, REC2);
+        this.tracker.setAggregating(true);
+        this.tracker.start();
+
+        this.tracker.track(REC1, "process1", () -> {
+            throw new IllegalStateException("description should not be built");
+        }, 100);
+        this.tracker.track(REC1, "process1", () -> "desc", 200);
+        this.tracker.track(REC1, "process2", () -> "desc", 300);
+        this.tracker.track(REC2, "rec2Desc", 400);
+
+        assertThat(this.tracker.getRecordsCopy()).isEmpty();
+        final List<HistogramRecord> histograms = this.tracker.flushHistograms(123L);
+        assertThat(histograms).extracting(HistogramRecord::getName, HistogramRecord::getKey,
+                HistogramRecord::getCount, HistogramRecord::getMaxDuration)
+                .containsExactlyInAnyOrder(
+                        tuple(REC1, "process1", 2L, 200L),
+                        tuple(REC1, "process2", 1L, 300L),
+                        tuple(REC2, "", 1L, 400L));
+        assertThat(this.tracker.flushHistograms(456L)).isEmpty();
+    }
+
+    @Test
+    public void should_export_percentiles_of_last_flush_as_meters() {
+        when(this.flushThread.isStarted()).thenReturn(true);
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.tracker = createTimeTracker(true, null, 10, 2, REC1);
+        this.tracker.setAggregating(true);
+        this.tracker.setMeterRegistry(meterRegistry);
+        this.tracker.start();
+        for (int i = 1; i <= 100; i++) {
+            this.tracker.track(REC1, "process1", () -> "desc", i);
+        }
+
+        this.tracker.flush();
+
+        assertThat(meterRegistry.find(TimeTracker.TRACKED_COUNT).tag("record", REC1.name())
+                .tag("key", "process1").gauge().value()).isEqualTo(100);
+        assertThat(meterRegistry.find(TimeTracker.TRACKED_DURATION_MAX).tag("key", "process1").gauge().value())
+                .isEqualTo(100);
+        assertThat(meterRegistry.find(TimeTracker.TRACKED_DURATION).tag("quantile", "0.5").gauge().value())
+                .isBetween(50d, 53d);
+    }
+
     private Map<TimeTrackerRecords, List<Record>> mapRecords(final List<Record> records) {
         final Map<TimeTrackerRecords, List<Record>> result = new HashMap<>();
         if (records != null) {
@@ -19,4 +19,15 @@ public interface BonitaWorkExecutorFactory {
 
     ThreadPoolExecutor create();
 
+    /**
+     * Number of executors (lanes) to create using {@link #create()}.
+     * When there is more than one lane, works are dispatched to a lane depending on the process instance they target,
+     * so that works of a same process instance are executed in order while other process instances run in parallel.
+     *
+     * @return the number of lanes, 1 by default
+     */
+    default int getNumberOfLanes() {
+        return 1;
+    }
+
 }
@@ -13,15 +13,21 @@
  **/
 package org.bonitasoft.engine.work;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.bonitasoft.engine.commons.time.EngineClock;
 import org.bonitasoft.engine.work.audit.WorkExecutionAuditor;
 import org.slf4j.Logger;
@@ -33,8 +39,18 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
     public static final String NUMBER_OF_WORKS_PENDING = "bonita.bpmengine.work.pending";
     public static final String NUMBER_OF_WORKS_RUNNING = "bonita.bpmengine.work.running";
     public static final String NUMBER_OF_WORKS_EXECUTED = "bonita.bpmengine.work.executed";
+    public static final String NUMBER_OF_WORKS_PENDING_IN_LANE = "bonita.bpmengine.work.lane.pending";
+    public static final String NUMBER_OF_WORKS_RUNNING_IN_LANE = "bonita.bpmengine.work.lane.running";
+    public static final String NUMBER_OF_WORKS_PARKED = "bonita.bpmengine.work.parked";
+    public static final String DELAYED_WORKS_LAG = "bonita.bpmengine.work.delayed.lag";
     public static final String WORKS_UNIT = "works";
 
+    // parameters set on work descriptors by the BPM work factory, used to keep works of a process instance in one lane
+    static final String PROCESS_INSTANCE_ID = "processInstanceId";
+    static final String ROOT_PROCESS_INSTANCE_ID = "rootProcessInstanceId";
+    // parked works are checked again at least this often, so that a change of the engine clock is taken into account
+    static final Duration MAX_PARKING_DURATION = Duration.ofSeconds(1);
+
     private final WorkFactory workFactory;
     private final EngineClock engineClock;
     private final WorkExecutionCallback workExecutionCallback;
@@ -45,7 +61,12 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
     private final Counter executedWorkCounter;
     private final Gauge numberOfWorksPending;
     private final Gauge numberOfWorksRunning;
-    private final ThreadPoolExecutor executor;
+    private final Gauge numberOfWorksParked;
+    private final Timer delayedWorksLag;
+    private final List<ThreadPoolExecutor> lanes;
+    private final AtomicLong[] runningWorksPerLane;
+    private final List<Meter> laneMeters = new ArrayList<>();
+    private final ScheduledThreadPoolExecutor delayedWorksScheduler;
 
     public DefaultBonitaExecutorService(final ThreadPoolExecutor executor,
             final WorkFactory workFactory,
@@ -54,53 +75,111 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
             final WorkExecutionAuditor workExecutionAuditor,
             final MeterRegistry meterRegistry,
             final long tenantId) {
-        this.executor = executor;
+        this(Collections.singletonList(executor), workFactory, engineClock, workExecutionCallback,
+                workExecutionAuditor, meterRegistry, tenantId);
+    }
+
+    public DefaultBonitaExecutorService(final List<ThreadPoolExecutor> lanes,
+            final WorkFactory workFactory,
+            final EngineClock engineClock,
+            final WorkExecutionCallback workExecutionCallback,
+            final WorkExecutionAuditor workExecutionAuditor,
+            final MeterRegistry meterRegistry,
+            final long tenantId) {
+        if (lanes.isEmpty()) {
+            throw new IllegalArgumentException("At least one executor is required to execute works");
+        }
+        this.lanes = List.copyOf(lanes);
         this.workFactory = workFactory;
         this.engineClock = engineClock;
         this.workExecutionCallback = workExecutionCallback;
         this.workExecutionAuditor = workExecutionAuditor;
         this.meterRegistry = meterRegistry;
+        this.runningWorksPerLane = new AtomicLong[this.lanes.size()];
+        this.delayedWorksScheduler = new ScheduledThreadPoolExecutor(1,
+                new WorkerThreadFactory("Bonita-Work-Scheduler", tenantId));
+        this.delayedWorksScheduler.setRemoveOnCancelPolicy(true);
 
         Tags tags = Tags.of("tenant", String.valueOf(tenantId));
-        numberOfWorksPending = Gauge.builder(NUMBER_OF_WORKS_PENDING, executor.getQueue(), Collection::size)
+        numberOfWorksPending = Gauge.builder(NUMBER_OF_WORKS_PENDING, this.lanes,
+                DefaultBonitaExecutorService::numberOfPendingWorks)
                 .tags(tags).baseUnit(WORKS_UNIT).description("Works pending in the execution queue")
                 .register(meterRegistry);
         numberOfWorksRunning = Gauge.builder(NUMBER_OF_WORKS_RUNNING, runningWorks, AtomicLong::get)
                 .tags(tags).baseUnit(WORKS_UNIT).description("Works currently executing")
                 .register(meterRegistry);
+        numberOfWorksParked = Gauge.builder(NUMBER_OF_WORKS_PARKED, delayedWorksScheduler.getQueue(),
+                Collection::size)
+                .tags(tags).baseUnit(WORKS_UNIT).description("Works waiting for their execution date")
+                .register(meterRegistry);
+        delayedWorksLag = Timer.builder(DELAYED_WORKS_LAG)
+                .tags(tags).description("Delay between the execution date of a work and its submission for execution")
+                .register(meterRegistry);
         executedWorkCounter = Counter.builder(NUMBER_OF_WORKS_EXECUTED)
                 .tags(tags).baseUnit(WORKS_UNIT).description("total works executed since last server start")
                 .register(meterRegistry);
+        for (int lane = 0; lane < this.lanes.size(); lane++) {
+            runningWorksPerLane[lane] = new AtomicLong();
+            if (this.lanes.size() > 1) {
+                Tags laneTags = tags.and("lane", String.valueOf(lane));
+                laneMeters.add(Gauge.builder(NUMBER_OF_WORKS_PENDING_IN_LANE, this.lanes.get(lane).getQueue(),
+                        BlockingQueue::size)
+                        .tags(laneTags).baseUnit(WORKS_UNIT).description("Works pending in the queue of the lane")
+                        .register(meterRegistry));
+                laneMeters.add(Gauge.builder(NUMBER_OF_WORKS_RUNNING_IN_LANE, runningWorksPerLane[lane],
+                        AtomicLong::get)
+                        .tags(laneTags).baseUnit(WORKS_UNIT).description("Works currently executing in the lane")
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    private static double numberOfPendingWorks(List<ThreadPoolExecutor> lanes) {
+        int pending = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            pending += lane.getQueue().size();
+        }
+        return pending;
     }
 
+    @Override
     public ThreadPoolExecutor getExecutor() {
-        return executor;
+        return lanes.get(0);
+    }
+
+    public List<ThreadPoolExecutor> getLanes() {
+        return lanes;
     }
 
     @Override
     public void clearAllQueues() {
-        executor.getQueue().clear();
+        delayedWorksScheduler.getQueue().clear();
+        lanes.forEach(lane -> lane.getQueue().clear());
     }
 
     @Override
     public void shutdownAndEmptyQueue() {
-        executor.shutdown();
-        log.info("Clearing queue of work, had {} elements", executor.getQueue().size());
-        executor.getQueue().clear();
+        int numberOfParkedWorks = delayedWorksScheduler.shutdownNow().size();
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+        log.info("Clearing queue of work, had {} elements and {} parked elements",
+                (long) numberOfPendingWorks(lanes), numberOfParkedWorks);
+        clearAllQueues();
         meterRegistry.remove(numberOfWorksPending);
         meterRegistry.remove(numberOfWorksRunning);
+        meterRegistry.remove(numberOfWorksParked);
+        meterRegistry.remove(delayedWorksLag);
         meterRegistry.remove(executedWorkCounter);
+        laneMeters.forEach(meterRegistry::remove);
     }
 
     @Override
     public Future<?> submit(WorkDescriptor work) {
-        return executor.submit(() -> {
-            if (isRequiringDelayedExecution(work)) {
-                // Future implementation should use a real delay e.g. using a ScheduledThreadPoolExecutor
-                // Will be executed later
-                submit(work);
-                return;
-            }
+        if (isRequiringDelayedExecution(work)) {
+            return park(work);
+        }
+        int lane = laneOf(work);
+        AtomicLong runningWorksInLane = runningWorksPerLane[lane];
+        return lanes.get(lane).submit(() -> {
             work.incrementExecutionCount();
             workExecutionAuditor.detectAbnormalExecutionAndNotify(work);
 
@@ -108,11 +187,13 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
             HashMap<String, Object> context = new HashMap<>();
             CompletableFuture<Void> asyncResult;
             runningWorks.incrementAndGet();
+            runningWorksInLane.incrementAndGet();
             try {
                 asyncResult = bonitaWork.work(context);
             } catch (Exception e) {
                 executedWorkCounter.increment();
                 runningWorks.decrementAndGet();
+                runningWorksInLane.decrementAndGet();
                 workExecutionCallback.onFailure(work, bonitaWork, context, e);
                 return;
             }
@@ -120,6 +201,7 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
             asyncResult.handle((result, error) -> {
                 executedWorkCounter.increment();
                 runningWorks.decrementAndGet();
+                runningWorksInLane.decrementAndGet();
                 if (error != null) {
                     if (error instanceof CompletionException) {
                         error = error.getCause();
@@ -133,9 +215,60 @@ public class DefaultBonitaExecutorService implements BonitaExecutorService {
         });
     }
 
+    /**
+     * Works targeting the same process instance always go to the same lane. The process instance id is the one
+     * locked by the work, so two works of a same lane never wait on each other's lock.
+     * Works not related to a process instance are spread over all lanes.
+     */
+    int laneOf(WorkDescriptor work) {
+        if (lanes.size() == 1) {
+            return 0;
+        }
+        long affinityKey = getAffinityKey(work);
+        int hash = affinityKey > 0 ? Long.hashCode(affinityKey * 0x9E3779B97F4A7C15L) : work.getUuid().hashCode();
+        return Math.floorMod(hash, lanes.size());
+    }
+
+    private long getAffinityKey(WorkDescriptor work) {
+        if (work.hasParameter(PROCESS_INSTANCE_ID) && work.getParameter(PROCESS_INSTANCE_ID) instanceof Long) {
+            return work.getLong(PROCESS_INSTANCE_ID);
+        }
+        if (work.hasParameter(ROOT_PROCESS_INSTANCE_ID)
+                && work.getParameter(ROOT_PROCESS_INSTANCE_ID) instanceof Long) {
+            return work.getLong(ROOT_PROCESS_INSTANCE_ID);
+        }
+        return -1;
+    }
+
     @Override
     public boolean awaitTermination(long workTerminationTimeout, TimeUnit seconds) throws InterruptedException {
-        return executor.awaitTermination(workTerminationTimeout, seconds);
+        long deadline = System.nanoTime() + seconds.toNanos(workTerminationTimeout);
+        if (!delayedWorksScheduler.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keep the work out of the execution queue until its execution date is reached. It is then submitted again.
+     */
+    private Future<?> park(WorkDescriptor work) {
+        if (delayedWorksScheduler.isShutdown()) {
+            return null;
+        }
+        Duration remaining = Duration.between(engineClock.now(), work.getExecutionThreshold());
+        Duration parkingDuration = remaining.compareTo(MAX_PARKING_DURATION) > 0 ? MAX_PARKING_DURATION : remaining;
+        return delayedWorksScheduler.schedule(() -> {
+            if (!isRequiringDelayedExecution(work)) {
+                delayedWorksLag.record(Duration.between(work.getExecutionThreshold(), engineClock.now()));
+            }
+            submit(work);
+        }, parkingDuration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     private boolean isRequiringDelayedExecution(WorkDescriptor work) {
@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.work;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -50,6 +52,7 @@ public class DefaultBonitaExecutorServiceFactory implements BonitaExecutorServic
     private final EngineClock engineClock;
     private final WorkFactory workFactory;
     private final WorkExecutionAuditor workExecutionAuditor;
+    private final List<String> boundExecutorNames = new ArrayList<>();
 
     public DefaultBonitaExecutorServiceFactory(@Value("${tenantId}") long tenantId,
             MeterRegistry meterRegistry,
@@ -69,8 +72,12 @@ public class DefaultBonitaExecutorServiceFactory implements BonitaExecutorServic
 
     @Override
     public BonitaExecutorService createExecutorService(WorkExecutionCallback workExecutionCallback) {
-        final ThreadPoolExecutor bonitaThreadPoolExecutor = bonitaWorkExecutorFactory.create();
-        final BonitaExecutorService bonitaExecutorService = new DefaultBonitaExecutorService(bonitaThreadPoolExecutor,
+        final int numberOfLanes = bonitaWorkExecutorFactory.getNumberOfLanes();
+        final List<ThreadPoolExecutor> lanes = new ArrayList<>(numberOfLanes);
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            lanes.add(bonitaWorkExecutorFactory.create());
+        }
+        final BonitaExecutorService bonitaExecutorService = new DefaultBonitaExecutorService(lanes,
                 workFactory,
                 engineClock,
                 workExecutionCallback,
@@ -78,17 +85,23 @@ public class DefaultBonitaExecutorServiceFactory implements BonitaExecutorServic
                 meterRegistry,
                 tenantId);
         logger.info(
-                "Creating a new Thread pool to handle works: {}", bonitaThreadPoolExecutor);
+                "Creating {} Thread pool(s) to handle works: {}", numberOfLanes, lanes);
 
         //TODO this returns the timed executor service, this should be used instead of the BonitaExecutorService but we should change it everywhere
-        executorServiceMetricsProvider
-                .bindMetricsOnly(meterRegistry, bonitaThreadPoolExecutor, BONITA_WORK_EXECUTOR, tenantId);
+        boundExecutorNames.clear();
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            String executorName = numberOfLanes == 1 ? BONITA_WORK_EXECUTOR : BONITA_WORK_EXECUTOR + "-" + lane;
+            executorServiceMetricsProvider
+                    .bindMetricsOnly(meterRegistry, lanes.get(lane), executorName, tenantId);
+            boundExecutorNames.add(executorName);
+        }
         return bonitaExecutorService;
     }
 
     @Override
     public void unbind() {
-        executorServiceMetricsProvider.unbind(meterRegistry, BONITA_WORK_EXECUTOR, tenantId);
+        boundExecutorNames.forEach(name -> executorServiceMetricsProvider.unbind(meterRegistry, name, tenantId));
+        boundExecutorNames.clear();
     }
 
 }
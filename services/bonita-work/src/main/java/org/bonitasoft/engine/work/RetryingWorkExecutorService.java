@@ -18,6 +18,7 @@ import static org.bonitasoft.engine.commons.ExceptionUtils.printLightWeightStack
 import static org.bonitasoft.engine.commons.ExceptionUtils.printRootCauseOnly;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -241,6 +242,18 @@ public class RetryingWorkExecutorService implements WorkExecutorService, WorkExe
         }
     }
 
+    @Override
+    public void executeAll(List<WorkDescriptor> works) {
+        if (!isStopped()) {
+            logger.debug("Submitted {} works {}", works.size(), works);
+            for (WorkDescriptor work : works) {
+                executor.submit(work);
+            }
+        } else {
+            logger.debug("Ignored submission of {} works (service stopped) {}", works.size(), works);
+        }
+    }
+
     @Override
     public synchronized void stop() {
         // we don't throw exception just stop it and log if something happens
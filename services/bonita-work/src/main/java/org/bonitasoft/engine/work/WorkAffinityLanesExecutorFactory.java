@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2024 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation
+ * version 2.1 of the License.
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License along with this
+ * program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth
+ * Floor, Boston, MA 02110-1301, USA.
+ **/
+package org.bonitasoft.engine.work;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.bonitasoft.engine.work.WorkSingleThreadPoolExecutorFactory.SingleThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates several single thread executors (lanes) to run works.
+ * Each work is dispatched to a lane using its process instance id, so works of a same process instance are still
+ * executed one after the other, while works of different process instances run in parallel.
+ * Only activated when 'bonita.tenant.work.lanes' is greater than 1.
+ * The 'bonita.tenant.work.queueCapacity' is shared between all lanes.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${bonita.tenant.work.lanes:1} > 1")
+public class WorkAffinityLanesExecutorFactory implements BonitaWorkExecutorFactory {
+
+    private final int numberOfLanes;
+    private final int laneQueueCapacity;
+    private final WorkerThreadFactory threadFactory;
+
+    public WorkAffinityLanesExecutorFactory(@Value("${tenantId}") long tenantId,
+            @Value("${bonita.tenant.work.queueCapacity}") int queueCapacity,
+            @Value("${bonita.tenant.work.lanes:1}") int numberOfLanes) {
+        if (numberOfLanes < 1) {
+            throw new IllegalArgumentException("'bonita.tenant.work.lanes' must be at least 1, was " + numberOfLanes);
+        }
+        this.numberOfLanes = numberOfLanes;
+        this.laneQueueCapacity = Math.max(1, queueCapacity / numberOfLanes);
+        this.threadFactory = new WorkerThreadFactory("Bonita-Worker", tenantId, numberOfLanes);
+    }
+
+    @Override
+    public ThreadPoolExecutor create() {
+        return new SingleThreadPoolExecutor(new ArrayBlockingQueue<>(laneQueueCapacity), threadFactory);
+    }
+
+    @Override
+    public int getNumberOfLanes() {
+        return numberOfLanes;
+    }
+}
@@ -13,6 +13,8 @@
  **/
 package org.bonitasoft.engine.work;
 
+import java.util.List;
+
 import org.bonitasoft.engine.commons.TenantLifecycleService;
 
 /**
@@ -27,4 +29,13 @@ public interface WorkExecutorService extends TenantLifecycleService {
     void notifyNodeStopped(String nodeName);
 
     void execute(WorkDescriptor work);
+
+    /**
+     * Trigger the asynchronous execution of several works at once, e.g. all works registered in a transaction.
+     *
+     * @param works the works to execute, in order
+     */
+    default void executeAll(List<WorkDescriptor> works) {
+        works.forEach(this::execute);
+    }
 }
@@ -39,6 +39,7 @@ public class WorkServiceImpl implements WorkService {
     private final WorkExecutorService workExecutorService;
     private final EngineClock engineClock;
     private int workDelayOnMultipleXAResource;
+    private final ThreadLocal<WorkSynchronization> currentSynchronization = new ThreadLocal<>();
 
     public WorkServiceImpl(UserTransactionService transactionService,
             SessionAccessor sessionAccessor,
@@ -60,18 +61,25 @@ public class WorkServiceImpl implements WorkService {
         }
         workDescriptor.setRegistrationDate(engineClock.now());
         log.debug("Registering work {}", workDescriptor);
-        createAndRegisterNewSynchronization(workDescriptor);
+        getOrRegisterSynchronization().addWork(workDescriptor);
         log.debug("Work registered");
     }
 
-    private WorkSynchronization createAndRegisterNewSynchronization(WorkDescriptor workDescriptor)
-            throws SWorkRegisterException {
-        WorkSynchronization synchro = new WorkSynchronization(transactionService, workExecutorService, sessionAccessor,
-                workDescriptor, workDelayOnMultipleXAResource);
-        try {
-            transactionService.registerBonitaSynchronization(synchro);
-        } catch (final STransactionNotFoundException e) {
-            throw new SWorkRegisterException(e.getMessage(), e);
+    /**
+     * All works registered in a same transaction share one synchronization, they are submitted together when the
+     * transaction is committed.
+     */
+    private WorkSynchronization getOrRegisterSynchronization() throws SWorkRegisterException {
+        WorkSynchronization synchro = currentSynchronization.get();
+        if (synchro == null) {
+            synchro = new WorkSynchronization(transactionService, workExecutorService, sessionAccessor,
+                    workDelayOnMultipleXAResource, currentSynchronization::remove);
+            try {
+                transactionService.registerBonitaSynchronization(synchro);
+            } catch (final STransactionNotFoundException e) {
+                throw new SWorkRegisterException(e.getMessage(), e);
+            }
+            currentSynchronization.set(synchro);
         }
         return synchro;
     }
@@ -14,6 +14,8 @@
 package org.bonitasoft.engine.work;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import javax.transaction.Status;
@@ -25,23 +27,27 @@ import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Synchronization that triggers, in one go, all works registered during a transaction once it is committed.
+ */
 public class WorkSynchronization implements BonitaTransactionSynchronization {
 
     private static final Logger LOG = LoggerFactory.getLogger(WorkSynchronization.class);
 
-    private final WorkDescriptor work;
+    private final List<WorkDescriptor> works = new ArrayList<>();
 
     private final WorkExecutorService workExecutorService;
 
     private long tenantId;
     private UserTransactionService transactionService;
     private int workDelayOnMultipleXAResource;
+    private final Runnable onCompletion;
 
     WorkSynchronization(final UserTransactionService transactionService, final WorkExecutorService workExecutorService,
-            final SessionAccessor sessionAccessor,
-            WorkDescriptor work, int workDelayOnMultipleXAResource) {
+            final SessionAccessor sessionAccessor, int workDelayOnMultipleXAResource, Runnable onCompletion) {
         this.transactionService = transactionService;
         this.workDelayOnMultipleXAResource = workDelayOnMultipleXAResource;
+        this.onCompletion = onCompletion;
         try {
             // Instead of doing this which is not so clear using sessionAccessor, we should add the tenantId as a parameter of the class
             tenantId = sessionAccessor.getTenantId();
@@ -49,29 +55,39 @@ public class WorkSynchronization implements BonitaTransactionSynchronization {
             // We are not in a tenant
             tenantId = -1L;
         }
-        this.work = work;
         this.workExecutorService = workExecutorService;
     }
 
-    WorkDescriptor getWork() {
-        return work;
+    void addWork(WorkDescriptor work) {
+        works.add(work);
+    }
+
+    List<WorkDescriptor> getWorks() {
+        return works;
     }
 
     @Override
     public void afterCompletion(final int transactionStatus) {
+        onCompletion.run();
         if (Status.STATUS_COMMITTED == transactionStatus) {
-            work.setTenantId(tenantId);
+            Instant mustBeExecutedAfter = null;
             if (workDelayOnMultipleXAResource > 0) {
                 Optional<Boolean> hasMultipleResources = transactionService.hasMultipleResources();
                 // to be safe, if we are unable to know if there are multiple resources, we add the delay anyway.
                 if (!hasMultipleResources.isPresent() || hasMultipleResources.get()) {
-                    work.mustBeExecutedAfter(Instant.now().plusMillis(workDelayOnMultipleXAResource));
+                    mustBeExecutedAfter = Instant.now().plusMillis(workDelayOnMultipleXAResource);
+                }
+            }
+            for (WorkDescriptor work : works) {
+                work.setTenantId(tenantId);
+                if (mustBeExecutedAfter != null) {
+                    work.mustBeExecutedAfter(mustBeExecutedAfter);
                 }
             }
-            workExecutorService.execute(work);
+            workExecutorService.executeAll(works);
         } else {
-            LOG.debug("Transaction completion with state {} != COMMITTED. Not triggering the work: {}",
-                    transactionStatus, work);
+            LOG.debug("Transaction completion with state {} != COMMITTED. Not triggering the {} works: {}",
+                    transactionStatus, works.size(), works);
         }
     }
 
@@ -106,4 +106,37 @@ public class DefaultBonitaExecutorServiceFactoryTest {
                         .gauge())
                 .isNull();
     }
+
+    @Test
+    public void should_create_one_executor_per_lane_and_bind_their_metrics() {
+        // given:
+        long tenantId = 97L;
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultBonitaExecutorServiceFactory defaultBonitaExecutorServiceFactory = new DefaultBonitaExecutorServiceFactory(
+                tenantId,
+                meterRegistry,
+                new DefaultEngineClock(),
+                workFactory,
+                mock(WorkExecutionAuditor.class),
+                new DefaultExecutorServiceMetricsProvider(),
+                new WorkAffinityLanesExecutorFactory(tenantId, 100, 4));
+
+        // when:
+        DefaultBonitaExecutorService executorService = (DefaultBonitaExecutorService) defaultBonitaExecutorServiceFactory
+                .createExecutorService(workExecutionCallback);
+
+        // then:
+        assertThat(executorService.getLanes()).hasSize(4)
+                .allSatisfy(lane -> assertThat(lane.getQueue().remainingCapacity()).isEqualTo(25));
+        assertThat(meterRegistry.find("executor.pool.size")
+                .tag("name", "bonita-work-executor-3")
+                .tag("tenant", String.valueOf(tenantId))
+                .gauge()).isNotNull();
+
+        // when:
+        defaultBonitaExecutorServiceFactory.unbind();
+
+        // then:
+        assertThat(meterRegistry.find("executor.pool.size").gauges()).isEmpty();
+    }
 }
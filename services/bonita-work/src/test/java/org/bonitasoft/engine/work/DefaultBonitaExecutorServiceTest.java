@@ -19,7 +19,11 @@ import static org.awaitility.Awaitility.await;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -101,6 +105,41 @@ public class DefaultBonitaExecutorServiceTest {
         await().until(workExecutionCallback::isOnSuccessCalled);
     }
 
+    @Test
+    public void should_park_delayed_work_outside_of_the_execution_queue() {
+        WorkDescriptor workDescriptor = WorkDescriptor.create("NORMAL");
+        workDescriptor.mustBeExecutedAfter(engineClock.now().plus(5, SECONDS));
+
+        bonitaExecutorService.submit(workDescriptor);
+
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PARKED).gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING).gauge().value())
+                .isZero();
+        assertThat(workDescriptor.getExecutionCount()).isZero();
+
+        engineClock.addTime(6, SECONDS);
+        await().until(workExecutionCallback::isOnSuccessCalled);
+        assertThat(workDescriptor.getExecutionCount()).isEqualTo(1);
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PARKED).gauge().value())
+                .isZero();
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.DELAYED_WORKS_LAG).timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void should_drop_parked_works_on_shutdown() {
+        WorkDescriptor workDescriptor = WorkDescriptor.create("NORMAL");
+        workDescriptor.mustBeExecutedAfter(engineClock.now().plus(5, SECONDS));
+        bonitaExecutorService.submit(workDescriptor);
+
+        bonitaExecutorService.shutdownAndEmptyQueue();
+        engineClock.addTime(6, SECONDS);
+
+        await().during(1500, TimeUnit.MILLISECONDS)
+                .untilAsserted(() -> assertThat(workExecutionCallback.isOnSuccessCalled()).isFalse());
+    }
+
     @Test
     public void should_update_meter_when_work_executes() {
         Gauge currentWorkQueue = meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING).gauge();
@@ -185,6 +224,83 @@ public class DefaultBonitaExecutorServiceTest {
         assertThat(workExecutionCallback.getThrown()).hasMessage("my exception").isInstanceOf(SWorkException.class);
     }
 
+    @Test
+    public void should_route_works_of_same_process_instance_to_same_lane() {
+        DefaultBonitaExecutorService lanesExecutorService = createExecutorServiceWithLanes(4);
+
+        int lane = lanesExecutorService.laneOf(WorkDescriptor.create("NORMAL").withParameter("processInstanceId", 42L));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(lanesExecutorService
+                    .laneOf(WorkDescriptor.create("NORMAL").withParameter("processInstanceId", 42L)))
+                    .isEqualTo(lane);
+        }
+        lanesExecutorService.shutdownAndEmptyQueue();
+    }
+
+    @Test
+    public void should_spread_works_of_different_process_instances_over_lanes() {
+        DefaultBonitaExecutorService lanesExecutorService = createExecutorServiceWithLanes(4);
+
+        Set<Integer> usedLanes = new HashSet<>();
+        for (long processInstanceId = 1; processInstanceId <= 100; processInstanceId++) {
+            usedLanes.add(lanesExecutorService
+                    .laneOf(WorkDescriptor.create("NORMAL").withParameter("processInstanceId", processInstanceId)));
+        }
+
+        assertThat(usedLanes).containsExactlyInAnyOrder(0, 1, 2, 3);
+        lanesExecutorService.shutdownAndEmptyQueue();
+    }
+
+    @Test
+    public void should_execute_works_of_different_process_instances_in_parallel() {
+        DefaultBonitaExecutorService lanesExecutorService = createExecutorServiceWithLanes(4);
+        long firstProcessInstanceId = 1;
+        long otherProcessInstanceId = 2;
+        while (lanesExecutorService.laneOf(WorkDescriptor.create("SLEEP")
+                .withParameter("processInstanceId", otherProcessInstanceId)) == lanesExecutorService
+                        .laneOf(WorkDescriptor.create("SLEEP").withParameter("processInstanceId",
+                                firstProcessInstanceId))) {
+            otherProcessInstanceId++;
+        }
+
+        lanesExecutorService.submit(WorkDescriptor.create("SLEEP").withParameter("processInstanceId",
+                firstProcessInstanceId));
+        lanesExecutorService.submit(WorkDescriptor.create("SLEEP").withParameter("processInstanceId",
+                otherProcessInstanceId));
+
+        await().untilAsserted(
+                () -> assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_RUNNING).gauge()
+                        .value()).isEqualTo(2));
+        lanesExecutorService.shutdownAndEmptyQueue();
+    }
+
+    @Test
+    public void should_register_and_remove_lane_meters() {
+        DefaultBonitaExecutorService lanesExecutorService = createExecutorServiceWithLanes(3);
+
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_PENDING_IN_LANE)
+                .tag("tenant", String.valueOf(TENANT_ID)).gauges()).hasSize(3);
+        assertThat(meterRegistry.find(DefaultBonitaExecutorService.NUMBER_OF_WORKS_RUNNING_IN_LANE)
+                .tag("lane", "2").gauge()).isNotNull();
+
+        lanesExecutorService.shutdownAndEmptyQueue();
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private DefaultBonitaExecutorService createExecutorServiceWithLanes(int numberOfLanes) {
+        // remove meters of the default executor service
+        bonitaExecutorService.shutdownAndEmptyQueue();
+        List<ThreadPoolExecutor> lanes = new ArrayList<>();
+        for (int i = 0; i < numberOfLanes; i++) {
+            lanes.add(new WorkSingleThreadPoolExecutorFactory.SingleThreadPoolExecutor(new LinkedBlockingQueue<>(10),
+                    new WorkerThreadFactory("test-worker", 1, numberOfLanes)));
+        }
+        return new DefaultBonitaExecutorService(lanes, workFactory, engineClock, workExecutionCallback,
+                workExecutionAuditor, meterRegistry, TENANT_ID);
+    }
+
     // =================================================================================================================
     // UTILS
     // =================================================================================================================
@@ -19,6 +19,8 @@ import static org.mockito.Mockito.*;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+import javax.transaction.Status;
+
 import org.bonitasoft.engine.commons.exceptions.SBonitaException;
 import org.bonitasoft.engine.commons.time.EngineClock;
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
@@ -26,6 +28,7 @@ import org.bonitasoft.engine.transaction.UserTransactionService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -65,7 +68,7 @@ public class WorkServiceImplTest {
     }
 
     @Test
-    public void should_register_a_new_synchronization_for_each_work() throws SBonitaException {
+    public void should_register_a_single_synchronization_for_all_works_of_a_transaction() throws SBonitaException {
         // given
         WorkDescriptor workDescriptor1 = WorkDescriptor.create("MY_WORK1");
         WorkDescriptor workDescriptor2 = WorkDescriptor.create("MY_WORK2");
@@ -75,10 +78,24 @@ public class WorkServiceImplTest {
         workService.registerWork(workDescriptor2);
 
         // then
-        verify(transactionService).registerBonitaSynchronization(
-                argThat(s -> ((WorkSynchronization) s).getWork().getType().equals("MY_WORK1")));
-        verify(transactionService).registerBonitaSynchronization(
-                argThat(s -> ((WorkSynchronization) s).getWork().getType().equals("MY_WORK2")));
+        ArgumentCaptor<WorkSynchronization> synchronization = ArgumentCaptor.forClass(WorkSynchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+        assertThat(synchronization.getValue().getWorks()).containsExactly(workDescriptor1, workDescriptor2);
+    }
+
+    @Test
+    public void should_register_a_new_synchronization_once_the_transaction_is_completed() throws SBonitaException {
+        // given
+        workService.registerWork(WorkDescriptor.create("MY_WORK1"));
+        ArgumentCaptor<WorkSynchronization> synchronization = ArgumentCaptor.forClass(WorkSynchronization.class);
+        verify(transactionService).registerBonitaSynchronization(synchronization.capture());
+
+        // when
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        workService.registerWork(WorkDescriptor.create("MY_WORK2"));
+
+        // then
+        verify(transactionService, times(2)).registerBonitaSynchronization(any());
     }
 
 }
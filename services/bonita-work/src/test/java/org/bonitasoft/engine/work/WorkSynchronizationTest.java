@@ -18,7 +18,9 @@ import static javax.transaction.Status.STATUS_ROLLEDBACK;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.bonitasoft.engine.sessionaccessor.SessionAccessor;
 import org.bonitasoft.engine.transaction.UserTransactionService;
@@ -44,70 +46,93 @@ public class WorkSynchronizationTest {
 
     @Test
     public void should_submit_work_on_commit() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+        WorkSynchronization workSynchronization = createSynchronization(0, workDescriptor1);
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
 
-        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).executeAll(List.of(workDescriptor1));
     }
 
     @Test
     public void should_not_submit_work_on_transaction_not_in_committed_state() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+        WorkSynchronization workSynchronization = createSynchronization(0, workDescriptor1);
         workSynchronization.afterCompletion(STATUS_ROLLEDBACK);
 
-        verify(workExecutorService, never()).execute(workDescriptor1);
+        verify(workExecutorService, never()).executeAll(anyList());
     }
 
     @Test
     public void should_not_add_delay_when_the_workDelayOnMultipleXAResource_equal_0() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 0);
+        WorkSynchronization workSynchronization = createSynchronization(0, workDescriptor1);
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
         assertThat(workDescriptor1.getExecutionThreshold()).isNull();
-        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).executeAll(List.of(workDescriptor1));
     }
 
     @Test
     public void should_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_multiple_resources() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+        WorkSynchronization workSynchronization = createSynchronization(10, workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.of(true));
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
         assertThat(workDescriptor1.getExecutionThreshold()).isNotNull();
-        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).executeAll(List.of(workDescriptor1));
     }
 
     @Test
     public void should_not_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_no_multiple_resources() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+        WorkSynchronization workSynchronization = createSynchronization(10, workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.of(false));
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
         assertThat(workDescriptor1.getExecutionThreshold()).isNull();
-        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).executeAll(List.of(workDescriptor1));
     }
 
     @Test
     public void should_add_delay_when_the_workDelayOnMultipleXAResource_greater_than_0_and_multiple_resources_not_defined() {
-        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
-                sessionAccessor,
-                workDescriptor1, 10);
+        WorkSynchronization workSynchronization = createSynchronization(10, workDescriptor1);
         when(userTransactionService.hasMultipleResources()).thenReturn(Optional.empty());
 
         workSynchronization.afterCompletion(STATUS_COMMITTED);
         assertThat(workDescriptor1.getExecutionThreshold()).isNotNull();
-        verify(workExecutorService).execute(workDescriptor1);
+        verify(workExecutorService).executeAll(List.of(workDescriptor1));
+    }
+
+    @Test
+    public void should_submit_all_works_of_the_transaction_at_once_on_commit() {
+        WorkDescriptor workDescriptor2 = WorkDescriptor.create("myWork2");
+        WorkSynchronization workSynchronization = createSynchronization(10, workDescriptor1, workDescriptor2);
+        when(userTransactionService.hasMultipleResources()).thenReturn(Optional.of(true));
+
+        workSynchronization.afterCompletion(STATUS_COMMITTED);
+
+        verify(userTransactionService, times(1)).hasMultipleResources();
+        verify(workExecutorService).executeAll(List.of(workDescriptor1, workDescriptor2));
+        assertThat(workDescriptor1.getExecutionThreshold()).isNotNull()
+                .isEqualTo(workDescriptor2.getExecutionThreshold());
+    }
+
+    @Test
+    public void should_call_completion_callback_whatever_the_transaction_status() {
+        AtomicBoolean completed = new AtomicBoolean();
+        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService,
+                workExecutorService, sessionAccessor, 0, () -> completed.set(true));
+
+        workSynchronization.afterCompletion(STATUS_ROLLEDBACK);
+
+        assertThat(completed).isTrue();
+    }
+
+    private WorkSynchronization createSynchronization(int workDelayOnMultipleXAResource, WorkDescriptor... works) {
+        WorkSynchronization workSynchronization = new WorkSynchronization(userTransactionService, workExecutorService,
+                sessionAccessor, workDelayOnMultipleXAResource, () -> {
+                });
+        for (WorkDescriptor work : works) {
+            workSynchronization.addWork(work);
+        }
+        return workSynchronization;
     }
 
 }